@@ -0,0 +1,194 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+import org.deidentifier.arx.framework.check.TransformationChecker;
+import org.deidentifier.arx.framework.check.Transformer;
+import org.deidentifier.arx.framework.check.distribution.DistributionAggregateFunction;
+import org.deidentifier.arx.framework.check.distribution.IntArrayDictionary;
+import org.deidentifier.arx.framework.check.groupify.HashGroupify;
+import org.deidentifier.arx.framework.data.DataManager;
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+import org.deidentifier.arx.metric.Metric;
+
+/**
+ * Provides access to the internal operators of the anonymization core for benchmarks.
+ * Performs the same steps as the anonymizer, but does not search the solution space.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkEnvironment {
+
+    /** History size, as used by the anonymizer by default */
+    private static final int         HISTORY_SIZE           = 200;
+
+    /** Snapshot size dataset, as used by the anonymizer by default */
+    private static final double      SNAPSHOT_SIZE_DATASET  = 0.2d;
+
+    /** Snapshot size snapshot, as used by the anonymizer by default */
+    private static final double      SNAPSHOT_SIZE_SNAPSHOT = 0.8d;
+
+    /** The configuration */
+    private final ARXConfiguration      config;
+
+    /** The data manager */
+    private final DataManager           manager;
+
+    /** The solution space */
+    private final SolutionSpace         solutionSpace;
+
+    /** The transformation checker */
+    private final TransformationChecker checker;
+
+    /**
+     * Creates a new environment for the given data and configuration
+     *
+     * @param data
+     * @param config
+     * @throws IOException
+     */
+    public BenchmarkEnvironment(Data data, ARXConfiguration config) throws IOException {
+
+        // Prepare handle
+        DataHandle handle = data.getHandle();
+        handle.getDefinition().materializeHierarchies(handle);
+        handle.getRegistry().reset();
+
+        // Encode
+        this.config = config.clone();
+        this.manager = new DataManager(((DataHandleInput) handle).header,
+                                       ((DataHandleInput) handle).data,
+                                       ((DataHandleInput) handle).dictionary,
+                                       handle.getDefinition(),
+                                       new HashMap<String, DistributionAggregateFunction>(),
+                                       this.config);
+
+        // Initialize
+        this.config.initialize(manager);
+        this.solutionSpace = new SolutionSpace(manager.getHierarchiesMinLevels(), manager.getHierarchiesMaxLevels());
+        this.config.getQualityModel().initialize(manager, handle.getDefinition(), manager.getDataGeneralized(), manager.getHierarchies(), this.config);
+        this.checker = new TransformationChecker(manager,
+                                                 this.config.getQualityModel(),
+                                                 this.config.getInternalConfiguration(),
+                                                 HISTORY_SIZE,
+                                                 SNAPSHOT_SIZE_DATASET,
+                                                 SNAPSHOT_SIZE_SNAPSHOT,
+                                                 solutionSpace);
+    }
+
+    /**
+     * Creates a new groupify operator, which operates on the output buffer of the given transformer
+     *
+     * @param transformer
+     * @return
+     */
+    public HashGroupify createGroupify(Transformer transformer) {
+        return HashGroupify.create((int) (manager.getDataGeneralized().getDataLength() * 0.01d),
+                                   config.getInternalConfiguration(),
+                                   manager.getAggregationInformation().getHotThreshold(),
+                                   manager.getDataGeneralized().getArray(),
+                                   transformer.getBuffer(),
+                                   manager.getDataAnalyzed().getArray());
+    }
+
+    /**
+     * Creates a new transformer
+     *
+     * @return
+     */
+    public Transformer createTransformer() {
+        int initialSize = (int) (manager.getDataGeneralized().getDataLength() * 0.01d);
+        return new Transformer(manager.getDataGeneralized().getArray(),
+                               manager.getDataAnalyzed().getArray(),
+                               manager.getAggregationInformation().getHotThreshold(),
+                               manager.getHierarchies(),
+                               config.getInternalConfiguration(),
+                               new IntArrayDictionary(initialSize),
+                               new IntArrayDictionary(initialSize));
+    }
+
+    /**
+     * Returns the transformation checker
+     *
+     * @return
+     */
+    public TransformationChecker getChecker() {
+        return checker;
+    }
+
+    /**
+     * Returns the configuration, which has been initialized with the data manager
+     *
+     * @return
+     */
+    public ARXConfiguration getConfiguration() {
+        return config;
+    }
+
+    /**
+     * Returns the data manager
+     *
+     * @return
+     */
+    public DataManager getManager() {
+        return manager;
+    }
+
+    /**
+     * Returns a transformation in the middle of the solution space
+     *
+     * @return
+     */
+    public int[] getMiddleTransformation() {
+        int[] min = manager.getHierarchiesMinLevels();
+        int[] max = manager.getHierarchiesMaxLevels();
+        int[] result = new int[min.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (min[i] + max[i]) / 2;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the quality model
+     *
+     * @return
+     */
+    public Metric<?> getQualityModel() {
+        return config.getQualityModel();
+    }
+
+    /**
+     * Returns the solution space
+     *
+     * @return
+     */
+    public SolutionSpace getSolutionSpace() {
+        return solutionSpace;
+    }
+
+    /**
+     * Frees resources
+     */
+    public void release() {
+        checker.reset();
+    }
+}
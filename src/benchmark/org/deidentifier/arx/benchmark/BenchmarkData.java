@@ -0,0 +1,135 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.AttributeType;
+import org.deidentifier.arx.AttributeType.Hierarchy;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.metric.Metric;
+
+/**
+ * Provides the adult dataset with a configurable number of rows and quasi-identifiers.
+ * The location of the data folder can be specified with the system property
+ * <code>arx.benchmark.data</code>.
+ *
+ * @author Fabian Prasser
+ */
+public class BenchmarkData {
+
+    /** Quasi-identifiers in the order in which they are used */
+    private static final String[] QUASI_IDENTIFIERS = { "age", "sex", "race", "marital-status", "education",
+                                                        "native-country", "workclass", "occupation", "salary-class" };
+
+    /** Rows including the header, cached */
+    private static String[][]     rows;
+
+    /**
+     * Returns a configuration with k-anonymity and the given quality model
+     *
+     * @param k
+     * @param metric
+     * @return
+     */
+    public static ARXConfiguration getConfiguration(int k, Metric<?> metric) {
+        ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(k));
+        config.setQualityModel(metric);
+        config.setSuppressionLimit(0.04d);
+        return config;
+    }
+
+    /**
+     * Returns the given number of rows of the dataset with the given number of quasi-identifiers.
+     * All further attributes are insensitive.
+     *
+     * @param numRows
+     * @param numQIs
+     * @return
+     * @throws IOException
+     */
+    public static Data getData(int numRows, int numQIs) throws IOException {
+        if (numQIs < 1 || numQIs > QUASI_IDENTIFIERS.length) {
+            throw new IllegalArgumentException("Number of quasi-identifiers must be in [1, " + QUASI_IDENTIFIERS.length + "]");
+        }
+        Data data = Data.create(getRows(numRows));
+        for (int i = 0; i < QUASI_IDENTIFIERS.length; i++) {
+            String attribute = QUASI_IDENTIFIERS[i];
+            if (i < numQIs) {
+                data.getDefinition().setAttributeType(attribute, Hierarchy.create(getFile("adult_hierarchy_" + attribute + ".csv"), StandardCharsets.UTF_8, ';'));
+            } else {
+                data.getDefinition().setAttributeType(attribute, AttributeType.INSENSITIVE_ATTRIBUTE);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Returns the maximal number of quasi-identifiers
+     *
+     * @return
+     */
+    public static int getMaxQIs() {
+        return QUASI_IDENTIFIERS.length;
+    }
+
+    /**
+     * Returns the header and the given number of rows of the dataset. If the dataset
+     * contains less rows, all rows are returned.
+     *
+     * @param numRows
+     * @return
+     * @throws IOException
+     */
+    public static synchronized String[][] getRows(int numRows) throws IOException {
+
+        // Load
+        if (rows == null) {
+            List<String[]> list = new ArrayList<String[]>();
+            Iterator<String[]> iterator = Data.create(getFile("adult.csv"), StandardCharsets.UTF_8, ';').getHandle().iterator();
+            while (iterator.hasNext()) {
+                list.add(iterator.next());
+            }
+            rows = list.toArray(new String[list.size()][]);
+        }
+
+        // Select
+        String[][] result = new String[Math.min(numRows + 1, rows.length)][];
+        System.arraycopy(rows, 0, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Returns a file from the data folder
+     *
+     * @param name
+     * @return
+     */
+    private static File getFile(String name) {
+        return new File(System.getProperty("arx.benchmark.data", "data"), name);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.AttributeType;
+import org.deidentifier.arx.BenchmarkEnvironment;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.criteria.OrderedDistanceTCloseness;
+import org.deidentifier.arx.criteria.PrivacyCriterion;
+import org.deidentifier.arx.criteria.RecursiveCLDiversity;
+import org.deidentifier.arx.framework.check.Transformer;
+import org.deidentifier.arx.framework.check.distribution.DistributionCache;
+import org.deidentifier.arx.framework.check.groupify.HashGroupify;
+import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
+import org.deidentifier.arx.framework.lattice.Transformation;
+import org.deidentifier.arx.metric.Metric;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for checking privacy models for sensitive attributes on all classes of a
+ * transformation and for looking up their verdicts in a distribution cache. Occupation
+ * is the sensitive attribute and the transformation is in the middle of the solution
+ * space. A lookup which costs about as much as a check means that caching the verdicts
+ * of the privacy model cannot pay off.
+ *
+ * @author Fabian Prasser
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class BenchmarkDistributionCache {
+
+    /** Sensitive attribute */
+    private static final String  SENSITIVE = "occupation";
+
+    /** Privacy model */
+    @Param({ "recursive-cl-diversity", "ordered-t-closeness" })
+    public String                model;
+
+    /** Environment */
+    private BenchmarkEnvironment environment;
+
+    /** Privacy model, initialized */
+    private PrivacyCriterion     criterion;
+
+    /** Cache, containing the verdicts for all classes */
+    private DistributionCache    cache;
+
+    /** Classes */
+    private HashGroupifyEntry[]  classes;
+
+    /** Transformation */
+    private Transformation       transformation;
+
+    /**
+     * Prepares the benchmark
+     *
+     * @throws IOException
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+
+        // Prepare
+        Data data = BenchmarkData.getData(30162, BenchmarkData.getMaxQIs() - 2);
+        data.getDefinition().setAttributeType(SENSITIVE, AttributeType.SENSITIVE_ATTRIBUTE);
+        PrivacyCriterion privacyModel;
+        if (model.equals("recursive-cl-diversity")) {
+            privacyModel = new RecursiveCLDiversity(SENSITIVE, 4d, 3);
+        } else if (model.equals("ordered-t-closeness")) {
+            privacyModel = new OrderedDistanceTCloseness(SENSITIVE, 0.2d);
+        } else {
+            throw new IllegalArgumentException("Unknown privacy model: " + model);
+        }
+        ARXConfiguration config = BenchmarkData.getConfiguration(5, Metric.createLossMetric());
+        config.addPrivacyModel(privacyModel);
+        environment = new BenchmarkEnvironment(data, config);
+        criterion = environment.getConfiguration().getPrivacyModel(privacyModel.getClass());
+
+        // Transform
+        transformation = environment.getSolutionSpace().getTransformation(environment.getMiddleTransformation());
+        Transformer transformer = environment.createTransformer();
+        HashGroupify groupify = transformer.apply(0L, transformation.getGeneralization(), environment.createGroupify(transformer));
+        transformer.shutdown();
+
+        // Collect classes and fill cache
+        List<HashGroupifyEntry> list = new ArrayList<HashGroupifyEntry>();
+        cache = new DistributionCache();
+        HashGroupifyEntry entry = groupify.getFirstEquivalenceClass();
+        while (entry != null) {
+            list.add(entry);
+            cache.put(cache.getFingerprint(entry.distributions[0], entry.count), criterion.isAnonymous(transformation, entry));
+            entry = entry.nextOrdered;
+        }
+        classes = list.toArray(new HashGroupifyEntry[list.size()]);
+    }
+
+    /**
+     * Frees resources
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.release();
+    }
+
+    /**
+     * Checks the privacy model for all classes. The criterion uses its own cache,
+     * if it supports one.
+     *
+     * @return
+     */
+    @Benchmark
+    public int check() {
+        int result = 0;
+        for (HashGroupifyEntry entry : classes) {
+            result += criterion.isAnonymous(transformation, entry) ? 1 : 0;
+        }
+        return result;
+    }
+
+    /**
+     * Looks up the verdicts for all classes in the cache. Verdicts may have been
+     * overwritten by colliding fingerprints.
+     *
+     * @return
+     */
+    @Benchmark
+    public int lookup() {
+        int result = 0;
+        for (HashGroupifyEntry entry : classes) {
+            result += Boolean.TRUE.equals(cache.get(cache.getFingerprint(entry.distributions[0], entry.count))) ? 1 : 0;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.BenchmarkEnvironment;
+import org.deidentifier.arx.framework.check.Transformer;
+import org.deidentifier.arx.framework.check.groupify.HashGroupify;
+import org.deidentifier.arx.metric.Metric;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for adding all records of the output buffer to a groupify operator.
+ * The buffer contains the dataset transformed with the bottom transformation,
+ * which results in the largest number of equivalence classes.
+ *
+ * @author Fabian Prasser
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class BenchmarkGroupify {
+
+    /** Number of rows */
+    @Param({ "5000", "15000", "30162" })
+    public int                   rows;
+
+    /** Whether to use open addressing */
+    @Param({ "false", "true" })
+    public boolean               openAddressing;
+
+    /** Environment */
+    private BenchmarkEnvironment environment;
+
+    /** Groupify operator */
+    private HashGroupify         groupify;
+
+    /** Number of rows in the buffer */
+    private int                  numRows;
+
+    /**
+     * Prepares the benchmark
+     *
+     * @throws IOException
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ARXConfiguration config = BenchmarkData.getConfiguration(5, Metric.createLossMetric());
+        config.setUseOpenAddressingForGrouping(openAddressing);
+        environment = new BenchmarkEnvironment(BenchmarkData.getData(rows, BenchmarkData.getMaxQIs()), config);
+        Transformer transformer = environment.createTransformer();
+        groupify = environment.createGroupify(transformer);
+        transformer.apply(0L, environment.getSolutionSpace().getBottom().getGeneralization(), groupify);
+        numRows = transformer.getBuffer().getNumRows();
+    }
+
+    /**
+     * Frees resources
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.release();
+    }
+
+    /**
+     * Adds all records to the groupify operator
+     *
+     * @return
+     */
+    @Benchmark
+    public HashGroupify addFromBuffer() {
+        groupify.stateClear();
+        for (int row = 0; row < numRows; row++) {
+            groupify.addFromBuffer(row, -1, row, 1, -1);
+        }
+        return groupify;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.deidentifier.arx.BenchmarkEnvironment;
+import org.deidentifier.arx.framework.check.Transformer;
+import org.deidentifier.arx.framework.check.groupify.HashGroupify;
+import org.deidentifier.arx.framework.check.history.History;
+import org.deidentifier.arx.framework.check.history.History.StorageStrategy;
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+import org.deidentifier.arx.framework.lattice.Transformation;
+import org.deidentifier.arx.metric.Metric;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for storing snapshots in the history and for looking them up.
+ *
+ * @author Fabian Prasser
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class BenchmarkHistory {
+
+    /** Number of snapshots in the history */
+    @Param({ "10", "100", "200" })
+    public int                   snapshots;
+
+    /** Environment */
+    private BenchmarkEnvironment environment;
+
+    /** Groupify operator of the transformation to store */
+    private HashGroupify         groupify;
+
+    /** History */
+    private History              history;
+
+    /** Transformation to store */
+    private Transformation       transformation;
+
+    /** Transformation to look up */
+    private int[]                top;
+
+    /**
+     * Prepares the benchmark
+     *
+     * @throws IOException
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+
+        // Prepare
+        environment = new BenchmarkEnvironment(BenchmarkData.getData(30162, BenchmarkData.getMaxQIs()), BenchmarkData.getConfiguration(5, Metric.createLossMetric()));
+        SolutionSpace solutionSpace = environment.getSolutionSpace();
+        Transformer transformer = environment.createTransformer();
+        history = environment.getChecker().getHistory();
+        history.setStorageStrategy(StorageStrategy.ALL);
+        top = solutionSpace.getTop().getGeneralization();
+
+        // Fill history with snapshots of random transformations
+        Random random = new Random(0);
+        int[] min = environment.getManager().getHierarchiesMinLevels();
+        int[] max = environment.getManager().getHierarchiesMaxLevels();
+        for (int i = 0; i < snapshots; i++) {
+            int[] generalization = new int[min.length];
+            for (int j = 0; j < generalization.length; j++) {
+                generalization[j] = min[j] + random.nextInt(max[j] - min[j] + 1);
+            }
+            HashGroupify groupify = transformer.apply(0L, generalization, environment.createGroupify(transformer));
+            Transformation node = solutionSpace.getTransformation(generalization);
+            node.setProperty(solutionSpace.getPropertyForceSnapshot());
+            history.store(node, groupify, null);
+        }
+
+        // Prepare transformation to store
+        transformation = solutionSpace.getTransformation(environment.getMiddleTransformation());
+        transformation.setProperty(solutionSpace.getPropertyForceSnapshot());
+        groupify = transformer.apply(0L, transformation.getGeneralization(), environment.createGroupify(transformer));
+        transformer.shutdown();
+    }
+
+    /**
+     * Frees resources
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.release();
+    }
+
+    /**
+     * Looks up the smallest snapshot from which the top transformation can be computed
+     *
+     * @return
+     */
+    @Benchmark
+    public int[] lookup() {
+        return history.get(top);
+    }
+
+    /**
+     * Creates a snapshot and stores it in the cleared history
+     *
+     * @return
+     */
+    @Benchmark
+    public boolean store() {
+        history.reset();
+        return history.store(transformation, groupify, null);
+    }
+}
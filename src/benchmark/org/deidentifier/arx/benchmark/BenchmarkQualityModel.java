@@ -0,0 +1,129 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.deidentifier.arx.BenchmarkEnvironment;
+import org.deidentifier.arx.framework.check.Transformer;
+import org.deidentifier.arx.framework.check.groupify.HashGroupify;
+import org.deidentifier.arx.framework.lattice.Transformation;
+import org.deidentifier.arx.metric.InformationLossWithBound;
+import org.deidentifier.arx.metric.Metric;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for evaluating quality models for a transformation in the middle of the solution space.
+ *
+ * @author Fabian Prasser
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class BenchmarkQualityModel {
+
+    /** Quality model */
+    @Param({ "AECS", "DISCERNABILITY", "ENTROPY", "HEIGHT", "LOSS", "NORMALIZED_ENTROPY", "PRECISION" })
+    public String                qualityModel;
+
+    /** Environment */
+    private BenchmarkEnvironment environment;
+
+    /** Groupify operator */
+    private HashGroupify         groupify;
+
+    /** Transformation */
+    private Transformation       transformation;
+
+    /**
+     * Prepares the benchmark
+     *
+     * @throws IOException
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        environment = new BenchmarkEnvironment(BenchmarkData.getData(30162, BenchmarkData.getMaxQIs()), BenchmarkData.getConfiguration(5, getQualityModel(qualityModel)));
+        Transformer transformer = environment.createTransformer();
+        transformation = environment.getSolutionSpace().getTransformation(environment.getMiddleTransformation());
+        groupify = transformer.apply(0L, transformation.getGeneralization(), environment.createGroupify(transformer));
+        groupify.stateAnalyze(transformation, true);
+        transformer.shutdown();
+    }
+
+    /**
+     * Frees resources
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.release();
+    }
+
+    /**
+     * Evaluates the quality model
+     *
+     * @return
+     */
+    @Benchmark
+    public InformationLossWithBound<?> getInformationLoss() {
+        return environment.getQualityModel().getInformationLoss(transformation, groupify);
+    }
+
+    /**
+     * Returns the quality model with the given name
+     *
+     * @param name
+     * @return
+     */
+    private static Metric<?> getQualityModel(String name) {
+        switch (name) {
+        case "AECS":
+            return Metric.createAECSMetric();
+        case "DISCERNABILITY":
+            return Metric.createDiscernabilityMetric();
+        case "ENTROPY":
+            return Metric.createEntropyMetric();
+        case "HEIGHT":
+            return Metric.createHeightMetric();
+        case "LOSS":
+            return Metric.createLossMetric();
+        case "NORMALIZED_ENTROPY":
+            return Metric.createNormalizedEntropyMetric();
+        case "PRECISION":
+            return Metric.createPrecisionMetric();
+        default:
+            throw new IllegalArgumentException("Unknown quality model: " + name);
+        }
+    }
+}
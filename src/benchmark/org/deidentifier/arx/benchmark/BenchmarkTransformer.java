@@ -0,0 +1,107 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.deidentifier.arx.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.deidentifier.arx.BenchmarkEnvironment;
+import org.deidentifier.arx.framework.check.Transformer;
+import org.deidentifier.arx.framework.check.groupify.HashGroupify;
+import org.deidentifier.arx.metric.Metric;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for transforming the complete dataset with a transformation in the middle of
+ * the solution space. The number of quasi-identifiers is limited by the adult dataset.
+ *
+ * @author Fabian Prasser
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class BenchmarkTransformer {
+
+    /** Number of quasi-identifiers */
+    @Param({ "1", "3", "5", "7", "9" })
+    public int                   qis;
+
+    /** Number of rows */
+    @Param({ "5000", "30162" })
+    public int                   rows;
+
+    /** Environment */
+    private BenchmarkEnvironment environment;
+
+    /** Transformer */
+    private Transformer          transformer;
+
+    /** Groupify operator */
+    private HashGroupify         groupify;
+
+    /** Transformation */
+    private int[]                transformation;
+
+    /**
+     * Prepares the benchmark
+     *
+     * @throws IOException
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        environment = new BenchmarkEnvironment(BenchmarkData.getData(rows, qis), BenchmarkData.getConfiguration(5, Metric.createLossMetric()));
+        transformer = environment.createTransformer();
+        groupify = environment.createGroupify(transformer);
+        transformation = environment.getMiddleTransformation();
+    }
+
+    /**
+     * Frees resources
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transformer.shutdown();
+        environment.release();
+    }
+
+    /**
+     * Transforms the dataset
+     *
+     * @return
+     */
+    @Benchmark
+    public HashGroupify apply() {
+        return transformer.apply(0L, transformation, groupify);
+    }
+}
@@ -20,6 +20,7 @@ package org.deidentifier.arx;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -39,6 +40,7 @@ import org.deidentifier.arx.criteria.LDiversity;
 import org.deidentifier.arx.criteria.TCloseness;
 import org.deidentifier.arx.framework.check.TransformationChecker;
 import org.deidentifier.arx.framework.check.distribution.DistributionAggregateFunction;
+import org.deidentifier.arx.framework.check.history.HistoryArchive;
 import org.deidentifier.arx.framework.data.DataManager;
 import org.deidentifier.arx.framework.data.DataMatrix;
 import org.deidentifier.arx.framework.data.Dictionary;
@@ -85,6 +87,9 @@ public class ARXAnonymizer { // NO_UCD
         /** Whether the optimum has been found */
         final boolean               optimumFound;
 
+        /** Snapshots retained from the history, if any */
+        final HistoryArchive        archive;
+
         /**
          * Creates a new instance.
          *
@@ -94,13 +99,16 @@ public class ARXAnonymizer { // NO_UCD
          * @param manager the manager
          * @param algorithm
          * @param time
+         * @param optimumFound
+         * @param archive
          */
         Result(final TransformationChecker checker,
                final SolutionSpace solutionSpace,
                final DataManager manager,
                final AbstractAlgorithm algorithm,
                final long time,
-               final boolean optimumFound) {
+               final boolean optimumFound,
+               final HistoryArchive archive) {
             this.checker = checker;
             this.solutionSpace = solutionSpace;
             this.manager = manager;
@@ -108,6 +116,7 @@ public class ARXAnonymizer { // NO_UCD
             this.time = time;
             this.optimum = algorithm.getGlobalOptimum();
             this.optimumFound = optimumFound;
+            this.archive = archive;
         }
 
         /**
@@ -136,7 +145,8 @@ public class ARXAnonymizer { // NO_UCD
                                  lattice,
                                  System.currentTimeMillis() - time,
                                  solutionSpace,
-                                 optimumFound);      
+                                 optimumFound,
+                                 archive);      
         }
     }
 
@@ -195,15 +205,106 @@ public class ARXAnonymizer { // NO_UCD
         if (((DataHandleInput)data.getHandle()).isLocked()){
             throw new RuntimeException("This data handle is locked. Please release it first");
         }
+        return anonymize(data.getHandle(), config, null);
+    }
+
+    /**
+     * Appends the given rows to the input data of the given result and anonymizes the resulting
+     * dataset with the configuration of the result. Values and rows which have already been
+     * encoded are not encoded again. If the result retains snapshots of equivalence classes
+     * (see {@link ARXConfiguration#setUseRetainedSnapshots(boolean)}), the classes of the new
+     * rows are added to these snapshots instead of transforming all rows. The given result
+     * and all handles obtained from it must not be used anymore.
+     *
+     * @param result The previous result
+     * @param rows The rows to append, without a header
+     * @return ARXResult
+     * @throws IOException
+     */
+    public ARXResult anonymize(final ARXResult result, final Iterator<String[]> rows) throws IOException {
+
+        // Release previous result and append
+        DataHandleInput handle = result.getRegistry().getInputHandle();
+        handle.release();
+        handle.append(rows);
+
+        // Anonymize
+        return anonymize(handle, result.getConfiguration(), result.getArchive());
+    }
+
+    /**
+     * Creates a session for anonymizing the given data with many different configurations.
+     * Encoded data, hierarchies and further precomputations are reused between the runs of the
+     * session, see {@link ARXSession}.
+     *
+     * @param data The data
+     * @return The session
+     */
+    public ARXSession createSession(final Data data) {
+
+        if (((DataHandleInput)data.getHandle()).isLocked()){
+            throw new RuntimeException("This data handle is locked. Please release it first");
+        }
+        return new ARXSession(this, (DataHandleInput)data.getHandle());
+    }
+
+    /**
+     * Performs data anonymization within the given session.
+     *
+     * @param session The session
+     * @param config The privacy config
+     * @return ARXResult
+     * @throws IOException
+     */
+    protected ARXResult anonymize(final ARXSession session, ARXConfiguration config) throws IOException {
+        return anonymize(session.getHandle(), config, null, session);
+    }
+
+    /**
+     * Performs data anonymization, optionally using snapshots retained from a previous run.
+     *
+     * @param handle The handle
+     * @param config The privacy config
+     * @param archive The snapshots, if any
+     * @return ARXResult
+     * @throws IOException
+     */
+    private ARXResult anonymize(final DataHandle handle, ARXConfiguration config, HistoryArchive archive) throws IOException {
+        return anonymize(handle, config, archive, null);
+    }
+
+    /**
+     * Performs data anonymization, optionally using snapshots retained from a previous run or
+     * the data manager and snapshots of a session.
+     *
+     * @param handle The handle
+     * @param config The privacy config
+     * @param archive The snapshots, if any
+     * @param session The session, if any
+     * @return ARXResult
+     * @throws IOException
+     */
+    private ARXResult anonymize(final DataHandle handle,
+                                ARXConfiguration config,
+                                HistoryArchive archive,
+                                ARXSession session) throws IOException {
         
         // Update registry
-        DataHandle handle = data.getHandle();
         handle.getDefinition().materializeHierarchies(handle);
         checkBeforeEncoding(handle, config);
         handle.getRegistry().reset();
         
-        // Create manager
-        DataManager manager = getDataManager(handle, handle.getDefinition(), config);
+        // Create manager or reuse the manager of the session
+        DataManager manager = session == null ? null : session.getDataManager(config);
+        if (manager == null) {
+            manager = getDataManager(handle, handle.getDefinition(), config);
+            if (session != null) {
+                session.setDataManager(manager, config);
+            }
+        }
+        if (session != null) {
+            archive = session.getArchive();
+        }
 
         // Attach subset to handle
         handle.getRegistry().createInputSubset(config);
@@ -214,7 +315,11 @@ public class ARXAnonymizer { // NO_UCD
 
 
         // Execute
-        return anonymize(manager, handle.getDefinition(), config).asResult(config, handle);
+        Result result = anonymize(manager, handle.getDefinition(), config, archive, session != null || config.isUseRetainedSnapshots());
+        if (session != null) {
+            session.setArchive(result.archive);
+        }
+        return result.asResult(config, handle);
     }
     
     /**
@@ -666,6 +771,26 @@ public class ARXAnonymizer { // NO_UCD
     protected Result anonymize(final DataManager manager,
                                final DataDefinition definition,
                                final ARXConfiguration config) throws IOException {
+        return anonymize(manager, definition, config, null, config.isUseRetainedSnapshots());
+    }
+
+    /**
+     * Reset a previous lattice and run the algorithm, optionally using snapshots
+     * of the first rows of the dataset.
+     *
+     * @param manager
+     * @param definition
+     * @param config
+     * @param archive
+     * @param retain Whether to retain snapshots from the history
+     * @return
+     * @throws IOException
+     */
+    protected Result anonymize(final DataManager manager,
+                               final DataDefinition definition,
+                               final ARXConfiguration config,
+                               final HistoryArchive archive,
+                               final boolean retain) throws IOException {
 
         // Initialize
         config.initialize(manager);
@@ -695,17 +820,28 @@ public class ARXAnonymizer { // NO_UCD
                                                    checker);
         algorithm.setListener(listener);
 
-        
+        // Use snapshots of the first rows, if compatible
+        if (archive != null && config.getRequirements() == ARXConfiguration.REQUIREMENT_COUNTER) {
+            checker.setArchive(archive);
+        }
+
         // Execute
 
         long time = System.currentTimeMillis();
-        boolean optimumFound = algorithm.traverse();
-        
-        // Free resources
-        checker.reset();
+        boolean optimumFound;
+        HistoryArchive retained = null;
+        try {
+            optimumFound = algorithm.traverse();
+            if (retain) {
+                retained = checker.getHistory().archive();
+            }
+        } finally {
+            // Free resources
+            checker.reset();
+        }
         
         // Return the result
-        return new Result(checker, solutionSpace, manager, algorithm, time, optimumFound);
+        return new Result(checker, solutionSpace, manager, algorithm, time, optimumFound, retained);
     }
 
     /**
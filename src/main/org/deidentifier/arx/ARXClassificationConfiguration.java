@@ -61,6 +61,8 @@ public abstract class ARXClassificationConfiguration<T extends ARXClassification
     public static final int     DEFAULT_NUMBER_OF_FOLDS = 10;
     /** Default value */
     public static final int     DEFAULT_VECTOR_LENGTH   = 1000;
+    /** Default value */
+    public static final int     DEFAULT_NUMBER_OF_THREADS = 1;
 
     /** Deterministic */
     private boolean             deterministic           = DEFAULT_DETERMINISTIC;
@@ -74,6 +76,8 @@ public abstract class ARXClassificationConfiguration<T extends ARXClassification
     private int                 vectorLength            = DEFAULT_VECTOR_LENGTH;
     /** Modified */
     private boolean             modified                = false;
+    /** Number of threads used for training and evaluating classifiers */
+    private Integer             numberOfThreads         = DEFAULT_NUMBER_OF_THREADS;
 
     /**
      * Creates a new instance with default settings
@@ -91,11 +95,25 @@ public abstract class ARXClassificationConfiguration<T extends ARXClassification
      * @param vectorLength
      */
     protected ARXClassificationConfiguration(boolean deterministic, int maxRecords, int numberOfFolds, long seed, int vectorLength) {
+        this(deterministic, maxRecords, numberOfFolds, seed, vectorLength, DEFAULT_NUMBER_OF_THREADS);
+    }
+
+    /**
+     * Clone constructor
+     * @param deterministic
+     * @param maxRecords
+     * @param numberOfFolds
+     * @param seed
+     * @param vectorLength
+     * @param numberOfThreads
+     */
+    protected ARXClassificationConfiguration(boolean deterministic, int maxRecords, int numberOfFolds, long seed, int vectorLength, int numberOfThreads) {
         this.deterministic = deterministic;
         this.maxRecords = maxRecords;
         this.numberOfFolds = numberOfFolds;
         this.seed = seed;
         this.vectorLength = vectorLength;
+        this.numberOfThreads = numberOfThreads;
     }
 
     @Override
@@ -115,6 +133,17 @@ public abstract class ARXClassificationConfiguration<T extends ARXClassification
         return numberOfFolds;
     }
 
+    /**
+     * Returns the number of threads used for training and evaluating classifiers
+     * @return
+     */
+    public int getNumThreads() {
+        if (numberOfThreads == null) {
+            numberOfThreads = DEFAULT_NUMBER_OF_THREADS;
+        }
+        return numberOfThreads;
+    }
+
     /**
      * @return the seed
      */
@@ -155,6 +184,7 @@ public abstract class ARXClassificationConfiguration<T extends ARXClassification
         this.setNumFolds(config.numberOfFolds);
         this.setSeed((int)config.seed);
         this.setVectorLength(config.vectorLength);
+        this.setNumThreads(config.getNumThreads());
     }
     
     /**
@@ -208,6 +238,24 @@ public abstract class ARXClassificationConfiguration<T extends ARXClassification
         return (T)this;
     }
     
+    /**
+     * Sets the number of threads used for training and evaluating classifiers. If more than
+     * one thread is used, the folds of the cross-validation are processed in parallel.
+     * Results do not depend on the number of threads.
+     * @param numberOfThreads
+     */
+    @SuppressWarnings("unchecked")
+    public T setNumThreads(int numberOfThreads) {
+        if (numberOfThreads <= 0) {
+            throw new IllegalArgumentException("Must be >0");
+        }
+        if (this.getNumThreads() != numberOfThreads) {
+            setModified();
+            this.numberOfThreads = numberOfThreads;
+        }
+        return (T)this;
+    }
+    
     /**
      * Seed for randomization. Set to Integer.MAX_VALUE for randomization.
      * @param seed the seed to set
@@ -127,6 +127,22 @@ public class ARXConfiguration implements Serializable, Cloneable {
             return config.getMonotonicityOfUtility();
         }
 
+        /**
+         * Returns the number of threads that may be used for checking transformations
+         * @return
+         */
+        public int getNumThreads() {
+            return config.getNumThreads();
+        }
+
+        /**
+         * Returns the number of threads that may be used for transforming a dataset
+         * @return
+         */
+        public int getNumThreadsPerTransformation() {
+            return config.getNumThreadsPerTransformation();
+        }
+
         /**
          * 
          *
@@ -235,6 +251,70 @@ public class ARXConfiguration implements Serializable, Cloneable {
             return config.isUseHeuristicSearchForSampleBasedCriteria();
         }
 
+        /**
+         * Returns whether a hash table with open addressing is used for grouping records
+         * @return
+         */
+        public boolean isUseOpenAddressingForGrouping() {
+            return config.isUseOpenAddressingForGrouping();
+        }
+
+        /**
+         * Returns whether the transformations of each level should be checked concurrently
+         * @return
+         */
+        public boolean isUseLevelwiseSearch() {
+            return config.isUseLevelwiseSearch();
+        }
+
+        /**
+         * Returns whether generalized data should be stored in bit-packed form
+         * @return
+         */
+        public boolean isUseBitPackedStorage() {
+            return config.isUseBitPackedStorage();
+        }
+
+        /**
+         * Returns whether data should be stored outside of the Java heap
+         * @return
+         */
+        public boolean isUseOffHeapStorage() {
+            return config.isUseOffHeapStorage();
+        }
+
+        /**
+         * Returns the directory for memory-mapped files, null if direct buffers are used
+         * @return
+         */
+        public String getOffHeapStorageDirectory() {
+            return config.getOffHeapStorageDirectory();
+        }
+
+        /**
+         * Returns the policy for evicting snapshots from the history
+         * @return
+         */
+        public HistoryEvictionPolicy getHistoryEvictionPolicy() {
+            return config.getHistoryEvictionPolicy();
+        }
+
+        /**
+         * Returns the directory for spilled history snapshots, null if the temporary directory is used
+         * @return
+         */
+        public String getHistorySpillDirectory() {
+            return config.getHistorySpillDirectory();
+        }
+
+        /**
+         * Returns the size of the on-disk store for history snapshots in bytes, 0 if disabled
+         * @return
+         */
+        public int getHistorySpillSize() {
+            return config.getHistorySpillSize();
+        }
+
         /**
          * Convenience method for checking the requirements.
          *
@@ -327,6 +407,18 @@ public class ARXConfiguration implements Serializable, Cloneable {
         EXPANSIONS
     }
 
+    /**
+     * Policies for evicting snapshots from the history.
+     */
+    public static enum HistoryEvictionPolicy {
+
+        /** Evict the least recently used snapshot */
+        LEAST_RECENTLY_USED,
+
+        /** Evict the snapshot with the lowest expected number of rows saved per byte */
+        COST
+    }
+
     /** Absolute suppression limit. */
     private int                                absMaxOutliers                        = 0;
 
@@ -393,6 +485,42 @@ public class ARXConfiguration implements Serializable, Cloneable {
     /** Semantics of heuristic search steps */
     private SearchStepSemantics                searchStepSemantics                   = SearchStepSemantics.CHECKS;
 
+    /** Number of threads used for checking transformations */
+    private Integer                            numThreads                            = 1;
+
+    /** Number of threads used for transforming the rows of a dataset */
+    private Integer                            numThreadsPerTransformation           = 1;
+
+    /** Number of threads used for local recoding */
+    private Integer                            numThreadsForLocalRecoding            = 1;
+
+    /** Should a hash table with open addressing be used for grouping records */
+    private Boolean                            openAddressingForGrouping             = false;
+
+    /** Should data be stored outside of the Java heap */
+    private Boolean                            offHeapStorage                        = false;
+
+    /** Directory for memory-mapped files, null if direct buffers are used */
+    private String                             offHeapStorageDirectory               = null;
+
+    /** Should generalized data be stored in bit-packed form */
+    private Boolean                            bitPackedStorage                      = false;
+
+    /** Size of the on-disk store for history snapshots in bytes, 0 if disabled */
+    private Integer                            historySpillSize                      = 0;
+
+    /** Directory for spilled history snapshots, null if the temporary directory is used */
+    private String                             historySpillDirectory                 = null;
+
+    /** Policy for evicting snapshots from the history */
+    private HistoryEvictionPolicy              historyEvictionPolicy                 = HistoryEvictionPolicy.LEAST_RECENTLY_USED;
+
+    /** Should snapshots be retained for re-anonymizing the dataset when rows are appended */
+    private Boolean                            snapshotsRetained                     = false;
+
+    /** Should the transformations of each level be checked concurrently */
+    private Boolean                            levelwiseSearch                       = false;
+
     /**
      * Creates a new configuration without tuple suppression.
      */
@@ -522,6 +650,18 @@ public class ARXConfiguration implements Serializable, Cloneable {
         result.costBenefitConfiguration = this.getCostBenefitConfiguration().clone();
         result.dpSearchBudget = this.dpSearchBudget;
         result.searchStepSemantics = this.searchStepSemantics;
+        result.numThreads = this.numThreads;
+        result.numThreadsPerTransformation = this.numThreadsPerTransformation;
+        result.numThreadsForLocalRecoding = this.numThreadsForLocalRecoding;
+        result.openAddressingForGrouping = this.openAddressingForGrouping;
+        result.offHeapStorage = this.offHeapStorage;
+        result.offHeapStorageDirectory = this.offHeapStorageDirectory;
+        result.bitPackedStorage = this.bitPackedStorage;
+        result.historySpillSize = this.historySpillSize;
+        result.historySpillDirectory = this.historySpillDirectory;
+        result.historyEvictionPolicy = this.historyEvictionPolicy;
+        result.snapshotsRetained = this.snapshotsRetained;
+        result.levelwiseSearch = this.levelwiseSearch;
         if (this.attributeWeights != null) {
             result.attributeWeights = new HashMap<String, Double>(this.attributeWeights);
         } else {
@@ -713,6 +853,42 @@ public class ARXConfiguration implements Serializable, Cloneable {
         }
     }
 
+    /**
+     * Returns the number of threads that may be used for checking transformations.
+     * The default is 1, i.e. transformations are checked sequentially.
+     * @return
+     */
+    public int getNumThreads() {
+        if (this.numThreads == null) {
+            this.numThreads = 1;
+        }
+        return this.numThreads;
+    }
+
+    /**
+     * Returns the number of threads that may be used for local recoding.
+     * The default is 1, i.e. all records are optimized together.
+     * @return
+     */
+    public int getNumThreadsForLocalRecoding() {
+        if (this.numThreadsForLocalRecoding == null) {
+            this.numThreadsForLocalRecoding = 1;
+        }
+        return this.numThreadsForLocalRecoding;
+    }
+
+    /**
+     * Returns the number of threads that may be used for transforming the rows of a dataset.
+     * The default is 1, i.e. all rows are transformed sequentially.
+     * @return
+     */
+    public int getNumThreadsPerTransformation() {
+        if (this.numThreadsPerTransformation == null) {
+            this.numThreadsPerTransformation = 1;
+        }
+        return this.numThreadsPerTransformation;
+    }
+
     /**
      * Returns an instance of the class, if any. Throws an exception if more than one such model exists.
      *
@@ -885,6 +1061,106 @@ public class ARXConfiguration implements Serializable, Cloneable {
         return heuristicSearchForSampleBasedCriteria;
     }
 
+    /**
+     * Returns the policy for evicting snapshots from the history.
+     * The default is <code>HistoryEvictionPolicy.LEAST_RECENTLY_USED</code>.
+     * @return
+     */
+    public HistoryEvictionPolicy getHistoryEvictionPolicy() {
+        if (this.historyEvictionPolicy == null) {
+            this.historyEvictionPolicy = HistoryEvictionPolicy.LEAST_RECENTLY_USED;
+        }
+        return this.historyEvictionPolicy;
+    }
+
+    /**
+     * Returns the directory in which snapshots evicted from the history are stored.
+     * Null if the temporary directory of the system is used.
+     * @return
+     */
+    public String getHistorySpillDirectory() {
+        return this.historySpillDirectory;
+    }
+
+    /**
+     * Returns the size of the on-disk store for snapshots evicted from the history in bytes.
+     * The default is 0, which means that evicted snapshots are discarded.
+     * @return
+     */
+    public int getHistorySpillSize() {
+        if (this.historySpillSize == null) {
+            this.historySpillSize = 0;
+        }
+        return this.historySpillSize;
+    }
+
+    /**
+     * Returns the directory in which memory-mapped files are created for storing data
+     * outside of the Java heap. Null if direct buffers are used.
+     * @return
+     */
+    public String getOffHeapStorageDirectory() {
+        return this.offHeapStorageDirectory;
+    }
+
+    /**
+     * Returns whether generalized data is stored in bit-packed form. The default is false.
+     * @return
+     */
+    public boolean isUseBitPackedStorage() {
+        if (this.bitPackedStorage == null) {
+            this.bitPackedStorage = false;
+        }
+        return this.bitPackedStorage;
+    }
+
+    /**
+     * Returns whether optimal search checks the transformations of each level of the
+     * solution space concurrently, if all transformations must be checked. The default is false.
+     * @return
+     */
+    public boolean isUseLevelwiseSearch() {
+        if (this.levelwiseSearch == null) {
+            this.levelwiseSearch = false;
+        }
+        return this.levelwiseSearch;
+    }
+
+    /**
+     * Returns whether the result retains snapshots of equivalence classes for
+     * re-anonymizing the dataset when rows are appended. The default is false.
+     * @return
+     */
+    public boolean isUseRetainedSnapshots() {
+        if (this.snapshotsRetained == null) {
+            this.snapshotsRetained = false;
+        }
+        return this.snapshotsRetained;
+    }
+
+    /**
+     * Returns whether data is stored outside of the Java heap. The default is false.
+     * @return
+     */
+    public boolean isUseOffHeapStorage() {
+        if (this.offHeapStorage == null) {
+            this.offHeapStorage = false;
+        }
+        return this.offHeapStorage;
+    }
+
+    /**
+     * Returns whether a hash table with open addressing is used for grouping records.
+     * The default is false.
+     * @return
+     */
+    public boolean isUseOpenAddressingForGrouping() {
+        if (this.openAddressingForGrouping == null) {
+            this.openAddressingForGrouping = false;
+        }
+        return this.openAddressingForGrouping;
+    }
+
     /**
      * Removes the given criterion.
      *
@@ -1040,6 +1316,43 @@ public class ARXConfiguration implements Serializable, Cloneable {
         this.relMaxOutliers = max;
     }
 
+    /**
+     * Sets the number of threads that may be used for checking transformations. If more
+     * than one thread is used, independent transformations will be checked concurrently.
+     * The result of the search process is identical to the result obtained with one thread.
+     * Each additional thread requires its own copy of the output buffer. The default is 1.
+     * @param numThreads
+     */
+    public void setNumThreads(int numThreads) {
+        if (numThreads <= 0) { throw new IllegalArgumentException("Parameter must be > 0"); }
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Sets the number of threads that may be used for local recoding. If more than one thread
+     * is used, the records to optimize in each step are partitioned into clusters of similar
+     * records, which are optimized independently and concurrently. The result is deterministic,
+     * but differs from the result obtained with one thread. The default is 1.
+     * @param numThreads
+     */
+    public void setNumThreadsForLocalRecoding(int numThreads) {
+        if (numThreads <= 0) { throw new IllegalArgumentException("Parameter must be > 0"); }
+        this.numThreadsForLocalRecoding = numThreads;
+    }
+
+    /**
+     * Sets the number of threads that may be used for transforming the rows of a dataset.
+     * If more than one thread is used, large datasets are split into ranges of rows, which
+     * are transformed and grouped concurrently and merged afterwards. This is independent of,
+     * and multiplies with, the number of threads used for checking transformations.
+     * The default is 1.
+     * @param numThreads
+     */
+    public void setNumThreadsPerTransformation(int numThreads) {
+        if (numThreads <= 0) { throw new IllegalArgumentException("Parameter must be > 0"); }
+        this.numThreadsPerTransformation = numThreads;
+    }
+
     /**
      * Set, if practical monotonicity assumed.
      *
@@ -1083,6 +1396,111 @@ public class ARXConfiguration implements Serializable, Cloneable {
     public void setUseHeuristicSearchForSampleBasedCriteria(boolean value) {
         this.heuristicSearchForSampleBasedCriteria = value;
     }
+
+    /**
+     * Sets whether generalized data should be stored in bit-packed form. Each attribute
+     * is then encoded with the minimal number of bits required for the codes of its hierarchy,
+     * which reduces memory consumption and speeds up hashing and comparing records.
+     * Off-heap storage takes precedence over this setting.
+     * @param value
+     */
+    public void setUseBitPackedStorage(boolean value) {
+        this.bitPackedStorage = value;
+    }
+
+    /**
+     * Sets whether optimal search checks the solution space level by level, from the bottom to the
+     * top, with all transformations of a level being checked concurrently by the number of threads
+     * specified with {@link #setNumThreads(int)}. This only applies if all transformations must be
+     * checked, which is the case if neither privacy nor utility are monotonic. The results are then
+     * used in the same order as without this option, so the optimum and the solution space are
+     * identical. Transformations which are pruned with lower bounds have been checked in vain.
+     * In all other cases, and for heuristic search, this option has no effect.
+     * @param value
+     */
+    public void setUseLevelwiseSearch(boolean value) {
+        this.levelwiseSearch = value;
+    }
+
+    /**
+     * Sets whether the result retains the snapshots of equivalence classes which are held by the
+     * history at the end of the search. When rows are appended with
+     * {@link ARXAnonymizer#anonymize(ARXResult, java.util.Iterator)}, the equivalence classes of
+     * the new rows are then added to these snapshots, instead of transforming all rows. This
+     * requires additional memory and is only supported for privacy models which do not need
+     * distributions of sensitive values or a research subset.
+     * @param value
+     */
+    public void setUseRetainedSnapshots(boolean value) {
+        this.snapshotsRetained = value;
+    }
+
+    /**
+     * Sets the policy for evicting snapshots from the history. Statistics about the
+     * effectiveness of the history are available from {@link ARXProcessStatistics}.
+     * When multiple threads are used, additional threads always evict the least recently
+     * used snapshot.
+     * @param policy
+     */
+    public void setHistoryEvictionPolicy(HistoryEvictionPolicy policy) {
+        if (policy == null) {
+            throw new NullPointerException("Policy must not be null");
+        }
+        this.historyEvictionPolicy = policy;
+    }
+
+    /**
+     * Sets the directory in which snapshots evicted from the history are stored.
+     * If set to null, the temporary directory of the system is used.
+     * @param directory
+     */
+    public void setHistorySpillDirectory(String directory) {
+        this.historySpillDirectory = directory;
+    }
+
+    /**
+     * Sets the size of the on-disk store for snapshots evicted from the history in bytes.
+     * Evicted snapshots are compressed and written to a memory-mapped file, from which
+     * they can be reloaded instead of transforming the input data again. The oldest
+     * snapshots are discarded when the store is full. Set to 0 to disable.
+     * @param bytes
+     */
+    public void setHistorySpillSize(int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Parameter must be >= 0");
+        }
+        this.historySpillSize = bytes;
+    }
+
+    /**
+     * Sets the directory in which memory-mapped files are created for storing data
+     * outside of the Java heap. If set to null, direct buffers are used instead.
+     * @param directory
+     */
+    public void setOffHeapStorageDirectory(String directory) {
+        this.offHeapStorageDirectory = directory;
+    }
+
+    /**
+     * Sets whether the buffers used during anonymization should be stored outside of the Java heap.
+     * This allows processing datasets which do not fit into the heap and is slightly slower.
+     * @param value
+     */
+    public void setUseOffHeapStorage(boolean value) {
+        this.offHeapStorage = value;
+    }
+
+    /**
+     * Sets whether a hash table with open addressing should be used for grouping records.
+     * This implementation stores hash codes and the properties of equivalence classes in
+     * primitive arrays while grouping and reuses the objects representing classes, which
+     * reduces the pressure on the garbage collector when transformations result in many
+     * small classes. Results are identical.
+     * @param value
+     */
+    public void setUseOpenAddressingForGrouping(boolean value) {
+        this.openAddressingForGrouping = value;
+    }
     
     /**
      * Checks an argument.
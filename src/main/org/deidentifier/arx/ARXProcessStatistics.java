@@ -24,6 +24,8 @@ import java.util.Map;
 
 import org.deidentifier.arx.ARXAnonymizer.Result;
 import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.framework.check.distribution.DistributionCacheStatistics;
+import org.deidentifier.arx.framework.check.history.HistoryStatistics;
 import org.deidentifier.arx.framework.lattice.Transformation;
 import org.deidentifier.arx.metric.InformationLoss;
 import org.deidentifier.arx.metric.v2.QualityMetadata;
@@ -270,6 +272,24 @@ public class ARXProcessStatistics implements Serializable {
     /** Duration */
     private long              duration;
 
+    /** Number of requests for snapshots from the history */
+    private long              historyRequests;
+
+    /** Number of requests which returned a snapshot from the history */
+    private long              historyHits;
+
+    /** Number of rows which did not need to be transformed thanks to the history */
+    private long              historyRowsAvoided;
+
+    /** Number of snapshots evicted from the history */
+    private long              historyEvictions;
+
+    /** Number of requests for verdicts about distributions of sensitive values */
+    private long              distributionCacheRequests;
+
+    /** Number of requests which returned a cached verdict */
+    private long              distributionCacheHits;
+
     /**
      * Clone constructor
      * @param other
@@ -279,6 +299,12 @@ public class ARXProcessStatistics implements Serializable {
         this.transformationsTotal = other.transformationsTotal;
         this.duration = other.duration;
         this.initialNumberOfRecords = other.initialNumberOfRecords;
+        this.historyRequests = other.historyRequests;
+        this.historyHits = other.historyHits;
+        this.historyRowsAvoided = other.historyRowsAvoided;
+        this.historyEvictions = other.historyEvictions;
+        this.distributionCacheRequests = other.distributionCacheRequests;
+        this.distributionCacheHits = other.distributionCacheHits;
         this.steps = new ArrayList<>();
         for (Step step : other.steps) {
             this.steps.add(step.clone());
@@ -300,6 +326,34 @@ public class ARXProcessStatistics implements Serializable {
      * @param duration
      */
     protected ARXProcessStatistics(ARXLattice lattice, ARXNode optimum, boolean isOptimal, long duration) {
+        this(lattice, optimum, isOptimal, duration, null, null);
+    }
+
+    /**
+     * Creates an instance for the global anonymization step
+     * @param lattice
+     * @param optimum
+     * @param isOptimal
+     * @param duration
+     * @param history Statistics about the history, if available
+     * @param distributions Statistics about the caches for verdicts about distributions, if available
+     */
+    protected ARXProcessStatistics(ARXLattice lattice,
+                                   ARXNode optimum,
+                                   boolean isOptimal,
+                                   long duration,
+                                   HistoryStatistics history,
+                                   DistributionCacheStatistics distributions) {
+        
+        // Store statistics about the history
+        if (history != null) {
+            this.setHistoryStatistics(history);
+        }
+        
+        // Store statistics about the caches
+        if (distributions != null) {
+            this.setDistributionCacheStatistics(distributions);
+        }
         
         // Add step
         if (optimum != null) {
@@ -345,6 +399,8 @@ public class ARXProcessStatistics implements Serializable {
         
         // Compute statistics
         this.initialNumberOfRecords = initialNumberOfRecords;
+        this.setHistoryStatistics(result.checker.getHistoryStatistics());
+        this.setDistributionCacheStatistics(result.checker.getDistributionCacheStatistics());
         this.transformationsTotal += result.solutionSpace.getSize();
         this.duration += duration;
         
@@ -362,6 +418,32 @@ public class ARXProcessStatistics implements Serializable {
         return new ARXProcessStatistics(this);
     }
     
+    /**
+     * Returns the fraction of requests for verdicts about distributions of sensitive values
+     * which have been answered from a cache
+     * @return
+     */
+    public double getDistributionCacheHitRate() {
+        return this.distributionCacheRequests == 0 ? 0d : (double) this.distributionCacheHits / (double) this.distributionCacheRequests;
+    }
+
+    /**
+     * Returns the number of requests for verdicts about distributions of sensitive values
+     * which have been answered from a cache
+     * @return
+     */
+    public long getDistributionCacheHits() {
+        return this.distributionCacheHits;
+    }
+
+    /**
+     * Returns the number of requests for cached verdicts about distributions of sensitive values
+     * @return
+     */
+    public long getDistributionCacheRequests() {
+        return this.distributionCacheRequests;
+    }
+
     /**
      * Returns the duration of the process
      * @return
@@ -370,6 +452,47 @@ public class ARXProcessStatistics implements Serializable {
         return this.duration;
     }
     
+    /**
+     * Returns the number of snapshots evicted from the history
+     * @return
+     */
+    public long getHistoryEvictions() {
+        return this.historyEvictions;
+    }
+
+    /**
+     * Returns the fraction of requests to the history which returned a snapshot
+     * @return
+     */
+    public double getHistoryHitRate() {
+        return this.historyRequests == 0 ? 0d : (double) this.historyHits / (double) this.historyRequests;
+    }
+
+    /**
+     * Returns the number of requests to the history which returned a snapshot
+     * @return
+     */
+    public long getHistoryHits() {
+        return this.historyHits;
+    }
+
+    /**
+     * Returns the number of requests for snapshots from the history
+     * @return
+     */
+    public long getHistoryRequests() {
+        return this.historyRequests;
+    }
+
+    /**
+     * Returns the number of rows which did not need to be transformed, because a snapshot
+     * from the history has been used instead
+     * @return
+     */
+    public long getHistoryRowsAvoided() {
+        return this.historyRowsAvoided;
+    }
+
     /**
      * Converts the statistics into a lattice
      * @return
@@ -470,5 +593,31 @@ public class ARXProcessStatistics implements Serializable {
         this.transformationsTotal += stats.transformationsTotal;
         this.transformationsChecked += stats.transformationsChecked;
         this.duration += stats.duration;
+        this.historyRequests += stats.historyRequests;
+        this.historyHits += stats.historyHits;
+        this.historyRowsAvoided += stats.historyRowsAvoided;
+        this.historyEvictions += stats.historyEvictions;
+        this.distributionCacheRequests += stats.distributionCacheRequests;
+        this.distributionCacheHits += stats.distributionCacheHits;
+    }
+
+    /**
+     * Stores statistics about the caches for verdicts about distributions
+     * @param distributions
+     */
+    private void setDistributionCacheStatistics(DistributionCacheStatistics distributions) {
+        this.distributionCacheRequests = distributions.getRequests();
+        this.distributionCacheHits = distributions.getHits();
+    }
+
+    /**
+     * Stores statistics about the history
+     * @param history
+     */
+    private void setHistoryStatistics(HistoryStatistics history) {
+        this.historyRequests = history.getRequests();
+        this.historyHits = history.getHits();
+        this.historyRowsAvoided = history.getRowsAvoided();
+        this.historyEvictions = history.getEvictions();
     }
 }
\ No newline at end of file
@@ -19,8 +19,17 @@ package org.deidentifier.arx;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.deidentifier.arx.ARXAnonymizer.Result;
 import org.deidentifier.arx.ARXLattice.ARXNode;
@@ -30,14 +39,19 @@ import org.deidentifier.arx.framework.check.TransformationApplicator;
 import org.deidentifier.arx.framework.check.TransformationChecker;
 import org.deidentifier.arx.framework.check.TransformedData;
 import org.deidentifier.arx.framework.check.distribution.DistributionAggregateFunction;
+import org.deidentifier.arx.framework.check.history.HistoryArchive;
 import org.deidentifier.arx.framework.data.Data;
 import org.deidentifier.arx.framework.data.DataManager;
 import org.deidentifier.arx.framework.data.DataMatrix;
 import org.deidentifier.arx.framework.data.Dictionary;
+import org.deidentifier.arx.framework.data.GeneralizationHierarchy;
 import org.deidentifier.arx.framework.lattice.SolutionSpace;
 import org.deidentifier.arx.framework.lattice.Transformation;
 import org.deidentifier.arx.metric.Metric;
 
+import cern.colt.Sorting;
+import cern.colt.function.IntComparator;
+
 /**
  * Encapsulates the results of an execution of the ARX algorithm.
  *
@@ -46,6 +60,9 @@ import org.deidentifier.arx.metric.Metric;
  */
 public class ARXResult {
 
+    /** Minimal number of records in a cluster optimized during parallel local recoding */
+    private static final int                MIN_CLUSTER_SIZE     = 100;
+
     /** Anonymizer */
     private ARXAnonymizer                   anonymizer;
 
@@ -88,6 +105,12 @@ public class ARXResult {
     /** Optimization statistics */
     private final ARXProcessStatistics statistics;
 
+    /** Snapshots retained from the history, if any */
+    private final HistoryArchive            archive;
+
+    /** The order of the rows of the input, to which the snapshots refer */
+    private final long                      archiveRowOrder;
+
     /**
      * Internal constructor for deserialization.
      *
@@ -149,8 +172,10 @@ public class ARXResult {
         // Initialize the metric
         metric.initialize(manager, definition, manager.getDataGeneralized(), manager.getHierarchies(), config);
 
-        this.buffer = new DataMatrix(manager.getDataGeneralized().getArray().getNumRows(), 
-                                     manager.getDataGeneralized().getArray().getNumColumns());
+        this.buffer = DataMatrix.create(manager.getDataGeneralized().getArray().getNumRows(), 
+                                        manager.getDataGeneralized().getArray().getNumColumns(),
+                                        manager.getHierarchies(),
+                                        config);
         
         // Initialize the result
         this.registry = handle.getRegistry();
@@ -163,6 +188,8 @@ public class ARXResult {
         this.statistics = statistics != null ? statistics : new ARXProcessStatistics(lattice, optimalTransformation, lattice._legacySearchedWithFlash(), time);
         this.optimumFound = this.statistics.isSolutationAvailable() ? this.statistics.getStep(0).isOptimal() : false;
         this.duration = this.statistics.getDuration();
+        this.archive = null;
+        this.archiveRowOrder = 0;
     }
     
     /**
@@ -178,6 +205,7 @@ public class ARXResult {
      * @param duration
      * @param solutionSpace
      * @param optimumFound
+     * @param archive
      */
     protected ARXResult(ARXAnonymizer anonymizer,
                         DataRegistry registry,
@@ -188,7 +216,8 @@ public class ARXResult {
                         ARXLattice lattice,
                         long duration,
                         SolutionSpace solutionSpace,
-                        boolean optimumFound) {
+                        boolean optimumFound,
+                        HistoryArchive archive) {
 
         this.anonymizer = anonymizer;
         this.registry = registry;
@@ -201,7 +230,10 @@ public class ARXResult {
         this.duration = duration;
         this.solutionSpace = solutionSpace;
         this.optimumFound = optimumFound;
-        this.statistics = new ARXProcessStatistics(lattice, optimalTransformation, optimumFound, duration);
+        this.statistics = new ARXProcessStatistics(lattice, optimalTransformation, optimumFound, duration,
+                                                   checker.getHistoryStatistics(), checker.getDistributionCacheStatistics());
+        this.archive = archive;
+        this.archiveRowOrder = registry.getInputHandle().getRowOrder();
     }
 
     /**
@@ -636,90 +668,154 @@ public class ARXResult {
         }
         initialRecords = baselineRecords - initialRecords;
         
-        // Everything that is used from here on, needs to be either
-        // (a) state-less, or
-        // (b) a fresh copy of the original configuration.
-
-        // We start by creating a projected instance of the configuration
-        // - All privacy models will be cloned
-        // - Subsets will be projected accordingly
-        // - Utility measures will be cloned
-        ARXConfiguration config = this.config.getInstanceForLocalRecoding(rowset, gsFactor);
+        // Partition the records into clusters, which are optimized independently
+        List<RowSet> clusters = getClusters(rowset, this.config.getNumThreadsForLocalRecoding());
+        
+        // Relative number of records to optimize, which is the same for all clusters
+        double relativeRecords = Double.NaN;
         if (!Double.isNaN(records)) {
             double absoluteRecords = records * baselineRecords;
-            double relativeRecords = absoluteRecords / (double)rowset.size();
+            relativeRecords = absoluteRecords / (double)rowset.size();
             relativeRecords = relativeRecords < 0d ? 0d : relativeRecords;
             relativeRecords = relativeRecords > 1d ? 1d : relativeRecords;
-            config.setSuppressionLimit(1d - relativeRecords);
         }
         
-        // In the data definition, only microaggregation functions maintain a state, but these 
-        // are cloned, when cloning the definition
-        // TODO: This is probably not necessary, because they are used from the data manager,
-        //       which in turn creates a clone by itself
-        DataDefinition definition = this.definition.clone();
+        // Progress is reported as the average over all clusters
+        final double[] progress = new double[clusters.size()];
         
-        // Clone the data manager
-        DataManager manager = this.manager.getSubsetInstance(rowset);
-        
-        // Create an anonymizer
-        ARXAnonymizer anonymizer = new ARXAnonymizer();
-        if (listener != null) {
-            anonymizer.setListener(listener);
-        }
-        if (this.anonymizer != null) {
-            anonymizer.parse(this.anonymizer);
+        // Prepare one anonymization process per cluster
+        List<Callable<Result>> tasks = new ArrayList<>();
+        for (int i = 0; i < clusters.size(); i++) {
+            
+            // Everything that is used from here on, needs to be either
+            // (a) state-less, or
+            // (b) a fresh copy of the original configuration.
+
+            // We start by creating a projected instance of the configuration
+            // - All privacy models will be cloned
+            // - Subsets will be projected accordingly
+            // - Utility measures will be cloned
+            final ARXConfiguration config = this.config.getInstanceForLocalRecoding(clusters.get(i), gsFactor);
+            if (!Double.isNaN(relativeRecords)) {
+                config.setSuppressionLimit(1d - relativeRecords);
+            }
+            
+            // In the data definition, only microaggregation functions maintain a state, but these 
+            // are cloned, when cloning the definition
+            // TODO: This is probably not necessary, because they are used from the data manager,
+            //       which in turn creates a clone by itself
+            final DataDefinition definition = this.definition.clone();
+            
+            // Clone the data manager
+            final DataManager manager = this.manager.getSubsetInstance(clusters.get(i));
+            
+            // Create an anonymizer
+            final ARXAnonymizer anonymizer = new ARXAnonymizer();
+            if (clusters.size() == 1) {
+                anonymizer.setListener(listener);
+            } else {
+                final int cluster = i;
+                anonymizer.setListener(new ARXListener() {
+                    @Override
+                    public void progress(double value) {
+                        synchronized (progress) {
+                            progress[cluster] = value;
+                            double total = 0d;
+                            for (double element : progress) {
+                                total += element;
+                            }
+                            listener.progress(total / (double) progress.length);
+                        }
+                    }
+                });
+            }
+            if (this.anonymizer != null) {
+                anonymizer.parse(this.anonymizer);
+            }
+            
+            // Anonymize
+            tasks.add(new Callable<Result>() {
+                @Override
+                public Result call() throws Exception {
+                    return anonymizer.anonymize(manager, definition, config);
+                }
+            });
         }
         
-        // Anonymize
-        Result result = null;
-        try {
-            result = anonymizer.anonymize(manager, definition, config);
-        } catch (IOException e) {
-            // This should not happen at this point in time, as data has already been read from the source
-            throw new RuntimeException("Internal error: unexpected IO issue");
+        // Execute
+        List<Result> results = execute(tasks);
+        
+        // Apply the transformations found for the clusters
+        TransformedData[] data = new TransformedData[results.size()];
+        boolean found = false;
+        for (int i = 0; i < data.length; i++) {
+            Result result = results.get(i);
+            if (result.optimum != null) {
+                data[i] = result.checker.getApplicator().applyTransformation(result.optimum, output.getOutputBufferMicroaggregated().getDictionary());
+                found = true;
+            }
         }
         
         // Break, if no solution has been found
-        if (result.optimum == null) {
+        if (!found) {
             return new ARXProcessStatistics();
         }
         
         // Else, merge the results back into the given handle
-        TransformedData data = result.checker.getApplicator().applyTransformation(result.optimum, output.getOutputBufferMicroaggregated().getDictionary());
-        int newIndex = -1;
         DataMatrix oldGeneralized = output.getOutputBufferGeneralized().getArray();
         DataMatrix oldMicroaggregated = output.getOutputBufferMicroaggregated().getArray();
-        DataMatrix newGeneralized = data.bufferGeneralized.getArray();
-        DataMatrix newMicroaggregated = data.bufferMicroaggregated.getArray();
         
         try {
             
-            int optimized = 0;
-            for (int oldIndex = 0; oldIndex < rowset.length(); oldIndex++) {
-                if (rowset.contains(oldIndex)) {
-                    newIndex++;
-                    if (oldGeneralized != null && oldGeneralized.getNumRows() != 0) {
-                        oldGeneralized.copyFrom(oldIndex, newGeneralized, newIndex);
-                        optimized += (newGeneralized.get(newIndex, 0) & Data.OUTLIER_MASK) != 0 ? 0 : 1;
-                    }
-                    if (oldMicroaggregated != null && oldMicroaggregated.getNumRows() != 0) {
-                        oldMicroaggregated.copyFrom(oldIndex, newMicroaggregated, newIndex);
+            // Merge clusters
+            time = System.currentTimeMillis() - time;
+            ARXProcessStatistics statistics = null;
+            int optimizedTotal = 0;
+            for (int i = 0; i < data.length; i++) {
+                
+                // Skip clusters without solution
+                if (data[i] == null) {
+                    continue;
+                }
+                
+                // Merge records
+                RowSet cluster = clusters.get(i);
+                DataMatrix newGeneralized = data[i].bufferGeneralized.getArray();
+                DataMatrix newMicroaggregated = data[i].bufferMicroaggregated.getArray();
+                int newIndex = -1;
+                int optimized = 0;
+                for (int oldIndex = 0; oldIndex < cluster.length(); oldIndex++) {
+                    if (cluster.contains(oldIndex)) {
+                        newIndex++;
+                        if (oldGeneralized != null && oldGeneralized.getNumRows() != 0) {
+                            oldGeneralized.copyFrom(oldIndex, newGeneralized, newIndex);
+                            optimized += (newGeneralized.get(newIndex, 0) & Data.OUTLIER_MASK) != 0 ? 0 : 1;
+                        }
+                        if (oldMicroaggregated != null && oldMicroaggregated.getNumRows() != 0) {
+                            oldMicroaggregated.copyFrom(oldIndex, newMicroaggregated, newIndex);
+                        }
                     }
                 }
+                
+                // Update data types
+                output.updateDataTypes(results.get(i).optimum.getGeneralization());
+                
+                // Collect statistics, the duration is only accounted for once
+                ARXProcessStatistics _statistics = new ARXProcessStatistics(results.get(i), initialRecords, optimized, statistics == null ? time : 0L);
+                statistics = statistics == null ? _statistics : statistics.merge(_statistics);
+                optimizedTotal += optimized;
             }
             
-            // Update data types
-            output.updateDataTypes(result.optimum.getGeneralization());
+            // Cached equivalence classes have become invalid
+            output.invalidate();
             
             // Mark as optimized
-            if (optimized != 0) {
+            if (optimizedTotal != 0) {
                 output.setOptimized(true);
             }
             
             // Done
-            time = System.currentTimeMillis() - time;
-            return new ARXProcessStatistics(result, initialRecords, optimized, time);
+            return statistics;
             
         // If anything happens in the above block, the operation needs to be rolled back, because
         // the buffer might be in an inconsistent state
@@ -806,7 +902,7 @@ public class ARXResult {
             ARXProcessStatistics _statistics = optimize(handle, gsFactor);
             optimizedCurrent = 0;
             if (_statistics.isSolutationAvailable()) {
-                optimizedCurrent = _statistics.getStep(0).getNumberOfRecordsTransformed();
+                optimizedCurrent = getNumberOfRecordsTransformed(_statistics);
                 statistics = statistics.merge(_statistics);
             }
             optimizedTotal += optimizedCurrent;
@@ -919,7 +1015,7 @@ public class ARXResult {
             });
             optimizedCurrent = 0;
             if (_statistics.isSolutationAvailable()) {
-                optimizedCurrent = _statistics.getStep(0).getNumberOfRecordsTransformed();
+                optimizedCurrent = getNumberOfRecordsTransformed(_statistics);
                 statistics = statistics.merge(_statistics);
             }
             optimizedTotal += optimizedCurrent;
@@ -935,6 +1031,67 @@ public class ARXResult {
         return statistics;
     }
     
+    /**
+     * Executes the given tasks, concurrently if there is more than one task. Results
+     * are returned in the order of the tasks.
+     * @param tasks
+     * @return
+     */
+    private List<Result> execute(List<Callable<Result>> tasks) {
+        
+        // Sequential
+        List<Result> results = new ArrayList<>();
+        if (tasks.size() == 1) {
+            try {
+                results.add(tasks.get(0).call());
+            } catch (IOException e) {
+                // This should not happen at this point in time, as data has already been read from the source
+                throw new RuntimeException("Internal error: unexpected IO issue");
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return results;
+        }
+        
+        // Parallel
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ARX local recoding");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (Callable<Result> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        // This should not happen at this point in time, as data has already been read from the source
+                        throw new RuntimeException("Internal error: unexpected IO issue");
+                    } else if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    } else {
+                        throw new RuntimeException(e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted", e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
     /**
      * Returns a map of all microaggregation functions
      * @param definition
@@ -948,6 +1105,114 @@ public class ARXResult {
         return result;
     }
 
+    /**
+     * Partitions the given records into at most the given number of clusters of similar
+     * records. Records are ordered by their values at the second-highest level of the
+     * generalization hierarchies and then by their original values. Each cluster must
+     * contain at least {@link #MIN_CLUSTER_SIZE} records and at least ten times the
+     * minimal size of equivalence classes.
+     * @param rowset
+     * @param maxClusters
+     * @return
+     */
+    private List<RowSet> getClusters(RowSet rowset, int maxClusters) {
+        
+        // Determine the number of clusters
+        int minSize = MIN_CLUSTER_SIZE;
+        if (config.getMinimalGroupSize() != Integer.MAX_VALUE) {
+            minSize = Math.max(minSize, config.getMinimalGroupSize() * 10);
+        }
+        int clusters = Math.max(1, Math.min(maxClusters, rowset.size() / minSize));
+        if (clusters == 1) {
+            return Arrays.asList(rowset);
+        }
+        
+        // Collect records
+        final int[] rows = new int[rowset.size()];
+        int index = 0;
+        for (int row = 0; row < rowset.length(); row++) {
+            if (rowset.contains(row)) {
+                rows[index++] = row;
+            }
+        }
+        
+        // Order records
+        final DataMatrix input = manager.getDataGeneralized().getArray();
+        final GeneralizationHierarchy[] hierarchies = manager.getHierarchies();
+        int[] order = new int[rows.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Sorting.mergeSort(order, 0, order.length, new IntComparator() {
+            @Override
+            public int compare(int index1, int index2) {
+                
+                // Compare at the second-highest level
+                for (int column = 0; column < hierarchies.length; column++) {
+                    int[][] hierarchy = hierarchies[column].getArray();
+                    int level = Math.max(0, hierarchy[0].length - 2);
+                    int cmp = Integer.compare(hierarchy[input.get(rows[index1], column)][level],
+                                              hierarchy[input.get(rows[index2], column)][level]);
+                    if (cmp != 0) {
+                        return cmp;
+                    }
+                }
+                
+                // Compare original values
+                for (int column = 0; column < hierarchies.length; column++) {
+                    int cmp = Integer.compare(input.get(rows[index1], column), input.get(rows[index2], column));
+                    if (cmp != 0) {
+                        return cmp;
+                    }
+                }
+                return Integer.compare(index1, index2);
+            }
+        });
+        
+        // Partition into clusters of equal size
+        List<RowSet> result = new ArrayList<>();
+        for (int cluster = 0; cluster < clusters; cluster++) {
+            RowSet set = RowSet.create(rowset.length());
+            int from = (int) ((long) order.length * cluster / clusters);
+            int to = (int) ((long) order.length * (cluster + 1) / clusters);
+            for (int i = from; i < to; i++) {
+                set.add(rows[order[i]]);
+            }
+            result.add(set);
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the number of records transformed in all steps of the given statistics
+     * @param statistics
+     * @return
+     */
+    private int getNumberOfRecordsTransformed(ARXProcessStatistics statistics) {
+        int result = 0;
+        for (int i = 0; i < statistics.getNumberOfSteps(); i++) {
+            result += statistics.getStep(i).getNumberOfRecordsTransformed();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the snapshots retained from the history, if any. Snapshots refer to rows by
+     * their index, which is why they are dropped when the rows have been reordered since.
+     * @return
+     */
+    protected HistoryArchive getArchive() {
+        return registry.getInputHandle().getRowOrder() == archiveRowOrder ? archive : null;
+    }
+
+    /**
+     * Returns the registry
+     * @return
+     */
+    protected DataRegistry getRegistry() {
+        return registry;
+    }
+
     /**
      * Releases the buffer.
      *
@@ -0,0 +1,45 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import org.deidentifier.arx.metric.InformationLoss;
+
+/**
+ * A listener which is also informed about the best solution found so far by the search
+ * algorithm. Heuristic search can be stopped early, in which case the result will
+ * contain the best solution found so far. Only heuristic search, which is used if it
+ * has been enabled with {@link ARXConfiguration#setHeuristicSearchEnabled(boolean)} and
+ * the solution space exceeds the configured threshold, can be stopped. Optimal search
+ * and search for data-dependent differential privacy ignore the return value of
+ * {@link #optimum(int[], InformationLoss)}.
+ *
+ * @author Fabian Prasser
+ */
+public interface ARXSearchListener extends ARXListener {
+
+    /**
+     * Reports that a solution has been found, which is better than all solutions found
+     * before. Return <code>false</code> to stop heuristic search.
+     *
+     * @param transformation The generalization levels of the quasi-identifiers
+     * @param informationLoss The information loss of the solution
+     * @return Whether the search should continue
+     */
+    public boolean optimum(int[] transformation, InformationLoss<?> informationLoss);
+
+}
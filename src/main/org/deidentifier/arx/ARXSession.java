@@ -0,0 +1,178 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx;
+
+import java.io.IOException;
+
+import org.deidentifier.arx.criteria.EDDifferentialPrivacy;
+import org.deidentifier.arx.criteria.HierarchicalDistanceTCloseness;
+import org.deidentifier.arx.criteria.PrivacyCriterion;
+import org.deidentifier.arx.framework.check.history.HistoryArchive;
+import org.deidentifier.arx.framework.data.DataManager;
+
+/**
+ * A session for anonymizing one dataset with many different configurations. The encoded
+ * data, the generalization hierarchies and precomputations of quality models are reused
+ * between runs, as long as the configurations do not influence the encoding. Snapshots of
+ * equivalence classes are shared between runs with privacy models which only require
+ * class sizes, e.g. k-anonymity with different parameters and suppression limits.<br>
+ * <br>
+ * The data definition must not be modified while the session is in use. Only the output
+ * of the most recent result can be accessed, as each run releases the previous result.
+ *
+ * @author Fabian Prasser
+ */
+public class ARXSession {
+
+    /** The anonymizer */
+    private final ARXAnonymizer    anonymizer;
+
+    /** The input handle */
+    private final DataHandleInput  handle;
+
+    /** The data manager of the previous run */
+    private DataManager            manager;
+
+    /** The configuration for which the data manager has been created */
+    private ARXConfiguration       config;
+
+    /** Snapshots retained from previous runs */
+    private HistoryArchive         archive;
+
+    /** The order of the rows of the input, to which the snapshots refer */
+    private long                   archiveRowOrder;
+
+    /**
+     * Creates a new instance
+     *
+     * @param anonymizer
+     * @param handle
+     */
+    protected ARXSession(ARXAnonymizer anonymizer, DataHandleInput handle) {
+        this.anonymizer = anonymizer;
+        this.handle = handle;
+    }
+
+    /**
+     * Anonymizes the data with the given configuration. This releases the result of
+     * the previous run.
+     *
+     * @param config The privacy config
+     * @return ARXResult
+     * @throws IOException
+     */
+    public ARXResult anonymize(ARXConfiguration config) throws IOException {
+        handle.release();
+        return anonymizer.anonymize(this, config);
+    }
+
+    /**
+     * Returns the snapshots retained from previous runs, if any. Snapshots refer to rows
+     * by their index, which is why they are dropped when the rows have been reordered since.
+     *
+     * @return
+     */
+    protected HistoryArchive getArchive() {
+        if (archive != null && archiveRowOrder != handle.getRowOrder()) {
+            archive = null;
+        }
+        return archive;
+    }
+
+    /**
+     * Returns the data manager of the previous run, if it can be used with the given
+     * configuration. Returns <code>null</code> otherwise.
+     *
+     * @param config
+     * @return
+     */
+    protected DataManager getDataManager(ARXConfiguration config) {
+        return isCompatible(config) ? manager : null;
+    }
+
+    /**
+     * Returns the input handle
+     *
+     * @return
+     */
+    protected DataHandleInput getHandle() {
+        return handle;
+    }
+
+    /**
+     * Adds the snapshots retained from a run
+     *
+     * @param archive
+     */
+    protected void setArchive(HistoryArchive archive) {
+        if (archive == null) {
+            return;
+        }
+        if (this.getArchive() == null) {
+            this.archive = archive;
+        } else {
+            this.archive = archive.merge(this.archive, anonymizer.getHistorySize());
+        }
+        this.archiveRowOrder = handle.getRowOrder();
+    }
+
+    /**
+     * Sets the data manager, which has been created for the given configuration.
+     * This drops all snapshots retained from previous runs.
+     *
+     * @param manager
+     * @param config
+     */
+    protected void setDataManager(DataManager manager, ARXConfiguration config) {
+        this.manager = manager;
+        this.config = config.clone();
+        this.archive = null;
+    }
+
+    /**
+     * Returns whether the given configuration results in the same encoding
+     * as the configuration for which the data manager has been created
+     *
+     * @param config
+     * @return
+     */
+    private boolean isCompatible(ARXConfiguration config) {
+        return this.manager != null &&
+               isEncodingIndependent(this.config) &&
+               isEncodingIndependent(config) &&
+               (handle.getDefinition().getQuasiIdentifiersWithMicroaggregation().isEmpty() ||
+                this.config.getQualityModel().isAbleToHandleMicroaggregation() == config.getQualityModel().isAbleToHandleMicroaggregation()) &&
+               this.config.isUseBitPackedStorage() == config.isUseBitPackedStorage() &&
+               this.config.isUseOffHeapStorage() == config.isUseOffHeapStorage();
+    }
+
+    /**
+     * Returns whether the encoding of the data does not depend on the privacy models
+     *
+     * @param config
+     * @return
+     */
+    private boolean isEncodingIndependent(ARXConfiguration config) {
+        for (PrivacyCriterion c : config.getPrivacyModels()) {
+            if (c instanceof EDDifferentialPrivacy || c instanceof HierarchicalDistanceTCloseness || c.isSubsetAvailable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -103,6 +103,9 @@ public class ARXSolverConfiguration extends NewtonRaphsonConfiguration<ARXSolver
 
     /** Modified*/
     private boolean modified = false;
+
+    /** Number of threads */
+    private Integer numThreads = 1;
     
     /**
      * Creates a new instance
@@ -137,9 +140,18 @@ public class ARXSolverConfiguration extends NewtonRaphsonConfiguration<ARXSolver
         result.timePerTry(this.getTimePerTry());
         result.timeTotal(this.getTimeTotal());
         result.preparedStartValues(this.getStartValues().clone());
+        result.numThreads(this.getNumThreads());
         return result;
     }
 
+    /**
+     * Returns the number of threads used for solving. Defaults to 1.
+     * @return
+     */
+    public int getNumThreads() {
+        return this.numThreads == null ? 1 : this.numThreads;
+    }
+
     /**
      * Returns whether the solving process is deterministic
      * @return
@@ -172,6 +184,25 @@ public class ARXSolverConfiguration extends NewtonRaphsonConfiguration<ARXSolver
         return super.iterationsTotal(arg0);
     }
     
+    /**
+     * Sets the number of threads used for solving. With more than one thread, the
+     * statistical models are solved concurrently and the start values are tried
+     * concurrently. In this case, the limits per try apply, but the total limits
+     * are ignored.
+     * @param numThreads
+     * @return
+     */
+    public ARXSolverConfiguration numThreads(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be at least 1");
+        }
+        if (numThreads != getNumThreads()) {
+            modified = true;
+        }
+        this.numThreads = numThreads;
+        return this;
+    }
+
     @Override
     public ARXSolverConfiguration preparedStartValues(double[][] values) {
         if ((super.getStartValues() == null && values != null) || 
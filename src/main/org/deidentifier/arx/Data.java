@@ -30,6 +30,7 @@ import org.deidentifier.arx.io.CSVDataInput;
 import org.deidentifier.arx.io.CSVOptions;
 import org.deidentifier.arx.io.CSVSyntax;
 import org.deidentifier.arx.io.ImportAdapter;
+import org.deidentifier.arx.io.ImportAdapterColumnar;
 import org.deidentifier.arx.io.ImportConfiguration;
 
 /**
@@ -117,6 +118,109 @@ public abstract class Data { // NO_UCD
 
     }
 
+    /**
+     * A data object for values which have already been encoded with one dictionary per column.
+     * Handles are created from the dictionaries and codes without encoding the values again.
+     *
+     * @author Fabian Prasser
+     */
+    static class EncodedData extends Data {
+
+        /** The header. */
+        private final String[]   header;
+
+        /** The dictionaries of the columns. */
+        private final String[][] dictionaries;
+
+        /** The codes of the columns. */
+        private final int[][]    codes;
+
+        /** The number of rows. */
+        private final int        rows;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param header the header
+         * @param dictionaries the dictionaries
+         * @param codes the codes
+         * @param rows the number of rows
+         */
+        private EncodedData(final String[] header, final String[][] dictionaries, final int[][] codes, final int rows) {
+            this.header = header;
+            this.dictionaries = dictionaries;
+            this.codes = codes;
+            this.rows = rows;
+        }
+
+        @Override
+        protected Integer getLength() {
+            return rows;
+        }
+
+        @Override
+        protected Iterator<String[]> iterator() {
+            return new Iterator<String[]>() {
+
+                private int row = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return row < rows;
+                }
+
+                @Override
+                public String[] next() throws NoSuchElementException {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    if (row == -1) {
+                        row++;
+                        return header;
+                    }
+                    String[] result = new String[header.length];
+                    for (int i = 0; i < result.length; i++) {
+                        result[i] = dictionaries[i][codes[i][row]];
+                    }
+                    row++;
+                    return result;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        /**
+         * Returns the codes of the columns.
+         *
+         * @return
+         */
+        int[][] getCodes() {
+            return codes;
+        }
+
+        /**
+         * Returns the dictionaries of the columns.
+         *
+         * @return
+         */
+        String[][] getDictionaries() {
+            return dictionaries;
+        }
+
+        /**
+         * Returns the header.
+         *
+         * @return
+         */
+        String[] getHeader() {
+            return header;
+        }
+    }
+
     /**
      * A data object for iterators.
      *
@@ -162,6 +266,18 @@ public abstract class Data { // NO_UCD
         }
     }
 
+    /**
+     * Returns the number of records provided by the given adapter, if known.
+     * Adapters include the header in their length.
+     *
+     * @param adapter
+     * @return
+     */
+    private static Integer getNumRecords(ImportAdapter adapter) {
+        Integer length = adapter.getLength();
+        return length == null ? null : length - 1;
+    }
+
     /**
      * Creates a new default data object.
      *
@@ -182,7 +298,15 @@ public abstract class Data { // NO_UCD
 
         ImportConfiguration config = source.getConfiguration();
         ImportAdapter adapter = ImportAdapter.create(config);
-        return create(adapter, adapter.getLength());
+        
+        // Use dictionaries and codes from columnar files as they are
+        if (adapter instanceof ImportAdapterColumnar) {
+            ImportAdapterColumnar columnar = (ImportAdapterColumnar) adapter;
+            Data result = new EncodedData(columnar.getHeader(), columnar.getDictionaries(), columnar.getCodes(), getNumRecords(adapter));
+            result.getDefinition().parse(adapter);
+            return result;
+        }
+        return create(adapter, getNumRecords(adapter));
     }
 
     /**
@@ -405,7 +529,7 @@ public abstract class Data { // NO_UCD
         if (iterator instanceof ImportAdapter) {
             
             // Obtain data
-            result = new IterableData(iterator, ((ImportAdapter)iterator).getLength());
+            result = new IterableData(iterator, getNumRecords((ImportAdapter)iterator));
             
         } else {
 
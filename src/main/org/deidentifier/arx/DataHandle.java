@@ -44,8 +44,10 @@ import org.deidentifier.arx.DataType.ARXInteger;
 import org.deidentifier.arx.DataType.DataTypeDescription;
 import org.deidentifier.arx.aggregates.StatisticsBuilder;
 import org.deidentifier.arx.certificate.elements.ElementData;
+import org.deidentifier.arx.common.GroupifyCache;
 import org.deidentifier.arx.io.CSVDataOutput;
 import org.deidentifier.arx.io.CSVSyntax;
+import org.deidentifier.arx.io.ColumnarDataOutput;
 import org.deidentifier.arx.risk.RiskEstimateBuilder;
 import org.deidentifier.arx.risk.RiskModelHistogram;
 
@@ -79,6 +81,9 @@ public abstract class DataHandle {
     /** The header. */
     protected ObjectIntOpenHashMap<String> headerMap        = null;
 
+    /** Cached equivalence classes. */
+    private final GroupifyCache            groupifyCache    = new GroupifyCache();
+
     /** The node. */
     protected ARXNode                      node             = null;
 
@@ -659,8 +664,7 @@ public abstract class DataHandle {
      */
     public void save(final File file) throws IOException {
         checkRegistry();
-        final CSVDataOutput output = new CSVDataOutput(file);
-        output.write(iterator());
+        save(file, new CSVSyntax());
     }
 
     /**
@@ -672,8 +676,7 @@ public abstract class DataHandle {
      */
     public void save(final File file, final char separator) throws IOException {
         checkRegistry();
-        final CSVDataOutput output = new CSVDataOutput(file, separator);
-        output.write(iterator());
+        save(file, new CSVSyntax(separator));
     }
 
     /**
@@ -689,6 +692,43 @@ public abstract class DataHandle {
         output.write(iterator());
     }
 
+    /**
+     * Writes the data to multiple CSV files. Each file contains the header and a consecutive
+     * range of rows, which means that concatenating the files without their headers yields
+     * the complete dataset. Handles for output data write the files in parallel.
+     *
+     * @param files the files
+     * @param config the config
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void save(final File[] files, final CSVSyntax config) throws IOException {
+        checkRegistry();
+        if (files == null || files.length == 0) {
+            throw new IllegalArgumentException("At least one file must be specified");
+        }
+        final Iterator<String[]> iterator = iterator();
+        final String[] header = iterator.next();
+        final int rows = getNumRows();
+        for (int i = 0; i < files.length; i++) {
+            final int count = getPartEnd(rows, files.length, i) - getPartEnd(rows, files.length, i - 1);
+            new CSVDataOutput(files[i], config).write(new Iterator<String[]>() {
+                private int row = -1;
+                @Override
+                public boolean hasNext() {
+                    return row < count;
+                }
+                @Override
+                public String[] next() {
+                    return row++ == -1 ? header : iterator.next();
+                }
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            });
+        }
+    }
+
     /**
      * Writes the data to a CSV file.
      *
@@ -697,8 +737,7 @@ public abstract class DataHandle {
      */
     public void save(final OutputStream out) throws IOException {
         checkRegistry();
-        final CSVDataOutput output = new CSVDataOutput(out);
-        output.write(iterator());
+        save(out, new CSVSyntax());
     }
 
     /**
@@ -710,8 +749,7 @@ public abstract class DataHandle {
      */
     public void save(final OutputStream out, final char separator) throws IOException {
         checkRegistry();
-        final CSVDataOutput output = new CSVDataOutput(out, separator);
-        output.write(iterator());
+        save(out, new CSVSyntax(separator));
     }
 
     /**
@@ -735,8 +773,7 @@ public abstract class DataHandle {
      */
     public void save(final String path) throws IOException {
         checkRegistry();
-        final CSVDataOutput output = new CSVDataOutput(path);
-        output.write(iterator());
+        save(new File(path), new CSVSyntax());
     }
 
     /**
@@ -748,8 +785,7 @@ public abstract class DataHandle {
      */
     public void save(final String path, final char separator) throws IOException {
         checkRegistry();
-        final CSVDataOutput output = new CSVDataOutput(path, separator);
-        output.write(iterator());
+        save(new File(path), new CSVSyntax(separator));
     }
 
     /**
@@ -761,8 +797,32 @@ public abstract class DataHandle {
      */
     public void save(final String path, final CSVSyntax config) throws IOException {
         checkRegistry();
-        final CSVDataOutput output = new CSVDataOutput(path, config);
-        output.write(iterator());
+        save(new File(path), config);
+    }
+
+    /**
+     * Writes the data to a file in a compact columnar binary format, which stores the
+     * dictionary of each column once and the codes of all rows bit-packed. The file can be
+     * loaded with {@link DataSource#createColumnarSource(File)} without parsing and
+     * encoding the values again.
+     *
+     * @param file the file
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void saveColumnar(final File file) throws IOException {
+        checkRegistry();
+        new ColumnarDataOutput(file).write(iterator());
+    }
+
+    /**
+     * Writes the data to a stream in a compact columnar binary format.
+     *
+     * @param out the out
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void saveColumnar(final OutputStream out) throws IOException {
+        checkRegistry();
+        new ColumnarDataOutput(out).write(iterator());
     }
 
     /**
@@ -928,6 +988,27 @@ public abstract class DataHandle {
      */
     protected abstract String[] getDistinctValues(int column, boolean ignoreSuppression, InterruptHandler handler);
 
+    /**
+     * Returns the exclusive end of the given part of rows, if the rows are split into the given number of parts
+     * 
+     * @param rows
+     * @param parts
+     * @param part
+     * @return
+     */
+    protected int getPartEnd(int rows, int parts, int part) {
+        return (int) ((long) rows * (part + 1) / parts);
+    }
+
+    /**
+     * Returns the cache for equivalence classes of this handle.
+     *
+     * @return the cache
+     */
+    protected GroupifyCache getGroupifyCache() {
+        return groupifyCache;
+    }
+
     /**
      * Returns the registry associated with this handle.
      *
@@ -1007,6 +1088,16 @@ public abstract class DataHandle {
      */
     protected abstract boolean internalReplace(int column, String original, String replacement);
 
+    /**
+     * Invalidates cached information about this handle and its view, because the data changed.
+     */
+    protected void invalidate() {
+        groupifyCache.clear();
+        if (subset != null) {
+            subset.groupifyCache.clear();
+        }
+    }
+
     /**
      * Returns whether the data represented by this handle is anonymous
      * @return
@@ -17,10 +17,8 @@
 
 package org.deidentifier.arx;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
 
 import org.deidentifier.arx.DataHandleInternal.InterruptHandler;
 import org.deidentifier.arx.aggregates.StatisticsBuilder;
@@ -50,6 +48,9 @@ public class DataHandleInput extends DataHandle {
     /** Is this handle locked?. */
     private boolean      locked          = false;
 
+    /** Incremented whenever rows are swapped. */
+    private long         rowOrder        = 0;
+
     /**
      * Creates a new data handle.
      *
@@ -57,6 +58,12 @@ public class DataHandleInput extends DataHandle {
      */
     protected DataHandleInput(final Data data) {
         
+        // Use values which have already been encoded
+        if (data instanceof Data.EncodedData) {
+            initialize((Data.EncodedData) data);
+            return;
+        }
+        
         // Obtain and check iterator
         Iterator<String[]> iterator = data.iterator();
         if (!iterator.hasNext()) { 
@@ -75,60 +82,44 @@ public class DataHandleInput extends DataHandle {
         // Init dictionary
         this.dictionary = new Dictionary(header.length);
         
-        // Optimized code-path, if the number of records is known
-        if (data.getLength() != null && data.getLength() > 0) {
-            
-            // Records
-            int records = data.getLength();
-
-            // Build array
-            this.data = new DataMatrix(records, header.length);
-            
-            // Encode data on the fly
-            int row = 0;
-            while (iterator.hasNext()) {
-    
-                // Check
-                if (row == records) {
-                    throw new IllegalArgumentException("Number of records exceeds estimate"); 
-                }
-                
-                // Process a tuple
-                String[] strings = iterator.next();
-                int[] tuple = new int[header.length];
-                for (int i = 0; i < header.length; i++) {
-                    String value = (i < strings.length) ? strings[i] : DataType.NULL_VALUE;
-                    value = (value != null) ? value : DataType.NULL_VALUE;
-                    tuple[i] = dictionary.register(i, value);
+        // Encode data into a flat buffer, which avoids one object per record. If the
+        // number of records is known, it is used as the initial capacity. It is only an
+        // estimate, as the source may change or select rows non-deterministically.
+        int capacity = (data.getLength() != null && data.getLength() > 0) ? data.getLength() : 1024;
+        int[] buffer;
+        try {
+            buffer = new int[Math.multiplyExact(capacity, header.length)];
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Not more then 2^31-1 cells supported");
+        }
+        int length = 0;
+        while (iterator.hasNext()) {
+
+            // Grow
+            if (length + header.length > buffer.length) {
+                try {
+                    buffer = Arrays.copyOf(buffer, Math.max(length + header.length, Math.addExact(buffer.length, buffer.length >> 1)));
+                } catch (ArithmeticException e) {
+                    throw new IllegalArgumentException("Not more then 2^31-1 cells supported");
                 }
-                this.data.setRow(row, tuple);
-                row++;
             }
 
-        } else { 
-    
-            // Encode data
-            List<int[]> vals = new ArrayList<int[]>();
-            while (iterator.hasNext()) {
-    
-                // Process a tuple
-                String[] strings = iterator.next();
-                int[] tuple = new int[header.length];
-                for (int i = 0; i < header.length; i++) {
-                    String value = (i < strings.length) ? strings[i] : DataType.NULL_VALUE;
-                    value = (value != null) ? value : DataType.NULL_VALUE;
-                    tuple[i] = dictionary.register(i, value);
-                }
-                vals.add(tuple);
-            }
-    
-            // Build array
-            this.data = new DataMatrix(vals.size(), header.length);
-            for (int row = 0; row < vals.size(); row++) {
-                this.data.setRow(row, vals.get(row));
+            // Process a tuple
+            String[] strings = iterator.next();
+            for (int i = 0; i < header.length; i++) {
+                String value = (i < strings.length) ? strings[i] : DataType.NULL_VALUE;
+                value = (value != null) ? value : DataType.NULL_VALUE;
+                buffer[length++] = dictionary.register(i, value);
             }
         }
 
+        // Trim the buffer if more than an eighth of it is unused. Otherwise, build the array
+        // with the records actually read, backed by the buffer to avoid a copy of the dataset
+        if (buffer.length - length > length >> 3) {
+            buffer = Arrays.copyOf(buffer, length);
+        }
+        this.data = new DataMatrix(length / header.length, header.length, buffer);
+
         // finalize dictionary
         this.dictionary.finalizeAll();
 
@@ -213,6 +204,101 @@ public class DataHandleInput extends DataHandle {
         };
     }
     
+    /**
+     * Appends the given rows. Values which have already been encoded keep their codes
+     * and the rows which are already contained are not encoded again.
+     * 
+     * @param iterator
+     */
+    protected void append(final Iterator<String[]> iterator) {
+
+        // Check
+        checkRegistry();
+        if (isLocked()) {
+            throw new IllegalStateException("This data handle is locked. Please release it first");
+        }
+
+        // Encode new rows into a flat buffer
+        this.dictionary.definalizeAll();
+        int[] buffer = new int[header.length * 1024];
+        int length = 0;
+        while (iterator.hasNext()) {
+
+            // Grow
+            if (length + header.length > buffer.length) {
+                try {
+                    buffer = Arrays.copyOf(buffer, Math.max(length + header.length, Math.addExact(buffer.length, buffer.length >> 1)));
+                } catch (ArithmeticException e) {
+                    throw new IllegalArgumentException("Not more then 2^31-1 cells supported");
+                }
+            }
+
+            // Process a tuple
+            String[] strings = iterator.next();
+            for (int i = 0; i < header.length; i++) {
+                String value = (i < strings.length) ? strings[i] : DataType.NULL_VALUE;
+                value = (value != null) ? value : DataType.NULL_VALUE;
+                buffer[length++] = dictionary.register(i, value);
+            }
+        }
+        this.dictionary.finalizeAll();
+
+        // Build array
+        int rows = this.data.getNumRows();
+        int records = length / header.length;
+        int[] tuple = new int[header.length];
+        DataMatrix data = new DataMatrix(rows + records, header.length);
+        for (int row = 0; row < rows; row++) {
+            data.copyFrom(row, this.data, row);
+        }
+        for (int row = 0; row < records; row++) {
+            System.arraycopy(buffer, row * header.length, tuple, 0, header.length);
+            data.setRow(rows + row, tuple);
+        }
+        this.data = data;
+        this.dataGeneralized = null;
+        this.dataAnalyzed = null;
+        this.invalidate();
+    }
+
+    /**
+     * Initializes this handle from encoded data, without encoding the values again
+     * 
+     * @param data
+     */
+    private void initialize(final Data.EncodedData data) {
+
+        // Check
+        if (data.getHeader().length == 0) {
+            throw new IllegalArgumentException("Data object is empty!");
+        }
+
+        // Register
+        this.setRegistry(new DataRegistry());
+        this.getRegistry().updateInput(this);
+        this.definition = data.getDefinition().clone();
+
+        // Header and dictionary
+        String[] columns = data.getHeader();
+        super.setHeader(Arrays.copyOf(columns, columns.length));
+        this.dictionary = new Dictionary(data.getDictionaries());
+
+        // Build array
+        int[][] codes = data.getCodes();
+        int records = data.getLength();
+        int[] tuple = new int[header.length];
+        this.data = new DataMatrix(records, header.length);
+        for (int row = 0; row < records; row++) {
+            for (int i = 0; i < header.length; i++) {
+                tuple[i] = codes[i][row];
+            }
+            this.data.setRow(row, tuple);
+        }
+
+        // Create datatype array
+        this.columnToDataType = getColumnToDataType();
+    }
+
     /**
      * Releases all resources.
      */
@@ -323,6 +409,17 @@ public class DataHandleInput extends DataHandle {
         data.swap(row1, row2);
         if (dataGeneralized != null) dataGeneralized.swap(row1, row2);
         if (dataAnalyzed != null) dataAnalyzed.swap(row1, row2);
+        rowOrder++;
+    }
+
+    /**
+     * Returns a number which changes whenever rows are swapped, e.g. when the data is sorted.
+     * Row indices which have been obtained before are invalid if it has changed.
+     *
+     * @return
+     */
+    protected long getRowOrder() {
+        return this.rowOrder;
     }
 
     /**
@@ -18,6 +18,8 @@
 package org.deidentifier.arx;
 
 import org.deidentifier.arx.aggregates.StatisticsBuilder;
+import org.deidentifier.arx.common.EncodedGroupify;
+import org.deidentifier.arx.common.EncodedGroupify.OutlierHandling;
 
 /**
  * Wrapper class that provides information to StatisticsBuilder.
@@ -167,6 +169,20 @@ public class DataHandleInternal {
         return handle.getGeneralization(attribute);
     }
 
+    /**
+     * Returns cached equivalence classes, which have been built with the given parameters.
+     * Returns <code>null</code> if there are none.
+     * 
+     * @param indices
+     * @param ignoreSuppression
+     * @param outliers
+     * @param wildcard
+     * @return
+     */
+    public EncodedGroupify getGroupify(int[] indices, boolean ignoreSuppression, OutlierHandling outliers, String wildcard) {
+        return handle.getGroupifyCache().get(indices, ignoreSuppression, outliers, wildcard);
+    }
+
     /**
      * Returns the underlying handle. This should rarely be used.
      * @return
@@ -206,7 +222,7 @@ public class DataHandleInternal {
             return new DataHandleInternal(((DataHandleSubset)handle).getSource());
         }
     }
-
+
     /**
      * Method
      * @param row
@@ -267,6 +283,16 @@ public class DataHandleInternal {
         return handle.isOutlier(row);
     }
 
+    /**
+     * Caches equivalence classes, which must have been built from this handle
+     * and must not be modified anymore.
+     * 
+     * @param groupify
+     */
+    public void setGroupify(EncodedGroupify groupify) {
+        handle.getGroupifyCache().put(groupify);
+    }
+
     /**
      * Returns whether this is an output handle
      * @return
@@ -17,14 +17,26 @@
 
 package org.deidentifier.arx;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.deidentifier.arx.ARXLattice.ARXNode;
 import org.deidentifier.arx.ARXLattice.Anonymity;
@@ -33,6 +45,8 @@ import org.deidentifier.arx.aggregates.StatisticsBuilder;
 import org.deidentifier.arx.framework.data.Data;
 import org.deidentifier.arx.framework.data.DataManager;
 import org.deidentifier.arx.framework.data.DataMatrix;
+import org.deidentifier.arx.io.CSVEncoder;
+import org.deidentifier.arx.io.CSVSyntax;
 
 /**
  * An implementation of the class DataHandle for output data.
@@ -87,6 +101,9 @@ public class DataHandleOutput extends DataHandle {
         }
     }
 
+    /** Size of the buffer used for writing CSV files */
+    private static final int BUFFER_SIZE = 1 << 20;
+
     /** A specific slice of data */
     private Data          dataInput;
 
@@ -247,6 +264,85 @@ public class DataHandleOutput extends DataHandle {
     public boolean replace(int column, String original, String replacement) {
         throw new UnsupportedOperationException("This operation is only supported by handles for data input");
     }
+
+    @Override
+    public void save(final File file, final CSVSyntax config) throws IOException {
+        checkRegistry();
+        CSVEncoder encoder = new CSVEncoder(config, Charset.defaultCharset());
+        byte[][][] values = getEncodedValues(encoder);
+        try (OutputStream out = new FileOutputStream(file)) {
+            write(out, encoder, values, 0, getNumRows());
+        }
+    }
+
+    @Override
+    public void save(final File[] files, final CSVSyntax config) throws IOException {
+        checkRegistry();
+        if (files == null || files.length == 0) {
+            throw new IllegalArgumentException("At least one file must be specified");
+        }
+        final byte[][][] values = getEncodedValues(new CSVEncoder(config, Charset.defaultCharset()));
+        final int rows = getNumRows();
+        
+        // Prepare
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < files.length; i++) {
+            final File file = files[i];
+            final int from = getPartEnd(rows, files.length, i - 1);
+            final int to = getPartEnd(rows, files.length, i);
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    try (OutputStream out = new FileOutputStream(file)) {
+                        write(out, new CSVEncoder(config, Charset.defaultCharset()), values, from, to);
+                    }
+                    return null;
+                }
+            });
+        }
+        
+        // Write in parallel
+        int threads = Math.min(files.length, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ARX output");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    } else if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    } else {
+                        throw new IOException(e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("Interrupted");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void save(final OutputStream out, final CSVSyntax config) throws IOException {
+        checkRegistry();
+        CSVEncoder encoder = new CSVEncoder(config, Charset.defaultCharset());
+        write(out, encoder, getEncodedValues(encoder), 0, getNumRows());
+        out.flush();
+    }
     
     /**
      * Internal method: writes some data into the output stream
@@ -335,6 +431,103 @@ public class DataHandleOutput extends DataHandle {
         // Create view
         this.getRegistry().createOutputSubset(node, config);
     }
+
+    /**
+     * Encodes all values of all dictionaries into CSV fields. Returns null for columns
+     * which are not contained in the output.
+     * 
+     * @param encoder
+     * @return
+     */
+    private byte[][][] getEncodedValues(CSVEncoder encoder) {
+        byte[][][] result = new byte[header.length][][];
+        for (int col = 0; col < header.length; col++) {
+            Data data = columnToData[col];
+            if (data != null) {
+                String[] dictionary = data.getDictionary().getMapping()[columnToIndex[col]];
+                byte[][] values = new byte[dictionary.length][];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = encoder.encode(dictionary[i]);
+                }
+                result[col] = values;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the header and the given range of rows into the stream, directly from the buffers.
+     * This is equivalent to, but much faster than, writing the values returned by the iterator.
+     * 
+     * @param out
+     * @param encoder
+     * @param values
+     * @param from
+     * @param to
+     * @throws IOException
+     */
+    private void write(OutputStream out, CSVEncoder encoder, byte[][][] values, int from, int to) throws IOException {
+        
+        // Prepare
+        DataMatrix generalized = dataGeneralized.getArray();
+        DataMatrix[] matrices = new DataMatrix[header.length];
+        int[] indices = new int[header.length];
+        for (int col = 0; col < header.length; col++) {
+            matrices[col] = columnToData[col] == null ? null : columnToData[col].getArray();
+            indices[col] = columnToIndex[col];
+        }
+        byte[] suppressed = encoder.encode(DataType.ANY_VALUE);
+        byte[] delimiter = encoder.getDelimiter();
+        byte[] linebreak = encoder.getLinebreak();
+        
+        // Header
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int position = append(out, buffer, 0, encoder.encode(header));
+
+        // Rows
+        for (int row = from; row < to; row++) {
+            boolean outlier = (generalized.get(row, 0) & Data.OUTLIER_MASK) != 0;
+            for (int col = 0; col < matrices.length; col++) {
+                if (col != 0) {
+                    position = append(out, buffer, position, delimiter);
+                }
+                byte[] field;
+                if (matrices[col] == null || (outlier && columnToSuppressionStatus[col])) {
+                    field = suppressed;
+                } else {
+                    field = values[col][matrices[col].get(row, indices[col]) & Data.REMOVE_OUTLIER_MASK];
+                }
+                position = append(out, buffer, position, field);
+            }
+            position = append(out, buffer, position, linebreak);
+        }
+        
+        // Flush
+        out.write(buffer, 0, position);
+    }
+
+    /**
+     * Appends the given bytes to the buffer, which is flushed into the stream when full
+     * 
+     * @param out
+     * @param buffer
+     * @param position
+     * @param bytes
+     * @return the new position
+     * @throws IOException
+     */
+    private int append(OutputStream out, byte[] buffer, int position, byte[] bytes) throws IOException {
+        if (position + bytes.length > buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return 0;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        return position + bytes.length;
+    }
     
     /**
      * Releases all resources.
@@ -686,7 +879,7 @@ public class DataHandleOutput extends DataHandle {
             dataAggregated.getArray().swap(row1, row2);
         }
     }
-
+
     @Override
     protected boolean isAnonymous() {
         return this.anonymous;
@@ -719,4 +912,4 @@ public class DataHandleOutput extends DataHandle {
             }
         }
     }
-}
+}
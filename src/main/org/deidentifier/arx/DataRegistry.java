@@ -67,6 +67,9 @@ class DataRegistry {
         if (!output.isEmpty()) {
             replaced |= output.values().iterator().next().internalReplace(column, original, replacement);
         }
+        if (replaced) {
+            invalidate();
+        }
         return replaced;
     }
     
@@ -99,6 +102,14 @@ class DataRegistry {
         return subset;
     }
     
+    /**
+     * Invalidates cached information about all handles, e.g. because rows have been swapped.
+     */
+    private void invalidate() {
+        if (input != null) input.invalidate();
+        for (DataHandleOutput outhandle : output.values()) outhandle.invalidate();
+    }
+
     /**
      * Sort.
      *
@@ -140,6 +151,7 @@ class DataRegistry {
         if (subset != null){
             subset.internalRebuild();
         }
+        invalidate();
     }
 
     /**
@@ -177,6 +189,7 @@ class DataRegistry {
         
         // No need to swap and rebuild the subset views
         GenericSorting.mergeSort(from, to, c, s);
+        invalidate();
     }
     
     /**
@@ -196,6 +209,7 @@ class DataRegistry {
             subset.internalSwap(row1, row2);
             subset.internalRebuild();
         }
+        invalidate();
     }
     
     /**
@@ -212,6 +226,7 @@ class DataRegistry {
         row2 = handle.internalTranslate(row2);
         if (input!=null) input.internalSwap(row1, row2);
         for (DataHandleOutput outhandle : output.values()) outhandle.internalSwap(row1, row2);
+        invalidate();
     }
 
     /**
@@ -21,22 +21,44 @@ import java.nio.charset.Charset;
 import java.sql.SQLException;
 
 import org.deidentifier.arx.io.ImportColumnCSV;
+import org.deidentifier.arx.io.ImportColumnColumnar;
 import org.deidentifier.arx.io.ImportColumnExcel;
 import org.deidentifier.arx.io.ImportColumnJDBC;
 import org.deidentifier.arx.io.ImportConfiguration;
 import org.deidentifier.arx.io.ImportConfigurationCSV;
+import org.deidentifier.arx.io.ImportConfigurationColumnar;
 import org.deidentifier.arx.io.ImportConfigurationExcel;
 import org.deidentifier.arx.io.ImportConfigurationJDBC;
 
 /**
- * This class provides configuration options for importing data from CSV-files, from Excel-files
- * or via a JDBC connection.
+ * This class provides configuration options for importing data from CSV-files, from Excel-files,
+ * from columnar data files or via a JDBC connection.
  *
  * @author Fabian Prasser
  * @author Florian Kohlmayer
  */
 public class DataSource { // NO_UCD
     
+    /**
+     * Creates a source for a file written with {@link DataHandle#saveColumnar(File)}.
+     *
+     * @param file
+     * @return
+     */
+    public static DataSource createColumnarSource(File file) {
+        return new DataSource(file);
+    }
+    
+    /**
+     * Creates a source for a file written with {@link DataHandle#saveColumnar(File)}.
+     *
+     * @param file
+     * @return
+     */
+    public static DataSource createColumnarSource(String file) {
+        return createColumnarSource(new File(file));
+    }
+    
     /**
      * Creates a CSV data source.
      *
@@ -114,6 +136,15 @@ public class DataSource { // NO_UCD
     /** The config. */
     private final ImportConfiguration config;
     
+    /**
+     * Creates a columnar source.
+     *
+     * @param file
+     */
+    private DataSource(File file) {
+        config = new ImportConfigurationColumnar(file.getAbsolutePath());
+    }
+    
     /**
      * Creates a CSV source.
      *
@@ -182,6 +213,8 @@ public class DataSource { // NO_UCD
             config.addColumn(new ImportColumnExcel(index, datatype));
         } else if (config instanceof ImportConfigurationJDBC) {
             config.addColumn(new ImportColumnJDBC(index, datatype));
+        } else if (config instanceof ImportConfigurationColumnar) {
+            config.addColumn(new ImportColumnColumnar(index, datatype));
         }
     }
     
@@ -198,6 +231,8 @@ public class DataSource { // NO_UCD
             config.addColumn(new ImportColumnExcel(index, datatype, cleansing));
         } else if (config instanceof ImportConfigurationJDBC) {
             config.addColumn(new ImportColumnJDBC(index, datatype, cleansing));
+        } else if (config instanceof ImportConfigurationColumnar) {
+            config.addColumn(new ImportColumnColumnar(index, datatype, cleansing));
         }
     }
     
@@ -225,6 +260,8 @@ public class DataSource { // NO_UCD
             config.addColumn(new ImportColumnExcel(index, alias, datatype));
         } else if (config instanceof ImportConfigurationJDBC) {
             config.addColumn(new ImportColumnJDBC(index, alias, datatype));
+        } else if (config instanceof ImportConfigurationColumnar) {
+            config.addColumn(new ImportColumnColumnar(index, alias, datatype));
         }
     }
     
@@ -243,6 +280,8 @@ public class DataSource { // NO_UCD
             config.addColumn(new ImportColumnExcel(index, alias, datatype, cleansing));
         } else if (config instanceof ImportConfigurationJDBC) {
             config.addColumn(new ImportColumnJDBC(index, alias, datatype, cleansing));
+        } else if (config instanceof ImportConfigurationColumnar) {
+            config.addColumn(new ImportColumnColumnar(index, alias, datatype, cleansing));
         }
     }
     
@@ -268,6 +307,8 @@ public class DataSource { // NO_UCD
             config.addColumn(new ImportColumnExcel(name, datatype));
         } else if (config instanceof ImportConfigurationJDBC) {
             config.addColumn(new ImportColumnJDBC(name, datatype));
+        } else if (config instanceof ImportConfigurationColumnar) {
+            config.addColumn(new ImportColumnColumnar(name, datatype));
         }
     }
     
@@ -285,6 +326,8 @@ public class DataSource { // NO_UCD
             config.addColumn(new ImportColumnExcel(name, datatype, cleansing));
         } else if (config instanceof ImportConfigurationJDBC) {
             config.addColumn(new ImportColumnJDBC(name, datatype, cleansing));
+        } else if (config instanceof ImportConfigurationColumnar) {
+            config.addColumn(new ImportColumnColumnar(name, datatype, cleansing));
         }
     }
     
@@ -312,6 +355,8 @@ public class DataSource { // NO_UCD
             config.addColumn(new ImportColumnExcel(name, alias, datatype));
         } else if (config instanceof ImportConfigurationJDBC) {
             config.addColumn(new ImportColumnJDBC(name, alias, datatype));
+        } else if (config instanceof ImportConfigurationColumnar) {
+            config.addColumn(new ImportColumnColumnar(name, alias, datatype));
         }
     }
     
@@ -329,7 +374,34 @@ public class DataSource { // NO_UCD
             config.addColumn(new ImportColumnExcel(name, alias, datatype, cleansing));
         } else if (config instanceof ImportConfigurationJDBC) {
             config.addColumn(new ImportColumnJDBC(name, alias, datatype, cleansing));
+        } else if (config instanceof ImportConfigurationColumnar) {
+            config.addColumn(new ImportColumnColumnar(name, alias, datatype, cleansing));
+        }
+    }
+    
+    /**
+     * Sets a condition which selects the rows to import from a JDBC source. The condition
+     * is passed to the database as a WHERE clause, e.g. "age > 40".
+     *
+     * @param condition
+     */
+    public void setCondition(String condition) {
+        if (!(config instanceof ImportConfigurationJDBC)) {
+            throw new UnsupportedOperationException("Only supported by JDBC sources");
+        }
+        ((ImportConfigurationJDBC) config).setCondition(condition);
+    }
+    
+    /**
+     * Sets the number of rows fetched from a JDBC source at once.
+     *
+     * @param fetchSize
+     */
+    public void setFetchSize(int fetchSize) {
+        if (!(config instanceof ImportConfigurationJDBC)) {
+            throw new UnsupportedOperationException("Only supported by JDBC sources");
         }
+        ((ImportConfigurationJDBC) config).setFetchSize(fetchSize);
     }
     
     /**
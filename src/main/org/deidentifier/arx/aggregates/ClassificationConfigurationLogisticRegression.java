@@ -114,7 +114,48 @@ public class ClassificationConfigurationLogisticRegression extends ARXClassifica
                                                             int numberOfFolds,
                                                             boolean deterministic,
                                                             PriorFunction prior) {
-        super(deterministic, maxRecords, numberOfFolds, seed, vectorLength);
+        this(alpha,
+             decayExponent,
+             lambda,
+             learningRate,
+             stepOffset,
+             vectorLength,
+             maxRecords,
+             seed,
+             numberOfFolds,
+             deterministic,
+             prior,
+             DEFAULT_NUMBER_OF_THREADS);
+    }
+
+    /**
+     * Clone constructor
+     * @param alpha
+     * @param decayExponent
+     * @param lambda
+     * @param learningRate
+     * @param stepOffset
+     * @param vectorLength
+     * @param maxRecords
+     * @param seed
+     * @param numberOfFolds
+     * @param deterministic
+     * @param prior
+     * @param numberOfThreads
+     */
+    protected ClassificationConfigurationLogisticRegression(double alpha,
+                                                            double decayExponent,
+                                                            double lambda,
+                                                            double learningRate,
+                                                            int stepOffset,
+                                                            int vectorLength,
+                                                            int maxRecords,
+                                                            int seed,
+                                                            int numberOfFolds,
+                                                            boolean deterministic,
+                                                            PriorFunction prior,
+                                                            int numberOfThreads) {
+        super(deterministic, maxRecords, numberOfFolds, seed, vectorLength, numberOfThreads);
         this.alpha = alpha;
         this.decayExponent = decayExponent;
         this.lambda = lambda;
@@ -140,7 +181,8 @@ public class ClassificationConfigurationLogisticRegression extends ARXClassifica
                                                                  seed,
                                                                  numberOfFolds,
                                                                  deterministic,
-                                                                 prior);
+                                                                 prior,
+                                                                 getNumThreads());
     }
 
     /**
@@ -78,7 +78,36 @@ public class ClassificationConfigurationNaiveBayes extends ARXClassificationConf
                                                     int vectorLength,
                                                     Type type,
                                                     double sigma) {
-        super(deterministic, maxRecords, numberOfFolds, seed, vectorLength);
+        this(deterministic,
+             maxRecords,
+             numberOfFolds,
+             seed,
+             vectorLength,
+             type,
+             sigma,
+             DEFAULT_NUMBER_OF_THREADS);
+    }
+
+    /** 
+     * Clone constructor
+     * @param deterministic
+     * @param maxRecords
+     * @param numberOfFolds
+     * @param seed
+     * @param vectorLength
+     * @param type
+     * @param sigma
+     * @param numberOfThreads
+     */
+    protected ClassificationConfigurationNaiveBayes(boolean deterministic,
+                                                    int maxRecords,
+                                                    int numberOfFolds,
+                                                    long seed,
+                                                    int vectorLength,
+                                                    Type type,
+                                                    double sigma,
+                                                    int numberOfThreads) {
+        super(deterministic, maxRecords, numberOfFolds, seed, vectorLength, numberOfThreads);
         this.type = type;
         this.sigma = sigma;
     }
@@ -91,7 +120,8 @@ public class ClassificationConfigurationNaiveBayes extends ARXClassificationConf
                                                          super.getSeed(),
                                                          super.getVectorLength(),
                                                          type,
-                                                         sigma);
+                                                         sigma,
+                                                         super.getNumThreads());
     }
 
     /**
@@ -111,7 +111,48 @@ public class ClassificationConfigurationRandomForest extends ARXClassificationCo
                                                     int maximumNumberOfLeafNodes,
                                                     double subsample,
                                                     SplitRule splitRule) {
-        super(deterministic, maxRecords, numberOfFolds, seed, vectorLength);
+        this(deterministic,
+             maxRecords,
+             numberOfFolds,
+             seed,
+             vectorLength,
+             numberOfTrees,
+             numberOfVariablesToSplit,
+             minimumSizeOfLeafNodes,
+             maximumNumberOfLeafNodes,
+             subsample,
+             splitRule,
+             DEFAULT_NUMBER_OF_THREADS);
+    }
+
+    /**
+     * Clone constructor
+     * @param deterministic
+     * @param maxRecords
+     * @param numberOfFolds
+     * @param seed
+     * @param vectorLength
+     * @param numberOfTrees
+     * @param numberOfVariablesToSplit
+     * @param minimumSizeOfLeafNodes
+     * @param maximumNumberOfLeafNodes
+     * @param subsample
+     * @param splitRule
+     * @param numberOfThreads
+     */
+    protected ClassificationConfigurationRandomForest(boolean deterministic,
+                                                    int maxRecords,
+                                                    int numberOfFolds,
+                                                    long seed,
+                                                    int vectorLength,
+                                                    int numberOfTrees,
+                                                    int numberOfVariablesToSplit,
+                                                    int minimumSizeOfLeafNodes,
+                                                    int maximumNumberOfLeafNodes,
+                                                    double subsample,
+                                                    SplitRule splitRule,
+                                                    int numberOfThreads) {
+        super(deterministic, maxRecords, numberOfFolds, seed, vectorLength, numberOfThreads);
         this.numberOfTrees = numberOfTrees;
         this.numberOfVariablesToSplit = numberOfVariablesToSplit;
         this.minimumSizeOfLeafNodes = minimumSizeOfLeafNodes;
@@ -132,7 +173,8 @@ public class ClassificationConfigurationRandomForest extends ARXClassificationCo
                                                          minimumSizeOfLeafNodes,
                                                          maximumNumberOfLeafNodes,
                                                          subsample,
-                                                         splitRule);
+                                                         splitRule,
+                                                         super.getNumThreads());
     }
     
     /**
@@ -42,9 +42,9 @@ import org.deidentifier.arx.DataType.ARXString;
 import org.deidentifier.arx.DataType.DataTypeWithRatioScale;
 import org.deidentifier.arx.aggregates.StatisticsContingencyTable.Entry;
 import org.deidentifier.arx.aggregates.StatisticsSummary.StatisticsSummaryOrdinal;
-import org.deidentifier.arx.common.Groupify;
-import org.deidentifier.arx.common.Groupify.Group;
-import org.deidentifier.arx.common.TupleWrapper;
+import org.deidentifier.arx.aggregates.quality.QualityConfiguration;
+import org.deidentifier.arx.common.EncodedGroupify;
+import org.deidentifier.arx.common.EncodedGroupify.OutlierHandling;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
 import org.deidentifier.arx.exceptions.ComputationInterruptedException;
@@ -582,15 +582,17 @@ public class StatisticsBuilder {
         }
 
         // Calculate equivalence classes
-        int capacity = handle.getNumRows() / 10;
-        capacity = capacity > 10 ? capacity : 10;
-        Groupify<TupleWrapper> map = new Groupify<TupleWrapper>(capacity);
-        int numRows = handle.getNumRows();
-        for (int row = 0; row < numRows; row++) {
-
-            TupleWrapper tuple = new TupleWrapper(handle, indices, row, false);
-            map.add(tuple);
-            checkInterrupt();
+        EncodedGroupify map = handle.getGroupify(indices, false, OutlierHandling.SUPPRESS, null);
+        if (map == null) {
+            int capacity = handle.getNumRows() / 10;
+            capacity = capacity > 10 ? capacity : 10;
+            map = new EncodedGroupify(handle, indices, false, capacity);
+            int numRows = handle.getNumRows();
+            for (int row = 0; row < numRows; row++) {
+                map.add(row);
+                checkInterrupt();
+            }
+            handle.setGroupify(map);
         }
 
         // Now compute the following values
@@ -607,29 +609,27 @@ public class StatisticsBuilder {
          
         // Let's do it
         boolean containsOutliers = false;
-        Group<TupleWrapper> element = map.first();
-        while (element != null) {
+        for (int group = 0; group < map.size(); group++) {
             
             checkInterrupt();
-            maximalEquivalenceClassSizeIncludingOutliers = Math.max(element.getCount(), maximalEquivalenceClassSizeIncludingOutliers);
-            minimalEquivalenceClassSizeIncludingOutliers = Math.min(element.getCount(), minimalEquivalenceClassSizeIncludingOutliers);
-            averageEquivalenceClassSizeIncludingOutliers += element.getCount();
-            numberOfTuples += element.getCount();
+            int count = map.getCount(group);
+            maximalEquivalenceClassSizeIncludingOutliers = Math.max(count, maximalEquivalenceClassSizeIncludingOutliers);
+            minimalEquivalenceClassSizeIncludingOutliers = Math.min(count, minimalEquivalenceClassSizeIncludingOutliers);
+            averageEquivalenceClassSizeIncludingOutliers += count;
+            numberOfTuples += count;
             
-            if (!element.getElement().isSuppressed()) {
+            if (!map.isSuppressed(group)) {
                 
-                maximalEquivalenceClassSize = Math.max(element.getCount(), maximalEquivalenceClassSize);
-                minimalEquivalenceClassSize = Math.min(element.getCount(), minimalEquivalenceClassSize);
-                averageEquivalenceClassSize += element.getCount();
+                maximalEquivalenceClassSize = Math.max(count, maximalEquivalenceClassSize);
+                minimalEquivalenceClassSize = Math.min(count, minimalEquivalenceClassSize);
+                averageEquivalenceClassSize += count;
                 
             } else {
                 
                 containsOutliers = true;
                 // All suppressed records will collapse into a single group, so we can use the "=" assignment operator here
-                numberOfOutlyingTuples = element.getCount();
+                numberOfOutlyingTuples = count;
             }
-            
-            element = element.next();
         }
         
         numberOfEquivalenceClasses = numberOfEquivalenceClassesIncludingOutliers;
@@ -776,6 +776,21 @@ public class StatisticsBuilder {
      */
     public StatisticsQuality getQualityStatistics(DataHandle output, Set<String> qis) {
 
+        // Build and return
+        return getQualityStatistics(output, qis, new QualityConfiguration());
+    }
+    
+    /**
+     * Returns data quality according to the models selected in the given configuration. 
+     * This is a special variant of the method supporting arbitrary user-defined outputs.
+     * 
+     * @param output
+     * @param qis
+     * @param configuration
+     * @return
+     */
+    public StatisticsQuality getQualityStatistics(DataHandle output, Set<String> qis, QualityConfiguration configuration) {
+
         // Reset stop flag
         interrupt.value = false;
         progress.value = 0;
@@ -791,7 +806,8 @@ public class StatisticsBuilder {
         }
 
         // Build and return
-        return new StatisticsQuality(input.getHandle(), output, config, interrupt, progress, qis);
+        DataHandleInternal internal = output == this.handle.getHandle() ? this.handle : output.getStatistics().handle;
+        return new StatisticsQuality(input, internal, config, interrupt, progress, qis, configuration);
     }
 
     /**
@@ -804,6 +820,18 @@ public class StatisticsBuilder {
         // Build and return
         return getQualityStatistics(this.handle.getHandle(), qis);
     }
+
+    /**
+     * Returns data quality according to the models selected in the given configuration.
+     * @param qis
+     * @param configuration
+     * @return
+     */
+    public StatisticsQuality getQualityStatistics(Set<String> qis, QualityConfiguration configuration) {
+        
+        // Build and return
+        return getQualityStatistics(this.handle.getHandle(), qis, configuration);
+    }
     
     /**
      * Returns summary statistics for all attributes.
@@ -1335,4 +1363,4 @@ public class StatisticsBuilder {
     void interrupt() {
         this.interrupt.value = true;
     }
-}
+}
@@ -26,6 +26,7 @@ import org.deidentifier.arx.ARXFeatureScaling;
 import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.DataHandle;
 import org.deidentifier.arx.DataHandleInternal;
+import org.deidentifier.arx.aggregates.quality.QualityConfiguration;
 import org.deidentifier.arx.exceptions.ComputationInterruptedException;
 import org.deidentifier.arx.exceptions.UnexpectedErrorException;
 
@@ -552,6 +553,28 @@ public class StatisticsBuilderInterruptible { // NO_UCD
         }
     }
 
+    /**
+     * Returns data quality according to the models selected in the given configuration. 
+     * This is a special variant of the method supporting arbitrary user-defined outputs.
+     * 
+     * @param output
+     * @param qis
+     * @param configuration
+     * @return
+     * @throws InterruptedException 
+     */
+    public StatisticsQuality getQualityStatistics(DataHandle output, Set<String> qis, QualityConfiguration configuration) throws InterruptedException {
+        try {
+            return builder.getQualityStatistics(output, qis, configuration);
+        } catch (Exception e) {
+            if (e instanceof ComputationInterruptedException) {
+                throw new InterruptedException("Interrupted");
+            } else {
+                throw new UnexpectedErrorException(e);
+            }
+        }
+    }
+
     /**
      * Returns data quality according to various models.
      * @param qis
@@ -570,6 +593,25 @@ public class StatisticsBuilderInterruptible { // NO_UCD
         }
     }
 
+    /**
+     * Returns data quality according to the models selected in the given configuration.
+     * @param qis
+     * @param configuration
+     * @return
+     * @throws InterruptedException 
+     */
+    public StatisticsQuality getQualityStatistics(Set<String> qis, QualityConfiguration configuration) throws InterruptedException {
+        try {
+            return builder.getQualityStatistics(qis, configuration);
+        } catch (Exception e) {
+            if (e instanceof ComputationInterruptedException) {
+                throw new InterruptedException("Interrupted");
+            } else {
+                throw new UnexpectedErrorException(e);
+            }
+        }
+    }
+
     /**
      * Returns summary statistics for all attributes. 
      * 
@@ -24,6 +24,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.deidentifier.arx.ARXClassificationConfiguration;
 import org.deidentifier.arx.ARXFeatureScaling;
@@ -260,6 +267,17 @@ public class StatisticsClassification {
         }
     }
     
+    /**
+     * Initializes the random generator of the current thread, if results must be deterministic.
+     * @param config
+     * @param task
+     */
+    private static void initializeRandom(ARXClassificationConfiguration<?> config, int task) {
+        if (config.isDeterministic()) {
+            smile.math.Math.setSeed(config.getSeed() + task);
+        }
+    }
+    
     /** Interrupt flag */
     private final WrappedBoolean  interrupt;
     /** Interrupt flag */
@@ -272,6 +290,8 @@ public class StatisticsClassification {
     private final Random          random;
     /** Measurements */
     private int                   numMeasurements;
+    /** Whether a parallel computation has been aborted */
+    private volatile boolean      aborted     = false;
 
     /** ZeroR accuracy */
     private double                zeroRAccuracy;
@@ -351,104 +371,170 @@ public class StatisticsClassification {
         List<List<Integer>> folds = getFolds(inputHandle.getNumRows(), numSamples, k);
 
         // Track
-        int classifications = 0;
-        double total = 100d / ((double)numSamples * (double)folds.size());
-        double done = 0d;
+        final double total = 100d / ((double)numSamples * (double)folds.size());
+        final AtomicLong done = new AtomicLong();
         
         // ROC
-        double[] inputConfidences = new double[numSamples * ( 1 + numClasses)];
-        double[] outputConfidences = (inputHandle == outputHandle) ? null : new double[numSamples * ( 1 + numClasses)];
-        double[] zerorConfidences = new double[numSamples * ( 1 + numClasses)];
-        int confidencesIndex = 0;
-                
-        // For each fold as a validation set
-        for (int evaluationFold = 0; evaluationFold < folds.size(); evaluationFold++) {
+        final double[] inputConfidences = new double[numSamples * ( 1 + numClasses)];
+        final double[] outputConfidences = (inputHandle == outputHandle) ? null : new double[numSamples * ( 1 + numClasses)];
+        final double[] zerorConfidences = new double[numSamples * ( 1 + numClasses)];
+
+        // Results for each sample, in the order in which they are evaluated
+        int classifications = 0;
+        final int[] offsets = new int[folds.size()];
+        for (int fold = 0; fold < folds.size(); fold++) {
+            offsets[fold] = classifications;
+            classifications += folds.get(fold).size();
+        }
+        final double[] zerorErrors = new double[classifications];
+        final boolean[] zerorCorrect = new boolean[classifications];
+        final double[] inputErrors = new double[classifications];
+        final boolean[] inputCorrect = new boolean[classifications];
+        final double[] outputErrors = new double[classifications];
+        final boolean[] outputCorrect = new boolean[classifications];
+        final boolean[] outputAvailable = new boolean[folds.size()];
+        
+        // Create tasks: for each fold as a validation set, one for input-based and one for output-based classifiers
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int fold = 0; fold < folds.size(); fold++) {
             
-            // Create classifiers
-            ClassificationMethod inputClassifier = getClassifier(interrupt, specification, config, inputHandle);
-            ClassificationMethod inputZeroR = new MultiClassZeroR(interrupt, specification);
-            ClassificationMethod outputClassifier = null;
-            if (inputHandle != outputHandle) {
-                outputClassifier = getClassifier(interrupt, specification, config, inputHandle);
-            }
+            final int evaluationFold = fold;
             
-            // Try
-            try {
-                
-                // Train with all training sets
-                boolean trained = false;
-                for (int trainingFold = 0; trainingFold < folds.size(); trainingFold++) {
-                    if (trainingFold != evaluationFold) {                        
-                        for (int index : folds.get(trainingFold)) {
-                            checkInterrupt();
-                            inputClassifier.train(inputHandle, outputHandle, index);
-                            inputZeroR.train(inputHandle, outputHandle, index);
-                            if (outputClassifier != null && !outputHandle.isOutlier(index)) {
-                                outputClassifier.train(outputHandle, outputHandle, index);
-                                trained = true;
+            // Input-based and ZeroR
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    
+                    // Create classifiers
+                    initializeRandom(config, evaluationFold * 2);
+                    ClassificationMethod inputClassifier = getClassifier(interrupt, specification, config, inputHandle);
+                    ClassificationMethod inputZeroR = new MultiClassZeroR(interrupt, specification);
+                    
+                    // Train with all training sets
+                    for (int trainingFold = 0; trainingFold < folds.size(); trainingFold++) {
+                        if (trainingFold != evaluationFold) {                        
+                            for (int index : folds.get(trainingFold)) {
+                                checkInterrupt();
+                                inputClassifier.train(inputHandle, outputHandle, index);
+                                inputZeroR.train(inputHandle, outputHandle, index);
+                                updateProgress(done, total);
                             }
-                            this.progress.value = (int)((++done) * total);
                         }
                     }
-                }
-                
-                // Close
-                inputClassifier.close();
-                inputZeroR.close();
-                if (outputClassifier != null && trained) {
-                    outputClassifier.close();
-                }
-                
-                // Now validate
-                for (int index : folds.get(evaluationFold)) {
                     
-                    // Check
-                    checkInterrupt();
+                    // Close
+                    inputClassifier.close();
+                    inputZeroR.close();
                     
-                    // Classify
-                    ClassificationResult resultInput = inputClassifier.classify(inputHandle, index);
-                    ClassificationResult resultInputZR = inputZeroR.classify(inputHandle, index);
-                    ClassificationResult resultOutput = outputClassifier == null || !trained ? null : outputClassifier.classify(outputHandle, index);
-                    classifications++;
+                    // Now validate
+                    int sample = offsets[evaluationFold];
+                    for (int index : folds.get(evaluationFold)) {
                         
-                    // Correct result
-                    String actualValue = outputHandle.getValue(index, specification.classIndex, true);
+                        // Check
+                        checkInterrupt();
                         
-                    // Maintain data about ZeroR
-                    this.zeroRAverageError += resultInputZR.error(actualValue);
-                    this.zeroRAccuracy += resultInputZR.correct(actualValue) ? 1d : 0d;
-                    double[] confidences = resultInputZR.confidences();
-                    zerorConfidences[confidencesIndex] = index;
-                    System.arraycopy(confidences, 0, zerorConfidences, confidencesIndex + 1, confidences.length);
-
-                    // Maintain data about input-based classifier
-                    boolean correct = resultInput.correct(actualValue);
-                    this.originalAverageError += resultInput.error(actualValue);
-                    this.originalAccuracy += correct ? 1d : 0d;
-                    confidences = resultInput.confidences();
-                    inputConfidences[confidencesIndex] = index;
-                    System.arraycopy(confidences, 0, inputConfidences, confidencesIndex + 1, confidences.length);
-
-                    // Maintain data about output-based                     
-                    if (resultOutput != null) {
-                        correct = resultOutput.correct(actualValue);
-                        this.averageError += resultOutput.error(actualValue);
-                        this.accuracy += correct ? 1d : 0d;
-                        confidences = resultOutput.confidences();
-                        outputConfidences[confidencesIndex] = index;
-                        System.arraycopy(confidences, 0, outputConfidences, confidencesIndex + 1, confidences.length);
-                    }
+                        // Classify
+                        ClassificationResult resultInput = inputClassifier.classify(inputHandle, index);
+                        ClassificationResult resultInputZR = inputZeroR.classify(inputHandle, index);
                         
-                    // Next
-                    confidencesIndex += numClasses + 1;
-                    
-                    this.progress.value = (int)((++done) * total);
+                        // Correct result
+                        String actualValue = outputHandle.getValue(index, specification.classIndex, true);
+                        int confidencesIndex = sample * (numClasses + 1);
+                        
+                        // Maintain data about ZeroR
+                        zerorErrors[sample] = resultInputZR.error(actualValue);
+                        zerorCorrect[sample] = resultInputZR.correct(actualValue);
+                        double[] confidences = resultInputZR.confidences();
+                        zerorConfidences[confidencesIndex] = index;
+                        System.arraycopy(confidences, 0, zerorConfidences, confidencesIndex + 1, confidences.length);
+                        
+                        // Maintain data about input-based classifier
+                        inputErrors[sample] = resultInput.error(actualValue);
+                        inputCorrect[sample] = resultInput.correct(actualValue);
+                        confidences = resultInput.confidences();
+                        inputConfidences[confidencesIndex] = index;
+                        System.arraycopy(confidences, 0, inputConfidences, confidencesIndex + 1, confidences.length);
+                        
+                        // Next
+                        sample++;
+                        updateProgress(done, total);
+                    }
+                    return null;
                 }
-            } catch (Exception e) {
-                if (e instanceof ComputationInterruptedException) {
-                    throw e;
-                } else {
-                    throw new UnexpectedErrorException(e);
+            });
+            
+            // Output-based
+            if (inputHandle != outputHandle) {
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        
+                        // Create classifier
+                        initializeRandom(config, evaluationFold * 2 + 1);
+                        ClassificationMethod outputClassifier = getClassifier(interrupt, specification, config, inputHandle);
+                        
+                        // Train with all training sets
+                        boolean trained = false;
+                        for (int trainingFold = 0; trainingFold < folds.size(); trainingFold++) {
+                            if (trainingFold != evaluationFold) {                        
+                                for (int index : folds.get(trainingFold)) {
+                                    checkInterrupt();
+                                    if (!outputHandle.isOutlier(index)) {
+                                        outputClassifier.train(outputHandle, outputHandle, index);
+                                        trained = true;
+                                    }
+                                }
+                            }
+                        }
+                        
+                        // Close
+                        if (!trained) {
+                            return null;
+                        }
+                        outputClassifier.close();
+                        outputAvailable[evaluationFold] = true;
+                        
+                        // Now validate
+                        int sample = offsets[evaluationFold];
+                        for (int index : folds.get(evaluationFold)) {
+                            
+                            // Check
+                            checkInterrupt();
+                            
+                            // Classify
+                            ClassificationResult resultOutput = outputClassifier.classify(outputHandle, index);
+                            String actualValue = outputHandle.getValue(index, specification.classIndex, true);
+                            int confidencesIndex = sample * (numClasses + 1);
+                            
+                            // Maintain data about output-based classifier
+                            outputErrors[sample] = resultOutput.error(actualValue);
+                            outputCorrect[sample] = resultOutput.correct(actualValue);
+                            double[] confidences = resultOutput.confidences();
+                            outputConfidences[confidencesIndex] = index;
+                            System.arraycopy(confidences, 0, outputConfidences, confidencesIndex + 1, confidences.length);
+                            
+                            // Next
+                            sample++;
+                        }
+                        return null;
+                    }
+                });
+            }
+        }
+        
+        // Execute
+        execute(tasks, config.getNumThreads());
+        
+        // Aggregate in the order of evaluation
+        for (int fold = 0; fold < folds.size(); fold++) {
+            for (int sample = offsets[fold]; sample < offsets[fold] + folds.get(fold).size(); sample++) {
+                this.zeroRAverageError += zerorErrors[sample];
+                this.zeroRAccuracy += zerorCorrect[sample] ? 1d : 0d;
+                this.originalAverageError += inputErrors[sample];
+                this.originalAccuracy += inputCorrect[sample] ? 1d : 0d;
+                if (outputAvailable[fold]) {
+                    this.averageError += outputErrors[sample];
+                    this.accuracy += outputCorrect[sample] ? 1d : 0d;
                 }
             }
         }
@@ -712,11 +798,80 @@ public class StatisticsClassification {
      * Checks whether an interruption happened.
      */
     private void checkInterrupt() {
-        if (interrupt.value) {
+        if (interrupt.value || aborted) {
             throw new ComputationInterruptedException("Interrupted");
         }
     }
 
+    /**
+     * Counts a processed record and updates the progress. May be called by multiple threads.
+     * @param done
+     * @param total
+     */
+    private void updateProgress(AtomicLong done, double total) {
+        synchronized (progress) {
+            progress.value = (int)(done.incrementAndGet() * total);
+        }
+    }
+
+    /**
+     * Executes the given tasks, in parallel if more than one thread is configured.
+     * Results are independent of the number of threads.
+     * @param tasks
+     * @param numThreads
+     */
+    private void execute(List<Callable<Void>> tasks, int numThreads) {
+        
+        // Sequential
+        if (numThreads <= 1 || tasks.size() <= 1) {
+            for (Callable<Void> task : tasks) {
+                try {
+                    task.call();
+                } catch (Exception e) {
+                    if (e instanceof ComputationInterruptedException) {
+                        throw (ComputationInterruptedException) e;
+                    } else {
+                        throw new UnexpectedErrorException(e);
+                    }
+                }
+            }
+            return;
+        }
+        
+        // Parallel
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(numThreads, tasks.size()), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ARX classification");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    aborted = true;
+                    if (e.getCause() instanceof ComputationInterruptedException) {
+                        throw (ComputationInterruptedException) e.getCause();
+                    } else {
+                        throw new UnexpectedErrorException(e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    aborted = true;
+                    throw new ComputationInterruptedException("Interrupted");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Creates the folds
      * @param numRecords
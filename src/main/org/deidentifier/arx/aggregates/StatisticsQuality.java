@@ -18,16 +18,26 @@ package org.deidentifier.arx.aggregates;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataHandleInternal;
 import org.deidentifier.arx.DataType;
 import org.deidentifier.arx.aggregates.quality.QualityConfiguration;
+import org.deidentifier.arx.aggregates.quality.QualityConfiguration.QualityModelType;
 import org.deidentifier.arx.aggregates.quality.QualityDomainShare;
 import org.deidentifier.arx.aggregates.quality.QualityDomainShareRaw;
 import org.deidentifier.arx.aggregates.quality.QualityDomainShareRedaction;
@@ -37,13 +47,10 @@ import org.deidentifier.arx.aggregates.quality.QualityModelColumnOrientedLoss;
 import org.deidentifier.arx.aggregates.quality.QualityModelColumnOrientedNonUniformEntropy;
 import org.deidentifier.arx.aggregates.quality.QualityModelColumnOrientedPrecision;
 import org.deidentifier.arx.aggregates.quality.QualityModelColumnOrientedSquaredError;
-import org.deidentifier.arx.aggregates.quality.QualityModelRowOrientedAECS;
-import org.deidentifier.arx.aggregates.quality.QualityModelRowOrientedAmbiguity;
-import org.deidentifier.arx.aggregates.quality.QualityModelRowOrientedDiscernibility;
-import org.deidentifier.arx.aggregates.quality.QualityModelRowOrientedSSESST;
-import org.deidentifier.arx.aggregates.quality.QualityModelRowOrientedSquaredError;
-import org.deidentifier.arx.common.Groupify;
-import org.deidentifier.arx.common.TupleWrapper;
+import org.deidentifier.arx.aggregates.quality.QualityModelContext;
+import org.deidentifier.arx.aggregates.quality.QualityModelRowOriented;
+import org.deidentifier.arx.common.EncodedGroupify;
+import org.deidentifier.arx.common.EncodedGroupify.OutlierHandling;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
 import org.deidentifier.arx.exceptions.ComputationInterruptedException;
@@ -89,26 +96,30 @@ public class StatisticsQuality {
 
     /**
      * Creates a new instance
-     * @param input
-     * @param output
+     * @param internalInput
+     * @param internalOutput
      * @param config
      * @param stop
      * @param progress
      * @param qis
+     * @param configuration
      */
-    StatisticsQuality(DataHandle input,
-                      DataHandle output,
+    StatisticsQuality(DataHandleInternal internalInput,
+                      DataHandleInternal internalOutput,
                       ARXConfiguration config,
                       WrappedBoolean stop,
                       WrappedInteger progress,
-                      Set<String> qis) {
+                      Set<String> qis,
+                      QualityConfiguration configuration) {
      
+        // Handles
+        DataHandle input = internalInput.getHandle();
+        DataHandle output = internalOutput.getHandle();
+
         // State
         this.stop = stop;
         this.progress = progress;
         
-        // Build config
-        QualityConfiguration configuration = new QualityConfiguration();
         // TODO: Do something with ARXConfiguration here.
         
         // Extract quasi-identifiers
@@ -125,17 +136,17 @@ public class StatisticsQuality {
         if (input == output) {
             
             // Column oriented
-            this.loss = new QualityMeasureColumnOriented(input, indices);
-            this.entropy = new QualityMeasureColumnOriented(input, indices);
-            this.precision = new QualityMeasureColumnOriented(input, indices);
-            this.mse = new QualityMeasureColumnOriented(input, indices);
+            this.loss = getColumnOriented(configuration, QualityModelType.GRANULARITY, input, indices);
+            this.entropy = getColumnOriented(configuration, QualityModelType.NON_UNIFORM_ENTROPY, input, indices);
+            this.precision = getColumnOriented(configuration, QualityModelType.GENERALIZATION_INTENSITY, input, indices);
+            this.mse = getColumnOriented(configuration, QualityModelType.ATTRIBUTE_LEVEL_SQUARED_ERROR, input, indices);
 
             // Row oriented
-            this.aecs = new QualityMeasureRowOriented(0d, 0d, 1d);
-            this.ambiguity = new QualityMeasureRowOriented(0d, 0d, 1d);
-            this.discernibility = new QualityMeasureRowOriented(0d, 0d, 1d);
-            this.sse = new QualityMeasureRowOriented(0d, 0d, 1d);
-            this.ssesst = new QualityMeasureRowOriented(0d, 0d, 1d);
+            this.aecs = getRowOriented(configuration, QualityModelType.AVERAGE_CLASS_SIZE);
+            this.ambiguity = getRowOriented(configuration, QualityModelType.AMBIGUITY);
+            this.discernibility = getRowOriented(configuration, QualityModelType.DISCERNIBILITY);
+            this.sse = getRowOriented(configuration, QualityModelType.RECORD_LEVEL_SQUARED_ERROR);
+            this.ssesst = getRowOriented(configuration, QualityModelType.SSESST);
             this.progress.value = 100;
             
             // Break
@@ -143,9 +154,9 @@ public class StatisticsQuality {
         }
         
         // Pre-computed frequently needed data
-        Groupify<TupleWrapper> groupedInput = this.getGroupify(input, indices);
+        EncodedGroupify groupedInput = this.getGroupify(internalInput, indices);
         this.progress.value = 6;
-        Groupify<TupleWrapper> groupedOutput = this.getGroupify(output, indices);
+        EncodedGroupify groupedOutput = this.getGroupify(internalOutput, indices);
         this.progress.value = 8;
         String[][][] hierarchies = getHierarchies(input, indices, configuration);
         QualityDomainShare[] shares = getDomainShares(input, indices, hierarchies, configuration);
@@ -153,194 +164,27 @@ public class StatisticsQuality {
         this.progress.value = 10;
         
         // Build
-        int workload = 10;
-        try {
-            
-            this.loss = new QualityModelColumnOrientedLoss(stop,
-                                                           progress,
-                                                           workload,
-                                                           input,
-                                                           output,
-                                                           groupedInput,
-                                                           groupedOutput,
-                                                           hierarchies,
-                                                           shares,
-                                                           indices,
-                                                           configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.loss = new QualityMeasureColumnOriented();
-            this.progress.value += workload;
-        }
+        Map<QualityModelType, Object> measures = evaluate(input,
+                                                          output,
+                                                          groupedInput,
+                                                          groupedOutput,
+                                                          hierarchies,
+                                                          shares,
+                                                          indices,
+                                                          configuration);
         
-        // Build
-        workload = 15;
-        try {
-            this.entropy = new QualityModelColumnOrientedNonUniformEntropy(stop,
-                                                                           progress,
-                                                                           workload,
-                                                                           input,
-                                                                           output,
-                                                                           groupedInput,
-                                                                           groupedOutput,
-                                                                           hierarchies,
-                                                                           shares,
-                                                                           indices,
-                                                                           configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.entropy = new QualityMeasureColumnOriented();
-            this.progress.value += workload;
-        }
-
-        // Build
-        workload = 10;
-        try {
-            this.precision = new QualityModelColumnOrientedPrecision(stop,
-                                                                     progress,
-                                                                     workload,
-                                                                     input,
-                                                                     output,
-                                                                     groupedInput,
-                                                                     groupedOutput,
-                                                                     hierarchies,
-                                                                     shares,
-                                                                     indices,
-                                                                     configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.precision = new QualityMeasureColumnOriented();
-            this.progress.value += workload;
-        }
-
-        // Build
-        workload = 10;
-        try {
-            this.mse = new QualityModelColumnOrientedSquaredError(stop,
-                                                         progress,
-                                                         workload,
-                                                         input,
-                                                         output,
-                                                         groupedInput,
-                                                         groupedOutput,
-                                                         hierarchies,
-                                                         shares,
-                                                         indices,
-                                                         configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.mse = new QualityMeasureColumnOriented();
-            this.progress.value += workload;
-        }
-
-        // Build
-        workload = 5;
-        try {
-            this.aecs = new QualityModelRowOrientedAECS(stop,
-                                                        progress,
-                                                        workload,
-                                                        input,
-                                                        output,
-                                                        groupedInput,
-                                                        groupedOutput,
-                                                        hierarchies,
-                                                        shares,
-                                                        indices,
-                                                        configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.aecs = new QualityMeasureRowOriented();
-            this.progress.value += workload;
-        }
-
-        // Build
-        workload = 10;
-        try {
-            this.ambiguity = new QualityModelRowOrientedAmbiguity(stop,
-                                                                  progress,
-                                                                  workload,
-                                                                  input,
-                                                                  output,
-                                                                  groupedInput,
-                                                                  groupedOutput,
-                                                                  hierarchies,
-                                                                  shares,
-                                                                  indices,
-                                                                  configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.ambiguity = new QualityMeasureRowOriented();
-            this.progress.value += workload;
-        }
+        // Column oriented
+        this.loss = (QualityMeasureColumnOriented) measures.get(QualityModelType.GRANULARITY);
+        this.entropy = (QualityMeasureColumnOriented) measures.get(QualityModelType.NON_UNIFORM_ENTROPY);
+        this.precision = (QualityMeasureColumnOriented) measures.get(QualityModelType.GENERALIZATION_INTENSITY);
+        this.mse = (QualityMeasureColumnOriented) measures.get(QualityModelType.ATTRIBUTE_LEVEL_SQUARED_ERROR);
         
-        // Build
-        workload = 5;
-        try {
-            this.discernibility = new QualityModelRowOrientedDiscernibility(stop,
-                                                                            progress,
-                                                                            workload,
-                                                                            input,
-                                                                            output,
-                                                                            groupedInput,
-                                                                            groupedOutput,
-                                                                            hierarchies,
-                                                                            shares,
-                                                                            indices,
-                                                                            configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.discernibility = new QualityMeasureRowOriented();
-            this.progress.value += workload;
-        }
-
-        // Build
-        workload = 10;
-        try {
-            this.ssesst = new QualityModelRowOrientedSSESST(stop,
-                                                            progress,
-                                                            workload,
-                                                            input,
-                                                            output,
-                                                            groupedInput,
-                                                            groupedOutput,
-                                                            hierarchies,
-                                                            shares,
-                                                            indices,
-                                                            configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.ssesst = new QualityMeasureRowOriented();
-            this.progress.value += workload;
-        }
-        
-        // Build
-        workload = 15;
-        try {
-            this.sse = new QualityModelRowOrientedSquaredError(stop,
-                                                      progress,
-                                                      workload,
-                                                      input,
-                                                      output,
-                                                      groupedInput,
-                                                      groupedOutput,
-                                                      hierarchies,
-                                                      shares,
-                                                      indices,
-                                                      configuration).evaluate();
-            this.checkInterrupt();
-        } catch (Exception e) {
-            // Fail silently
-            this.sse = new QualityMeasureRowOriented();
-            this.progress.value += workload;
-        }
+        // Row oriented
+        this.aecs = (QualityMeasureRowOriented) measures.get(QualityModelType.AVERAGE_CLASS_SIZE);
+        this.ambiguity = (QualityMeasureRowOriented) measures.get(QualityModelType.AMBIGUITY);
+        this.discernibility = (QualityMeasureRowOriented) measures.get(QualityModelType.DISCERNIBILITY);
+        this.ssesst = (QualityMeasureRowOriented) measures.get(QualityModelType.SSESST);
+        this.sse = (QualityMeasureRowOriented) measures.get(QualityModelType.RECORD_LEVEL_SQUARED_ERROR);
     }
 
     /**
@@ -485,6 +329,231 @@ public class StatisticsQuality {
         }
     }
 
+    /**
+     * Evaluates all enabled models. The row-oriented models are evaluated with one scan of
+     * the data. If configured, the scan is split across threads and the column-oriented models
+     * are evaluated concurrently to the scan and to each other.
+     * @param input
+     * @param output
+     * @param groupedInput
+     * @param groupedOutput
+     * @param hierarchies
+     * @param shares
+     * @param indices
+     * @param config
+     * @return
+     */
+    private Map<QualityModelType, Object> evaluate(final DataHandle input,
+                                                   final DataHandle output,
+                                                   final EncodedGroupify groupedInput,
+                                                   final EncodedGroupify groupedOutput,
+                                                   final String[][][] hierarchies,
+                                                   final QualityDomainShare[] shares,
+                                                   final int[] indices,
+                                                   final QualityConfiguration config) {
+        
+        // Prepare
+        final QualityModelContext context = new QualityModelContext();
+        Map<QualityModelType, Object> result = new EnumMap<>(QualityModelType.class);
+        List<QualityModelType> rowOriented = new ArrayList<>();
+        List<QualityModelType> columnOriented = new ArrayList<>();
+        for (QualityModelType type : QualityModelType.values()) {
+            if (!config.isModelEnabled(type)) {
+                result.put(type, getUnavailable(type));
+                this.progress.value += getWorkload(type);
+            } else if (isRowOriented(type)) {
+                rowOriented.add(type);
+            } else {
+                columnOriented.add(type);
+            }
+        }
+        
+        // Threads
+        ExecutorService executor = null;
+        if (config.getNumThreads() > 1) {
+            executor = Executors.newFixedThreadPool(config.getNumThreads(), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ARX quality models");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        
+        try {
+            
+            // Sequential
+            if (executor == null) {
+                if (!rowOriented.isEmpty()) {
+                    result.putAll(evaluate(rowOriented, this.progress, input, output, groupedInput, groupedOutput, hierarchies, shares, indices, config, context, null));
+                }
+                for (QualityModelType type : columnOriented) {
+                    result.put(type, evaluate(type, this.progress, input, output, groupedInput, groupedOutput, hierarchies, shares, indices, config, context));
+                }
+                return result;
+            }
+            
+            // Parallel: column oriented
+            Map<QualityModelType, Future<Object>> futures = new EnumMap<>(QualityModelType.class);
+            for (final QualityModelType type : columnOriented) {
+                futures.put(type, executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        Object measure = evaluate(type, new WrappedInteger(), input, output, groupedInput, groupedOutput, hierarchies, shares, indices, config, context);
+                        synchronized (progress) {
+                            progress.value += getWorkload(type);
+                        }
+                        return measure;
+                    }
+                }));
+            }
+            
+            // Parallel: row oriented, the scan is split into further tasks
+            if (!rowOriented.isEmpty()) {
+                result.putAll(evaluate(rowOriented, new WrappedInteger(), input, output, groupedInput, groupedOutput, hierarchies, shares, indices, config, context, executor));
+                synchronized (progress) {
+                    for (QualityModelType type : rowOriented) {
+                        progress.value += getWorkload(type);
+                    }
+                }
+            }
+            
+            // Collect
+            for (Entry<QualityModelType, Future<Object>> entry : futures.entrySet()) {
+                try {
+                    result.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    } else if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    } else {
+                        throw new RuntimeException(e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ComputationInterruptedException("Interrupted");
+                }
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the given row-oriented models. Fails silently, returning measures which are not available.
+     * @param types
+     * @param progress
+     * @param input
+     * @param output
+     * @param groupedInput
+     * @param groupedOutput
+     * @param hierarchies
+     * @param shares
+     * @param indices
+     * @param config
+     * @param context
+     * @param executor
+     * @return
+     */
+    private Map<QualityModelType, Object> evaluate(List<QualityModelType> types,
+                                                   WrappedInteger progress,
+                                                   DataHandle input,
+                                                   DataHandle output,
+                                                   EncodedGroupify groupedInput,
+                                                   EncodedGroupify groupedOutput,
+                                                   String[][][] hierarchies,
+                                                   QualityDomainShare[] shares,
+                                                   int[] indices,
+                                                   QualityConfiguration config,
+                                                   QualityModelContext context,
+                                                   ExecutorService executor) {
+        
+        int workload = 0;
+        for (QualityModelType type : types) {
+            workload += getWorkload(type);
+        }
+        Map<QualityModelType, Object> result = new EnumMap<>(QualityModelType.class);
+        try {
+            result.putAll(new QualityModelRowOriented(stop, progress, workload, input, output, groupedInput, groupedOutput,
+                                                      hierarchies, shares, indices, config, context, executor).evaluate());
+            this.checkInterrupt();
+        } catch (Exception e) {
+            // Fail silently
+            result.clear();
+            progress.value += workload;
+        }
+        for (QualityModelType type : types) {
+            if (!result.containsKey(type)) {
+                result.put(type, getUnavailable(type));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the given model. Fails silently, returning a measure which is not available.
+     * @param type
+     * @param progress
+     * @param input
+     * @param output
+     * @param groupedInput
+     * @param groupedOutput
+     * @param hierarchies
+     * @param shares
+     * @param indices
+     * @param config
+     * @param context
+     * @return
+     */
+    private Object evaluate(QualityModelType type,
+                            WrappedInteger progress,
+                            DataHandle input,
+                            DataHandle output,
+                            EncodedGroupify groupedInput,
+                            EncodedGroupify groupedOutput,
+                            String[][][] hierarchies,
+                            QualityDomainShare[] shares,
+                            int[] indices,
+                            QualityConfiguration config,
+                            QualityModelContext context) {
+        
+        int workload = getWorkload(type);
+        try {
+            Object result;
+            switch (type) {
+            case GRANULARITY:
+                result = new QualityModelColumnOrientedLoss(stop, progress, workload, input, output, groupedInput, groupedOutput,
+                                                            hierarchies, shares, indices, config, context).evaluate();
+                break;
+            case NON_UNIFORM_ENTROPY:
+                result = new QualityModelColumnOrientedNonUniformEntropy(stop, progress, workload, input, output, groupedInput, groupedOutput,
+                                                                         hierarchies, shares, indices, config, context).evaluate();
+                break;
+            case GENERALIZATION_INTENSITY:
+                result = new QualityModelColumnOrientedPrecision(stop, progress, workload, input, output, groupedInput, groupedOutput,
+                                                                 hierarchies, shares, indices, config, context).evaluate();
+                break;
+            case ATTRIBUTE_LEVEL_SQUARED_ERROR:
+                result = new QualityModelColumnOrientedSquaredError(stop, progress, workload, input, output, groupedInput, groupedOutput,
+                                                                    hierarchies, shares, indices, config, context).evaluate();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown model: " + type);
+            }
+            this.checkInterrupt();
+            return result;
+        } catch (Exception e) {
+            // Fail silently
+            progress.value += workload;
+            return getUnavailable(type);
+        }
+    }
+
     /**
      * Returns a list of the attributes covered
      * @param output
@@ -499,6 +568,21 @@ public class StatisticsQuality {
         return result;
     }
 
+    /**
+     * Returns a column-oriented measure for the input dataset, if the model is enabled
+     * @param config
+     * @param type
+     * @param input
+     * @param indices
+     * @return
+     */
+    private QualityMeasureColumnOriented getColumnOriented(QualityConfiguration config,
+                                                           QualityModelType type,
+                                                           DataHandle input,
+                                                           int[] indices) {
+        return config.isModelEnabled(type) ? new QualityMeasureColumnOriented(input, indices) : new QualityMeasureColumnOriented();
+    }
+
     /**
      * Returns all data types
      * @param output
@@ -567,19 +651,26 @@ public class StatisticsQuality {
      * @param indices
      * @return
      */
-    private Groupify<TupleWrapper> getGroupify(DataHandle handle, int[] indices) {
+    private EncodedGroupify getGroupify(DataHandleInternal handle, int[] indices) {
+        
+        // Check cache
+        EncodedGroupify groupify = handle.getGroupify(indices, false, OutlierHandling.SUPPRESS, null);
+        if (groupify != null) {
+            return groupify;
+        }
         
         // Prepare
         int capacity = handle.getNumRows() / 10;
         capacity = capacity > 10 ? capacity : 10;
-        Groupify<TupleWrapper> groupify = new Groupify<TupleWrapper>(capacity);
+        groupify = new EncodedGroupify(handle, indices, false, capacity);
         int numRows = handle.getNumRows();
         for (int row = 0; row < numRows; row++) {
-            TupleWrapper tuple = new TupleWrapper(handle, indices, row);
-            groupify.add(tuple);
+            groupify.add(row);
             checkInterrupt();
         }
         
+        // Cache and return
+        handle.setGroupify(groupify);
         return groupify;
     }
 
@@ -730,4 +821,66 @@ public class StatisticsQuality {
         // Return
         return new QualityMeasureColumnOriented(output, indices, minimum, result, maximum);
     }
-}
+
+    /**
+     * Returns a row-oriented measure for the input dataset, if the model is enabled
+     * @param config
+     * @param type
+     * @return
+     */
+    private QualityMeasureRowOriented getRowOriented(QualityConfiguration config, QualityModelType type) {
+        return config.isModelEnabled(type) ? new QualityMeasureRowOriented(0d, 0d, 1d) : new QualityMeasureRowOriented();
+    }
+
+    /**
+     * Returns a measure which is not available
+     * @param type
+     * @return
+     */
+    private Object getUnavailable(QualityModelType type) {
+        switch (type) {
+        case GRANULARITY:
+        case NON_UNIFORM_ENTROPY:
+        case GENERALIZATION_INTENSITY:
+        case ATTRIBUTE_LEVEL_SQUARED_ERROR:
+            return new QualityMeasureColumnOriented();
+        default:
+            return new QualityMeasureRowOriented();
+        }
+    }
+
+    /**
+     * Returns whether the given model is row-oriented
+     * @param type
+     * @return
+     */
+    private boolean isRowOriented(QualityModelType type) {
+        switch (type) {
+        case GRANULARITY:
+        case NON_UNIFORM_ENTROPY:
+        case GENERALIZATION_INTENSITY:
+        case ATTRIBUTE_LEVEL_SQUARED_ERROR:
+            return false;
+        default:
+            return true;
+        }
+    }
+
+    /**
+     * Returns the share of the progress covered by the given model
+     * @param type
+     * @return
+     */
+    private int getWorkload(QualityModelType type) {
+        switch (type) {
+        case NON_UNIFORM_ENTROPY:
+        case RECORD_LEVEL_SQUARED_ERROR:
+            return 15;
+        case AVERAGE_CLASS_SIZE:
+        case DISCERNIBILITY:
+            return 5;
+        default:
+            return 10;
+        }
+    }
+}
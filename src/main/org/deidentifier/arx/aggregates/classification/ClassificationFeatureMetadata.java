@@ -91,11 +91,12 @@ public class ClassificationFeatureMetadata {
     }
     
     /**
-     * Returns a scaled double representation, NaN if the value cannot be parsed or scaled
+     * Returns a scaled double representation, NaN if the value cannot be parsed or scaled.
+     * Synchronized, because neither data types nor expressions are thread-safe.
      * 
      * @param value
      */
-    public double getNumericValue(String value) {
+    public synchronized double getNumericValue(String value) {
         
         if (!isNumeric()) {
             return Double.NaN;
@@ -16,6 +16,10 @@
  */
 package org.deidentifier.arx.aggregates.quality;
 
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
 import org.deidentifier.arx.DataType;
 
 /**
@@ -25,8 +29,56 @@ import org.deidentifier.arx.DataType;
  */
 public class QualityConfiguration {
     
+    /**
+     * The quality models which can be evaluated
+     * 
+     * @author Fabian Prasser
+     */
+    public static enum QualityModelType {
+        /** Loss */
+        GRANULARITY,
+        /** Non-uniform entropy */
+        NON_UNIFORM_ENTROPY,
+        /** Precision */
+        GENERALIZATION_INTENSITY,
+        /** Attribute-level squared error */
+        ATTRIBUTE_LEVEL_SQUARED_ERROR,
+        /** AECS */
+        AVERAGE_CLASS_SIZE,
+        /** Ambiguity */
+        AMBIGUITY,
+        /** Discernibility */
+        DISCERNIBILITY,
+        /** SSE/SST */
+        SSESST,
+        /** Record-level squared error */
+        RECORD_LEVEL_SQUARED_ERROR
+    }
+    
     /** Value*/
-    private String suppressedValue = DataType.ANY_VALUE;
+    private String                suppressedValue = DataType.ANY_VALUE;
+
+    /** Models */
+    private Set<QualityModelType> models          = EnumSet.allOf(QualityModelType.class);
+
+    /** Number of threads */
+    private int                   numThreads      = 1;
+
+    /**
+     * Returns the models which will be evaluated
+     * @return
+     */
+    public Set<QualityModelType> getModels() {
+        return EnumSet.copyOf(models);
+    }
+
+    /**
+     * Returns the number of threads used for evaluating the models
+     * @return
+     */
+    public int getNumThreads() {
+        return numThreads;
+    }
 
     /**
      * @return the suppressedValue
@@ -35,6 +87,36 @@ public class QualityConfiguration {
         return suppressedValue;
     }
 
+    /**
+     * Returns whether the given model will be evaluated
+     * @param model
+     * @return
+     */
+    public boolean isModelEnabled(QualityModelType model) {
+        return models.contains(model);
+    }
+
+    /**
+     * Sets the models which will be evaluated. All other models will not be available.
+     * @param models
+     */
+    public void setModels(QualityModelType... models) {
+        this.models = models.length == 0 ? EnumSet.noneOf(QualityModelType.class) : EnumSet.copyOf(Arrays.asList(models));
+    }
+
+    /**
+     * Sets the number of threads used for evaluating the models. The rows scanned by
+     * row-oriented models are split across threads, and each column-oriented model is
+     * evaluated by one thread. Default is 1.
+     * @param numThreads
+     */
+    public void setNumThreads(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
+        this.numThreads = numThreads;
+    }
+
     /**
      * @param suppressedValue the suppressedValue to set
      */
@@ -26,9 +26,7 @@ import java.util.Set;
 
 import org.deidentifier.arx.DataHandle;
 import org.deidentifier.arx.DataType.DataTypeWithRatioScale;
-import org.deidentifier.arx.common.Groupify;
-import org.deidentifier.arx.common.Groupify.Group;
-import org.deidentifier.arx.common.TupleWrapper;
+import org.deidentifier.arx.common.EncodedGroupify;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
 import org.deidentifier.arx.exceptions.ComputationInterruptedException;
@@ -52,10 +50,10 @@ abstract class QualityModel<T> {
     private final DataHandle             output;
 
     /** Grouped */
-    private final Groupify<TupleWrapper> groupedInput;
+    private final EncodedGroupify groupedInput;
 
     /** Grouped */
-    private final Groupify<TupleWrapper> groupedOutput;
+    private final EncodedGroupify groupedOutput;
 
     /** Input */
     private final int[]                  indices;
@@ -81,6 +79,9 @@ abstract class QualityModel<T> {
     /** Value */
     private final String                 suppressedValue;
 
+    /** Context */
+    private final QualityModelContext    context;
+
     /** Roots */
     private final Map<Integer, String>   roots        = new HashMap<>();
 
@@ -104,18 +105,20 @@ abstract class QualityModel<T> {
      * @param shares
      * @param indices
      * @param config
+     * @param context
      */
     QualityModel(WrappedBoolean interrupt,
                  WrappedInteger progress,
                  int totalWorkload,
                  DataHandle input,
                  DataHandle output,
-                 Groupify<TupleWrapper> groupedInput,
-                 Groupify<TupleWrapper> groupedOutput,
+                 EncodedGroupify groupedInput,
+                 EncodedGroupify groupedOutput,
                  String[][][] hierarchies,
                  QualityDomainShare[] shares,
                  int[] indices,
-                 QualityConfiguration config) {
+                 QualityConfiguration config,
+                 QualityModelContext context) {
         
         // Store data
         this.input = input;
@@ -130,6 +133,7 @@ abstract class QualityModel<T> {
         this.startWorkload = progress.value;
         this.totalWorkload = totalWorkload;
         this.suppressedValue = config.getSuppressedValue();
+        this.context = context;
         
         // Collect roots
         for (int index = 0; index < indices.length; index++) {
@@ -176,14 +180,14 @@ abstract class QualityModel<T> {
     /**
      * Returns grouped input
      */
-    protected Groupify<TupleWrapper> getGroupedInput() {
+    protected EncodedGroupify getGroupedInput() {
         return groupedInput;
     }
 
     /**
      * Returns grouped output
      */
-    protected Groupify<TupleWrapper> getGroupedOutput() {
+    protected EncodedGroupify getGroupedOutput() {
         return groupedOutput;
     }
 
@@ -266,20 +270,17 @@ abstract class QualityModel<T> {
     /**
      * We assume that an entry is suppressed, if all values are equal
      * 
-     * @param entry
+     * @param groupify
+     * @param group
      * @return
      */
-    protected boolean isSuppressed(Group<TupleWrapper> entry) {
+    protected boolean isSuppressed(EncodedGroupify groupify, int group) {
 
         // Check flag
-        if (entry.getElement().isSuppressed()) { return true; }
+        if (groupify.isSuppressed(group)) { return true; }
 
         // Check values
-        String[] array = entry.getElement().getValues();
-        for (int i = 1; i < array.length; i++) {
-            if (!array[i - 1].equals(array[i])) { return false; }
-        }
-        return true;
+        return groupify.isConstant(group);
     }
 
     /**
@@ -328,7 +329,9 @@ abstract class QualityModel<T> {
     }
 
     /**
-     * Returns a columns from the input and output dataset converted to numbers
+     * Returns a columns from the input and output dataset converted to numbers. The result
+     * is shared with all other models evaluated with the same context and must not
+     * be modified.
      * @param input
      * @param output
      * @param hierarchy
@@ -339,6 +342,21 @@ abstract class QualityModel<T> {
                                            DataHandle output,
                                            String[][] hierarchy,
                                            int column) {
+        return context.getColumnsAsNumbers(column, this, input, output, hierarchy);
+    }
+
+    /**
+     * Converts a columns from the input and output dataset to numbers
+     * @param input
+     * @param output
+     * @param hierarchy
+     * @param column
+     * @return
+     */
+    double[][] computeColumnsAsNumbers(DataHandle input,
+                                       DataHandle output,
+                                       String[][] hierarchy,
+                                       int column) {
         
         // Try to parse the input into a number
         double[] inputAsNumbers = getNumbersFromNumericColumn(input, column);
@@ -18,8 +18,7 @@
 package org.deidentifier.arx.aggregates.quality;
 
 import org.deidentifier.arx.DataHandle;
-import org.deidentifier.arx.common.Groupify;
-import org.deidentifier.arx.common.TupleWrapper;
+import org.deidentifier.arx.common.EncodedGroupify;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
 
@@ -47,18 +46,20 @@ public class QualityModelColumnOrientedLoss extends QualityModel<QualityMeasureC
      * @param shares
      * @param indices
      * @param config
+     * @param context
      */
     public QualityModelColumnOrientedLoss(WrappedBoolean interrupt,
                                           WrappedInteger progress,
                                           int totalWorkload,
                                           DataHandle input,
                                           DataHandle output,
-                                          Groupify<TupleWrapper> groupedInput,
-                                          Groupify<TupleWrapper> groupedOutput,
+                                          EncodedGroupify groupedInput,
+                                          EncodedGroupify groupedOutput,
                                           String[][][] hierarchies,
                                           QualityDomainShare[] shares,
                                           int[] indices,
-                                          QualityConfiguration config) {
+                                          QualityConfiguration config,
+                                          QualityModelContext context) {
         super(interrupt,
               progress,
               totalWorkload,
@@ -69,7 +70,8 @@ public class QualityModelColumnOrientedLoss extends QualityModel<QualityMeasureC
               hierarchies,
               shares,
               indices,
-              config);
+              config,
+              context);
     }
     
     @Override
@@ -26,8 +26,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.deidentifier.arx.DataHandle;
-import org.deidentifier.arx.common.Groupify;
-import org.deidentifier.arx.common.TupleWrapper;
+import org.deidentifier.arx.common.EncodedGroupify;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
 
@@ -61,18 +60,20 @@ public class QualityModelColumnOrientedNonUniformEntropy extends QualityModel<Qu
      * @param shares
      * @param indices
      * @param config
+     * @param context
      */
     public QualityModelColumnOrientedNonUniformEntropy(WrappedBoolean interrupt,
                                                        WrappedInteger progress,
                                                        int totalWorkload,
                                                        DataHandle input,
                                                        DataHandle output,
-                                                       Groupify<TupleWrapper> groupedInput,
-                                                       Groupify<TupleWrapper> groupedOutput,
+                                                       EncodedGroupify groupedInput,
+                                                       EncodedGroupify groupedOutput,
                                                        String[][][] hierarchies,
                                                        QualityDomainShare[] shares,
                                                        int[] indices,
-                                                       QualityConfiguration config) {
+                                                       QualityConfiguration config,
+                                                       QualityModelContext context) {
         super(interrupt,
               progress,
               totalWorkload,
@@ -83,7 +84,8 @@ public class QualityModelColumnOrientedNonUniformEntropy extends QualityModel<Qu
               hierarchies,
               shares,
               indices,
-              config);
+              config,
+              context);
     }
     
     @Override
@@ -21,8 +21,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.deidentifier.arx.DataHandle;
-import org.deidentifier.arx.common.Groupify;
-import org.deidentifier.arx.common.TupleWrapper;
+import org.deidentifier.arx.common.EncodedGroupify;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
 
@@ -50,18 +49,20 @@ public class QualityModelColumnOrientedPrecision extends QualityModel<QualityMea
      * @param shares
      * @param indices
      * @param config
+     * @param context
      */
     public QualityModelColumnOrientedPrecision(WrappedBoolean interrupt,
                                                WrappedInteger progress,
                                                int totalWorkload,
                                                DataHandle input,
                                                DataHandle output,
-                                               Groupify<TupleWrapper> groupedInput,
-                                               Groupify<TupleWrapper> groupedOutput,
+                                               EncodedGroupify groupedInput,
+                                               EncodedGroupify groupedOutput,
                                                String[][][] hierarchies,
                                                QualityDomainShare[] shares,
                                                int[] indices,
-                                               QualityConfiguration config) {
+                                               QualityConfiguration config,
+                                               QualityModelContext context) {
         super(interrupt,
               progress,
               totalWorkload,
@@ -72,7 +73,8 @@ public class QualityModelColumnOrientedPrecision extends QualityModel<QualityMea
               hierarchies,
               shares,
               indices,
-              config);
+              config,
+              context);
     }
     
     @Override
@@ -18,8 +18,7 @@
 package org.deidentifier.arx.aggregates.quality;
 
 import org.deidentifier.arx.DataHandle;
-import org.deidentifier.arx.common.Groupify;
-import org.deidentifier.arx.common.TupleWrapper;
+import org.deidentifier.arx.common.EncodedGroupify;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
 
@@ -45,18 +44,20 @@ public class QualityModelColumnOrientedSquaredError extends QualityModel<Quality
      * @param shares
      * @param indices
      * @param config
+     * @param context
      */
     public QualityModelColumnOrientedSquaredError(WrappedBoolean interrupt,
                                          WrappedInteger progress,
                                          int totalWorkload,
                                          DataHandle input,
                                          DataHandle output,
-                                         Groupify<TupleWrapper> groupedInput,
-                                         Groupify<TupleWrapper> groupedOutput,
+                                         EncodedGroupify groupedInput,
+                                         EncodedGroupify groupedOutput,
                                          String[][][] hierarchies,
                                          QualityDomainShare[] shares,
                                          int[] indices,
-                                         QualityConfiguration config) {
+                                         QualityConfiguration config,
+                                         QualityModelContext context) {
         super(interrupt,
               progress,
               totalWorkload,
@@ -67,7 +68,8 @@ public class QualityModelColumnOrientedSquaredError extends QualityModel<Quality
               hierarchies,
               shares,
               indices,
-              config);
+              config,
+              context);
     }
     
     @Override
@@ -0,0 +1,80 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.deidentifier.arx.aggregates.quality;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.deidentifier.arx.DataHandle;
+
+/**
+ * Intermediate results which are shared between all models evaluated
+ * for one instance of quality statistics. The models may be evaluated
+ * concurrently.
+ * 
+ * @author Fabian Prasser
+ */
+public class QualityModelContext {
+
+    /**
+     * Numeric representation of a column, which is computed once
+     * 
+     * @author Fabian Prasser
+     */
+    private static class Column {
+
+        /** Numbers, null if they could not be computed */
+        private double[][] numbers;
+
+        /** Whether the numbers have been computed */
+        private boolean    computed;
+    }
+
+    /** Numeric representations of columns */
+    private final ConcurrentMap<Integer, Column> columns = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the numeric representation of the given column, which has already been
+     * computed by a model evaluated with this context, or computes it. Different columns
+     * may be computed concurrently.
+     * @param column
+     * @param model
+     * @param input
+     * @param output
+     * @param hierarchy
+     * @return
+     */
+    double[][] getColumnsAsNumbers(int column,
+                                   QualityModel<?> model,
+                                   DataHandle input,
+                                   DataHandle output,
+                                   String[][] hierarchy) {
+        Column entry = columns.get(column);
+        if (entry == null) {
+            Column created = new Column();
+            entry = columns.putIfAbsent(column, created);
+            entry = entry != null ? entry : created;
+        }
+        synchronized (entry) {
+            if (!entry.computed) {
+                entry.numbers = model.computeColumnsAsNumbers(input, output, hierarchy, column);
+                entry.computed = true;
+            }
+            return entry.numbers;
+        }
+    }
+}
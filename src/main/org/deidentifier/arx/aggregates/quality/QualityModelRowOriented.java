@@ -0,0 +1,660 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.aggregates.quality;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.aggregates.quality.QualityConfiguration.QualityModelType;
+import org.deidentifier.arx.common.EncodedGroupify;
+import org.deidentifier.arx.common.WrappedBoolean;
+import org.deidentifier.arx.common.WrappedInteger;
+import org.deidentifier.arx.exceptions.ComputationInterruptedException;
+
+/**
+ * Evaluates all row-oriented quality models with a single scan of the input and output dataset.
+ * The rows are split into blocks, which are processed concurrently, if an executor is given.
+ * The partial results of the blocks are merged in a fixed order, which is why the results do
+ * not depend on the number of threads. The following models are supported:<br>
+ * <br>
+ * AECS, as proposed in: K. LeFevre, D. DeWitt, R. Ramakrishnan: "Mondrian multidimensional
+ * k-anonymity" Proc Int Conf Data Engineering, 2006.<br>
+ * Ambiguity, as described in: Goldberger, Tassa: "Efficient Anonymizations with Enhanced Utility"
+ * Trans Data Priv<br>
+ * Discernibility, as proposed in: R. Bayardo, R. Agrawal: "Data privacy through optimal
+ * k-anonymization" Proc Int Conf Data Engineering, 2005, pp. 217-228<br>
+ * SSE / SST, as described in: Solanas, Agusti, Antoni Martinez-Balleste, and J. Domingo-Ferrer.
+ * V-MDAV: a multivariate microaggregation with variable group size. 17th COMPSTAT Symposium of
+ * the IASC, Rome. 2006.<br>
+ * Sum of Squared Errors, as introduced in the supplementary material to: D. Sanchez, S. Martinez,
+ * and J. Domingo-Ferrer. Comment on unique in the shopping mall: On the reidentifiability of
+ * credit card metadata. Science, 351(6279):1274-1274, 2016.
+ *
+ * @author Fabian Prasser
+ */
+public class QualityModelRowOriented extends QualityModel<Map<QualityModelType, QualityMeasureRowOriented>> {
+
+    /**
+     * Partial results for a block of rows
+     *
+     * @author Fabian Prasser
+     */
+    private static class Partial {
+
+        /** Ambiguity */
+        private double   ambiguityMin;
+        /** Ambiguity */
+        private double   ambiguityResult;
+        /** Ambiguity */
+        private double   ambiguityMax;
+        /** Ambiguity */
+        private boolean  ambiguityFailed;
+
+        /** Sum of input values, per column */
+        private double[] sum;
+        /** Sum of centers of input values, per column */
+        private double[] centroid;
+        /** Minimal input or output value, per column */
+        private double[] minimum;
+        /** Maximal input or output value, per column */
+        private double[] maximum;
+        /** Sum of squared deviations of input values from their mean, per column */
+        private double[] deviation;
+
+        /** SSE */
+        private double   sse;
+        /** SST */
+        private double   sst;
+        /** Record-level squared error */
+        private double   distance;
+        /** Record-level squared error */
+        private double   maxDistance;
+    }
+
+    /** Number of rows processed as one block */
+    private static final int            BLOCK_SIZE = 4096;
+
+    /** Executor, null if the rows are processed sequentially */
+    private final ExecutorService       executor;
+
+    /** Models to evaluate */
+    private final Set<QualityModelType> models;
+
+    /**
+     * Creates a new instance
+     *
+     * @param interrupt
+     * @param progress
+     * @param totalWorkload
+     * @param input
+     * @param output
+     * @param groupedInput
+     * @param groupedOutput
+     * @param hierarchies
+     * @param shares
+     * @param indices
+     * @param config
+     * @param context
+     * @param executor
+     */
+    public QualityModelRowOriented(WrappedBoolean interrupt,
+                                   WrappedInteger progress,
+                                   int totalWorkload,
+                                   DataHandle input,
+                                   DataHandle output,
+                                   EncodedGroupify groupedInput,
+                                   EncodedGroupify groupedOutput,
+                                   String[][][] hierarchies,
+                                   QualityDomainShare[] shares,
+                                   int[] indices,
+                                   QualityConfiguration config,
+                                   QualityModelContext context,
+                                   ExecutorService executor) {
+        super(interrupt,
+              progress,
+              totalWorkload,
+              input,
+              output,
+              groupedInput,
+              groupedOutput,
+              hierarchies,
+              shares,
+              indices,
+              config,
+              context);
+        this.executor = executor;
+        this.models = config.getModels();
+    }
+
+    @Override
+    public Map<QualityModelType, QualityMeasureRowOriented> evaluate() {
+
+        // Prepare
+        Map<QualityModelType, QualityMeasureRowOriented> result = new EnumMap<>(QualityModelType.class);
+        final boolean ambiguity = models.contains(QualityModelType.AMBIGUITY);
+        final boolean ssesst = models.contains(QualityModelType.SSESST);
+        final boolean squaredError = models.contains(QualityModelType.RECORD_LEVEL_SQUARED_ERROR);
+        final int rows = getOutput().getNumRows();
+        final int blocks = (rows + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int[] indices = getIndices();
+
+        // Progress
+        int passes = (ambiguity || ssesst || squaredError ? 1 : 0) + (ssesst || squaredError ? 1 : 0) + (squaredError ? 1 : 0);
+        setSteps(1 + (ssesst || squaredError ? indices.length : 0) + passes * blocks);
+
+        // Classes
+        if (models.contains(QualityModelType.AVERAGE_CLASS_SIZE)) {
+            result.put(QualityModelType.AVERAGE_CLASS_SIZE, getAECS());
+        }
+        if (models.contains(QualityModelType.DISCERNIBILITY)) {
+            result.put(QualityModelType.DISCERNIBILITY, getDiscernibility());
+        }
+        setStepPerformed();
+
+        // Convert columns to numbers
+        final double[][][] numbers = ssesst || squaredError ? getColumnsAsNumbers() : new double[0][][];
+
+        // First pass
+        if (passes == 0) {
+            setStepsDone();
+            return result;
+        }
+        List<Callable<Partial>> tasks = new ArrayList<>();
+        for (int block = 0; block < blocks; block++) {
+            final int from = block * BLOCK_SIZE;
+            final int to = Math.min(rows, from + BLOCK_SIZE);
+            tasks.add(new Callable<Partial>() {
+                @Override
+                public Partial call() throws Exception {
+                    Partial partial = new Partial();
+                    if (ambiguity) {
+                        accumulateAmbiguity(partial, from, to);
+                    }
+                    accumulateColumns(partial, numbers, from, to);
+                    return partial;
+                }
+            });
+        }
+        Partial first = merge(run(tasks), numbers.length);
+        if (ambiguity) {
+            result.put(QualityModelType.AMBIGUITY, first.ambiguityFailed ? new QualityMeasureRowOriented(Double.NaN, Double.NaN, Double.NaN) :
+                                                   new QualityMeasureRowOriented(first.ambiguityMin, first.ambiguityResult, first.ambiguityMax));
+        }
+
+        // Check
+        if (numbers.length == 0) {
+            if (ssesst) {
+                result.put(QualityModelType.SSESST, new QualityMeasureRowOriented());
+            }
+            if (squaredError) {
+                result.put(QualityModelType.RECORD_LEVEL_SQUARED_ERROR, new QualityMeasureRowOriented());
+            }
+            setStepsDone();
+            return result;
+        }
+
+        // Second pass
+        final double[] mean = new double[numbers.length];
+        final double[] centroid = new double[numbers.length];
+        for (int column = 0; column < numbers.length; column++) {
+            mean[column] = first.sum[column] / (double) rows;
+            centroid[column] = first.centroid[column] / (double) rows;
+        }
+        tasks.clear();
+        for (int block = 0; block < blocks; block++) {
+            final int from = block * BLOCK_SIZE;
+            final int to = Math.min(rows, from + BLOCK_SIZE);
+            tasks.add(new Callable<Partial>() {
+                @Override
+                public Partial call() throws Exception {
+                    Partial partial = new Partial();
+                    accumulateDeviations(partial, numbers, mean, centroid, from, to);
+                    return partial;
+                }
+            });
+        }
+        Partial second = merge(run(tasks), numbers.length);
+        if (ssesst) {
+            result.put(QualityModelType.SSESST, new QualityMeasureRowOriented(0d, first.sse, second.sst));
+        }
+
+        // Third pass
+        if (squaredError) {
+            final double[] stdDev = new double[numbers.length];
+            for (int column = 0; column < numbers.length; column++) {
+                stdDev[column] = Math.sqrt(second.deviation[column] / (double) rows);
+            }
+            final double[] minimum = first.minimum;
+            final double[] maximum = first.maximum;
+            tasks.clear();
+            for (int block = 0; block < blocks; block++) {
+                final int from = block * BLOCK_SIZE;
+                final int to = Math.min(rows, from + BLOCK_SIZE);
+                tasks.add(new Callable<Partial>() {
+                    @Override
+                    public Partial call() throws Exception {
+                        Partial partial = new Partial();
+                        accumulateDistances(partial, numbers, stdDev, minimum, maximum, from, to);
+                        return partial;
+                    }
+                });
+            }
+            Partial third = merge(run(tasks), numbers.length);
+            double normalization = (double) numbers.length * (double) rows;
+            result.put(QualityModelType.RECORD_LEVEL_SQUARED_ERROR,
+                       new QualityMeasureRowOriented(0d, third.distance / normalization, third.maxDistance / normalization));
+        }
+
+        // Done
+        setStepsDone();
+        return result;
+    }
+
+    /**
+     * Accumulates the ambiguity of the given rows
+     * @param partial
+     * @param from
+     * @param to
+     */
+    private void accumulateAmbiguity(Partial partial, int from, int to) {
+
+        // Prepare
+        int[] indices = getIndices();
+        DataHandle output = getOutput();
+        QualityDomainShare[] shares = getDomainShares();
+
+        try {
+            for (int row = from; row < to; row++) {
+                double rowMin = 1d;
+                double rowResult = 1d;
+                double rowMax = 1d;
+                for (int i = 0; i < indices.length; i++) {
+                    int column = indices[i];
+                    rowResult *= shares[i].getShare(output.getValue(row, column), 0) * shares[i].getDomainSize();
+                    rowMin *= 1d;
+                    rowMax *= shares[i].getDomainSize();
+                }
+                partial.ambiguityMin += rowMin;
+                partial.ambiguityResult += rowResult;
+                partial.ambiguityMax += rowMax;
+
+                // Check
+                checkInterrupt();
+            }
+        } catch (ComputationInterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            // Silently catch exceptions
+            partial.ambiguityFailed = true;
+        }
+    }
+
+    /**
+     * Accumulates sums, extreme values and the SSE of the given rows
+     * @param partial
+     * @param numbers
+     * @param from
+     * @param to
+     */
+    private void accumulateColumns(Partial partial, double[][][] numbers, int from, int to) {
+
+        // Prepare
+        partial.sum = new double[numbers.length];
+        partial.centroid = new double[numbers.length];
+        partial.minimum = new double[numbers.length];
+        partial.maximum = new double[numbers.length];
+        for (int column = 0; column < numbers.length; column++) {
+            partial.minimum[column] = Double.MAX_VALUE;
+            partial.maximum[column] = -Double.MAX_VALUE;
+        }
+
+        // For each row
+        for (int row = from * 2; row < to * 2; row += 2) {
+
+            // For each column
+            double resultRow = 0d;
+            for (int column = 0; column < numbers.length; column++) {
+                double minimum1 = numbers[column][0][row];
+                double maximum1 = numbers[column][0][row + 1];
+                double minimum2 = numbers[column][1][row];
+                double maximum2 = numbers[column][1][row + 1];
+                double inputVal = (minimum1 + maximum1) / 2d;
+                double outputVal = (minimum2 + maximum2) / 2d;
+                resultRow += Math.pow(inputVal - outputVal, 2d);
+                partial.sum[column] += minimum1;
+                partial.centroid[column] += inputVal;
+                partial.minimum[column] = Math.min(partial.minimum[column], Math.min(Math.min(minimum1, maximum1), Math.min(minimum2, maximum2)));
+                partial.maximum[column] = Math.max(partial.maximum[column], Math.max(Math.max(minimum1, maximum1), Math.max(minimum2, maximum2)));
+            }
+            partial.sse += resultRow;
+
+            // Check
+            checkInterrupt();
+        }
+    }
+
+    /**
+     * Accumulates the deviations from the mean and the SST of the given rows
+     * @param partial
+     * @param numbers
+     * @param mean
+     * @param centroid
+     * @param from
+     * @param to
+     */
+    private void accumulateDeviations(Partial partial, double[][][] numbers, double[] mean, double[] centroid, int from, int to) {
+
+        // Prepare
+        partial.deviation = new double[numbers.length];
+
+        // For each row
+        for (int row = from * 2; row < to * 2; row += 2) {
+
+            // For each column
+            double resultRow = 0d;
+            for (int column = 0; column < numbers.length; column++) {
+                double temp = numbers[column][0][row] - mean[column];
+                partial.deviation[column] += temp * temp;
+                double value = (numbers[column][1][row] + numbers[column][1][row + 1]) / 2d;
+                resultRow += Math.pow(value - centroid[column], 2d);
+            }
+            partial.sst += resultRow;
+
+            // Check
+            checkInterrupt();
+        }
+    }
+
+    /**
+     * Accumulates the actual and the maximal euclidean distances of the given rows
+     * @param partial
+     * @param numbers
+     * @param stdDev
+     * @param minimum
+     * @param maximum
+     * @param from
+     * @param to
+     */
+    private void accumulateDistances(Partial partial,
+                                     double[][][] numbers,
+                                     double[] stdDev,
+                                     double[] minimum,
+                                     double[] maximum,
+                                     int from,
+                                     int to) {
+
+        // For each row
+        for (int row = from * 2; row < to * 2; row += 2) {
+
+            // For each column
+            double resultRow = 0d;
+            double maxResultRow = 0d;
+            for (int column = 0; column < numbers.length; column++) {
+                double minimum1 = numbers[column][0][row];
+                double minimum2 = numbers[column][1][row];
+                double maximum2 = numbers[column][1][row + 1];
+                double maximum1 = (maximum2 - minimum1) > (minimum1 - minimum2) ? maximum2 : minimum2;
+                double temp = (stdDev[column] == 0d) ? 0d : (minimum1 - maximum1) / stdDev[column];
+                resultRow += (temp * temp);
+                maximum1 = (maximum[column] - minimum1) > (minimum1 - minimum[column]) ? maximum[column] : minimum[column];
+                temp = (stdDev[column] == 0d) ? 0d : (minimum1 - maximum1) / stdDev[column];
+                maxResultRow += (temp * temp);
+            }
+            partial.distance += Math.sqrt(resultRow);
+            partial.maxDistance += Math.sqrt(maxResultRow);
+
+            // Check
+            checkInterrupt();
+        }
+    }
+
+    /**
+     * Returns the AECS measure
+     * @return
+     */
+    private QualityMeasureRowOriented getAECS() {
+        try {
+            double min = getAverageGroupSize(getGroupedInput());
+            double max = getInput().getNumRows();
+            double result = getAverageGroupSize(getGroupedOutput());
+            return new QualityMeasureRowOriented(min, result, max);
+        } catch (ComputationInterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            // Silently catch exceptions
+            return new QualityMeasureRowOriented();
+        }
+    }
+
+    /**
+     * Returns the average group size for this groupify
+     * @param groupify
+     * @return
+     */
+    private double getAverageGroupSize(EncodedGroupify groupify) {
+        // Calculate
+        double count = 1d;
+        double sum = groupify.getCount(0);
+        for (int group = 1; group < groupify.size(); group++) {
+            count++;
+            sum += groupify.getCount(group);
+
+            // Check
+            checkInterrupt();
+        }
+
+        // Finalize
+        return sum / count;
+    }
+
+    /**
+     * Converts all columns, for which this is possible, to numbers. Columns are converted concurrently,
+     * if an executor is given.
+     * @return
+     */
+    private double[][][] getColumnsAsNumbers() {
+
+        // Convert
+        final int[] indices = getIndices();
+        final String[][][] hierarchies = getHierarchies();
+        List<Callable<double[][]>> tasks = new ArrayList<>();
+        for (int index = 0; index < indices.length; index++) {
+            final int column = indices[index];
+            final String[][] hierarchy = hierarchies[index];
+            tasks.add(new Callable<double[][]>() {
+                @Override
+                public double[][] call() throws Exception {
+                    try {
+                        return getColumnsAsNumbers(getInput(), getOutput(), hierarchy, column);
+                    } catch (ComputationInterruptedException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        // Fail silently
+                        return null;
+                    }
+                }
+            });
+        }
+
+        // Collect
+        List<double[][]> result = new ArrayList<>();
+        for (double[][] columnsAsNumbers : run(tasks)) {
+            if (columnsAsNumbers != null) {
+                result.add(columnsAsNumbers);
+            }
+        }
+        return result.toArray(new double[result.size()][][]);
+    }
+
+    /**
+     * Returns the discernibility measure
+     * @return
+     */
+    private QualityMeasureRowOriented getDiscernibility() {
+        try {
+            double rows = getInput().getNumRows();
+            double min = getDiscernibility(getGroupedInput(), rows);
+            double max = rows * rows;
+            double result = getDiscernibility(getGroupedOutput(), rows);
+            return new QualityMeasureRowOriented(min, result, max);
+        } catch (ComputationInterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            // Silently catch exceptions
+            return new QualityMeasureRowOriented();
+        }
+    }
+
+    /**
+     * Get discernibility
+     * @param groupify
+     * @param rows
+     * @return
+     */
+    private double getDiscernibility(EncodedGroupify groupify, double rows) {
+        double sum = getPenalty(groupify, 0, rows);
+        for (int group = 1; group < groupify.size(); group++) {
+            sum += getPenalty(groupify, group, rows);
+
+            // Check
+            checkInterrupt();
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the discernibility penalty for the given group
+     * @param groupify
+     * @param group
+     * @param rows
+     * @return
+     */
+    private double getPenalty(EncodedGroupify groupify, int group, double rows) {
+
+        double count = groupify.getCount(group);
+        if (isSuppressed(groupify, group)) {
+            return count * rows;
+        } else {
+            return count * count;
+        }
+    }
+
+    /**
+     * Merges the given partial results in the given order
+     * @param partials
+     * @param columns
+     * @return
+     */
+    private Partial merge(List<Partial> partials, int columns) {
+        Partial result = new Partial();
+        result.sum = new double[columns];
+        result.centroid = new double[columns];
+        result.minimum = new double[columns];
+        result.maximum = new double[columns];
+        result.deviation = new double[columns];
+        for (int column = 0; column < columns; column++) {
+            result.minimum[column] = Double.MAX_VALUE;
+            result.maximum[column] = -Double.MAX_VALUE;
+        }
+        for (Partial partial : partials) {
+            result.ambiguityMin += partial.ambiguityMin;
+            result.ambiguityResult += partial.ambiguityResult;
+            result.ambiguityMax += partial.ambiguityMax;
+            result.ambiguityFailed |= partial.ambiguityFailed;
+            result.sse += partial.sse;
+            result.sst += partial.sst;
+            result.distance += partial.distance;
+            result.maxDistance += partial.maxDistance;
+            for (int column = 0; column < columns; column++) {
+                if (partial.sum != null) {
+                    result.sum[column] += partial.sum[column];
+                    result.centroid[column] += partial.centroid[column];
+                    result.minimum[column] = Math.min(result.minimum[column], partial.minimum[column]);
+                    result.maximum[column] = Math.max(result.maximum[column], partial.maximum[column]);
+                }
+                if (partial.deviation != null) {
+                    result.deviation[column] += partial.deviation[column];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Executes the given tasks, concurrently if an executor is given, and returns
+     * their results in the given order. Each task is a step.
+     * @param tasks
+     * @return
+     */
+    private <T> List<T> run(List<Callable<T>> tasks) {
+
+        // Sequential
+        List<T> result = new ArrayList<>();
+        if (executor == null) {
+            for (Callable<T> task : tasks) {
+                try {
+                    result.add(task.call());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                setStepPerformed();
+            }
+            return result;
+        }
+
+        // Parallel
+        List<Future<T>> futures = new ArrayList<>();
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+        try {
+            for (Future<T> future : futures) {
+                try {
+                    result.add(future.get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    } else if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    } else {
+                        throw new RuntimeException(e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ComputationInterruptedException("Interrupted");
+                }
+                setStepPerformed();
+            }
+        } finally {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return result;
+    }
+}
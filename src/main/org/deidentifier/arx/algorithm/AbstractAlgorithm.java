@@ -18,6 +18,7 @@
 package org.deidentifier.arx.algorithm;
 
 import org.deidentifier.arx.ARXListener;
+import org.deidentifier.arx.ARXSearchListener;
 import org.deidentifier.arx.ARXConfiguration.Monotonicity;
 import org.deidentifier.arx.framework.check.TransformationChecker;
 import org.deidentifier.arx.framework.check.TransformationChecker.ScoreType;
@@ -44,6 +45,9 @@ public abstract class AbstractAlgorithm {
     /** The listener */
     private ARXListener             listener               = null;
 
+    /** Whether the listener requested to stop the search */
+    private boolean                 stopped                = false;
+
     /** A node checker. */
     protected TransformationChecker checker                = null;
 
@@ -107,6 +111,14 @@ public abstract class AbstractAlgorithm {
         }
     }
 
+    /**
+     * Returns whether the listener requested to stop the search
+     * @return
+     */
+    protected boolean isStopped() {
+        return stopped;
+    }
+
     /**
      * Propagate progress to listeners
      * @param progress
@@ -129,6 +141,10 @@ public abstract class AbstractAlgorithm {
             ((transformation.getInformationLoss().compareTo(optimalInformationLoss) == 0) && (transformation.getLevel() < globalOptimum.getLevel())))) {
             globalOptimum = transformation;
             optimalInformationLoss = transformation.getInformationLoss();
+            if (listener instanceof ARXSearchListener &&
+                !((ARXSearchListener) listener).optimum(transformation.getGeneralization().clone(), optimalInformationLoss)) {
+                stopped = true;
+            }
         }
     }
 
@@ -23,6 +23,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.PriorityQueue;
 
+import org.deidentifier.arx.ARXConfiguration.Monotonicity;
 import org.deidentifier.arx.algorithm.FLASHPhaseConfiguration.PhaseAnonymityProperty;
 import org.deidentifier.arx.framework.check.TransformationResult;
 import org.deidentifier.arx.framework.check.TransformationChecker;
@@ -39,6 +40,7 @@ import cern.colt.function.IntComparator;
 import cern.colt.list.LongArrayList;
 
 import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntObjectOpenHashMap;
 
 import de.linearbits.jhpl.JHPLIterator.LongIterator;
 import de.linearbits.jhpl.PredictiveProperty;
@@ -66,6 +68,9 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
     /** The number of checked transformations */
     private int                        checked = 0;
 
+    /** Results of transformations which have been checked level by level */
+    private IntObjectOpenHashMap<TransformationResult> results;
+
     /**
      * Creates a new instance.
      *
@@ -116,6 +121,16 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
         bottom.setProperty(solutionSpace.getPropertyForceSnapshot());
         bottom.setData(result);
 
+        // If no properties can be predicted, check each level concurrently
+        if (checker.getConfiguration().isUseLevelwiseSearch() &&
+            checker.getConfiguration().getMonotonicityOfPrivacy() == Monotonicity.NONE &&
+            checker.getConfiguration().getMonotonicityOfUtility() == Monotonicity.NONE) {
+            results = new IntObjectOpenHashMap<TransformationResult>();
+            for (int level = bottom.getLevel(); level <= top.getLevel(); level++) {
+                checkLevel(level);
+            }
+        }
+
         // For each node in the lattice
         for (int level = bottom.getLevel(); level <= top.getLevel(); level++) {
             for (int id : getSortedUnprocessedNodes(level, outerLoopConfiguration.getTriggerSkip())) {
@@ -136,6 +151,7 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
 
         // Remove the associated result information to leave the lattice in a consistent state
         bottom.setData(null);
+        results = null;
 
         // Clear list of pruning candidates
         if (potentiallyInsufficientUtility != null) {
@@ -198,8 +214,13 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
                 transformation.setLowerBound(checker.getMetric().getLowerBound(transformation));
             }
         } else if (configuration.getTriggerCheck().appliesTo(transformation)) {
-            transformation.setChecked(checker.check(transformation));
-            progress((double)++checked / (double)solutionSpace.getSize());
+            TransformationResult result = results != null ? results.remove((int)transformation.getIdentifier()) : null;
+            if (result != null) {
+                transformation.setChecked(result);
+            } else {
+                transformation.setChecked(checker.check(transformation));
+                progress((double)++checked / (double)solutionSpace.getSize());
+            }
         }
 
         // Store optimum
@@ -212,6 +233,36 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
         prune(transformation);
     }
 
+    /**
+     * Concurrently checks all transformations of the given level which may be checked by the linear
+     * phase. The results are only used when the transformations are reached by the traversal, which
+     * is why the solution space is identical to the one obtained by sequential checking.
+     *
+     * @param level
+     */
+    private void checkLevel(int level) {
+
+        // Collect
+        FLASHPhaseConfiguration configuration = config.getLinearPhaseConfiguration();
+        List<Transformation> transformations = new ArrayList<Transformation>();
+        for (int id : getSortedUnprocessedNodes(level, configuration.getTriggerSkip())) {
+            Transformation transformation = solutionSpace.getTransformation(id);
+            if (!(transformation.getData() instanceof TransformationResult) &&
+                !configuration.getTriggerEvaluate().appliesTo(transformation) &&
+                configuration.getTriggerCheck().appliesTo(transformation)) {
+                transformations.add(transformation);
+            }
+        }
+
+        // Check
+        TransformationResult[] levelResults = checker.check(transformations.toArray(new Transformation[transformations.size()]));
+        for (int i = 0; i < levelResults.length; i++) {
+            results.put((int)transformations.get(i).getIdentifier(), levelResults[i]);
+        }
+        checked += levelResults.length;
+        progress((double)checked / (double)solutionSpace.getSize());
+    }
+
     /**
      * Checks a path binary.
      *
@@ -238,6 +289,15 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
             final int mid = (low + high) / 2;
             final Transformation transformation = path.get(mid);
 
+            // Prefetch candidates for this and the next step of the binary search
+            prefetch(transformation, config.getBinaryPhaseConfiguration());
+            if (low <= mid - 1) {
+                prefetch(path.get((low + mid - 1) / 2), config.getBinaryPhaseConfiguration());
+            }
+            if (mid + 1 <= high) {
+                prefetch(path.get((mid + 1 + high) / 2), config.getBinaryPhaseConfiguration());
+            }
+
             // Skip
             if (!skip(triggerSkip, transformation)) {
 
@@ -353,6 +413,12 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
         // Skip this node
         if (!skip(triggerSkip, transformation)) {
 
+            // Prefetch this node and its successors
+            prefetch(transformation, config.getLinearPhaseConfiguration());
+            for (final int child : getSortedSuccessors(transformation)) {
+                prefetch(solutionSpace.getTransformation(child), config.getLinearPhaseConfiguration());
+            }
+
             // Check and tag
             checkAndTag(transformation, config.getLinearPhaseConfiguration());
 
@@ -369,6 +435,22 @@ public class FLASHAlgorithmImpl extends AbstractAlgorithm {
         transformation.setProperty(solutionSpace.getPropertySuccessorsPruned());
     }
 
+    /**
+     * Hints the checker that the given transformation will probably be checked soon.
+     * Only side-effect free triggers are evaluated, which means that tagging is not affected.
+     *
+     * @param transformation
+     * @param configuration
+     */
+    private void prefetch(Transformation transformation, FLASHPhaseConfiguration configuration) {
+        if ((results == null || !results.containsKey((int)transformation.getIdentifier())) &&
+            !configuration.getTriggerSkip().appliesTo(transformation) &&
+            !configuration.getTriggerEvaluate().appliesTo(transformation) &&
+            configuration.getTriggerCheck().appliesTo(transformation)) {
+            checker.prefetch(transformation);
+        }
+    }
+
     /**
      * We may be able to prune some transformations based on weak lower bounds on
      * the monotonic share of a node's information loss.
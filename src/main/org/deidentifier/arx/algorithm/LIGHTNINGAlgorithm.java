@@ -68,6 +68,8 @@ public class LIGHTNINGAlgorithm extends AbstractAlgorithm{
     private int                      checkCount;
     /** The number of checks */
     private final int                checkLimit;
+    /** The number of frontiers which are expanded concurrently */
+    private final int                frontiers;
     
     /**
     * Constructor
@@ -87,6 +89,7 @@ public class LIGHTNINGAlgorithm extends AbstractAlgorithm{
         this.solutionSpace.setAnonymityPropertyPredictable(false);
         this.timeLimit = timeLimit;
         this.checkLimit = checkLimit;
+        this.frontiers = checker.getConfiguration().getNumThreads();
         if (timeLimit <= 0) { 
             throw new IllegalArgumentException("Invalid time limit. Must be greater than zero."); 
         }
@@ -114,6 +117,7 @@ public class LIGHTNINGAlgorithm extends AbstractAlgorithm{
         while ((nextId = queue.poll()) != null) {
             next = solutionSpace.getTransformation(nextId);
             if (!prune(next)) {
+                prefetch(queue, next);
                 step++;
                 if (step % stepping == 0) {
                     dfs(queue, next);
@@ -172,6 +176,7 @@ public class LIGHTNINGAlgorithm extends AbstractAlgorithm{
         
         Transformation result = null;
         LongArrayList list = transformation.getSuccessors();
+        prefetch(transformation);
         for (int i = 0; i < list.size(); i++) {
             long id = list.getQuick(i);
             Transformation successor = solutionSpace.getTransformation(id);
@@ -191,12 +196,56 @@ public class LIGHTNINGAlgorithm extends AbstractAlgorithm{
     }
     
     /**
-     * Returns whether we have exceeded the allowed number of steps or time.
+     * Returns whether we have exceeded the allowed number of steps or time,
+     * or whether the listener requested to stop.
      * @return
      */
     private boolean mustStop() {
         return ((int)(System.currentTimeMillis() - timeStart) > timeLimit) ||
-               (checkCount >= checkLimit);
+               (checkCount >= checkLimit) || isStopped();
+    }
+
+    /**
+     * Hints the checker that the successors of the given transformation and of further
+     * frontiers at the head of the queue will be checked soon. If multiple threads have been
+     * configured, they will be checked concurrently by further checkers. The head of the
+     * queue is determined from a copy, because the iterator of a priority queue does not
+     * return elements in order and because re-inserting elements may change the order of
+     * ties, which would affect the order of the search.
+     * @param queue
+     * @param transformation
+     */
+    private void prefetch(PriorityQueue<Long> queue, Transformation transformation) {
+        if (frontiers <= 1) {
+            return;
+        }
+        prefetch(transformation);
+        if (queue.isEmpty()) {
+            return;
+        }
+        PriorityQueue<Long> head = new PriorityQueue<Long>(queue);
+        Long id;
+        for (int i = 1; i < frontiers && (id = head.poll()) != null; i++) {
+            prefetch(solutionSpace.getTransformation(id));
+        }
+    }
+
+    /**
+     * Hints the checker that the successors of the given transformation will be checked soon
+     * @param transformation
+     */
+    private void prefetch(Transformation transformation) {
+        if (frontiers <= 1) {
+            return;
+        }
+        LongArrayList list = transformation.getSuccessors();
+        for (int i = 0; i < list.size(); i++) {
+            Transformation successor = solutionSpace.getTransformation(list.getQuick(i));
+            if (!successor.hasProperty(propertyChecked) && !successor.hasProperty(propertyExpanded) &&
+                !successor.hasProperty(propertyInsufficientUtility)) {
+                checker.prefetch(successor, true);
+            }
+        }
     }
 
     /**
@@ -0,0 +1,533 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.deidentifier.arx.DataHandleInternal;
+
+/**
+ * A hash groupify operator for the rows of a data handle. Instead of the values of
+ * the rows, it hashes and compares the encoded values, which are mapped to identifiers
+ * of distinct values once per code and column. Groups are stored in primitive arrays
+ * and are addressed by their index, in order of creation. Once all rows have been
+ * added, instances must not be modified anymore, as they may be shared via
+ * {@link GroupifyCache}.
+ *
+ * @author Fabian Prasser
+ */
+public class EncodedGroupify {
+
+    /**
+     * Distinct values
+     *
+     * @author Fabian Prasser
+     */
+    public static class Dictionary {
+
+        /** Identifiers */
+        private final Map<String, Integer> identifiers = new HashMap<String, Integer>();
+
+        /** Values */
+        private final List<String>         values      = new ArrayList<String>();
+
+        /**
+         * Returns the identifier of the given value, -1 if it is unknown
+         * @param value
+         * @return
+         */
+        public int getIdentifier(String value) {
+            Integer identifier = identifiers.get(value);
+            return identifier == null ? -1 : identifier;
+        }
+
+        /**
+         * Returns the value with the given identifier
+         * @param identifier
+         * @return
+         */
+        public String getValue(int identifier) {
+            return values.get(identifier);
+        }
+
+        /**
+         * Returns the identifier of the given value, which is registered if necessary
+         * @param value
+         * @return
+         */
+        private int register(String value) {
+            Integer identifier = identifiers.get(value);
+            if (identifier == null) {
+                identifier = values.size();
+                identifiers.put(value, identifier);
+                values.add(value);
+            }
+            return identifier;
+        }
+    }
+
+    /**
+     * How rows which are outliers are handled
+     *
+     * @author Fabian Prasser
+     */
+    public static enum OutlierHandling {
+        /** Outliers are not added */
+        EXCLUDE,
+        /** Groups are suppressed, if the first row added is an outlier */
+        SUPPRESS,
+        /** Outliers are treated like all other rows */
+        IGNORE
+    }
+
+    /** Load factor. */
+    private static final float      LOAD_FACTOR = 0.75f;
+
+    /** The handle */
+    private final DataHandleInternal handle;
+
+    /** The indices of the columns */
+    private final int[]              indices;
+
+    /** Whether suppression is ignored */
+    private final boolean            ignoreSuppression;
+
+    /** How outliers are handled */
+    private final OutlierHandling    outliers;
+
+    /** Groups are suppressed, if all values equal the wildcard. May be null. */
+    private final String             wildcard;
+
+    /** The dictionary */
+    private final Dictionary         dictionary;
+
+    /** Per row: index of group + 1, 0 if the row has not been added */
+    private final int[]              rows;
+
+    /** Per column: code + 1 to identifier + 1, 0 if unknown */
+    private final int[][]            mapping;
+
+    /** The tuple which is currently processed */
+    private final int[]              tuple;
+
+    /** The tuples of the groups */
+    private int[]                    tuples;
+
+    /** The hash codes of the groups */
+    private int[]                    hashcodes;
+
+    /** The sizes of the groups */
+    private int[]                    counts;
+
+    /** Whether the groups are suppressed */
+    private boolean[]                suppressed;
+
+    /** The number of groups */
+    private int                      size;
+
+    /** Hash table: index of group + 1, 0 if empty */
+    private int[]                    table;
+
+    /** Maximum number of groups before the table must be rehashed */
+    private int                      threshold;
+
+    /**
+     * Creates a new instance. Groups are suppressed, if the first row added is an outlier.
+     *
+     * @param handle
+     * @param indices
+     * @param ignoreSuppression
+     * @param capacity
+     */
+    public EncodedGroupify(DataHandleInternal handle, int[] indices, boolean ignoreSuppression, int capacity) {
+        this(handle, indices, ignoreSuppression, OutlierHandling.SUPPRESS, null, capacity);
+    }
+
+    /**
+     * Creates a new instance
+     *
+     * @param handle
+     * @param indices
+     * @param ignoreSuppression
+     * @param outliers
+     * @param wildcard Groups are suppressed, if all values equal the wildcard. May be null.
+     * @param capacity
+     */
+    public EncodedGroupify(DataHandleInternal handle,
+                           int[] indices,
+                           boolean ignoreSuppression,
+                           OutlierHandling outliers,
+                           String wildcard,
+                           int capacity) {
+        this.handle = handle;
+        this.indices = indices;
+        this.ignoreSuppression = ignoreSuppression;
+        this.outliers = outliers;
+        this.wildcard = wildcard;
+        this.dictionary = new Dictionary();
+        this.rows = new int[handle.getNumRows()];
+        this.mapping = new int[indices.length][16];
+        this.tuple = new int[indices.length];
+        int length = calculateCapacity(capacity);
+        this.table = new int[length];
+        this.threshold = (int) (length * LOAD_FACTOR);
+        this.tuples = new int[threshold * indices.length];
+        this.hashcodes = new int[threshold];
+        this.counts = new int[threshold];
+        this.suppressed = new boolean[threshold];
+    }
+
+    /**
+     * Adds the given row. Whether a group is suppressed is determined by the first
+     * row added to the group.
+     *
+     * @param row
+     * @return The index of the group, -1 if the row has been excluded
+     */
+    public int add(int row) {
+
+        // Handle outliers
+        boolean outlier = outliers != OutlierHandling.IGNORE && handle.isOutlier(row);
+        if (outlier && outliers == OutlierHandling.EXCLUDE) {
+            return -1;
+        }
+
+        // Encode
+        int hashcode = encode(row);
+
+        // Find or create group
+        int group = lookup(tuple, 0, hashcode);
+        if (group == -1) {
+            group = create(hashcode, outlier || (wildcard != null && isEqual(dictionary.getIdentifier(wildcard))));
+        }
+
+        // Track size and group
+        counts[group]++;
+        rows[row] = group + 1;
+        return group;
+    }
+
+    /**
+     * Returns the size of the given group
+     *
+     * @param group
+     * @return
+     */
+    public int getCount(int group) {
+        return counts[group];
+    }
+
+    /**
+     * Returns the dictionary
+     *
+     * @return
+     */
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns the group of this grouping, which contains the same values as the given
+     * group of the given grouping, -1 if there is none.
+     *
+     * @param other
+     * @param group
+     * @return
+     */
+    public int getGroup(EncodedGroupify other, int group) {
+
+        // Check
+        if (other.indices.length != this.indices.length) {
+            throw new IllegalArgumentException("Groupings are not compatible");
+        }
+
+        // Same dictionary
+        if (other.dictionary == this.dictionary) {
+            return lookup(other.tuples, group * indices.length, other.hashcodes[group]);
+        }
+
+        // Translate identifiers
+        int[] values = new int[indices.length];
+        int hashcode = 1;
+        for (int i = 0; i < indices.length; i++) {
+            int identifier = dictionary.getIdentifier(other.getValue(group, i));
+            if (identifier == -1) {
+                return -1;
+            }
+            values[i] = identifier;
+            hashcode = 31 * hashcode + identifier;
+        }
+        return lookup(values, 0, hashcode ^ (hashcode >>> 16));
+    }
+
+    /**
+     * Returns the group of the given row, -1 if the row has not been added
+     *
+     * @param row
+     * @return
+     */
+    public int getGroupOfRow(int row) {
+        return rows[row] - 1;
+    }
+
+    /**
+     * Returns the identifier of a value of the given group
+     *
+     * @param group
+     * @param index Index in the list of columns
+     * @return
+     */
+    public int getIdentifier(int group, int index) {
+        return tuples[group * indices.length + index];
+    }
+
+    /**
+     * Returns an estimate of the number of bytes consumed by this grouping
+     *
+     * @return
+     */
+    public long getMemoryConsumption() {
+        long result = 4L * (tuples.length + hashcodes.length + counts.length + table.length + rows.length);
+        result += suppressed.length;
+        for (int[] map : mapping) {
+            result += 4L * map.length;
+        }
+        for (String value : dictionary.values) {
+            result += 64L + 2L * value.length();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of columns
+     *
+     * @return
+     */
+    public int getNumColumns() {
+        return indices.length;
+    }
+
+    /**
+     * Returns a value of the given group
+     *
+     * @param group
+     * @param index Index in the list of columns
+     * @return
+     */
+    public String getValue(int group, int index) {
+        return dictionary.getValue(getIdentifier(group, index));
+    }
+
+    /**
+     * Returns whether all values of the given group are equal
+     *
+     * @param group
+     * @return
+     */
+    public boolean isConstant(int group) {
+        int offset = group * indices.length;
+        for (int i = 1; i < indices.length; i++) {
+            if (tuples[offset + i - 1] != tuples[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether this grouping has been built with the given parameters
+     *
+     * @param indices
+     * @param ignoreSuppression
+     * @param outliers
+     * @param wildcard
+     * @return
+     */
+    public boolean isMatching(int[] indices, boolean ignoreSuppression, OutlierHandling outliers, String wildcard) {
+        return Arrays.equals(this.indices, indices) &&
+               this.ignoreSuppression == ignoreSuppression &&
+               this.outliers == outliers &&
+               (this.wildcard == null ? wildcard == null : this.wildcard.equals(wildcard));
+    }
+
+    /**
+     * Returns whether the given group is suppressed
+     *
+     * @param group
+     * @return
+     */
+    public boolean isSuppressed(int group) {
+        return suppressed[group];
+    }
+
+    /**
+     * Returns the number of groups
+     *
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Calculates a new capacity.
+     *
+     * @param x
+     * @return
+     */
+    private int calculateCapacity(int x) {
+        if (x >= (1 << 30)) { return 1 << 30; }
+        if (x < 16) { return 16; }
+        x = x - 1;
+        x |= x >> 1;
+        x |= x >> 2;
+        x |= x >> 4;
+        x |= x >> 8;
+        x |= x >> 16;
+        return x + 1;
+    }
+
+    /**
+     * Creates a new group for the current tuple
+     *
+     * @param hashcode
+     * @param suppressed
+     * @return
+     */
+    private int create(int hashcode, boolean suppressed) {
+
+        // Grow
+        if (size == threshold) {
+            rehash();
+        }
+
+        // Store
+        int group = size++;
+        System.arraycopy(tuple, 0, tuples, group * indices.length, indices.length);
+        this.hashcodes[group] = hashcode;
+        this.suppressed[group] = suppressed;
+
+        // Insert
+        int mask = table.length - 1;
+        int slot = hashcode & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = group + 1;
+        return group;
+    }
+
+    /**
+     * Encodes the given row into the current tuple and returns its hash code
+     *
+     * @param row
+     * @return
+     */
+    private int encode(int row) {
+        int hashcode = 1;
+        for (int i = 0; i < indices.length; i++) {
+            int code = handle.getEncodedValue(row, indices[i], ignoreSuppression) + 1;
+            int[] map = mapping[i];
+            if (code >= map.length) {
+                map = Arrays.copyOf(map, Math.max(code + 1, map.length * 2));
+                mapping[i] = map;
+            }
+            int identifier = map[code] - 1;
+            if (identifier == -1) {
+                identifier = dictionary.register(handle.getValue(row, indices[i], ignoreSuppression));
+                map[code] = identifier + 1;
+            }
+            tuple[i] = identifier;
+            hashcode = 31 * hashcode + identifier;
+        }
+        return hashcode ^ (hashcode >>> 16);
+    }
+
+    /**
+     * Returns the group with the given values, -1 if there is none
+     *
+     * @param values
+     * @param offset
+     * @param hashcode
+     * @return
+     */
+    private int lookup(int[] values, int offset, int hashcode) {
+        int mask = table.length - 1;
+        int slot = hashcode & mask;
+        int width = indices.length;
+        outer: while (table[slot] != 0) {
+            int group = table[slot] - 1;
+            if (hashcodes[group] == hashcode) {
+                int start = group * width;
+                for (int i = 0; i < width; i++) {
+                    if (tuples[start + i] != values[offset + i]) {
+                        slot = (slot + 1) & mask;
+                        continue outer;
+                    }
+                }
+                return group;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether all values of the current tuple have the given identifier
+     *
+     * @param identifier
+     * @return
+     */
+    private boolean isEqual(int identifier) {
+        for (int value : tuple) {
+            if (value != identifier) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Doubles the capacity
+     */
+    private void rehash() {
+
+        // Grow arrays
+        int length = table.length << 1;
+        threshold = (int) (length * LOAD_FACTOR);
+        tuples = Arrays.copyOf(tuples, threshold * indices.length);
+        hashcodes = Arrays.copyOf(hashcodes, threshold);
+        counts = Arrays.copyOf(counts, threshold);
+        suppressed = Arrays.copyOf(suppressed, threshold);
+
+        // Rebuild table
+        table = new int[length];
+        int mask = length - 1;
+        for (int group = 0; group < size; group++) {
+            int slot = hashcodes[group] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = group + 1;
+        }
+    }
+}
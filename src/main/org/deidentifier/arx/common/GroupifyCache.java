@@ -0,0 +1,123 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.common;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import org.deidentifier.arx.common.EncodedGroupify.OutlierHandling;
+
+/**
+ * A cache for the equivalence classes of a data handle. Groupings are evicted in
+ * least-recently-used order, when the estimated memory consumption exceeds the budget.
+ * The cache must be cleared whenever the data represented by the handle changes.
+ *
+ * @author Fabian Prasser
+ */
+public class GroupifyCache {
+
+    /** Default memory budget in bytes */
+    public static final long                  DEFAULT_BUDGET = 64L * 1024L * 1024L;
+
+    /** The memory budget in bytes */
+    private final long                        budget;
+
+    /** The groupings, most recently used first */
+    private final LinkedList<EncodedGroupify> groupings      = new LinkedList<EncodedGroupify>();
+
+    /** The estimated memory consumption of the groupings */
+    private long                              size           = 0L;
+
+    /**
+     * Creates a new instance with the default budget
+     */
+    public GroupifyCache() {
+        this(DEFAULT_BUDGET);
+    }
+
+    /**
+     * Creates a new instance
+     *
+     * @param budget Memory budget in bytes
+     */
+    public GroupifyCache(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Removes all groupings
+     */
+    public synchronized void clear() {
+        groupings.clear();
+        size = 0L;
+    }
+
+    /**
+     * Returns the grouping which has been built with the given parameters, if any
+     *
+     * @param indices
+     * @param ignoreSuppression
+     * @param outliers
+     * @param wildcard
+     * @return
+     */
+    public synchronized EncodedGroupify get(int[] indices, boolean ignoreSuppression, OutlierHandling outliers, String wildcard) {
+        Iterator<EncodedGroupify> iter = groupings.iterator();
+        while (iter.hasNext()) {
+            EncodedGroupify groupify = iter.next();
+            if (groupify.isMatching(indices, ignoreSuppression, outliers, wildcard)) {
+                iter.remove();
+                groupings.addFirst(groupify);
+                return groupify;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a grouping. Groupings which exceed the budget are not cached.
+     *
+     * @param groupify
+     */
+    public synchronized void put(EncodedGroupify groupify) {
+
+        // Check
+        long consumption = groupify.getMemoryConsumption();
+        if (consumption > budget || groupings.contains(groupify)) {
+            return;
+        }
+
+        // Evict
+        while (size + consumption > budget) {
+            size -= groupings.removeLast().getMemoryConsumption();
+        }
+
+        // Add
+        groupings.addFirst(groupify);
+        size += consumption;
+    }
+
+    /**
+     * Returns the number of cached groupings
+     *
+     * @return
+     */
+    public synchronized int size() {
+        return groupings.size();
+    }
+}
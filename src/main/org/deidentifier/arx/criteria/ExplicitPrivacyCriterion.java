@@ -17,6 +17,7 @@
 package org.deidentifier.arx.criteria;
 
 import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.framework.check.distribution.DistributionCache;
 import org.deidentifier.arx.framework.data.DataManager;
 
 /**
@@ -59,6 +60,16 @@ public abstract class ExplicitPrivacyCriterion extends PrivacyCriterion {
         return attribute;
     }
 
+    /**
+     * Returns the cache for verdicts about distributions of sensitive values, if this
+     * criterion uses one. Returns <code>null</code> otherwise.
+     *
+     * @return
+     */
+    public DistributionCache getDistributionCache() {
+        return null;
+    }
+
     @Override
     public void initialize(DataManager manager, ARXConfiguration config) {
         String[] header = manager.getDataAnalyzed().getHeader();
@@ -20,6 +20,7 @@ package org.deidentifier.arx.criteria;
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.certificate.elements.ElementData;
+import org.deidentifier.arx.framework.check.distribution.DistributionCache;
 import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
 import org.deidentifier.arx.framework.data.DataManager;
 import org.deidentifier.arx.framework.lattice.Transformation;
@@ -47,6 +48,12 @@ public class HierarchicalDistanceTCloseness extends TCloseness {
     /** Internal empty tree. */
     private int[]             empty;
 
+    /** Internal tree for each thread. */
+    private transient ThreadLocal<int[]> trees;
+
+    /** Cache for verdicts */
+    private transient DistributionCache  cache;
+
     /**
      * Creates a new instance of the t-closeness criterion with hierarchical earth-movers-distance as proposed in:
      * Li N, Li T, Venkatasubramanian S.
@@ -76,17 +83,57 @@ public class HierarchicalDistanceTCloseness extends TCloseness {
         return hierarchy;
     }
 
+    /**
+     * Returns the cache for verdicts about distributions, which is created
+     * when this criterion is initialized.
+     *
+     * @return
+     */
+    @Override
+    public DistributionCache getDistributionCache() {
+        return cache;
+    }
+
     @Override
     public void initialize(DataManager manager, ARXConfiguration config) {
         super.initialize(manager, config);
         this.tree = manager.getTree(attribute);
         this.start = this.tree[1] + 3;
         this.empty = new int[this.tree[1]];
+        final int[] template = this.tree;
+        this.trees = new ThreadLocal<int[]>() {
+            @Override
+            protected int[] initialValue() {
+                return template.clone();
+            }
+        };
+        this.cache = new DistributionCache();
     }
 
     @Override
     public boolean isAnonymous(Transformation node, HashGroupifyEntry entry) {
         
+        // Check cache
+        long[] fingerprint = cache.getFingerprint(entry.distributions[index], entry.count);
+        Boolean verdict = cache.get(fingerprint);
+        if (verdict == null) {
+            verdict = isAnonymous(entry);
+            cache.put(fingerprint, verdict);
+        }
+        return verdict;
+    }
+
+    /**
+     * Computes the EMD with hierarchical ground-distance and checks it against the threshold
+     * 
+     * @param entry
+     * @return
+     */
+    private boolean isAnonymous(HashGroupifyEntry entry) {
+        
+        // Obtain tree for the current thread
+        final int[] tree = this.trees.get();
+        
         // Empty data in tree
         System.arraycopy(empty, 0, tree, start, empty.length);
 
@@ -20,6 +20,7 @@ package org.deidentifier.arx.criteria;
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.certificate.elements.ElementData;
 import org.deidentifier.arx.common.FastIntDoubleMap;
+import org.deidentifier.arx.framework.check.distribution.DistributionCache;
 import org.deidentifier.arx.framework.check.groupify.HashGroupifyEntry;
 import org.deidentifier.arx.framework.data.DataManager;
 import org.deidentifier.arx.framework.lattice.Transformation;
@@ -38,22 +39,25 @@ public class OrderedDistanceTCloseness extends TCloseness {
     private static final long serialVersionUID = -2395544663063577862L;
 
     /** The original distribution. */
-    private double[]          distribution;
+    private double[]                    distribution;
 
     /** The order of the elements. */
-    private int[]             order;
+    private int[]                       order;
     
     /** The order of the elements. */
-    private int[]             orderNumber;
+    private int[]                       orderNumber;
     
     /** Partial distances of the original distribution. */
-    private double[]          baseDistances;
+    private double[]                    baseDistances;
     
     /** Partial sums of the original distribution. */
-    private double[]          baseSums;
+    private double[]                    baseSums;
 
     /** Minimal order number that must be present */
-    private int               minOrder;
+    private int                         minOrder;
+
+    /** Cache for verdicts */
+    private transient DistributionCache cache;
     
     /**
      * Creates a new instance of the t-closeness criterion for ordered attributes as proposed in:
@@ -73,6 +77,11 @@ public class OrderedDistanceTCloseness extends TCloseness {
         return new OrderedDistanceTCloseness(this.getAttribute(), this.getT());
     }
     
+    @Override
+    public DistributionCache getDistributionCache() {
+        return cache;
+    }
+    
     @Override
     public void initialize(DataManager manager, ARXConfiguration config) {
         
@@ -85,6 +94,7 @@ public class OrderedDistanceTCloseness extends TCloseness {
         this.orderNumber = getOrderNumbers(order);
         this.baseDistances = new double[order.length];
         this.baseSums = new double[order.length];
+        this.cache = new DistributionCache();
         
         // Prepare
         double threshold = t * (order.length - 1d);
@@ -112,6 +122,24 @@ public class OrderedDistanceTCloseness extends TCloseness {
     
     @Override
     public boolean isAnonymous(Transformation node, HashGroupifyEntry entry) {
+        
+        // Check cache
+        long[] fingerprint = cache.getFingerprint(entry.distributions[index], entry.count);
+        Boolean verdict = cache.get(fingerprint);
+        if (verdict == null) {
+            verdict = isAnonymous(entry);
+            cache.put(fingerprint, verdict);
+        }
+        return verdict;
+    }
+    
+    /**
+     * Computes the EMD with ordered distance and checks it against the threshold
+     * 
+     * @param entry
+     * @return
+     */
+    private boolean isAnonymous(HashGroupifyEntry entry) {
 
         // Init
         int[] buckets = entry.distributions[index].getBuckets();
@@ -116,7 +116,7 @@ public class TransformationApplicator {
                                                   hierarchies,
                                                   config);
         
-        HashGroupify currentGroupify = new HashGroupify(initialSize,
+        HashGroupify currentGroupify = HashGroupify.create(initialSize,
                                                         config, 
                                                         aggregation.getHeader().length,
                                                         inputGeneralized.getArray(),
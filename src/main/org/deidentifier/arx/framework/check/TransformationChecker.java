@@ -19,10 +19,17 @@ package org.deidentifier.arx.framework.check;
 
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.ARXConfiguration.ARXConfigurationInternal;
+import org.deidentifier.arx.criteria.ExplicitPrivacyCriterion;
+import org.deidentifier.arx.criteria.PrivacyCriterion;
 import org.deidentifier.arx.framework.check.TransformationCheckerStateMachine.Transition;
+import org.deidentifier.arx.framework.check.distribution.DistributionCache;
+import org.deidentifier.arx.framework.check.distribution.DistributionCacheStatistics;
 import org.deidentifier.arx.framework.check.distribution.IntArrayDictionary;
 import org.deidentifier.arx.framework.check.groupify.HashGroupify;
 import org.deidentifier.arx.framework.check.history.History;
+import org.deidentifier.arx.framework.check.history.HistoryArchive;
+import org.deidentifier.arx.framework.check.history.HistoryEvictionPolicyLRU;
+import org.deidentifier.arx.framework.check.history.HistoryStatistics;
 import org.deidentifier.arx.framework.data.Data;
 import org.deidentifier.arx.framework.data.DataManager;
 import org.deidentifier.arx.framework.data.DataMatrix;
@@ -87,6 +94,15 @@ public class TransformationChecker {
     /** Is a minimal class size required */
     private final boolean                           minimalClassSizeRequired;
 
+    /** Pool of checkers used by further threads, if any */
+    private TransformationCheckerPool               pool;
+
+    /** Snapshots of the first rows retained from a previous search, if any */
+    private HistoryArchive                          archive;
+
+    /** Statistics of the histories of the pool, after it has been shut down */
+    private HistoryStatistics                       poolStatistics = new HistoryStatistics(0, 0, 0, 0);
+
     /**
      * Creates a new transformation checker.
      * 
@@ -106,6 +122,50 @@ public class TransformationChecker {
                                  final double snapshotSizeSnapshot,
                                  final SolutionSpace solutionSpace) {
         
+        this(manager, metric, config, historyMaxSize, snapshotSizeDataset, snapshotSizeSnapshot, solutionSpace,
+             manager.getDataGeneralized().getArray(), manager.getDataAnalyzed().getArray());
+
+        // Create pool of checkers for further threads
+        if (config.getNumThreads() > 1) {
+            DataMatrix inputGeneralized = manager.getDataGeneralized().getArray();
+            DataMatrix inputAnalyzed = manager.getDataAnalyzed().getArray();
+            TransformationChecker[] checkers = new TransformationChecker[config.getNumThreads() - 1];
+            for (int i = 0; i < checkers.length; i++) {
+                checkers[i] = new TransformationChecker(manager, metric, config, historyMaxSize, snapshotSizeDataset, snapshotSizeSnapshot,
+                                                        new SolutionSpace(manager.getHierarchiesMinLevels(), manager.getHierarchiesMaxLevels()),
+                                                        inputGeneralized.getView(),
+                                                        inputAnalyzed != null ? inputAnalyzed.getView() : null);
+
+                // Nothing is checked in the solution space of a worker, which the cost-based policy relies on
+                checkers[i].history.setEvictionPolicy(new HistoryEvictionPolicyLRU());
+            }
+            this.pool = new TransformationCheckerPool(checkers);
+        }
+    }
+
+    /**
+     * Creates a new transformation checker which operates on the given input buffers.
+     * 
+     * @param manager The manager
+     * @param metric The metric
+     * @param config The configuration
+     * @param historyMaxSize The history max size
+     * @param snapshotSizeDataset A history threshold
+     * @param snapshotSizeSnapshot A history threshold
+     * @param solutionSpace
+     * @param inputGeneralized
+     * @param inputAnalyzed
+     */
+    private TransformationChecker(final DataManager manager,
+                                  final Metric<?> metric,
+                                  final ARXConfigurationInternal config,
+                                  final int historyMaxSize,
+                                  final double snapshotSizeDataset,
+                                  final double snapshotSizeSnapshot,
+                                  final SolutionSpace solutionSpace,
+                                  final DataMatrix inputGeneralized,
+                                  final DataMatrix inputAnalyzed) {
+        
         // Store data
         this.metric = metric;
         this.manager = manager;
@@ -137,23 +197,23 @@ public class TransformationChecker {
                                    solutionSpace);
         
         this.stateMachine = new TransformationCheckerStateMachine(history);
-        this.transformer = new Transformer(manager.getDataGeneralized().getArray(),
-                                           manager.getDataAnalyzed().getArray(),
+        this.transformer = new Transformer(inputGeneralized,
+                                           inputAnalyzed,
                                            manager.getAggregationInformation().getHotThreshold(),
                                            manager.getHierarchies(),
                                            config,
                                            dictionarySensValue,
                                            dictionarySensFreq);
         
-        this.currentGroupify = new HashGroupify(initialSize, config, manager.getAggregationInformation().getHotThreshold(),
-                                                manager.getDataGeneralized().getArray(),
+        this.currentGroupify = HashGroupify.create(initialSize, config, manager.getAggregationInformation().getHotThreshold(),
+                                                inputGeneralized,
                                                 transformer.getBuffer(),
-                                                manager.getDataAnalyzed().getArray());
+                                                inputAnalyzed);
         
-        this.lastGroupify = new HashGroupify(initialSize, config, manager.getAggregationInformation().getHotThreshold(),
-                                             manager.getDataGeneralized().getArray(),
+        this.lastGroupify = HashGroupify.create(initialSize, config, manager.getAggregationInformation().getHotThreshold(),
+                                             inputGeneralized,
                                              transformer.getBuffer(),
-                                             manager.getDataAnalyzed().getArray());
+                                             inputAnalyzed);
     }
 
     /**
@@ -176,9 +236,20 @@ public class TransformationChecker {
         
         // If the result is already know, simply return it
         if (node.getData() != null && node.getData() instanceof TransformationResult) {
+            if (pool != null) {
+                pool.remove(node);
+            }
             return (TransformationResult) node.getData();
         }
         
+        // If the result has been computed by another thread, simply return it
+        if (pool != null && scoreType == ScoreType.INFORMATION_LOSS) {
+            TransformationResult result = pool.get(node, forceMeasureInfoLoss);
+            if (result != null) {
+                return result;
+            }
+        }
+        
         // Store snapshot from last check
         if (stateMachine.getLastTransformation() != null) {
             history.store(solutionSpace.getTransformation(stateMachine.getLastTransformation()), currentGroupify, stateMachine.getLastTransition().snapshot);
@@ -203,6 +274,9 @@ public class TransformationChecker {
         case SNAPSHOT:
             currentGroupify = transformer.applySnapshot(transition.projection, node.getGeneralization(), currentGroupify, transition.snapshot);
             break;
+        case DELTA:
+            currentGroupify = transformer.applyDelta(node.getGeneralization(), currentGroupify, transition.snapshot, archive.getNumRows());
+            break;
         }
         
         // We are done with transforming and adding
@@ -238,6 +312,23 @@ public class TransformationChecker {
                                       bound);
     }
     
+    /**
+     * Checks the given transformations. If multiple threads have been configured, the
+     * transformations are checked concurrently.
+     * @param nodes
+     * @return
+     */
+    public TransformationResult[] check(final Transformation[] nodes) {
+        if (pool != null) {
+            return pool.check(nodes);
+        }
+        TransformationResult[] results = new TransformationResult[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            results[i] = check(nodes[i]);
+        }
+        return results;
+    }
+
     /**
      * Returns an associated transformation applicator
      * @return
@@ -271,6 +362,35 @@ public class TransformationChecker {
         return history;
     }
     
+    /**
+     * Returns statistics about the usage of the caches for verdicts about distributions, which
+     * are shared by this checker and all further threads.
+     *
+     * @return
+     */
+    public DistributionCacheStatistics getDistributionCacheStatistics() {
+        DistributionCacheStatistics result = new DistributionCacheStatistics(0, 0);
+        for (PrivacyCriterion criterion : config.getPrivacyModels()) {
+            if (criterion instanceof ExplicitPrivacyCriterion) {
+                DistributionCache cache = ((ExplicitPrivacyCriterion) criterion).getDistributionCache();
+                if (cache != null) {
+                    result = result.merge(cache.getStatistics());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns statistics about the usage of the histories of this checker and all further threads.
+     *
+     * @return
+     */
+    public HistoryStatistics getHistoryStatistics() {
+        HistoryStatistics result = history.getStatistics().merge(poolStatistics);
+        return pool != null ? result.merge(pool.getHistoryStatistics()) : result;
+    }
+
     /**
      * Returns the input buffer
      * @return
@@ -295,10 +415,61 @@ public class TransformationChecker {
         return this.transformer.getBuffer();
     }
 
+    /**
+     * Returns the solution space
+     * @return
+     */
+    SolutionSpace getSolutionSpace() {
+        return solutionSpace;
+    }
+
+    /**
+     * Hints that the given transformation is likely to be checked soon. If multiple threads
+     * have been configured, the transformation will be checked in the background.
+     * @param node
+     */
+    public void prefetch(final Transformation node) {
+        prefetch(node, false);
+    }
+
+    /**
+     * Hints that the given transformation is likely to be checked soon, with the given
+     * setting for measuring information loss.
+     * @param node
+     * @param forceMeasureInfoLoss
+     */
+    public void prefetch(final Transformation node, final boolean forceMeasureInfoLoss) {
+        if (pool != null && !(node.getData() instanceof TransformationResult)) {
+            pool.prefetch(node, forceMeasureInfoLoss);
+        }
+    }
+
+    /**
+     * Sets snapshots of the first rows of the dataset, which have been retained from a previous
+     * search. They will be used instead of transforming all rows, if possible.
+     * @param archive
+     */
+    public void setArchive(final HistoryArchive archive) {
+        if (archive != null && archive.getNumRows() > manager.getDataGeneralized().getArray().getNumRows()) {
+            throw new IllegalArgumentException("Snapshots cover more rows than the dataset");
+        }
+        this.archive = archive;
+        this.stateMachine.setArchive(archive);
+        if (pool != null) {
+            pool.setArchive(archive);
+        }
+    }
+
     /**
      * Frees memory
      */
     public void reset() {
+        if (pool != null) {
+            pool.shutdown();
+            poolStatistics = poolStatistics.merge(pool.getHistoryStatistics());
+            pool = null;
+        }
+        transformer.shutdown();
         stateMachine.reset();
         history.reset();
         history.setSize(0);
@@ -0,0 +1,334 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.check;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.deidentifier.arx.framework.check.TransformationChecker.ScoreType;
+import org.deidentifier.arx.framework.check.history.HistoryArchive;
+import org.deidentifier.arx.framework.check.history.HistoryStatistics;
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+import org.deidentifier.arx.framework.lattice.Transformation;
+
+/**
+ * A pool of transformation checkers, which speculatively check transformations
+ * in background threads. Each checker owns a private output buffer, groupifies,
+ * history and solution space. The privacy models and the quality model are shared
+ * between all checkers and must be thread-safe after they have been initialized.
+ * Results are identical to the results that would have been obtained by the checker
+ * which is backed by the pool.
+ *
+ * @author Fabian Prasser
+ */
+class TransformationCheckerPool {
+
+    /** The checkers which are currently idle */
+    private final BlockingQueue<TransformationChecker>  checkers;
+
+    /** All checkers */
+    private final TransformationChecker[]               all;
+
+    /** The executor */
+    private final ExecutorService                       executor;
+
+    /** Results which have been requested, oldest first */
+    private final Map<Long, Future<TransformationResult>> results;
+
+    /** Whether information loss has been measured for the requested results, regardless of privacy */
+    private final Map<Long, Boolean>                    forced;
+
+    /** Number of pending results */
+    private final AtomicInteger                         pending;
+
+    /** Maximal number of pending results */
+    private final int                                   maxPending;
+
+    /** Maximal number of results which are retained without being requested */
+    private final int                                   maxRetained;
+
+    /**
+     * Creates a new instance
+     * @param checkers
+     */
+    TransformationCheckerPool(TransformationChecker[] checkers) {
+        this.all = checkers;
+        this.checkers = new ArrayBlockingQueue<TransformationChecker>(checkers.length);
+        for (TransformationChecker checker : checkers) {
+            this.checkers.add(checker);
+        }
+        this.results = new LinkedHashMap<Long, Future<TransformationResult>>();
+        this.forced = new LinkedHashMap<Long, Boolean>();
+        this.pending = new AtomicInteger();
+        this.maxPending = checkers.length * 2;
+        this.maxRetained = maxPending * 4;
+        this.executor = Executors.newFixedThreadPool(checkers.length, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ARX transformation checker");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Returns the result for the given transformation, if it has been prefetched
+     * with the same setting for measuring information loss. Blocks until the result
+     * is available. Returns <code>null</code> if the transformation has not been
+     * prefetched.
+     *
+     * @param transformation
+     * @param forceMeasureInfoLoss
+     * @return
+     */
+    TransformationResult get(Transformation transformation, boolean forceMeasureInfoLoss) {
+        Future<TransformationResult> future = results.remove(transformation.getIdentifier());
+        Boolean force = forced.remove(transformation.getIdentifier());
+        if (future == null) {
+            return null;
+        } else if (force.booleanValue() != forceMeasureInfoLoss) {
+            return null;
+        }
+        return await(future);
+    }
+
+    /**
+     * Checks the given transformations concurrently and blocks until all results
+     * are available. In contrast to prefetching, the amount of work is not limited.
+     *
+     * @param transformations
+     * @return
+     */
+    TransformationResult[] check(Transformation[] transformations) {
+
+        // Schedule
+        List<Future<TransformationResult>> futures = new ArrayList<Future<TransformationResult>>();
+        for (Transformation transformation : transformations) {
+            final int[] generalization = transformation.getGeneralization();
+            futures.add(executor.submit(new Callable<TransformationResult>() {
+                @Override
+                public TransformationResult call() throws Exception {
+                    TransformationChecker checker = checkers.take();
+                    try {
+                        Transformation node = checker.getSolutionSpace().getTransformation(generalization);
+                        TransformationResult result = checker.check(node);
+                        node.setChecked(result);
+                        return result;
+                    } finally {
+                        checkers.add(checker);
+                    }
+                }
+            }));
+        }
+
+        // Collect
+        TransformationResult[] results = new TransformationResult[transformations.length];
+        try {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = await(futures.get(i));
+            }
+        } finally {
+            for (Future<TransformationResult> future : futures) {
+                future.cancel(false);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Schedules the given transformation for being checked in the background.
+     * The request is ignored if too many results are still pending.
+     *
+     * @param transformation
+     * @param forceMeasureInfoLoss
+     */
+    void prefetch(Transformation transformation, final boolean forceMeasureInfoLoss) {
+
+        // Already requested
+        final long identifier = transformation.getIdentifier();
+        if (results.containsKey(identifier)) {
+            return;
+        }
+
+        // Limit the amount of speculative work
+        if (pending.get() >= maxPending) {
+            return;
+        }
+
+        // Schedule
+        pending.incrementAndGet();
+        final int[] generalization = transformation.getGeneralization();
+        final AtomicBoolean started = new AtomicBoolean();
+        FutureTask<TransformationResult> task = new FutureTask<TransformationResult>(new Callable<TransformationResult>() {
+            @Override
+            public TransformationResult call() throws Exception {
+                
+                // Cancelled in the meantime
+                if (!started.compareAndSet(false, true)) {
+                    return null;
+                }
+                
+                // Check, the work is pending until the checker has been released
+                try {
+                    TransformationChecker checker = checkers.take();
+                    try {
+                        SolutionSpace solutionSpace = checker.getSolutionSpace();
+                        Transformation node = solutionSpace.getTransformation(generalization);
+                        TransformationResult result = checker.check(node, forceMeasureInfoLoss, ScoreType.INFORMATION_LOSS);
+                        node.setChecked(result);
+                        return result;
+                    } finally {
+                        checkers.add(checker);
+                    }
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }
+        }) {
+            @Override
+            protected void done() {
+                // Tasks which are cancelled before being started are not pending anymore.
+                // Tasks which are cancelled while running are pending until they terminate.
+                if (started.compareAndSet(false, true)) {
+                    pending.decrementAndGet();
+                }
+            }
+        };
+        forced.put(identifier, forceMeasureInfoLoss);
+        results.put(identifier, task);
+        executor.execute(task);
+
+        // Evict the oldest results which have not been requested
+        evict();
+    }
+
+    /**
+     * Removes the result for the given transformation, if it has been prefetched
+     * but is not needed anymore.
+     *
+     * @param transformation
+     */
+    void remove(Transformation transformation) {
+        Future<TransformationResult> future = results.remove(transformation.getIdentifier());
+        forced.remove(transformation.getIdentifier());
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Returns the aggregated statistics of the histories of all checkers
+     * @return
+     */
+    HistoryStatistics getHistoryStatistics() {
+        HistoryStatistics result = new HistoryStatistics(0, 0, 0, 0);
+        for (TransformationChecker checker : all) {
+            result = result.merge(checker.getHistoryStatistics());
+        }
+        return result;
+    }
+
+    /**
+     * Sets snapshots of the first rows of the dataset for all checkers
+     * @param archive
+     */
+    void setArchive(HistoryArchive archive) {
+        for (TransformationChecker checker : all) {
+            checker.setArchive(archive);
+        }
+    }
+
+    /**
+     * Blocks until the given result is available
+     * @param future
+     * @return
+     */
+    private TransformationResult await(Future<TransformationResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Cancels and removes the oldest results, if more than the maximal number of
+     * results is retained.
+     */
+    private void evict() {
+        Iterator<Entry<Long, Future<TransformationResult>>> iterator = results.entrySet().iterator();
+        while (results.size() > maxRetained && iterator.hasNext()) {
+            Entry<Long, Future<TransformationResult>> entry = iterator.next();
+            entry.getValue().cancel(false);
+            forced.remove(entry.getKey());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Stops all threads and frees resources. Waits until all running checks have
+     * terminated, as they operate on state which is shared with the search.
+     */
+    void shutdown() {
+        for (Future<TransformationResult> future : results.values()) {
+            future.cancel(false);
+        }
+        results.clear();
+        forced.clear();
+        executor.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        for (TransformationChecker checker : all) {
+            checker.reset();
+        }
+    }
+}
@@ -18,6 +18,7 @@
 package org.deidentifier.arx.framework.check;
 
 import org.deidentifier.arx.framework.check.history.History;
+import org.deidentifier.arx.framework.check.history.HistoryArchive;
 
 /**
  * This class implements a state machine, which determines which optimizations
@@ -61,6 +62,9 @@ public class TransformationCheckerStateMachine {
         /** Apply the snapshot optimization. */
         SNAPSHOT,
 
+        /** Apply a snapshot of the first rows and transform all remaining rows. */
+        DELTA,
+
         /** Unfortunately all rows need to be transformed. */
         UNOPTIMIZED
     }
@@ -68,6 +72,9 @@ public class TransformationCheckerStateMachine {
     /** The history. */
     private History    history  = null;
 
+    /** Snapshots of the first rows, if any. */
+    private HistoryArchive archive = null;
+
     /** The last node, which has been checked for k-anonymity. */
     private int[]      lastTransformation;
 
@@ -117,6 +124,16 @@ public class TransformationCheckerStateMachine {
         lastTransition = null;
     }
 
+    /**
+     * Sets snapshots of the first rows of the dataset, which will be used
+     * instead of transforming all rows, if possible.
+     *
+     * @param archive
+     */
+    public void setArchive(HistoryArchive archive) {
+        this.archive = archive;
+    }
+
     /**
      * Calculates the best state transition.
      * 
@@ -133,6 +150,7 @@ public class TransformationCheckerStateMachine {
             result.type = TransitionType.UNOPTIMIZED;
             result.projection = 0L;
             result.snapshot = null;
+            setDelta(result, transformation);
         } else {
             switch (lastTransition.type) {
             case UNOPTIMIZED:
@@ -146,10 +164,12 @@ public class TransformationCheckerStateMachine {
                 } else {
                     result.type = TransitionType.UNOPTIMIZED;
                     result.snapshot = null;
+                    setDelta(result, transformation);
                 }
                 break;
             case ROLLUP:
             case SNAPSHOT:
+            case DELTA:
                 if (isPossibleSnapshot(transformation)) {
                     result.projection = isPredecessor(snapshotTransformation, lastTransformation) ? getProjection(transformation) : 0L;
                     result.type = TransitionType.SNAPSHOT;
@@ -162,6 +182,7 @@ public class TransformationCheckerStateMachine {
                     result.projection = 0L;
                     result.type = TransitionType.UNOPTIMIZED;
                     result.snapshot = null;
+                    setDelta(result, transformation);
                 }
                 break;
             }
@@ -191,6 +212,23 @@ public class TransformationCheckerStateMachine {
         return projection;
     }
 
+    /**
+     * Turns the given transition into a delta transition, if a snapshot of the first rows
+     * is available. As only some rows will be transformed, subsequent transitions will be
+     * handled as if a snapshot has been applied.
+     *
+     * @param transition the transition
+     * @param transformation the current transformation
+     */
+    private void setDelta(final Transition transition, final int[] transformation) {
+        int[] snapshot = archive != null ? archive.get(transformation) : null;
+        if (snapshot != null) {
+            transition.type = TransitionType.DELTA;
+            transition.projection = 0L;
+            transition.snapshot = snapshot;
+        }
+    }
+
     /**
      * Is a rollup optimization possible.
      * 
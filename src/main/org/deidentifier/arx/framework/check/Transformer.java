@@ -17,6 +17,13 @@
 
 package org.deidentifier.arx.framework.check;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
 import org.deidentifier.arx.ARXConfiguration.ARXConfigurationInternal;
 import org.deidentifier.arx.framework.check.TransformationCheckerStateMachine.TransitionType;
 import org.deidentifier.arx.framework.check.distribution.IntArrayDictionary;
@@ -50,6 +57,9 @@ import org.deidentifier.arx.framework.data.GeneralizationHierarchy;
  */
 public class Transformer {
 
+    /** Minimal number of rows per partition */
+    private static final int                  MIN_ROWS_PER_PARTITION = 10000;
+
     /** The config. */
     protected final ARXConfigurationInternal  config;
 
@@ -80,6 +90,18 @@ public class Transformer {
     /** Number of columns to analyze */
     protected final int                       dataAnalyzedNumberOfColumns;
 
+    /** Transformers for partitions of the dataset, if any */
+    private final Transformer[]               partitions;
+
+    /** Groupifies for partitions of the dataset, if any */
+    private final HashGroupify[]              partitionGroupifies;
+
+    /** Executor for partitions of the dataset, if any */
+    private ForkJoinPool                      partitionExecutor;
+
+    /** Groupify for rows which are not covered by a snapshot, if any */
+    private HashGroupify                      deltaGroupify;
+
     /**
      * Instantiates a new transformer.
      *
@@ -104,13 +126,86 @@ public class Transformer {
         this.dataAnalyzedNumberOfColumns = dataAnalyzedNumberOfColumns;
         this.hierarchies = hierarchies;
         this.instances = new AbstractTransformer[16];
-        this.outputGeneralized = new DataMatrix(inputGeneralized.getNumRows(), 
-                                                inputGeneralized.getNumColumns());
+        this.outputGeneralized = DataMatrix.create(inputGeneralized.getNumRows(), 
+                                                   inputGeneralized.getNumColumns(),
+                                                   hierarchies,
+                                                   config);
+
+        this.dimensions = inputGeneralized.getNumColumns();
+        this.dictionarySensValue = dictionarySensValue;
+        this.dictionarySensFreq = dictionarySensFreq;
+        this.inputAnalyzed = inputAnalyzed;
+
+        buildTransformers();
+
+        // Prepare partitions
+        int numPartitions = Math.min(config.getNumThreadsPerTransformation(),
+                                     inputGeneralized.getNumRows() / MIN_ROWS_PER_PARTITION);
+        if (numPartitions > 1) {
+            int capacity = (int) (inputGeneralized.getNumRows() / numPartitions * 0.01d);
+            this.partitions = new Transformer[numPartitions];
+            this.partitionGroupifies = new HashGroupify[numPartitions];
+            for (int i = 0; i < numPartitions; i++) {
+                DataMatrix partitionInputGeneralized = inputGeneralized.getView();
+                DataMatrix partitionInputAnalyzed = inputAnalyzed != null ? inputAnalyzed.getView() : null;
+                DataMatrix partitionOutputGeneralized = outputGeneralized.getView();
+                this.partitions[i] = new Transformer(partitionInputGeneralized,
+                                                     partitionInputAnalyzed,
+                                                     partitionOutputGeneralized,
+                                                     dataAnalyzedNumberOfColumns,
+                                                     hierarchies,
+                                                     config,
+                                                     dictionarySensValue,
+                                                     dictionarySensFreq);
+                this.partitionGroupifies[i] = HashGroupify.create(capacity,
+                                                               config,
+                                                               dataAnalyzedNumberOfColumns,
+                                                               partitionInputGeneralized,
+                                                               partitionOutputGeneralized,
+                                                               partitionInputAnalyzed);
+            }
+            this.partitionExecutor = new ForkJoinPool(numPartitions);
+        } else {
+            this.partitions = null;
+            this.partitionGroupifies = null;
+            this.partitionExecutor = null;
+        }
+    }
+
+    /**
+     * Instantiates a new transformer for a partition of the dataset
+     *
+     * @param inputGeneralized
+     * @param inputAnalyzed
+     * @param outputGeneralized
+     * @param dataAnalyzedNumberOfColumns
+     * @param hierarchies
+     * @param config
+     * @param dictionarySensValue
+     * @param dictionarySensFreq
+     */
+    private Transformer(final DataMatrix inputGeneralized,
+                        final DataMatrix inputAnalyzed,
+                        final DataMatrix outputGeneralized,
+                        final int dataAnalyzedNumberOfColumns,
+                        final GeneralizationHierarchy[] hierarchies,
+                        final ARXConfigurationInternal config,
+                        final IntArrayDictionary dictionarySensValue,
+                        final IntArrayDictionary dictionarySensFreq) {
 
+        this.config = config;
+        this.inputGeneralized = inputGeneralized;
+        this.dataAnalyzedNumberOfColumns = dataAnalyzedNumberOfColumns;
+        this.hierarchies = hierarchies;
+        this.instances = new AbstractTransformer[16];
+        this.outputGeneralized = outputGeneralized;
         this.dimensions = inputGeneralized.getNumColumns();
         this.dictionarySensValue = dictionarySensValue;
         this.dictionarySensFreq = dictionarySensFreq;
         this.inputAnalyzed = inputAnalyzed;
+        this.partitions = null;
+        this.partitionGroupifies = null;
+        this.partitionExecutor = null;
 
         buildTransformers();
     }
@@ -145,6 +240,9 @@ public class Transformer {
         this.dimensions = inputGeneralized.getNumColumns();
         this.dictionarySensValue = null;
         this.dictionarySensFreq = null;
+        this.partitions = null;
+        this.partitionGroupifies = null;
+        this.partitionExecutor = null;
 
         // Build just one applicator
         this.instances = new AbstractTransformer[1];
@@ -177,6 +275,52 @@ public class Transformer {
                              TransitionType.UNOPTIMIZED);
     }
 
+    /**
+     * Apply a snapshot of the first rows and transform all remaining rows.
+     * 
+     * @param state the state
+     * @param target the target
+     * @param snapshot the snapshot
+     * @param rows the number of rows covered by the snapshot
+     * @return the hash groupify
+     */
+    public HashGroupify applyDelta(final int[] state,
+                                   final HashGroupify target,
+                                   final int[] snapshot,
+                                   final int rows) {
+
+        // Prepare
+        if (deltaGroupify == null) {
+            deltaGroupify = HashGroupify.create(Math.max(10, (int) ((inputGeneralized.getNumRows() - rows) * 0.01d)),
+                                                config,
+                                                dataAnalyzedNumberOfColumns,
+                                                inputGeneralized,
+                                                outputGeneralized,
+                                                inputAnalyzed);
+        }
+
+        // Apply snapshot
+        HashGroupify result = applyInternal(0L, state, null, target, snapshot, TransitionType.SNAPSHOT);
+
+        // Transform remaining rows
+        AbstractTransformer transformer = getTransformer(0L);
+        transformer.init(0L,
+                         state,
+                         deltaGroupify,
+                         null,
+                         null,
+                         TransitionType.UNOPTIMIZED,
+                         rows,
+                         inputGeneralized.getNumRows(),
+                         null,
+                         outputGeneralized);
+        transformer.call();
+
+        // Merge
+        merge(deltaGroupify, result);
+        return result;
+    }
+
     /**
      * Apply rollup.
      * 
@@ -230,6 +374,16 @@ public class Transformer {
         return outputGeneralized;
     }
 
+    /**
+     * Stops all threads used for processing partitions of the dataset, if any.
+     */
+    public void shutdown() {
+        if (partitionExecutor != null) {
+            partitionExecutor.shutdownNow();
+            partitionExecutor = null;
+        }
+    }
+
     /**
      * Builds the applicators.
      */
@@ -387,6 +541,12 @@ public class Transformer {
             break;
         }
 
+        // Process partitions in parallel, if possible
+        if (partitionExecutor != null && transition != TransitionType.ROLLUP &&
+            stopIndex >= partitions.length * MIN_ROWS_PER_PARTITION) {
+            return applyPartitioned(projection, state, target, snapshot, transition, stopIndex);
+        }
+
         AbstractTransformer transformer = null;
 
         transformer = getTransformer(projection);
@@ -405,6 +565,82 @@ public class Transformer {
         return transformer.call();
     }
 
+    /**
+     * Transforms ranges of rows in parallel, each into a partition-local groupify,
+     * and merges the results in order of the ranges. As a consequence, equivalence
+     * classes are represented by the same rows and are ordered in the same way
+     * as if all rows had been processed sequentially.
+     * 
+     * @param projection the projection
+     * @param state the state
+     * @param target the target
+     * @param snapshot the snapshot
+     * @param transition the transition
+     * @param stopIndex the stop index
+     * @return the hash groupify
+     */
+    private HashGroupify applyPartitioned(final long projection,
+                                          final int[] state,
+                                          final HashGroupify target,
+                                          final int[] snapshot,
+                                          final TransitionType transition,
+                                          final int stopIndex) {
+
+        // Prepare
+        List<Callable<HashGroupify>> tasks = new ArrayList<Callable<HashGroupify>>();
+        for (int i = 0; i < partitions.length; i++) {
+            AbstractTransformer transformer = partitions[i].getTransformer(projection);
+            transformer.init(projection,
+                             state,
+                             partitionGroupifies[i],
+                             null,
+                             snapshot,
+                             transition,
+                             (int) ((long) stopIndex * i / partitions.length),
+                             (int) ((long) stopIndex * (i + 1) / partitions.length),
+                             null,
+                             partitions[i].outputGeneralized);
+            tasks.add(transformer);
+        }
+
+        // Execute
+        try {
+            for (Future<HashGroupify> future : partitionExecutor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+
+        // Merge
+        target.stateClear();
+        for (HashGroupify partition : partitionGroupifies) {
+            merge(partition, target);
+        }
+        return target;
+    }
+
+    /**
+     * Adds all equivalence classes of the source to the target and clears the source.
+     * 
+     * @param source the source
+     * @param target the target
+     */
+    private void merge(final HashGroupify source, final HashGroupify target) {
+        HashGroupifyEntry entry = source.getFirstEquivalenceClass();
+        while (entry != null) {
+            target.addFromGroupify(entry.row, entry.distributions, entry.representative, entry.count, entry.pcount);
+            entry = entry.nextOrdered;
+        }
+        source.stateClear();
+    }
+
     /**
      * Gets the applicator.
      * 
@@ -0,0 +1,225 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.check.distribution;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache for verdicts of privacy models about distributions of sensitive values.
+ * Distributions are identified by a canonical fingerprint, which is independent of the
+ * layout of the buckets and of scaling the size of the class and all frequencies by the
+ * same factor. The cache is therefore only suitable for privacy models which depend on
+ * relative frequencies. Each fingerprint is mapped to a single slot, which is overwritten
+ * by colliding fingerprints.
+ * The cache may be used by multiple threads concurrently.
+ *
+ * @author Fabian Prasser
+ */
+public class DistributionCache {
+
+    /**
+     * An entry
+     *
+     * @author Fabian Prasser
+     */
+    private static final class Entry {
+
+        /** Fingerprint */
+        private final long[]  fingerprint;
+
+        /** Verdict */
+        private final boolean verdict;
+
+        /**
+         * Creates a new instance
+         *
+         * @param fingerprint
+         * @param verdict
+         */
+        private Entry(long[] fingerprint, boolean verdict) {
+            this.fingerprint = fingerprint;
+            this.verdict = verdict;
+        }
+    }
+
+    /** Default number of slots */
+    public static final int    DEFAULT_CAPACITY  = 1 << 13;
+
+    /** Distributions with more distinct values are not cached */
+    public static final int    MAX_VALUES        = 256;
+
+    /** The slots */
+    private final Entry[]      entries;
+
+    /** Number of requests */
+    private final AtomicLong   requests          = new AtomicLong();
+
+    /** Number of requests which returned a verdict */
+    private final AtomicLong   hits              = new AtomicLong();
+
+    /**
+     * Creates a new instance with the default capacity
+     */
+    public DistributionCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new instance
+     *
+     * @param capacity Number of slots, will be rounded up to a power of two
+     */
+    public DistributionCache(int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.entries = new Entry[size];
+    }
+
+    /**
+     * Returns the cached verdict for the given fingerprint, if any
+     *
+     * @param fingerprint
+     * @return
+     */
+    public Boolean get(long[] fingerprint) {
+        if (fingerprint == null) {
+            return null;
+        }
+        requests.incrementAndGet();
+        Entry entry = entries[getSlot(fingerprint)];
+        if (entry != null && Arrays.equals(entry.fingerprint, fingerprint)) {
+            hits.incrementAndGet();
+            return entry.verdict;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a canonical fingerprint of the given distribution of sensitive values in a
+     * class of the given size. Returns <code>null</code>, if the distribution contains too
+     * many distinct values for being cached.
+     *
+     * @param distribution
+     * @param count
+     * @return
+     */
+    public long[] getFingerprint(Distribution distribution, int count) {
+
+        // Check
+        if (distribution.size() > MAX_VALUES) {
+            return null;
+        }
+
+        // Collect and compute greatest common divisor of frequencies
+        int[] buckets = distribution.getBuckets();
+        long[] result = new long[distribution.size() + 1];
+        int divisor = count;
+        int index = 1;
+        for (int i = 0; i < buckets.length; i += 2) {
+            if (buckets[i] != -1) { // bucket not empty
+                result[index++] = buckets[i];
+                divisor = gcd(divisor, buckets[i + 1]);
+            }
+        }
+        divisor = divisor == 0 ? 1 : divisor;
+
+        // Pack size, values and normalized frequencies
+        result[0] = count / divisor;
+        index = 1;
+        for (int i = 0; i < buckets.length; i += 2) {
+            if (buckets[i] != -1) { // bucket not empty
+                result[index] = (result[index] << 32) | (buckets[i + 1] / divisor);
+                index++;
+            }
+        }
+
+        // Sort by value
+        Arrays.sort(result, 1, result.length);
+        return result;
+    }
+
+    /**
+     * Returns the number of requests which returned a verdict
+     *
+     * @return
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of requests
+     *
+     * @return
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Returns statistics about the usage of this cache
+     *
+     * @return
+     */
+    public DistributionCacheStatistics getStatistics() {
+        return new DistributionCacheStatistics(getRequests(), getHits());
+    }
+
+    /**
+     * Stores the verdict for the given fingerprint
+     *
+     * @param fingerprint
+     * @param verdict
+     */
+    public void put(long[] fingerprint, boolean verdict) {
+        if (fingerprint != null) {
+            entries[getSlot(fingerprint)] = new Entry(fingerprint, verdict);
+        }
+    }
+
+    /**
+     * Returns the greatest common divisor
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    private int gcd(int a, int b) {
+        while (b != 0) {
+            int temp = a % b;
+            a = b;
+            b = temp;
+        }
+        return a;
+    }
+
+    /**
+     * Returns the slot for the given fingerprint
+     *
+     * @param fingerprint
+     * @return
+     */
+    private int getSlot(long[] fingerprint) {
+        int hash = Arrays.hashCode(fingerprint);
+        hash ^= (hash >>> 16);
+        return hash & (entries.length - 1);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.check.distribution;
+
+/**
+ * Statistics about the usage of caches for verdicts about distributions.
+ *
+ * @author Fabian Prasser
+ */
+public class DistributionCacheStatistics {
+
+    /** Number of requests */
+    private final long requests;
+
+    /** Number of requests which returned a verdict */
+    private final long hits;
+
+    /**
+     * Creates a new instance
+     *
+     * @param requests
+     * @param hits
+     */
+    public DistributionCacheStatistics(long requests, long hits) {
+        this.requests = requests;
+        this.hits = hits;
+    }
+
+    /**
+     * Returns the fraction of requests which returned a verdict
+     * @return
+     */
+    public double getHitRate() {
+        return requests == 0 ? 0d : (double) hits / (double) requests;
+    }
+
+    /**
+     * Returns the number of requests which returned a verdict
+     * @return
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests
+     * @return
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the sum of this and the given statistics
+     * @param other
+     * @return
+     */
+    public DistributionCacheStatistics merge(DistributionCacheStatistics other) {
+        return new DistributionCacheStatistics(this.requests + other.requests,
+                                               this.hits + other.hits);
+    }
+}
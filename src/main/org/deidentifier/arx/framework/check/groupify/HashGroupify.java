@@ -35,106 +35,85 @@ import org.deidentifier.arx.metric.Metric;
 import com.carrotsearch.hppc.ObjectIntOpenHashMap;
 
 /**
- * A hash groupify operator. It implements a hash table with chaining and keeps
- * track of additional properties per equivalence class
+ * Base class for hash groupify operators. It keeps track of additional properties
+ * per equivalence class and analyzes the classes with respect to the privacy models.
+ * Implementations define how the classes are stored while grouping.
  * 
  * @author Fabian Prasser
  * @author Florian Kohlmayer
  */
-public class HashGroupify {
+public abstract class HashGroupify {
 
     /** Criteria. */
-    private final PrivacyCriterion[]     classBasedCriteria;
+    private final PrivacyCriterion[]       classBasedCriteria;
 
-    /** The current number of outliers. */
-    private int                          currentNumOutliers;
+    /** The config, which defines how data matrices are allocated */
+    private final ARXConfigurationInternal config;
 
-    /** The entry array. */
-    private HashGroupifyEntry[]          hashTableBuckets;
-
-    /** Current number of elements. */
-    private int                          hashTableElementCount;
-
-    /** The first entry. */
-    private HashGroupifyEntry            hashTableFirstEntry;
-
-    /** The last entry. */
-    private HashGroupifyEntry            hashTableLastEntry;
-
-    /** Load factor. */
-    private final float                  hashTableLoadFactor = 0.75f;
-
-    /** Maximum number of elements that can be put in this map before having to rehash. */
-    private int                          hashTableThreshold;
+    /** The current number of outliers. Maintained by implementations while grouping. */
+    protected int                          currentNumOutliers;
 
     /** Do we ensure optimality for sample-based criteria */
-    private final boolean                heuristicForSampleBasedCriteria;
+    private final boolean                  heuristicForSampleBasedCriteria;
 
     /** The parameter k, if k-anonymity is contained in the set of criteria. */
-    private final int                    minimalClassSize;
+    protected final int                    minimalClassSize;
 
     /** Is the result k-anonymous?. */
-    private boolean                      minimalClassSizeFulfilled;
+    private boolean                        minimalClassSizeFulfilled;
 
     /** True, if the contained d-presence criterion is not inclusion. */
-    private final boolean                privacyModelContainsDPresence;
+    private final boolean                  privacyModelContainsDPresence;
 
     /** The research subset, if d-presence is contained in the set of criteria. */
-    private final RowSet                 privacyModelDefinesSubset;
+    protected final RowSet                 privacyModelDefinesSubset;
 
     /** Is the result anonymous. */
-    private boolean                      privacyModelFulfilled;
+    private boolean                        privacyModelFulfilled;
 
     /** Criteria. */
-    private final SampleBasedCriterion[] sampleBasedCriteria;
+    private final SampleBasedCriterion[]   sampleBasedCriteria;
 
     /** Allowed tuple outliers. */
-    private final int                    suppressionLimit;
+    private final int                      suppressionLimit;
 
     /** Utility measure */
-    private final Metric<?>              utilityMeasure;
+    private final Metric<?>                utilityMeasure;
 
     /** Input */
-    private final DataMatrix             dataInput;
+    private final DataMatrix               dataInput;
 
     /** Output */
-    private final DataMatrix             dataOutput;
+    protected final DataMatrix             dataOutput;
 
     /** Output */
-    private final DataMatrix             dataAnalyzed;
+    protected final DataMatrix             dataAnalyzed;
 
     /** Number of columns (from index 0) that need to be analyzed in hot-mode*/ 
-    private final int                    dataAnalyzedNumberOfColumns;
+    protected final int                    dataAnalyzedNumberOfColumns;
     
     /**
      * Constructs a new hash groupify operator.
      *
-     * @param capacity The capacity
-     * @param aggregation The aggregation information
      * @param config The config
+     * @param dataAnalyzedNumberOfColumns
      * @param input
      * @param output
      * @param analyzed
      */
-    public HashGroupify(int capacity, 
-                        final ARXConfigurationInternal config,
-                        final int dataAnalyzedNumberOfColumns,
-                        final DataMatrix input,
-                        final DataMatrix output,
-                        final DataMatrix analyzed) {
+    protected HashGroupify(final ARXConfigurationInternal config,
+                           final int dataAnalyzedNumberOfColumns,
+                           final DataMatrix input,
+                           final DataMatrix output,
+                           final DataMatrix analyzed) {
         
         // Store
+        this.config = config;
         this.dataInput = input;
         this.dataOutput = output;
         this.dataAnalyzed = analyzed;
         this.dataAnalyzedNumberOfColumns = dataAnalyzedNumberOfColumns;
         
-        // Set capacity
-        capacity = HashTableUtil.calculateCapacity(capacity);
-        this.hashTableElementCount = 0;
-        this.hashTableBuckets = new HashGroupifyEntry[capacity];
-        this.hashTableThreshold = HashTableUtil.calculateThreshold(hashTableBuckets.length, hashTableLoadFactor);
-        
         // Set params
         this.currentNumOutliers = 0;
         this.suppressionLimit = config.getAbsoluteSuppressionLimit();
@@ -164,6 +143,30 @@ public class HashGroupify {
         // Remember, if (real) d-presence is part of the criteria that must be enforced
         privacyModelContainsDPresence = (classBasedCriteria.length > 0 && (classBasedCriteria[0] instanceof DPresence) && !(classBasedCriteria[0] instanceof Inclusion));
     }
+
+    /**
+     * Creates a new hash groupify operator, using the implementation specified in the configuration.
+     *
+     * @param capacity The capacity
+     * @param config The config
+     * @param dataAnalyzedNumberOfColumns
+     * @param input
+     * @param output
+     * @param analyzed
+     * @return
+     */
+    public static HashGroupify create(int capacity,
+                                      final ARXConfigurationInternal config,
+                                      final int dataAnalyzedNumberOfColumns,
+                                      final DataMatrix input,
+                                      final DataMatrix output,
+                                      final DataMatrix analyzed) {
+        if (config.isUseOpenAddressingForGrouping()) {
+            return new HashGroupifyOpenAddressing(capacity, config, dataAnalyzedNumberOfColumns, input, output, analyzed);
+        } else {
+            return new HashGroupifyChaining(capacity, config, dataAnalyzedNumberOfColumns, input, output, analyzed);
+        }
+    }
     
     /**
      * Adds a tuple from the buffer
@@ -173,34 +176,7 @@ public class HashGroupify {
      * @param count
      * @param pcount
      */
-    public void addFromBuffer(int generalized, int other, int representative, int count, int pcount) {
-        
-        // Add
-        final int hash = dataOutput.hashCode(generalized);
-        final HashGroupifyEntry entry = addInternal(generalized, hash, representative, count, pcount);
-        
-        // Is a other attribute provided
-        if (other != -1) {
-            if (entry.distributions == null) {
-                entry.distributions = new Distribution[dataAnalyzedNumberOfColumns];
-                
-                // TODO: Improve!
-                for (int i = 0; i < entry.distributions.length; i++) {
-                    entry.distributions[i] = new Distribution();
-                }
-            }
-            
-            // Only add other value if in research subset
-            if (privacyModelDefinesSubset == null || privacyModelDefinesSubset.contains(representative)) {
-                
-                // TODO: Improve!
-                dataAnalyzed.iterator(other);
-                for (int i = 0; i < entry.distributions.length; i++) {
-                    entry.distributions[i].add(dataAnalyzed.iterator_next());
-                }
-            }
-        }
-    }
+    public abstract void addFromBuffer(int generalized, int other, int representative, int count, int pcount);
     
     /**
      * Adds an entry from another groupify operator
@@ -210,25 +186,7 @@ public class HashGroupify {
      * @param count
      * @param pcount
      */
-    public void addFromGroupify(int generalized, Distribution[] distributions, int representative, int count, int pcount) {
-
-        // Add
-        final int hash = dataOutput.hashCode(generalized);
-        final HashGroupifyEntry entry = addInternal(generalized, hash, representative, count, pcount);
-        
-        // Is a distribution provided
-        if (distributions != null) {
-            if (entry.distributions == null) {
-                entry.distributions = distributions;
-            } else {
-                
-                // TODO: Improve!
-                for (int i = 0; i < entry.distributions.length; i++) {
-                    entry.distributions[i].merge(distributions[i]);
-                }
-            }
-        }
-    }
+    public abstract void addFromGroupify(int generalized, Distribution[] distributions, int representative, int count, int pcount);
     
     /**
      * Adds a class from a snapshot
@@ -239,31 +197,7 @@ public class HashGroupify {
      * @param count
      * @param pcount
      */
-    public void addFromSnapshot(int generalized, int[][] elements, int[][] frequencies, int representative, int count, int pcount) {
-
-        // Add
-        final int hash = dataOutput.hashCode(generalized);
-        final HashGroupifyEntry entry = addInternal(generalized, hash, representative, count, pcount);
-        
-        // Is a distribution provided
-        if (elements != null) {
-            if (entry.distributions == null) {
-                
-                entry.distributions = new Distribution[elements.length];
-                
-                // TODO: Improve!
-                for (int i = 0; i < entry.distributions.length; i++) {
-                    entry.distributions[i] = new Distribution(elements[i], frequencies[i]);
-                }
-            } else {
-                
-                // TODO: Improve!
-                for (int i = 0; i < entry.distributions.length; i++) {
-                    entry.distributions[i].merge(elements[i], frequencies[i]);
-                }
-            }
-        }
-    }
+    public abstract void addFromSnapshot(int generalized, int[][] elements, int[][] frequencies, int representative, int count, int pcount);
     
     /**
      * Returns the entry for the given tuple
@@ -271,22 +205,14 @@ public class HashGroupify {
      * @return
      */
     public HashGroupifyEntry getEntry(int[] tuple) {
-        final int hash = dataOutput.hashCode(tuple);
-        int index = hash & (hashTableBuckets.length - 1);
-        HashGroupifyEntry m = hashTableBuckets[index];
-        while ((m != null) && ((m.hashcode != hash) || !dataOutput.equals(m.row, tuple))) {
-            m = m.next;
-        }
-        return m;
+        return findEntry(tuple, dataOutput.hashCode(tuple));
     }
     
     /**
      * Returns the first entry
      * @return
      */
-    public HashGroupifyEntry getFirstEquivalenceClass() {
-        return hashTableFirstEntry;
-    }
+    public abstract HashGroupifyEntry getFirstEquivalenceClass();
     
     /**
      * Returns the input data matrix
@@ -300,9 +226,7 @@ public class HashGroupify {
      * Returns the current size in terms of classes
      * @return
      */
-    public int getNumberOfEquivalenceClasses() {
-        return hashTableElementCount;
-    }
+    public abstract int getNumberOfEquivalenceClasses();
     
     /**
      * Returns the output data
@@ -344,18 +268,13 @@ public class HashGroupify {
         int[] columns = microaggregationData.getMicroaggregationColumns();
         
         // Prepare result
-        Data result = Data.createWrapper(new DataMatrix(dataOutput.getNumRows(), indices.length), header, columns, dictionary);
+        Data result = Data.createWrapper(DataMatrix.create(dataOutput.getNumRows(), indices.length, config), header, columns, dictionary);
 
         // TODO: To improve performance, microaggregation and marking of outliers could be performed in one pass
         ObjectIntOpenHashMap<Distribution> cache = new ObjectIntOpenHashMap<Distribution>();
         for (int row = 0; row < dataOutput.getNumRows(); row++) {
             if (privacyModelDefinesSubset == null || privacyModelDefinesSubset.contains(row)) {
-                final int hash = dataOutput.hashCode(row);
-                final int index = hash & (hashTableBuckets.length - 1);
-                HashGroupifyEntry m = hashTableBuckets[index];
-                while ((m != null) && ((m.hashcode != hash) || !dataOutput.equalsIgnoringOutliers(row, m.row))) {
-                    m = m.next;
-                }
+                HashGroupifyEntry m = findEntryIgnoringOutliers(row, dataOutput.hashCode(row));
                 if (m == null) { throw new RuntimeException("Invalid state! Groupify the data before performing microaggregation!"); }
                 result.getArray().iterator(row);
                 for (int i = 0; i < indices.length; i++) {
@@ -388,12 +307,7 @@ public class HashGroupify {
         
         for (int row = 0; row < dataOutput.getNumRows(); row++) {
             if (privacyModelDefinesSubset == null || privacyModelDefinesSubset.contains(row)) {
-                final int hash = dataOutput.hashCode(row);
-                final int index = hash & (hashTableBuckets.length - 1);
-                HashGroupifyEntry m = hashTableBuckets[index];
-                while ((m != null) && ((m.hashcode != hash) || !dataOutput.equalsIgnoringOutliers(row, m.row))) {
-                    m = m.next;
-                }
+                HashGroupifyEntry m = findEntryIgnoringOutliers(row, dataOutput.hashCode(row));
                 if (m == null) {
                     throw new RuntimeException("Invalid state! Group the data before suppressing records!");
                 }
@@ -420,12 +334,9 @@ public class HashGroupify {
      * Clears all entries
      */
     public void stateClear() {
-        if (hashTableElementCount > 0) {
-            this.hashTableElementCount = 0;
+        if (getNumberOfEquivalenceClasses() > 0) {
             this.currentNumOutliers = 0;
-            this.hashTableFirstEntry = null;
-            this.hashTableLastEntry = null;
-            HashTableUtil.nullifyArray(hashTableBuckets);
+            clearTable();
         }
     }
     
@@ -433,7 +344,7 @@ public class HashGroupify {
      * This method will reset all flags that indicate that equivalence classes are suppressed.
      */
     public void stateResetSuppression() {
-        HashGroupifyEntry entry = hashTableFirstEntry;
+        HashGroupifyEntry entry = getFirstEquivalenceClass();
         while (entry != null) {
             entry.isNotOutlier = true;
             entry = entry.nextOrdered;
@@ -441,79 +352,6 @@ public class HashGroupify {
         this.currentNumOutliers = 0;
     }
     
-    /**
-     * Internal adder method.
-     *
-     * @param generalized the key
-     * @param hash the hash
-     * @param representative
-     * @param count
-     * @param pcount
-     * @return the hash groupify entry
-     */
-    private HashGroupifyEntry addInternal(final int generalized, final int hash, final int representative, int count, final int pcount) {
-        
-        // Find or create entry
-        int index = hash & (hashTableBuckets.length - 1);
-        HashGroupifyEntry entry = findEntry(generalized, index, hash);
-        if (entry == null) {
-            if (++hashTableElementCount > hashTableThreshold) {
-                rehash();
-                index = hash & (hashTableBuckets.length - 1);
-            }
-            entry = createEntry(generalized, index, hash, representative);
-        }
-        
-        // If we enforce d-presence and the tuple is not contained in the research subset: set its count to zero
-        count = (privacyModelDefinesSubset != null && !privacyModelDefinesSubset.contains(representative)) ? 0 : count;
-        
-        // Track size: private table for d-presence, overall table, else
-        entry.count += count;
-        
-        // Indirectly check if we enforce d-presence
-        if (privacyModelDefinesSubset != null) {
-            
-            // Increase size of tuples from public table
-            entry.pcount += pcount;
-            
-            // This is a tuple from the research subset, but the class is not represented by a tuple from the subset.
-            // Or this is a tuple from the subset with a representative that is smaller than the current representative of the tuple (which is also from the subset)
-            // Reset its representative, which is necessary for rollup / history, because
-            // otherwise subset.contains(tupleID) could potentially return false.
-            // Moreover, we *must* always represent classes by its minimal representative to ensure that roll-ups and snapshots can be
-            // utilized correctly. This is guaranteed, if there is no research subset, and needs to be enforced explicitly, if there is one.
-            //
-            // Consider the following scenario
-            //
-            // 1. Tuple from G1 (Not in subset)
-            // 2. Tuple from G2 (Not in subset)
-            // 3. Tuple from G2 <-Representative
-            // 4. Tuple from G1 <-Representative
-            //
-            // We assume that G1 and G2 collapse in the next grouping operation.
-            //
-            // If we iterate over the whole dataset and always choose the last element, the group is represented by tuple 4
-            // If we iterate over a snapshot, G1 will be iterated over before G2 (although it has the larger representative), resetting the representative index 3
-            //
-            // To prevent this, we always choose the smallest index:
-            entry.representative = (count > 0 && (entry.count == count || entry.representative < representative)) ? representative : entry.representative;
-        }
-        
-        // Compute current total number of outliers, if k-anonymity is contained in the set of criteria
-        // TODO: Replace with conditional moves
-        if (entry.count >= minimalClassSize) {
-            if (!entry.isNotOutlier) {
-                entry.isNotOutlier = true;
-                currentNumOutliers -= (entry.count - count);
-            }
-        } else {
-            currentNumOutliers += count;
-        }
-        
-        // Return
-        return entry;
-    }
-    
     /**
      * Analyzes the content of the hash table. Checks the privacy criteria against each class.
      * @param transformation
@@ -526,7 +364,7 @@ public class HashGroupify {
         // Iterate over all classes
         boolean dpresent = true;
         currentNumOutliers = 0;
-        HashGroupifyEntry entry = hashTableFirstEntry;
+        HashGroupifyEntry entry = getFirstEquivalenceClass();
         while (entry != null) {
             
             // Check for anonymity
@@ -574,7 +412,7 @@ public class HashGroupify {
         // Build a distribution
         HashGroupifyDistribution distribution = new HashGroupifyDistribution(heuristicForSampleBasedCriteria ? null : utilityMeasure,
                                                                              transformation,
-                                                                             this.hashTableFirstEntry);
+                                                                             getFirstEquivalenceClass());
         
         // For each criterion
         for (SampleBasedCriterion criterion : this.sampleBasedCriteria) {
@@ -615,7 +453,7 @@ public class HashGroupify {
         
         // Iterate over all classes
         currentNumOutliers = 0;
-        HashGroupifyEntry entry = hashTableFirstEntry;
+        HashGroupifyEntry entry = getFirstEquivalenceClass();
         while (entry != null) {
             
             // Check for anonymity
@@ -658,51 +496,32 @@ public class HashGroupify {
     }
         
     /**
-     * Creates a new entry.
+     * Removes all classes. The number of outliers has already been reset when
+     * this method is called.
+     */
+    protected abstract void clearTable();
+
+    /**
+     * Returns the according entry.
      * 
-     * @param row
-     *            the row
-     * @param index
-     *            the index
-     * @param hash
-     *            the hash
-     * @param line
-     *            the line
+     * @param tuple
+     *            the tuple
+     * @param keyHash
+     *            the key hash
      * @return the hash groupify entry
      */
-    private HashGroupifyEntry createEntry(final int row, final int index, final int hash, final int line) {
-        final HashGroupifyEntry entry = new HashGroupifyEntry(this.dataOutput, row, hash);
-        entry.next = hashTableBuckets[index];
-        entry.representative = line;
-        hashTableBuckets[index] = entry;
-        if (hashTableFirstEntry == null) {
-            hashTableFirstEntry = entry;
-            hashTableLastEntry = entry;
-        } else {
-            hashTableLastEntry.nextOrdered = entry;
-            hashTableLastEntry = entry;
-        }
-        return entry;
-    }
+    protected abstract HashGroupifyEntry findEntry(final int[] tuple, final int keyHash);
 
     /**
-     * Returns the according entry.
+     * Returns the according entry, ignoring suppression markers.
      * 
      * @param row
      *            the row
-     * @param index
-     *            the index
      * @param keyHash
      *            the key hash
      * @return the hash groupify entry
      */
-    private HashGroupifyEntry findEntry(final int row, final int index, final int keyHash) {
-        HashGroupifyEntry m = hashTableBuckets[index];
-        while ((m != null) && ((m.hashcode != keyHash) || !dataOutput.equals(row, m.row))) {
-            m = m.next;
-        }
-        return m;
-    }
+    protected abstract HashGroupifyEntry findEntryIgnoringOutliers(final int row, final int keyHash);
 
     /**
      * Checks whether the given entry is anonymous.
@@ -728,22 +547,4 @@ public class HashGroupify {
         }
         return -1;
     }
-
-    /**
-     * Rehashes this operator.
-     */
-    private void rehash() {
-        
-        final int length = HashTableUtil.calculateCapacity((hashTableBuckets.length == 0 ? 1 : hashTableBuckets.length << 1));
-        final HashGroupifyEntry[] newData = new HashGroupifyEntry[length];
-        HashGroupifyEntry entry = hashTableFirstEntry;
-        while (entry != null) {
-            final int index = entry.hashcode & (length - 1);
-            entry.next = newData[index];
-            newData[index] = entry;
-            entry = entry.nextOrdered;
-        }
-        hashTableBuckets = newData;
-        hashTableThreshold = HashTableUtil.calculateThreshold(hashTableBuckets.length, hashTableLoadFactor);
-    }
-}
+}
\ No newline at end of file
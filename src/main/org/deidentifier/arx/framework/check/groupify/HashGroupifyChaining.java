@@ -0,0 +1,373 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.check.groupify;
+
+import org.deidentifier.arx.ARXConfiguration.ARXConfigurationInternal;
+import org.deidentifier.arx.framework.check.distribution.Distribution;
+import org.deidentifier.arx.framework.data.DataMatrix;
+
+/**
+ * A hash groupify operator. It implements a hash table with chaining.
+ * 
+ * @author Fabian Prasser
+ * @author Florian Kohlmayer
+ */
+public class HashGroupifyChaining extends HashGroupify {
+
+    /** The entry array. */
+    private HashGroupifyEntry[] hashTableBuckets;
+
+    /** Current number of elements. */
+    private int                 hashTableElementCount;
+
+    /** The first entry. */
+    private HashGroupifyEntry   hashTableFirstEntry;
+
+    /** The last entry. */
+    private HashGroupifyEntry   hashTableLastEntry;
+
+    /** Load factor. */
+    private final float         hashTableLoadFactor = 0.75f;
+
+    /** Maximum number of elements that can be put in this map before having to rehash. */
+    private int                 hashTableThreshold;
+
+    /**
+     * Constructs a new hash groupify operator.
+     *
+     * @param capacity The capacity
+     * @param config The config
+     * @param dataAnalyzedNumberOfColumns
+     * @param input
+     * @param output
+     * @param analyzed
+     */
+    public HashGroupifyChaining(int capacity, 
+                                final ARXConfigurationInternal config,
+                                final int dataAnalyzedNumberOfColumns,
+                                final DataMatrix input,
+                                final DataMatrix output,
+                                final DataMatrix analyzed) {
+        super(config, dataAnalyzedNumberOfColumns, input, output, analyzed);
+        
+        // Set capacity
+        capacity = HashTableUtil.calculateCapacity(capacity);
+        this.hashTableElementCount = 0;
+        this.hashTableBuckets = new HashGroupifyEntry[capacity];
+        this.hashTableThreshold = HashTableUtil.calculateThreshold(hashTableBuckets.length, hashTableLoadFactor);
+    }
+    
+    /**
+     * Adds a tuple from the buffer
+     * @param generalized
+     * @param other
+     * @param representative
+     * @param count
+     * @param pcount
+     */
+    @Override
+    public void addFromBuffer(int generalized, int other, int representative, int count, int pcount) {
+        
+        // Add
+        final int hash = dataOutput.hashCode(generalized);
+        final HashGroupifyEntry entry = addInternal(generalized, hash, representative, count, pcount);
+        
+        // Is a other attribute provided
+        if (other != -1) {
+            if (entry.distributions == null) {
+                entry.distributions = new Distribution[dataAnalyzedNumberOfColumns];
+                
+                // TODO: Improve!
+                for (int i = 0; i < entry.distributions.length; i++) {
+                    entry.distributions[i] = new Distribution();
+                }
+            }
+            
+            // Only add other value if in research subset
+            if (privacyModelDefinesSubset == null || privacyModelDefinesSubset.contains(representative)) {
+                
+                // TODO: Improve!
+                dataAnalyzed.iterator(other);
+                for (int i = 0; i < entry.distributions.length; i++) {
+                    entry.distributions[i].add(dataAnalyzed.iterator_next());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Adds an entry from another groupify operator
+     * @param generalized
+     * @param distributions
+     * @param representative
+     * @param count
+     * @param pcount
+     */
+    @Override
+    public void addFromGroupify(int generalized, Distribution[] distributions, int representative, int count, int pcount) {
+
+        // Add
+        final int hash = dataOutput.hashCode(generalized);
+        final HashGroupifyEntry entry = addInternal(generalized, hash, representative, count, pcount);
+        
+        // Is a distribution provided
+        if (distributions != null) {
+            if (entry.distributions == null) {
+                entry.distributions = distributions;
+            } else {
+                
+                // TODO: Improve!
+                for (int i = 0; i < entry.distributions.length; i++) {
+                    entry.distributions[i].merge(distributions[i]);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Adds a class from a snapshot
+     * @param generalized
+     * @param elements
+     * @param frequencies
+     * @param representative
+     * @param count
+     * @param pcount
+     */
+    @Override
+    public void addFromSnapshot(int generalized, int[][] elements, int[][] frequencies, int representative, int count, int pcount) {
+
+        // Add
+        final int hash = dataOutput.hashCode(generalized);
+        final HashGroupifyEntry entry = addInternal(generalized, hash, representative, count, pcount);
+        
+        // Is a distribution provided
+        if (elements != null) {
+            if (entry.distributions == null) {
+                
+                entry.distributions = new Distribution[elements.length];
+                
+                // TODO: Improve!
+                for (int i = 0; i < entry.distributions.length; i++) {
+                    entry.distributions[i] = new Distribution(elements[i], frequencies[i]);
+                }
+            } else {
+                
+                // TODO: Improve!
+                for (int i = 0; i < entry.distributions.length; i++) {
+                    entry.distributions[i].merge(elements[i], frequencies[i]);
+                }
+            }
+        }
+    }
+    
+    @Override
+    public HashGroupifyEntry getFirstEquivalenceClass() {
+        return hashTableFirstEntry;
+    }
+
+    @Override
+    public int getNumberOfEquivalenceClasses() {
+        return hashTableElementCount;
+    }
+
+    /**
+     * Internal adder method.
+     *
+     * @param generalized the key
+     * @param hash the hash
+     * @param representative
+     * @param count
+     * @param pcount
+     * @return the hash groupify entry
+     */
+    private HashGroupifyEntry addInternal(final int generalized, final int hash, final int representative, int count, final int pcount) {
+        
+        // Find or create entry
+        HashGroupifyEntry entry = findEntry(generalized, hash);
+        if (entry == null) {
+            entry = createEntry(generalized, hash, representative);
+        }
+        
+        // If we enforce d-presence and the tuple is not contained in the research subset: set its count to zero
+        count = (privacyModelDefinesSubset != null && !privacyModelDefinesSubset.contains(representative)) ? 0 : count;
+        
+        // Track size: private table for d-presence, overall table, else
+        entry.count += count;
+        
+        // Indirectly check if we enforce d-presence
+        if (privacyModelDefinesSubset != null) {
+            
+            // Increase size of tuples from public table
+            entry.pcount += pcount;
+            
+            // This is a tuple from the research subset, but the class is not represented by a tuple from the subset.
+            // Or this is a tuple from the subset with a representative that is smaller than the current representative of the tuple (which is also from the subset)
+            // Reset its representative, which is necessary for rollup / history, because
+            // otherwise subset.contains(tupleID) could potentially return false.
+            // Moreover, we *must* always represent classes by its minimal representative to ensure that roll-ups and snapshots can be
+            // utilized correctly. This is guaranteed, if there is no research subset, and needs to be enforced explicitly, if there is one.
+            //
+            // Consider the following scenario
+            //
+            // 1. Tuple from G1 (Not in subset)
+            // 2. Tuple from G2 (Not in subset)
+            // 3. Tuple from G2 <-Representative
+            // 4. Tuple from G1 <-Representative
+            //
+            // We assume that G1 and G2 collapse in the next grouping operation.
+            //
+            // If we iterate over the whole dataset and always choose the last element, the group is represented by tuple 4
+            // If we iterate over a snapshot, G1 will be iterated over before G2 (although it has the larger representative), resetting the representative index 3
+            //
+            // To prevent this, we always choose the smallest index:
+            entry.representative = (count > 0 && (entry.count == count || entry.representative < representative)) ? representative : entry.representative;
+        }
+        
+        // Compute current total number of outliers, if k-anonymity is contained in the set of criteria
+        // TODO: Replace with conditional moves
+        if (entry.count >= minimalClassSize) {
+            if (!entry.isNotOutlier) {
+                entry.isNotOutlier = true;
+                currentNumOutliers -= (entry.count - count);
+            }
+        } else {
+            currentNumOutliers += count;
+        }
+        
+        // Return
+        return entry;
+    }
+    
+    /**
+     * Appends the given entry to the list of entries in original order.
+     * 
+     * @param entry
+     */
+    private void appendEntry(final HashGroupifyEntry entry) {
+        if (hashTableFirstEntry == null) {
+            hashTableFirstEntry = entry;
+            hashTableLastEntry = entry;
+        } else {
+            hashTableLastEntry.nextOrdered = entry;
+            hashTableLastEntry = entry;
+        }
+    }
+
+    @Override
+    protected void clearTable() {
+        this.hashTableElementCount = 0;
+        this.hashTableFirstEntry = null;
+        this.hashTableLastEntry = null;
+        HashTableUtil.nullifyArray(hashTableBuckets);
+    }
+
+    /**
+     * Creates a new entry.
+     * 
+     * @param row
+     *            the row
+     * @param hash
+     *            the hash
+     * @param line
+     *            the line
+     * @return the hash groupify entry
+     */
+    private HashGroupifyEntry createEntry(final int row, final int hash, final int line) {
+        if (++hashTableElementCount > hashTableThreshold) {
+            rehash();
+        }
+        final int index = hash & (hashTableBuckets.length - 1);
+        final HashGroupifyEntry entry = new HashGroupifyEntry(this.dataOutput, row, hash);
+        entry.next = hashTableBuckets[index];
+        entry.representative = line;
+        hashTableBuckets[index] = entry;
+        appendEntry(entry);
+        return entry;
+    }
+
+    /**
+     * Returns the according entry.
+     * 
+     * @param row
+     *            the row
+     * @param keyHash
+     *            the key hash
+     * @return the hash groupify entry
+     */
+    private HashGroupifyEntry findEntry(final int row, final int keyHash) {
+        HashGroupifyEntry m = hashTableBuckets[keyHash & (hashTableBuckets.length - 1)];
+        while ((m != null) && ((m.hashcode != keyHash) || !dataOutput.equals(row, m.row))) {
+            m = m.next;
+        }
+        return m;
+    }
+
+    /**
+     * Returns the according entry.
+     * 
+     * @param tuple
+     *            the tuple
+     * @param keyHash
+     *            the key hash
+     * @return the hash groupify entry
+     */
+    @Override
+    protected HashGroupifyEntry findEntry(final int[] tuple, final int keyHash) {
+        HashGroupifyEntry m = hashTableBuckets[keyHash & (hashTableBuckets.length - 1)];
+        while ((m != null) && ((m.hashcode != keyHash) || !dataOutput.equals(m.row, tuple))) {
+            m = m.next;
+        }
+        return m;
+    }
+
+    /**
+     * Returns the according entry, ignoring suppression markers.
+     * 
+     * @param row
+     *            the row
+     * @param keyHash
+     *            the key hash
+     * @return the hash groupify entry
+     */
+    @Override
+    protected HashGroupifyEntry findEntryIgnoringOutliers(final int row, final int keyHash) {
+        HashGroupifyEntry m = hashTableBuckets[keyHash & (hashTableBuckets.length - 1)];
+        while ((m != null) && ((m.hashcode != keyHash) || !dataOutput.equalsIgnoringOutliers(row, m.row))) {
+            m = m.next;
+        }
+        return m;
+    }
+
+    /**
+     * Rehashes this operator.
+     */
+    private void rehash() {
+        
+        final int length = HashTableUtil.calculateCapacity((hashTableBuckets.length == 0 ? 1 : hashTableBuckets.length << 1));
+        final HashGroupifyEntry[] newData = new HashGroupifyEntry[length];
+        HashGroupifyEntry entry = hashTableFirstEntry;
+        while (entry != null) {
+            final int index = entry.hashcode & (length - 1);
+            entry.next = newData[index];
+            newData[index] = entry;
+            entry = entry.nextOrdered;
+        }
+        hashTableBuckets = newData;
+        hashTableThreshold = HashTableUtil.calculateThreshold(hashTableBuckets.length, hashTableLoadFactor);
+    }
+}
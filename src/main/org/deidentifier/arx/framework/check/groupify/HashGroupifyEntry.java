@@ -35,10 +35,10 @@ public class HashGroupifyEntry {
     public int               pcount         = 0;
 
     /** The hashcode of this class. */
-    public final int         hashcode;
+    public int               hashcode;
 
     /** The key of this class. */
-    public final int         row;
+    public int               row;
 
     /** The next element in this bucket. */
     public HashGroupifyEntry next           = null;
@@ -71,6 +71,24 @@ public class HashGroupifyEntry {
         this.matrix = matrix;
     }
     
+    /**
+     * Resets this entry, so that it can be reused for another class.
+     * 
+     * @param row the row
+     * @param hash the hash
+     */
+    void reset(final int row, final int hash) {
+        this.count = 0;
+        this.pcount = 0;
+        this.hashcode = hash;
+        this.row = row;
+        this.next = null;
+        this.nextOrdered = null;
+        this.representative = -1;
+        this.isNotOutlier = false;
+        this.distributions = null;
+    }
+
     /**
      * Initialize iterator
      */
@@ -0,0 +1,446 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.check.groupify;
+
+import java.util.Arrays;
+
+import org.deidentifier.arx.ARXConfiguration.ARXConfigurationInternal;
+import org.deidentifier.arx.framework.check.distribution.Distribution;
+import org.deidentifier.arx.framework.data.DataMatrix;
+
+/**
+ * A hash groupify operator, which implements a hash table with open addressing and
+ * linear probing. While grouping, the properties of equivalence classes are stored
+ * in primitive arrays, which are indexed by the order in which the classes have been
+ * created. Instances of HashGroupifyEntry are only materialized when the classes are
+ * accessed through the API of the operator. They are reused after the operator has
+ * been cleared, which means that no objects are created in a steady state.
+ *
+ * @author Fabian Prasser
+ */
+public class HashGroupifyOpenAddressing extends HashGroupify {
+
+    /** Hash codes of the slots */
+    private int[]               slotHashes;
+
+    /** Index of the class in a slot + 1, 0 if the slot is empty */
+    private int[]               slotClasses;
+
+    /** Load factor. */
+    private final float         loadFactor = 0.75f;
+
+    /** Maximum number of elements that can be put in this map before having to rehash. */
+    private int                 threshold;
+
+    /** Current number of classes */
+    private int                 size;
+
+    /** Key of each class */
+    private int[]               classRows;
+
+    /** Hash code of each class */
+    private int[]               classHashes;
+
+    /** Size of each class, excluding elements from the public table */
+    private int[]               classCounts;
+
+    /** Size of each class, including elements from the public table */
+    private int[]               classPCounts;
+
+    /** Representative of each class */
+    private int[]               classRepresentatives;
+
+    /** Whether each class is not an outlier */
+    private boolean[]           classNotOutliers;
+
+    /** Distributions of each class */
+    private Distribution[][]    classDistributions;
+
+    /** Materialized classes. Entries beyond the current size are reused. */
+    private HashGroupifyEntry[] entries;
+
+    /** The first materialized class */
+    private HashGroupifyEntry   first;
+
+    /** The last materialized class */
+    private HashGroupifyEntry   last;
+
+    /** Whether the materialized classes reflect the current state */
+    private boolean             materialized;
+
+    /**
+     * Constructs a new hash groupify operator.
+     *
+     * @param capacity The capacity
+     * @param config The config
+     * @param dataAnalyzedNumberOfColumns
+     * @param input
+     * @param output
+     * @param analyzed
+     */
+    public HashGroupifyOpenAddressing(int capacity,
+                                      final ARXConfigurationInternal config,
+                                      final int dataAnalyzedNumberOfColumns,
+                                      final DataMatrix input,
+                                      final DataMatrix output,
+                                      final DataMatrix analyzed) {
+        super(config, dataAnalyzedNumberOfColumns, input, output, analyzed);
+        capacity = HashTableUtil.calculateCapacity(capacity);
+        this.slotHashes = new int[capacity];
+        this.slotClasses = new int[capacity];
+        this.threshold = HashTableUtil.calculateThreshold(capacity, loadFactor);
+        this.size = 0;
+        int length = threshold + 1;
+        this.classRows = new int[length];
+        this.classHashes = new int[length];
+        this.classCounts = new int[length];
+        this.classPCounts = new int[length];
+        this.classRepresentatives = new int[length];
+        this.classNotOutliers = new boolean[length];
+        this.classDistributions = new Distribution[length][];
+        this.entries = new HashGroupifyEntry[length];
+        this.materialized = true;
+    }
+
+    @Override
+    public void addFromBuffer(int generalized, int other, int representative, int count, int pcount) {
+
+        // Add
+        final int index = addInternal(generalized, dataOutput.hashCode(generalized), representative, count, pcount);
+
+        // Is a other attribute provided
+        if (other != -1) {
+            Distribution[] distributions = classDistributions[index];
+            if (distributions == null) {
+                distributions = new Distribution[dataAnalyzedNumberOfColumns];
+                for (int i = 0; i < distributions.length; i++) {
+                    distributions[i] = new Distribution();
+                }
+                classDistributions[index] = distributions;
+            }
+
+            // Only add other value if in research subset
+            if (privacyModelDefinesSubset == null || privacyModelDefinesSubset.contains(representative)) {
+                dataAnalyzed.iterator(other);
+                for (int i = 0; i < distributions.length; i++) {
+                    distributions[i].add(dataAnalyzed.iterator_next());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void addFromGroupify(int generalized, Distribution[] distributions, int representative, int count, int pcount) {
+
+        // Add
+        final int index = addInternal(generalized, dataOutput.hashCode(generalized), representative, count, pcount);
+
+        // Is a distribution provided
+        if (distributions != null) {
+            if (classDistributions[index] == null) {
+                classDistributions[index] = distributions;
+            } else {
+                for (int i = 0; i < distributions.length; i++) {
+                    classDistributions[index][i].merge(distributions[i]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void addFromSnapshot(int generalized, int[][] elements, int[][] frequencies, int representative, int count, int pcount) {
+
+        // Add
+        final int index = addInternal(generalized, dataOutput.hashCode(generalized), representative, count, pcount);
+
+        // Is a distribution provided
+        if (elements != null) {
+            if (classDistributions[index] == null) {
+                Distribution[] distributions = new Distribution[elements.length];
+                for (int i = 0; i < distributions.length; i++) {
+                    distributions[i] = new Distribution(elements[i], frequencies[i]);
+                }
+                classDistributions[index] = distributions;
+            } else {
+                for (int i = 0; i < elements.length; i++) {
+                    classDistributions[index][i].merge(elements[i], frequencies[i]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public HashGroupifyEntry getFirstEquivalenceClass() {
+        materialize();
+        return first;
+    }
+
+    @Override
+    public int getNumberOfEquivalenceClasses() {
+        return size;
+    }
+
+    @Override
+    protected void clearTable() {
+        Arrays.fill(slotClasses, 0);
+        size = 0;
+        first = null;
+        last = null;
+        materialized = true;
+    }
+
+    @Override
+    protected HashGroupifyEntry findEntry(final int[] tuple, final int keyHash) {
+        materialize();
+        final int mask = slotClasses.length - 1;
+        int slot = mix(keyHash) & mask;
+        int reference;
+        while ((reference = slotClasses[slot]) != 0) {
+            if (slotHashes[slot] == keyHash && dataOutput.equals(classRows[reference - 1], tuple)) {
+                return entries[reference - 1];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    protected HashGroupifyEntry findEntryIgnoringOutliers(final int row, final int keyHash) {
+        materialize();
+        final int mask = slotClasses.length - 1;
+        int slot = mix(keyHash) & mask;
+        int reference;
+        while ((reference = slotClasses[slot]) != 0) {
+            if (slotHashes[slot] == keyHash && dataOutput.equalsIgnoringOutliers(row, classRows[reference - 1])) {
+                return entries[reference - 1];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Adds a tuple to its class, which is created if required. Implements the
+     * same semantics as the chaining operator.
+     *
+     * @param generalized
+     * @param hash
+     * @param representative
+     * @param count
+     * @param pcount
+     * @return the index of the class
+     */
+    private int addInternal(final int generalized, final int hash, final int representative, int count, final int pcount) {
+
+        // Classes may have been modified through the API
+        if (materialized) {
+            synchronize();
+        }
+
+        // Find or create class
+        int index = findClass(generalized, hash);
+        if (index == -1) {
+            index = createClass(generalized, hash, representative);
+        }
+
+        // If we enforce d-presence and the tuple is not contained in the research subset: set its count to zero
+        count = (privacyModelDefinesSubset != null && !privacyModelDefinesSubset.contains(representative)) ? 0 : count;
+
+        // Track size: private table for d-presence, overall table, else
+        final int classSize = classCounts[index] += count;
+
+        // Indirectly check if we enforce d-presence
+        if (privacyModelDefinesSubset != null) {
+
+            // Increase size of tuples from public table
+            classPCounts[index] += pcount;
+
+            // Always represent classes by their minimal representative, see HashGroupifyChaining
+            if (count > 0 && (classSize == count || classRepresentatives[index] < representative)) {
+                classRepresentatives[index] = representative;
+            }
+        }
+
+        // Compute current total number of outliers, if k-anonymity is contained in the set of criteria
+        if (classSize >= minimalClassSize) {
+            if (!classNotOutliers[index]) {
+                classNotOutliers[index] = true;
+                currentNumOutliers -= (classSize - count);
+            }
+        } else {
+            currentNumOutliers += count;
+        }
+
+        // Return
+        return index;
+    }
+
+    /**
+     * Creates a new class
+     *
+     * @param row
+     * @param hash
+     * @param line
+     * @return the index of the class
+     */
+    private int createClass(final int row, final int hash, final int line) {
+
+        // Grow
+        if (size == threshold) {
+            rehash();
+        }
+
+        // Store
+        final int index = size++;
+        if (index == classRows.length) {
+            grow();
+        }
+        classRows[index] = row;
+        classHashes[index] = hash;
+        classCounts[index] = 0;
+        classPCounts[index] = 0;
+        classRepresentatives[index] = line;
+        classNotOutliers[index] = false;
+        classDistributions[index] = null;
+        insert(hash, index + 1);
+        return index;
+    }
+
+    /**
+     * Returns the index of the class with the given key, -1 if there is none
+     *
+     * @param row
+     * @param keyHash
+     * @return
+     */
+    private int findClass(final int row, final int keyHash) {
+        final int mask = slotClasses.length - 1;
+        int slot = mix(keyHash) & mask;
+        int reference;
+        while ((reference = slotClasses[slot]) != 0) {
+            if (slotHashes[slot] == keyHash && dataOutput.equals(row, classRows[reference - 1])) {
+                return reference - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Doubles the size of the arrays which store the classes
+     */
+    private void grow() {
+        int length = classRows.length << 1;
+        classRows = Arrays.copyOf(classRows, length);
+        classHashes = Arrays.copyOf(classHashes, length);
+        classCounts = Arrays.copyOf(classCounts, length);
+        classPCounts = Arrays.copyOf(classPCounts, length);
+        classRepresentatives = Arrays.copyOf(classRepresentatives, length);
+        classNotOutliers = Arrays.copyOf(classNotOutliers, length);
+        classDistributions = Arrays.copyOf(classDistributions, length);
+        entries = Arrays.copyOf(entries, length);
+    }
+
+    /**
+     * Stores a reference in the first free slot for the given hash code
+     *
+     * @param hash
+     * @param reference
+     */
+    private void insert(final int hash, final int reference) {
+        final int mask = slotClasses.length - 1;
+        int slot = mix(hash) & mask;
+        while (slotClasses[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slotHashes[slot] = hash;
+        slotClasses[slot] = reference;
+    }
+
+    /**
+     * Materializes the classes as entries in original order, if required
+     */
+    private void materialize() {
+        if (materialized) {
+            return;
+        }
+        first = null;
+        last = null;
+        for (int index = 0; index < size; index++) {
+            HashGroupifyEntry entry = entries[index];
+            if (entry == null) {
+                entry = new HashGroupifyEntry(this.dataOutput, classRows[index], classHashes[index]);
+                entries[index] = entry;
+            } else {
+                entry.reset(classRows[index], classHashes[index]);
+            }
+            entry.count = classCounts[index];
+            entry.pcount = classPCounts[index];
+            entry.representative = classRepresentatives[index];
+            entry.isNotOutlier = classNotOutliers[index];
+            entry.distributions = classDistributions[index];
+            if (first == null) {
+                first = entry;
+            } else {
+                last.nextOrdered = entry;
+            }
+            last = entry;
+        }
+        materialized = true;
+    }
+
+    /**
+     * Spreads the bits of a hash code, which is required for linear probing
+     *
+     * @param hash
+     * @return
+     */
+    private int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Rehashes this operator.
+     */
+    private void rehash() {
+        final int length = HashTableUtil.calculateCapacity(slotClasses.length << 1);
+        this.slotHashes = new int[length];
+        this.slotClasses = new int[length];
+        this.threshold = HashTableUtil.calculateThreshold(length, loadFactor);
+        for (int i = 0; i < size; i++) {
+            insert(classHashes[i], i + 1);
+        }
+    }
+
+    /**
+     * Copies the properties of the materialized classes, which may have been modified
+     * through the API, back into the arrays
+     */
+    private void synchronize() {
+        for (int index = 0; index < size; index++) {
+            HashGroupifyEntry entry = entries[index];
+            classCounts[index] = entry.count;
+            classPCounts[index] = entry.pcount;
+            classRepresentatives[index] = entry.representative;
+            classNotOutliers[index] = entry.isNotOutlier;
+            classDistributions[index] = entry.distributions;
+        }
+        materialized = false;
+    }
+}
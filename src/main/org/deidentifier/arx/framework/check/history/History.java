@@ -17,8 +17,10 @@
 
 package org.deidentifier.arx.framework.check.history;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.ARXConfiguration.ARXConfigurationInternal;
@@ -80,6 +82,27 @@ public class History {
     /** The solution space */
     private final SolutionSpace             solutionSpace;
 
+    /** Second-tier store for evicted snapshots, null if disabled */
+    private final HistorySpill              spill;
+
+    /** The number of rows */
+    private final int                       rowCount;
+
+    /** The eviction policy */
+    private HistoryEvictionPolicy           evictionPolicy;
+
+    /** Statistics */
+    private long                            statisticsRequests;
+
+    /** Statistics */
+    private long                            statisticsHits;
+
+    /** Statistics */
+    private long                            statisticsRowsAvoided;
+
+    /** Statistics */
+    private long                            statisticsEvictions;
+
     /** Store the results of all types of transformations. */
     private final DependentAction STORAGE_TRIGGER_ALL = new DependentAction(){
         @Override
@@ -131,8 +154,41 @@ public class History {
         this.requirements = config.getRequirements();
         this.storageTrigger = STORAGE_TRIGGER_NON_ANONYMOUS;
         this.solutionSpace = solutionSpace;
+        this.spill = config.getHistorySpillSize() == 0 ? null :
+                     new HistorySpill(config.getHistorySpillSize(),
+                                      config.getHistorySpillDirectory(),
+                                      (requirements & ARXConfiguration.REQUIREMENT_DISTRIBUTION) != 0);
+        this.rowCount = rowCount;
+        if (config.getHistoryEvictionPolicy() == ARXConfiguration.HistoryEvictionPolicy.COST) {
+            this.evictionPolicy = new HistoryEvictionPolicyCost(rowCount, config.getSnapshotLength(), solutionSpace);
+        } else {
+            this.evictionPolicy = new HistoryEvictionPolicyLRU();
+        }
     }
-    
+
+    /**
+     * Retains the snapshots which are currently held in memory, so that they can be used when
+     * rows are appended to the dataset. Snapshots which contain distributions refer to the
+     * dictionaries of this history and cannot be retained.
+     *
+     * @return The archive or null, if no snapshots can be retained
+     */
+    public HistoryArchive archive() {
+        if (requirements != ARXConfiguration.REQUIREMENT_COUNTER || cache.size() == 0) {
+            return null;
+        }
+        int[][] transformations = new int[cache.size()][];
+        int[][] snapshots = new int[cache.size()][];
+        int index = 0;
+        Iterator<MRUCacheEntryMetadata> iterator = cache.iterator();
+        while (iterator.hasNext()) {
+            MRUCacheEntryMetadata metadata = iterator.next();
+            transformations[index] = metadata.transformation;
+            snapshots[index++] = nodeToSnapshot.get(metadata.id);
+        }
+        return new HistoryArchive(transformations, snapshots, rowCount);
+    }
+
     /**
      * Retrieves a snapshot.
      * 
@@ -143,6 +199,7 @@ public class History {
 
         // Init
         int[] resultSnapshot = null;
+        int resultLength = 0;
         MRUCacheEntryMetadata resultMetadata = null;
         int level = solutionSpace.getLevel(transformation);
 
@@ -152,22 +209,52 @@ public class History {
             MRUCacheEntryMetadata currentMetadata = entry.data;
             if (currentMetadata.level < level) {
                 final int[] currentSnapshot = nodeToSnapshot.get(currentMetadata.id);
-                if ((resultMetadata == null) || (currentSnapshot.length < resultSnapshot.length)) {
+                if ((resultMetadata == null) || (currentSnapshot.length < resultLength)) {
                     if (solutionSpace.isParentChildOrEqual(transformation, currentMetadata.transformation)) {
                         resultMetadata = currentMetadata;
                         resultSnapshot = currentSnapshot;
+                        resultLength = currentSnapshot.length;
                     }
                 }
             }
             entry = entry.next;
         }
 
+        // Search spilled snapshots
+        boolean spilled = false;
+        if (spill != null) {
+            for (HistorySpill.SpilledSnapshot current : spill.getSnapshots()) {
+                MRUCacheEntryMetadata currentMetadata = current.metadata;
+                if (currentMetadata.level < level && ((resultMetadata == null) || (current.length < resultLength))) {
+                    if (solutionSpace.isParentChildOrEqual(transformation, currentMetadata.transformation)) {
+                        resultMetadata = currentMetadata;
+                        resultLength = current.length;
+                        spilled = true;
+                    }
+                }
+            }
+        }
+
         // Manager
-        if (resultMetadata != null) {
+        if (spilled) {
+            resultSnapshot = spill.get(resultMetadata.id);
+            if (cache.size() >= size && cache.size() > 0) {
+                evictHistoryEntry();
+            }
+            nodeToSnapshot.put(resultMetadata.id, resultSnapshot);
+            cache.append(resultMetadata);
+        } else if (resultMetadata != null) {
             cache.touch(resultMetadata);
         }
         this.resultMetadata = resultMetadata;
 
+        // Statistics
+        statisticsRequests++;
+        if (resultSnapshot != null) {
+            statisticsHits++;
+            statisticsRowsAvoided += rowCount - resultSnapshot.length / config.getSnapshotLength();
+        }
+
         // Return
         return resultSnapshot;
     }
@@ -190,6 +277,15 @@ public class History {
         return dictionarySensValue;
     }
 
+    /**
+     * Returns statistics about the usage of this history.
+     *
+     * @return
+     */
+    public HistoryStatistics getStatistics() {
+        return new HistoryStatistics(statisticsRequests, statisticsHits, statisticsRowsAvoided, statisticsEvictions);
+    }
+
     /**
      * Returns the current storage strategy.
      *
@@ -221,6 +317,18 @@ public class History {
         this.dictionarySensFreq.clear();
         this.dictionarySensValue.clear();
         this.resultMetadata = null;
+        if (this.spill != null) {
+            this.spill.close();
+        }
+    }
+
+    /**
+     * Sets the eviction policy.
+     *
+     * @param policy
+     */
+    public void setEvictionPolicy(HistoryEvictionPolicy policy) {
+        this.evictionPolicy = policy;
     }
 
     /**
@@ -265,6 +373,11 @@ public class History {
             if (relativeSize > snapshotSizeSnapshot) { return false; }
         }
         
+        // Early abort if already stored
+        if (nodeToSnapshot.containsKey(transformation.getIdentifier())) {
+            return false;
+        }
+        
         // Early abort if conditions are not triggered
         if (!transformation.hasProperty(solutionSpace.getPropertyForceSnapshot()) && 
             (transformation.hasProperty(solutionSpace.getPropertySuccessorsPruned()) || !storageTrigger.appliesTo(transformation))) {
@@ -274,9 +387,9 @@ public class History {
         // Clear the cache
         cleanUpHistory();
 
-        // Perform LRU eviction, if still too large
+        // Perform eviction, if still too large
         if (cache.size() >= size) {
-            removeHistoryEntry(cache.removeHead());
+            evictHistoryEntry();
         }
         
         // Create the snapshot
@@ -290,6 +403,16 @@ public class History {
         return true;
     }
 
+    /**
+     * Evicts an entry selected by the eviction policy.
+     */
+    private final void evictHistoryEntry() {
+        final MRUCacheEntryMetadata metadata = evictionPolicy.getVictim(cache, nodeToSnapshot);
+        cache.remove(metadata);
+        spillHistoryEntry(metadata);
+        statisticsEvictions++;
+    }
+
     /**
      * Remove pruned entries from the cache.
      */
@@ -303,6 +426,21 @@ public class History {
                 removeHistoryEntry(node);
             }
         }
+
+        if (spill != null) {
+            List<Long> pruned = null;
+            for (HistorySpill.SpilledSnapshot snapshot : spill.getSnapshots()) {
+                if (solutionSpace.hasProperty(snapshot.metadata.transformation, solutionSpace.getPropertySuccessorsPruned())) {
+                    pruned = pruned != null ? pruned : new ArrayList<Long>();
+                    pruned.add(snapshot.metadata.id);
+                }
+            }
+            if (pruned != null) {
+                for (long id : pruned) {
+                    releaseSnapshot(spill.remove(id));
+                }
+            }
+        }
     }
     
     /**
@@ -363,8 +501,30 @@ public class History {
      * @param metadata
      */
     private final void removeHistoryEntry(final MRUCacheEntryMetadata metadata) {
-        final int[] snapshot = nodeToSnapshot.remove(metadata.id);
+        releaseSnapshot(nodeToSnapshot.remove(metadata.id));
+    }
 
+    /**
+     * Moves a snapshot into the second-tier store, if enabled. Removes it otherwise.
+     *
+     * @param metadata
+     */
+    private final void spillHistoryEntry(final MRUCacheEntryMetadata metadata) {
+        if (spill == null) {
+            removeHistoryEntry(metadata);
+        } else {
+            for (int[] snapshot : spill.put(metadata, nodeToSnapshot.remove(metadata.id))) {
+                releaseSnapshot(snapshot);
+            }
+        }
+    }
+
+    /**
+     * Releases the references of a snapshot into the dictionaries.
+     *
+     * @param snapshot
+     */
+    private final void releaseSnapshot(final int[] snapshot) {
         switch (requirements) {
         case ARXConfiguration.REQUIREMENT_COUNTER | ARXConfiguration.REQUIREMENT_SECONDARY_COUNTER | ARXConfiguration.REQUIREMENT_DISTRIBUTION:
             for (int i = 0; i < snapshot.length; i += config.getSnapshotLength()) {
@@ -0,0 +1,154 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.check.history;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Snapshots which have been retained from the history of a previous search. They
+ * represent the equivalence classes of the first rows of the dataset, which means
+ * that they remain valid when further rows are appended. Instances are immutable
+ * and may be shared between threads.
+ *
+ * @author Fabian Prasser
+ */
+public class HistoryArchive {
+
+    /** The transformations */
+    private final int[][] transformations;
+
+    /** The snapshots */
+    private final int[][] snapshots;
+
+    /** The number of rows covered by the snapshots */
+    private final int     rows;
+
+    /**
+     * Creates a new instance
+     *
+     * @param transformations
+     * @param snapshots
+     * @param rows
+     */
+    HistoryArchive(int[][] transformations, int[][] snapshots, int rows) {
+        this.transformations = transformations;
+        this.snapshots = snapshots;
+        this.rows = rows;
+    }
+
+    /**
+     * Returns the smallest snapshot of the given transformation or of one of its
+     * predecessors, if any.
+     *
+     * @param transformation
+     * @return
+     */
+    public int[] get(int[] transformation) {
+        int result = -1;
+        for (int i = 0; i < transformations.length; i++) {
+            if ((result == -1 || snapshots[i].length < snapshots[result].length) &&
+                isPredecessorOrEqual(transformations[i], transformation)) {
+                result = i;
+            }
+        }
+        return result == -1 ? null : snapshots[result];
+    }
+
+    /**
+     * Returns the number of rows covered by the snapshots
+     *
+     * @return
+     */
+    public int getNumRows() {
+        return rows;
+    }
+
+    /**
+     * Returns an archive containing the snapshots of this archive and, up to the given
+     * number of snapshots, those of the other archive which are not contained in this
+     * archive. Both archives must cover the same rows.
+     *
+     * @param other
+     * @param max
+     * @return
+     */
+    public HistoryArchive merge(HistoryArchive other, int max) {
+
+        // Check
+        if (other.rows != this.rows) {
+            throw new IllegalArgumentException("Archives cover a different number of rows");
+        }
+
+        // Collect
+        List<int[]> transformations = new ArrayList<int[]>(Arrays.asList(this.transformations));
+        List<int[]> snapshots = new ArrayList<int[]>(Arrays.asList(this.snapshots));
+        for (int i = 0; i < other.transformations.length && transformations.size() < max; i++) {
+            if (!contains(other.transformations[i])) {
+                transformations.add(other.transformations[i]);
+                snapshots.add(other.snapshots[i]);
+            }
+        }
+
+        // Return
+        return new HistoryArchive(transformations.toArray(new int[transformations.size()][]),
+                                  snapshots.toArray(new int[snapshots.size()][]),
+                                  rows);
+    }
+
+    /**
+     * Returns the number of snapshots
+     *
+     * @return
+     */
+    public int size() {
+        return snapshots.length;
+    }
+
+    /**
+     * Returns whether this archive contains a snapshot of the given transformation
+     *
+     * @param transformation
+     * @return
+     */
+    private boolean contains(int[] transformation) {
+        for (int[] element : transformations) {
+            if (Arrays.equals(element, transformation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the first transformation is a predecessor of or equal to the second
+     *
+     * @param predecessor
+     * @param transformation
+     * @return
+     */
+    private boolean isPredecessorOrEqual(int[] predecessor, int[] transformation) {
+        for (int i = 0; i < transformation.length; i++) {
+            if (predecessor[i] > transformation[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.deidentifier.arx.framework.check.history;
+
+import java.util.Map;
+
+/**
+ * A policy which selects the snapshot to evict when the history is full.
+ *
+ * @author Fabian Prasser
+ */
+public interface HistoryEvictionPolicy {
+
+    /**
+     * Returns the entry which should be evicted from the given non-empty cache
+     *
+     * @param cache The cache, in which entries are ordered from least to most recently used
+     * @param snapshots The snapshots of all entries
+     * @return
+     */
+    public MRUCacheEntryMetadata getVictim(MRUCache<MRUCacheEntryMetadata> cache, Map<Long, int[]> snapshots);
+}
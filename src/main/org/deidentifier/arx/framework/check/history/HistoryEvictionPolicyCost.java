@@ -0,0 +1,108 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.deidentifier.arx.framework.check.history;
+
+import java.util.Map;
+
+import org.deidentifier.arx.framework.lattice.SolutionSpace;
+
+/**
+ * Evicts the snapshot with the lowest expected benefit per byte. The benefit of a snapshot
+ * is the number of rows which need not be transformed when using it, weighted by the
+ * fraction of direct successors of its transformation which have not yet been checked.
+ * Ties are broken by evicting the least recently used snapshot.
+ *
+ * @author Fabian Prasser
+ */
+public class HistoryEvictionPolicyCost implements HistoryEvictionPolicy {
+
+    /** The number of rows */
+    private final int           rows;
+
+    /** The number of ints per equivalence class in a snapshot */
+    private final int           snapshotLength;
+
+    /** The solution space */
+    private final SolutionSpace solutionSpace;
+
+    /** The maximal generalization levels */
+    private final int[]         maxLevels;
+
+    /**
+     * Creates a new instance
+     *
+     * @param rows
+     * @param snapshotLength
+     * @param solutionSpace
+     */
+    public HistoryEvictionPolicyCost(int rows, int snapshotLength, SolutionSpace solutionSpace) {
+        this.rows = rows;
+        this.snapshotLength = snapshotLength;
+        this.solutionSpace = solutionSpace;
+        this.maxLevels = solutionSpace.getTop().getGeneralization();
+    }
+
+    @Override
+    public MRUCacheEntryMetadata getVictim(MRUCache<MRUCacheEntryMetadata> cache, Map<Long, int[]> snapshots) {
+        MRUCacheEntryMetadata result = null;
+        double resultScore = Double.MAX_VALUE;
+        MRUCacheEntry<MRUCacheEntryMetadata> entry = cache.getHead();
+        while (entry != null) {
+            double score = getScore(entry.data, snapshots.get(entry.data.id));
+            if (result == null || score < resultScore) {
+                result = entry.data;
+                resultScore = score;
+            }
+            entry = entry.next;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the expected benefit of the snapshot per byte
+     *
+     * @param metadata
+     * @param snapshot
+     * @return
+     */
+    private double getScore(MRUCacheEntryMetadata metadata, int[] snapshot) {
+
+        // Rows saved
+        int rowsSaved = rows - snapshot.length / snapshotLength;
+
+        // Likelihood of reuse
+        int[] transformation = metadata.transformation.clone();
+        int successors = 0;
+        int unchecked = 0;
+        for (int i = 0; i < transformation.length; i++) {
+            if (transformation[i] < maxLevels[i]) {
+                transformation[i]++;
+                successors++;
+                if (!solutionSpace.hasProperty(transformation, solutionSpace.getPropertyChecked())) {
+                    unchecked++;
+                }
+                transformation[i]--;
+            }
+        }
+        if (successors == 0) {
+            return 0d;
+        }
+
+        // Benefit per byte
+        return (double) rowsSaved * ((double) unchecked / (double) successors) / ((double) snapshot.length * 4d + 1d);
+    }
+}
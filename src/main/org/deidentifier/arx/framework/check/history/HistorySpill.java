@@ -0,0 +1,302 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.framework.check.history;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A second-tier store for snapshots which have been evicted from the history. Snapshots
+ * are compressed and written to a memory-mapped file, which is used as a ring buffer with
+ * a fixed size. Snapshots are indexed by the identifier of their transformation. When the
+ * file is full, the oldest snapshots are overwritten.
+ *
+ * @author Fabian Prasser
+ */
+public class HistorySpill {
+
+    /**
+     * A snapshot stored in the file
+     *
+     * @author Fabian Prasser
+     */
+    public static class SpilledSnapshot {
+
+        /** Metadata */
+        public final MRUCacheEntryMetadata metadata;
+        /** Length of the snapshot */
+        public final int                   length;
+        /** Position in the file */
+        private final int                  position;
+        /** Number of bytes in the file */
+        private final int                  bytes;
+
+        /**
+         * Creates a new instance
+         * @param metadata
+         * @param length
+         * @param position
+         * @param bytes
+         */
+        private SpilledSnapshot(MRUCacheEntryMetadata metadata, int length, int position, int bytes) {
+            this.metadata = metadata;
+            this.length = length;
+            this.position = position;
+            this.bytes = bytes;
+        }
+    }
+
+    /** The index */
+    private final LinkedHashMap<Long, SpilledSnapshot> index    = new LinkedHashMap<Long, SpilledSnapshot>();
+
+    /** Read-only view of the index */
+    private final Collection<SpilledSnapshot>          snapshots = Collections.unmodifiableCollection(index.values());
+
+    /** The size of the file */
+    private final int                                  capacity;
+
+    /** The directory, null if the temporary directory is used */
+    private final String                               directory;
+
+    /** Whether removed snapshots must be decoded */
+    private final boolean                              decode;
+
+    /** Compression, created on demand */
+    private Deflater                                   deflater;
+
+    /** Decompression, created on demand */
+    private Inflater                                   inflater;
+
+    /** Buffer for compressed data */
+    private byte[]                                     temp     = new byte[0];
+
+    /** The file, created on demand */
+    private MappedByteBuffer                           buffer;
+
+    /** The current write position */
+    private int                                        position;
+
+    /**
+     * Creates a new instance
+     *
+     * @param capacity The size of the file in bytes
+     * @param directory The directory, null if the temporary directory should be used
+     * @param decode Whether removed snapshots must be decoded, e.g. to release references into dictionaries
+     */
+    public HistorySpill(int capacity, String directory, boolean decode) {
+        this.capacity = capacity;
+        this.directory = directory;
+        this.decode = decode;
+    }
+
+    /**
+     * Loads a snapshot and removes it from this store
+     *
+     * @param id
+     * @return
+     */
+    public int[] get(long id) {
+        SpilledSnapshot snapshot = index.remove(id);
+        return snapshot == null ? null : read(snapshot);
+    }
+
+    /**
+     * Returns all snapshots in this store, from oldest to newest
+     *
+     * @return
+     */
+    public Collection<SpilledSnapshot> getSnapshots() {
+        return snapshots;
+    }
+
+    /**
+     * Stores a snapshot. Returns all snapshots which have been discarded to make space for it,
+     * or the snapshot itself, if it does not fit into this store. Discarded snapshots are
+     * only decoded if required.
+     *
+     * @param metadata
+     * @param snapshot
+     * @return
+     */
+    public List<int[]> put(MRUCacheEntryMetadata metadata, int[] snapshot) {
+
+        // Compress
+        List<int[]> result = new ArrayList<int[]>();
+        int bytes = compress(snapshot);
+        if (bytes > capacity) {
+            result.add(snapshot);
+            return result;
+        }
+
+        // Wrap around
+        if (position + bytes > capacity) {
+            position = 0;
+        }
+
+        // Discard overlapping snapshots
+        Iterator<SpilledSnapshot> iterator = index.values().iterator();
+        while (iterator.hasNext()) {
+            SpilledSnapshot other = iterator.next();
+            if (other.position < position + bytes && position < other.position + other.bytes) {
+                if (decode) {
+                    result.add(read(other));
+                }
+                iterator.remove();
+            }
+        }
+
+        // Write
+        ByteBuffer buffer = getBuffer();
+        buffer.position(position);
+        buffer.put(temp, 0, bytes);
+        index.put(metadata.id, new SpilledSnapshot(metadata, snapshot.length, position, bytes));
+        position += bytes;
+        return result;
+    }
+
+    /**
+     * Removes a snapshot. Returns its data, if decoding is required, null otherwise.
+     *
+     * @param id
+     * @return
+     */
+    public int[] remove(long id) {
+        SpilledSnapshot snapshot = index.remove(id);
+        return snapshot == null || !decode ? null : read(snapshot);
+    }
+
+    /**
+     * Clears this store and releases the native resources of the codecs and the
+     * memory-mapped file. They are created again, if the store is used afterwards.
+     */
+    public void close() {
+        index.clear();
+        position = 0;
+        if (deflater != null) {
+            deflater.end();
+            deflater = null;
+        }
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+        buffer = null;
+    }
+
+    /**
+     * Compresses the given snapshot into the temporary buffer
+     *
+     * @param snapshot
+     * @return the number of bytes
+     */
+    private int compress(int[] snapshot) {
+        ByteBuffer input = ByteBuffer.allocate(snapshot.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        input.asIntBuffer().put(snapshot);
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        deflater.reset();
+        deflater.setInput(input.array());
+        deflater.finish();
+        int bytes = 0;
+        if (temp.length < 64) {
+            temp = new byte[64];
+        }
+        while (!deflater.finished()) {
+            if (bytes == temp.length) {
+                temp = Arrays.copyOf(temp, temp.length << 1);
+            }
+            bytes += deflater.deflate(temp, bytes, temp.length - bytes);
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the memory-mapped file, which is created on demand
+     *
+     * @return
+     */
+    private ByteBuffer getBuffer() {
+        if (buffer == null) {
+            File path = null;
+            try {
+                path = File.createTempFile("arx", ".history", directory == null ? null : new File(directory));
+                path.deleteOnExit();
+                RandomAccessFile file = new RandomAccessFile(path, "rw");
+                try {
+                    buffer = file.getChannel().map(MapMode.READ_WRITE, 0, capacity);
+                } finally {
+                    file.close();
+                    path.delete();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot create memory-mapped file in: " + (path != null ? path.getParent() : directory), e);
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Reads and decompresses a snapshot
+     *
+     * @param snapshot
+     * @return
+     */
+    private int[] read(SpilledSnapshot snapshot) {
+        byte[] input = new byte[snapshot.bytes];
+        ByteBuffer buffer = getBuffer();
+        buffer.position(snapshot.position);
+        buffer.get(input);
+        byte[] output = new byte[snapshot.length * 4];
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        inflater.reset();
+        inflater.setInput(input);
+        try {
+            int offset = 0;
+            while (offset < output.length) {
+                int inflated = inflater.inflate(output, offset, output.length - offset);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Corrupt snapshot");
+                }
+                offset += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt snapshot", e);
+        }
+        int[] result = new int[snapshot.length];
+        ByteBuffer.wrap(output).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(result);
+        return result;
+    }
+}
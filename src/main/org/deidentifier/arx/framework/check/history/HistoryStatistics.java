@@ -0,0 +1,104 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.deidentifier.arx.framework.check.history;
+
+/**
+ * Statistics about the usage of a history.
+ *
+ * @author Fabian Prasser
+ */
+public class HistoryStatistics {
+
+    /** Number of requests for snapshots */
+    private final long requests;
+
+    /** Number of requests which returned a snapshot */
+    private final long hits;
+
+    /** Number of rows which did not need to be transformed */
+    private final long rowsAvoided;
+
+    /** Number of snapshots evicted */
+    private final long evictions;
+
+    /**
+     * Creates a new instance
+     *
+     * @param requests
+     * @param hits
+     * @param rowsAvoided
+     * @param evictions
+     */
+    public HistoryStatistics(long requests, long hits, long rowsAvoided, long evictions) {
+        this.requests = requests;
+        this.hits = hits;
+        this.rowsAvoided = rowsAvoided;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Returns the number of snapshots evicted
+     * @return
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the fraction of requests which returned a snapshot
+     * @return
+     */
+    public double getHitRate() {
+        return requests == 0 ? 0d : (double) hits / (double) requests;
+    }
+
+    /**
+     * Returns the number of requests which returned a snapshot
+     * @return
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests for snapshots
+     * @return
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of rows which did not need to be transformed
+     * @return
+     */
+    public long getRowsAvoided() {
+        return rowsAvoided;
+    }
+
+    /**
+     * Returns the sum of this and the given statistics
+     * @param other
+     * @return
+     */
+    public HistoryStatistics merge(HistoryStatistics other) {
+        return new HistoryStatistics(this.requests + other.requests,
+                                     this.hits + other.hits,
+                                     this.rowsAvoided + other.rowsAvoided,
+                                     this.evictions + other.evictions);
+    }
+}
@@ -21,6 +21,7 @@ import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.RowSet;
 
 /**
@@ -49,12 +50,14 @@ public class Data implements Cloneable, Serializable {
      * @param header
      * @param columns
      * @param dictionary
+     * @param config
      * @return
      */
     public static Data createProjection(final DataMatrix data,
                                         final String[] header,
                                         final int[] columns,
-                                        final Dictionary dictionary) {
+                                        final Dictionary dictionary,
+                                        final ARXConfiguration config) {
         
         // Empty object
         if (columns.length == 0) {
@@ -62,7 +65,7 @@ public class Data implements Cloneable, Serializable {
         }
 
         // Clone matrix
-        DataMatrix matrix = new DataMatrix(data.getNumRows(), columns.length);
+        DataMatrix matrix = DataMatrix.create(data.getNumRows(), columns.length, config);
         for (int row = 0; row < data.getNumRows(); row++) {
             
             // Prepare row
@@ -201,7 +204,9 @@ public class Data implements Cloneable, Serializable {
     }
 
     /**
-     * Returns a new instance that is projected onto the given subset
+     * Returns a new instance that is projected onto the given subset. The instance uses
+     * its own view on the underlying matrix, which means that it may be accessed from
+     * another thread.
      * @param rowset
      * @return
      */
@@ -213,7 +218,7 @@ public class Data implements Cloneable, Serializable {
                 rows[index++] = row;
             }
         }
-        return new Data(new DataMatrixSubset(data, rows), header, columns, dictionary);
+        return new Data(new DataMatrixSubset(data == null ? null : data.getView(), rows), header, columns, dictionary);
     }
 
     /**
@@ -37,6 +37,7 @@ import org.deidentifier.arx.criteria.EDDifferentialPrivacy;
 import org.deidentifier.arx.criteria.HierarchicalDistanceTCloseness;
 import org.deidentifier.arx.criteria.PrivacyCriterion;
 import org.deidentifier.arx.framework.check.distribution.DistributionAggregateFunction;
+import org.deidentifier.arx.metric.v2.Cardinalities;
 import org.deidentifier.arx.metric.v2.DomainShare;
 import org.deidentifier.arx.metric.v2.DomainShareInterval;
 import org.deidentifier.arx.metric.v2.DomainShareMaterialized;
@@ -60,8 +61,14 @@ public class DataManager {
     /** Data. */
     private final Data                        dataAnalyzed;
 
+    /** Cardinalities, computed on demand */
+    private Cardinalities                     cardinalities;
+
+    /** The subset for which the cardinalities have been computed */
+    private RowSet                            cardinalitiesSubset;
+
     /** Data */
-    private final Data                        dataGeneralized;
+    private Data                              dataGeneralized;
 
     /** Data. */
     private final Data                        dataInput;
@@ -178,13 +185,14 @@ public class DataManager {
         hotOtherAttributes.removeAll(definition.getQuasiIdentifiersWithMicroaggregation());
         
         // Create data objects
-        this.dataGeneralized = Data.createProjection(data, header, getColumns(header, qisGeneralized), dictionary);
+        this.dataGeneralized = Data.createProjection(data, header, getColumns(header, qisGeneralized), dictionary, config);
         this.dataAnalyzed = Data.createProjection(data, header, getColumns(header, 
                                                                            hotOtherAttributes,
                                                                            hotQIsNotGeneralized,
                                                                            hotQIsGeneralized,
                                                                            coldQIs), 
-                                                                           dictionary);
+                                                                           dictionary,
+                                                                           config);
         this.dataInput = Data.createWrapper(data, header, getColumns(header), dictionary);
         
         // Store information about aggregated attributes
@@ -274,6 +282,16 @@ public class DataManager {
         dataGeneralized.getDictionary().finalizeAll();
         dataAnalyzed.getDictionary().finalizeAll();
 
+        // Pack generalized data, if requested
+        if (config.isUseBitPackedStorage() && !config.isUseOffHeapStorage() && dataGeneralized.getArray() != null) {
+            DataMatrix source = dataGeneralized.getArray();
+            DataMatrix packed = DataMatrix.create(source.getNumRows(), source.getNumColumns(), hierarchiesGeneralized, config);
+            for (int row = 0; row < source.getNumRows(); row++) {
+                packed.copyFrom(row, source, row);
+            }
+            this.dataGeneralized = Data.createWrapper(packed, dataGeneralized.getHeader(), dataGeneralized.getColumns(), dataGeneralized.getDictionary());
+        }
+
         // Store research subset
         for (PrivacyCriterion c : config.getPrivacyModels()) {
             if (c instanceof EDDifferentialPrivacy) {
@@ -338,6 +356,25 @@ public class DataManager {
         this.subsetSize = 0;
     }
 
+    /**
+     * Returns the cardinalities of the values of all generalized quasi-identifiers
+     * in the given subset, which may be <code>null</code>.
+     * 
+     * @param subset
+     * @return
+     */
+    public Cardinalities getCardinalities(RowSet subset) {
+
+        // Build on-demand
+        if (this.cardinalities == null || this.cardinalitiesSubset != subset) {
+            this.cardinalities = new Cardinalities(dataGeneralized, subset, hierarchiesGeneralized);
+            this.cardinalitiesSubset = subset;
+        }
+
+        // Return
+        return this.cardinalities;
+    }
+
     /**
      * Returns the input data that will be analyzed.
      * 
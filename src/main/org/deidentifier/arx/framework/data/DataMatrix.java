@@ -19,6 +19,9 @@ package org.deidentifier.arx.framework.data;
 
 import java.io.Serializable;
 
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.ARXConfiguration.ARXConfigurationInternal;
+
 
 /**
  * A fast implementation of an array of arrays of equal size
@@ -30,6 +33,96 @@ public class DataMatrix implements Serializable {
     /** SVUID */
     private static final long serialVersionUID = 1626391500373995527L;
 
+    /**
+     * Creates a new matrix, which is stored as specified by the given configuration
+     *
+     * @param rows
+     * @param columns
+     * @param config
+     * @return
+     */
+    public static DataMatrix create(final int rows, final int columns, final ARXConfiguration config) {
+        return create(rows, columns, null, config.isUseOffHeapStorage(), config.getOffHeapStorageDirectory());
+    }
+
+    /**
+     * Creates a new matrix for generalized data, which is stored as specified by the given configuration
+     *
+     * @param rows
+     * @param columns
+     * @param hierarchies The hierarchies of the columns
+     * @param config
+     * @return
+     */
+    public static DataMatrix create(final int rows, final int columns, final GeneralizationHierarchy[] hierarchies, final ARXConfiguration config) {
+        return create(rows, columns, config.isUseBitPackedStorage() ? getDomainSizes(hierarchies) : null,
+                      config.isUseOffHeapStorage(), config.getOffHeapStorageDirectory());
+    }
+
+    /**
+     * Creates a new matrix, which is stored as specified by the given configuration
+     *
+     * @param rows
+     * @param columns
+     * @param config
+     * @return
+     */
+    public static DataMatrix create(final int rows, final int columns, final ARXConfigurationInternal config) {
+        return create(rows, columns, null, config.isUseOffHeapStorage(), config.getOffHeapStorageDirectory());
+    }
+
+    /**
+     * Creates a new matrix for generalized data, which is stored as specified by the given configuration
+     *
+     * @param rows
+     * @param columns
+     * @param hierarchies The hierarchies of the columns
+     * @param config
+     * @return
+     */
+    public static DataMatrix create(final int rows, final int columns, final GeneralizationHierarchy[] hierarchies, final ARXConfigurationInternal config) {
+        return create(rows, columns, config.isUseBitPackedStorage() ? getDomainSizes(hierarchies) : null,
+                      config.isUseOffHeapStorage(), config.getOffHeapStorageDirectory());
+    }
+
+    /**
+     * Creates a new matrix. Off-heap storage takes precedence over bit-packed storage.
+     *
+     * @param rows
+     * @param columns
+     * @param domainSizes Domain sizes for bit-packed storage, null if values should not be packed
+     * @param offHeap
+     * @param directory
+     * @return
+     */
+    private static DataMatrix create(final int rows, final int columns, final int[] domainSizes, final boolean offHeap, final String directory) {
+        if (offHeap && rows > 0 && columns > 0) {
+            return new DataMatrixOffHeap(rows, columns, directory);
+        } else if (domainSizes != null && rows > 0 && columns > 0 && domainSizes.length == columns) {
+            return new DataMatrixPacked(rows, columns, domainSizes);
+        } else {
+            return new DataMatrix(rows, columns);
+        }
+    }
+
+    /**
+     * Returns the number of distinct codes used in each of the given hierarchies
+     *
+     * @param hierarchies
+     * @return
+     */
+    private static int[] getDomainSizes(final GeneralizationHierarchy[] hierarchies) {
+        int[] result = new int[hierarchies.length];
+        for (int i = 0; i < hierarchies.length; i++) {
+            for (int[] values : hierarchies[i].getArray()) {
+                for (int value : values) {
+                    result[i] = Math.max(result[i], value + 1);
+                }
+            }
+        }
+        return result;
+    }
+
     /** Backing array */
     private final int[]       array;
 
@@ -65,6 +158,37 @@ public class DataMatrix implements Serializable {
         }
     }
 
+    /**
+     * Instantiates a new memory block, which is backed by the given array in row-major
+     * order. The array is not copied and may contain additional cells at its end.
+     *
+     * @param rows the num rows
+     * @param columns the num columns
+     * @param array the array
+     */
+    public DataMatrix(final int rows, final int columns, final int[] array) {
+        try {
+            if (Math.multiplyExact(rows, columns) > array.length) {
+                throw new IllegalArgumentException("Array is too small");
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Not more then 2^31-1 cells supported");
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.array = array;
+    }
+
+    /**
+     * Creates a view on the given matrix
+     * @param matrix
+     */
+    private DataMatrix(final DataMatrix matrix) {
+        this.columns = matrix.columns;
+        this.rows = matrix.rows;
+        this.array = matrix.array;
+    }
+
     /**
      * ANDs the first value of the row with the given value
      * @param row
@@ -77,7 +201,7 @@ public class DataMatrix implements Serializable {
     @Override
     public DataMatrix clone() {
         DataMatrix result = new DataMatrix(this.rows, this.columns);
-        System.arraycopy(this.array, 0, result.array, 0, this.array.length);
+        System.arraycopy(this.array, 0, result.array, 0, result.array.length);
         return result;
     }
     
@@ -88,6 +212,12 @@ public class DataMatrix implements Serializable {
      * @param sourceRow
      */
     public void copyFrom(int row, DataMatrix sourceMatrix, int sourceRow) {
+        if (sourceMatrix.getClass() != DataMatrix.class) {
+            for (int column = 0; column < columns; column++) {
+                this.array[row * columns + column] = sourceMatrix.get(sourceRow, column);
+            }
+            return;
+        }
         int sourceOffset = sourceRow * columns;
         int thisOffset = row * columns;
         System.arraycopy(sourceMatrix.array, sourceOffset, this.array, thisOffset, columns);
@@ -272,6 +402,16 @@ public class DataMatrix implements Serializable {
         return this.array[baseOffset + column];
     }
 
+    /**
+     * Returns a view on this matrix, which shares the backing data but maintains
+     * its own state for row-based access and iteration. Views can be used to access
+     * the same matrix from multiple threads.
+     * @return
+     */
+    public DataMatrix getView() {
+        return new DataMatrix(this);
+    }
+
     /**
      * Returns an hashcode for the given row
      * @param row
@@ -292,7 +432,7 @@ public class DataMatrix implements Serializable {
      * @param array
      * @return the hashcode
      */
-    public final int hashCode(final int[] array) {
+    public int hashCode(final int[] array) {
         final int len = array.length;
         int result = 23;
         int i = 0;
@@ -0,0 +1,384 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.deidentifier.arx.framework.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * A data matrix which is stored outside of the Java heap, either in direct buffers or
+ * in memory-mapped files. The matrix is split into segments of whole rows, which means
+ * that the number of cells is not limited to 2^31-1.
+ *
+ * @author Fabian Prasser
+ */
+public class DataMatrixOffHeap extends DataMatrix {
+
+    /** SVUID */
+    private static final long serialVersionUID = -3474001946434771233L;
+
+    /** Maximal number of cells per segment */
+    private static final int  MAX_SEGMENT_SIZE = 1 << 28;
+
+    /** Segments */
+    private final IntBuffer[] segments;
+
+    /** Number of rows per segment */
+    private final int         rowsPerSegment;
+
+    /** The number of rows. */
+    private final int         rows;
+
+    /** The number of columns. */
+    private final int         columns;
+
+    /** Directory for memory-mapped files, null if direct buffers are used */
+    private final String      directory;
+
+    /** Iterate */
+    private IntBuffer         iteratorSegment;
+
+    /** Iterate */
+    private int               iteratorI        = 0;
+
+    /** Iterate */
+    private int               iteratorOffset   = 0;
+
+    /** Row access */
+    private IntBuffer         baseSegment;
+
+    /** Row access */
+    private int               baseOffset       = 0;
+
+    /**
+     * Creates a new instance
+     *
+     * @param rows
+     * @param columns
+     * @param directory Directory for memory-mapped files, null if direct buffers should be used
+     */
+    public DataMatrixOffHeap(final int rows, final int columns, final String directory) {
+        super(0, 0);
+        if (columns <= 0) {
+            throw new IllegalArgumentException("Number of columns must be > 0");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.directory = directory;
+        this.rowsPerSegment = Math.max(1, MAX_SEGMENT_SIZE / columns);
+        this.segments = new IntBuffer[(rows + rowsPerSegment - 1) / rowsPerSegment];
+        try {
+            RandomAccessFile file = null;
+            File path = null;
+            if (directory != null) {
+                path = File.createTempFile("arx", ".matrix", new File(directory));
+                path.deleteOnExit();
+                file = new RandomAccessFile(path, "rw");
+            }
+            try {
+                long position = 0;
+                for (int i = 0; i < segments.length; i++) {
+                    int segmentRows = Math.min(rowsPerSegment, rows - i * rowsPerSegment);
+                    int bytes = segmentRows * columns * 4;
+                    ByteBuffer buffer;
+                    if (file == null) {
+                        buffer = ByteBuffer.allocateDirect(bytes);
+                    } else {
+                        buffer = file.getChannel().map(MapMode.READ_WRITE, position, bytes);
+                        position += bytes;
+                    }
+                    this.segments[i] = buffer.order(ByteOrder.nativeOrder()).asIntBuffer();
+                }
+            } finally {
+                if (file != null) {
+                    file.close();
+                    path.delete();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot create memory-mapped file in: " + directory, e);
+        }
+        this.baseSegment = segments.length > 0 ? segments[0] : null;
+    }
+
+    /**
+     * Creates a view on the given matrix
+     * @param matrix
+     */
+    private DataMatrixOffHeap(final DataMatrixOffHeap matrix) {
+        super(0, 0);
+        this.rows = matrix.rows;
+        this.columns = matrix.columns;
+        this.directory = matrix.directory;
+        this.rowsPerSegment = matrix.rowsPerSegment;
+        this.segments = matrix.segments;
+        this.baseSegment = segments.length > 0 ? segments[0] : null;
+    }
+
+    @Override
+    public void and(int row, int value) {
+        IntBuffer segment = segment(row);
+        int offset = offset(row);
+        segment.put(offset, segment.get(offset) & value);
+    }
+
+    @Override
+    public DataMatrix clone() {
+        DataMatrixOffHeap result = new DataMatrixOffHeap(this.rows, this.columns, this.directory);
+        for (int i = 0; i < segments.length; i++) {
+            IntBuffer source = segments[i].duplicate();
+            source.clear();
+            IntBuffer target = result.segments[i].duplicate();
+            target.clear();
+            target.put(source);
+        }
+        return result;
+    }
+
+    @Override
+    public void copyFrom(int row, DataMatrix sourceMatrix, int sourceRow) {
+        IntBuffer segment = segment(row);
+        int offset = offset(row);
+        for (int column = 0; column < columns; column++) {
+            segment.put(offset + column, sourceMatrix.get(sourceRow, column));
+        }
+    }
+
+    @Override
+    public boolean equals(final int row1, final int row2) {
+        return equals(row1, row2, ~0);
+    }
+
+    @Override
+    public boolean equals(int row, int[] data) {
+        IntBuffer segment = segment(row);
+        int offset = offset(row);
+        for (int i = 0; i < columns; i++) {
+            if (segment.get(offset++) != data[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equalsIgnore(int row1, int row2, int ignore) {
+        IntBuffer segment1 = segment(row1);
+        IntBuffer segment2 = segment(row2);
+        int offset1 = offset(row1);
+        int offset2 = offset(row2);
+        for (int i = 0; i < columns; i++) {
+            if ((ignore != i) && segment1.get(offset1 + i) != segment2.get(offset2 + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equalsIgnoringOutliers(int row1, int row2) {
+        return equals(row1, row2, Data.REMOVE_OUTLIER_MASK);
+    }
+
+    @Override
+    public int get(final int row, final int col) {
+        return segment(row).get(offset(row) + col);
+    }
+
+    @Override
+    public int getNumColumns() {
+        return columns;
+    }
+
+    @Override
+    public int getNumRows() {
+        return rows;
+    }
+
+    @Override
+    public int getValueAtColumn(int column) {
+        return baseSegment.get(baseOffset + column);
+    }
+
+    @Override
+    public DataMatrix getView() {
+        return new DataMatrixOffHeap(this);
+    }
+
+    @Override
+    public int hashCode(final int row) {
+        IntBuffer segment = segment(row);
+        int offset = offset(row);
+        int result = 23;
+        for (int i = 0; i < columns; i++) {
+            result = (37 * result) + segment.get(offset++);
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCodeIgnore(final int row, final int ignore) {
+        IntBuffer segment = segment(row);
+        int offset = offset(row);
+        int result = 23;
+        for (int i = 0; i < columns; i++) {
+            result = (i == ignore) ? result : ((37 * result) + segment.get(offset));
+            offset++;
+        }
+        return result;
+    }
+
+    @Override
+    public void iterator(int row) {
+        iteratorSegment = segment(row);
+        iteratorOffset = offset(row);
+        iteratorI = 0;
+    }
+
+    @Override
+    public boolean iterator_hasNext() {
+        return iteratorI < columns;
+    }
+
+    @Override
+    public int iterator_next() {
+        int result = iteratorSegment.get(iteratorOffset++);
+        iteratorI++;
+        return result;
+    }
+
+    @Override
+    public void iterator_write(int value) {
+        iteratorSegment.put(iteratorOffset++, value);
+        iteratorI++;
+    }
+
+    @Override
+    public void or(int row, int value) {
+        IntBuffer segment = segment(row);
+        int offset = offset(row);
+        segment.put(offset, segment.get(offset) | value);
+    }
+
+    @Override
+    public void set(int row, int column, int value) {
+        segment(row).put(offset(row) + column, value);
+    }
+
+    @Override
+    public void setRow(int row) {
+        this.baseSegment = segment(row);
+        this.baseOffset = offset(row);
+    }
+
+    @Override
+    public void setRow(int row, int[] data) {
+        IntBuffer segment = segment(row);
+        int offset = offset(row);
+        for (int i = 0; i < data.length; i++) {
+            segment.put(offset + i, data[i]);
+        }
+    }
+
+    @Override
+    public void setValueAtColumn(int column, int value) {
+        baseSegment.put(baseOffset + column, value);
+    }
+
+    @Override
+    public void swap(int row1, int row2) {
+        IntBuffer segment1 = segment(row1);
+        IntBuffer segment2 = segment(row2);
+        int offset1 = offset(row1);
+        int offset2 = offset(row2);
+        for (int i = 0; i < this.columns; i++) {
+            int temp = segment1.get(offset1);
+            segment1.put(offset1, segment2.get(offset2));
+            segment2.put(offset2, temp);
+            offset1++;
+            offset2++;
+        }
+    }
+
+    /**
+     * Internal equals
+     * @param row1
+     * @param row2
+     * @param flag
+     * @return
+     */
+    private boolean equals(int row1, int row2, int flag) {
+        IntBuffer segment1 = segment(row1);
+        IntBuffer segment2 = segment(row2);
+        int offset1 = offset(row1);
+        int offset2 = offset(row2);
+        if ((segment1.get(offset1) & flag) != (segment2.get(offset2) & flag)) {
+            return false;
+        }
+        for (int i = 1; i < columns; i++) {
+            if (segment1.get(offset1 + i) != segment2.get(offset2 + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the offset of the given row in its segment
+     * @param row
+     * @return
+     */
+    private int offset(int row) {
+        return (row % rowsPerSegment) * columns;
+    }
+
+    /**
+     * Returns the segment containing the given row
+     * @param row
+     * @return
+     */
+    private IntBuffer segment(int row) {
+        return segments[row / rowsPerSegment];
+    }
+
+    /**
+     * Replaces this object with a matrix on the heap when serialized
+     * @return
+     */
+    private Object writeReplace() {
+        DataMatrix result = new DataMatrix(this.rows, this.columns);
+        for (int row = 0; row < rows; row++) {
+            result.copyFrom(row, this, row);
+        }
+        return result;
+    }
+
+    @Override
+    protected DataMatrix clone(int[] subset) {
+        DataMatrixOffHeap result = new DataMatrixOffHeap(subset.length, this.columns, this.directory);
+        for (int row = 0; row < subset.length; row++) {
+            result.copyFrom(row, this, subset[row]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.deidentifier.arx.framework.data;
+
+/**
+ * A data matrix in which each column is packed into the minimal number of bits
+ * required for the size of its domain. Rows are stored in consecutive longs and
+ * columns do not span multiple longs. The first column has an additional bit for
+ * the outlier flag. Rows are hashed and compared word by word.
+ *
+ * @author Fabian Prasser
+ */
+public class DataMatrixPacked extends DataMatrix {
+
+    /** SVUID */
+    private static final long serialVersionUID = 5402563470779858617L;
+
+    /** Backing array */
+    private final long[]      array;
+
+    /** The number of rows. */
+    private final int         rows;
+
+    /** The number of columns. */
+    private final int         columns;
+
+    /** The number of words per row */
+    private final int         words;
+
+    /** Word of each column */
+    private final int[]       columnWord;
+
+    /** Shift of each column */
+    private final int[]       columnShift;
+
+    /** Mask of each column */
+    private final long[]      columnMask;
+
+    /** The flag which marks outliers in the first column */
+    private final long        outlierFlag;
+
+    /** Iterate */
+    private int               iteratorI        = 0;
+
+    /** Iterate */
+    private int               iteratorOffset   = 0;
+
+    /** Row access */
+    private int               baseOffset       = 0;
+
+    /**
+     * Creates a new instance
+     *
+     * @param rows
+     * @param columns
+     * @param domainSizes The number of distinct codes in each column
+     */
+    public DataMatrixPacked(final int rows, final int columns, final int[] domainSizes) {
+        super(0, 0);
+        if (columns <= 0) {
+            throw new IllegalArgumentException("Number of columns must be > 0");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.columnWord = new int[columns];
+        this.columnShift = new int[columns];
+        this.columnMask = new long[columns];
+
+        // Determine layout
+        int word = 0;
+        int used = 0;
+        long outlierFlag = 0;
+        for (int column = 0; column < columns; column++) {
+            int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(domainSizes[column] - 1));
+            if (column == 0) {
+                outlierFlag = 1L << bits;
+                bits++;
+            }
+            if (used + bits > 64) {
+                word++;
+                used = 0;
+            }
+            columnWord[column] = word;
+            columnShift[column] = used;
+            columnMask[column] = bits == 64 ? ~0L : (1L << bits) - 1L;
+            used += bits;
+        }
+        this.outlierFlag = outlierFlag;
+        this.words = word + 1;
+
+        // Allocate
+        try {
+            this.array = new long[Math.multiplyExact(rows, words)];
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Not more then 2^31-1 words supported");
+        }
+    }
+
+    /**
+     * Creates a view on the given matrix
+     * @param matrix
+     */
+    private DataMatrixPacked(final DataMatrixPacked matrix) {
+        super(0, 0);
+        this.array = matrix.array;
+        this.rows = matrix.rows;
+        this.columns = matrix.columns;
+        this.words = matrix.words;
+        this.columnWord = matrix.columnWord;
+        this.columnShift = matrix.columnShift;
+        this.columnMask = matrix.columnMask;
+        this.outlierFlag = matrix.outlierFlag;
+    }
+
+    /**
+     * Creates a copy of the given matrix with the given number of rows
+     * @param matrix
+     * @param rows
+     */
+    private DataMatrixPacked(final DataMatrixPacked matrix, final int rows) {
+        super(0, 0);
+        this.array = new long[rows * matrix.words];
+        this.rows = rows;
+        this.columns = matrix.columns;
+        this.words = matrix.words;
+        this.columnWord = matrix.columnWord;
+        this.columnShift = matrix.columnShift;
+        this.columnMask = matrix.columnMask;
+        this.outlierFlag = matrix.outlierFlag;
+    }
+
+    @Override
+    public void and(int row, int value) {
+        int offset = row * words;
+        write(offset, 0, read(offset, 0) & value);
+    }
+
+    @Override
+    public DataMatrix clone() {
+        DataMatrixPacked result = new DataMatrixPacked(this, this.rows);
+        System.arraycopy(this.array, 0, result.array, 0, this.array.length);
+        return result;
+    }
+
+    @Override
+    public void copyFrom(int row, DataMatrix sourceMatrix, int sourceRow) {
+        int offset = row * words;
+        if (sourceMatrix instanceof DataMatrixPacked && ((DataMatrixPacked) sourceMatrix).columnWord == this.columnWord) {
+            System.arraycopy(((DataMatrixPacked) sourceMatrix).array, sourceRow * words, this.array, offset, words);
+        } else {
+            for (int column = 0; column < columns; column++) {
+                write(offset, column, sourceMatrix.get(sourceRow, column));
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(final int row1, final int row2) {
+        return equals(row1, row2, ~0L);
+    }
+
+    @Override
+    public boolean equals(int row, int[] data) {
+        int offset = row * words;
+        for (int i = 0; i < columns; i++) {
+            if (read(offset, i) != data[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equalsIgnore(int row1, int row2, int ignore) {
+        int offset1 = row1 * words;
+        int offset2 = row2 * words;
+        for (int i = 0; i < columns; i++) {
+            if ((ignore != i) && read(offset1, i) != read(offset2, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equalsIgnoringOutliers(int row1, int row2) {
+        return equals(row1, row2, ~outlierFlag);
+    }
+
+    @Override
+    public int get(final int row, final int col) {
+        return read(row * words, col);
+    }
+
+    @Override
+    public int getNumColumns() {
+        return columns;
+    }
+
+    @Override
+    public int getNumRows() {
+        return rows;
+    }
+
+    @Override
+    public int getValueAtColumn(int column) {
+        return read(baseOffset, column);
+    }
+
+    @Override
+    public DataMatrix getView() {
+        return new DataMatrixPacked(this);
+    }
+
+    @Override
+    public int hashCode(final int row) {
+        return hashCode(this.array, row * words);
+    }
+
+    @Override
+    public int hashCode(final int[] tuple) {
+
+        // Pack the tuple word by word, consistent with hashCode(long[], int)
+        int result = 23;
+        int current = 0;
+        long word = 0L;
+        for (int column = 0; column < columns; column++) {
+            if (columnWord[column] != current) {
+                result = hashCode(result, word);
+                current = columnWord[column];
+                word = 0L;
+            }
+            word |= encode(column, tuple[column]) << columnShift[column];
+        }
+        return hashCode(result, word);
+    }
+
+    @Override
+    public int hashCodeIgnore(final int row, final int ignore) {
+        int offset = row * words;
+        int result = 23;
+        for (int i = 0; i < columns; i++) {
+            result = (i == ignore) ? result : ((37 * result) + read(offset, i));
+        }
+        return result;
+    }
+
+    @Override
+    public void iterator(int row) {
+        iteratorOffset = row * words;
+        iteratorI = 0;
+    }
+
+    @Override
+    public boolean iterator_hasNext() {
+        return iteratorI < columns;
+    }
+
+    @Override
+    public int iterator_next() {
+        return read(iteratorOffset, iteratorI++);
+    }
+
+    @Override
+    public void iterator_write(int value) {
+        write(iteratorOffset, iteratorI++, value);
+    }
+
+    @Override
+    public void or(int row, int value) {
+        int offset = row * words;
+        write(offset, 0, read(offset, 0) | value);
+    }
+
+    @Override
+    public void set(int row, int column, int value) {
+        write(row * words, column, value);
+    }
+
+    @Override
+    public void setRow(int row) {
+        this.baseOffset = row * words;
+    }
+
+    @Override
+    public void setRow(int row, int[] data) {
+        int offset = row * words;
+        for (int i = 0; i < data.length; i++) {
+            write(offset, i, data[i]);
+        }
+    }
+
+    @Override
+    public void setValueAtColumn(int column, int value) {
+        write(baseOffset, column, value);
+    }
+
+    @Override
+    public void swap(int row1, int row2) {
+        int offset1 = row1 * words;
+        int offset2 = row2 * words;
+        for (int i = 0; i < words; i++) {
+            long temp = this.array[offset1];
+            this.array[offset1] = this.array[offset2];
+            this.array[offset2] = temp;
+            offset1++;
+            offset2++;
+        }
+    }
+
+    /**
+     * Internal equals
+     * @param row1
+     * @param row2
+     * @param mask Mask for the first word
+     * @return
+     */
+    private boolean equals(int row1, int row2, long mask) {
+        int offset1 = row1 * words;
+        int offset2 = row2 * words;
+        if ((this.array[offset1] & mask) != (this.array[offset2] & mask)) {
+            return false;
+        }
+        for (int i = 1; i < words; i++) {
+            if (this.array[offset1 + i] != this.array[offset2 + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes a hash code for the words of a row
+     * @param array
+     * @param offset
+     * @return
+     */
+    private int hashCode(final long[] array, int offset) {
+        int result = 23;
+        for (int i = 0; i < words; i++) {
+            result = hashCode(result, array[offset++]);
+        }
+        return result;
+    }
+
+    /**
+     * Adds a word to a hash code
+     * @param result
+     * @param word
+     * @return
+     */
+    private int hashCode(final int result, long word) {
+        word *= 0x9E3779B97F4A7C15L;
+        return (37 * result) + (int) (word >>> 32);
+    }
+
+    /**
+     * Encodes a value of the given column, without shifting it to its position
+     * @param column
+     * @param value
+     * @return
+     */
+    private long encode(int column, int value) {
+        long encoded = value & Data.REMOVE_OUTLIER_MASK;
+        if (column == 0 && (value & Data.OUTLIER_MASK) != 0) {
+            encoded |= outlierFlag;
+        }
+        return encoded & columnMask[column];
+    }
+
+    /**
+     * Decodes a value
+     * @param offset Offset of the row
+     * @param column
+     * @return
+     */
+    private int read(int offset, int column) {
+        long value = (this.array[offset + columnWord[column]] >>> columnShift[column]) & columnMask[column];
+        if (column == 0 && (value & outlierFlag) != 0) {
+            return (int) (value & ~outlierFlag) | Data.OUTLIER_MASK;
+        }
+        return (int) value;
+    }
+
+    /**
+     * Encodes a value
+     * @param offset Offset of the row
+     * @param column
+     * @param value
+     */
+    private void write(int offset, int column, int value) {
+        int index = offset + columnWord[column];
+        int shift = columnShift[column];
+        this.array[index] = (this.array[index] & ~(columnMask[column] << shift)) | (encode(column, value) << shift);
+    }
+
+    @Override
+    protected DataMatrix clone(int[] subset) {
+        DataMatrixPacked result = new DataMatrixPacked(this, subset.length);
+        int targetOffset = 0;
+        for (int source : subset) {
+            System.arraycopy(this.array, source * words, result.array, targetOffset, words);
+            targetOffset += words;
+        }
+        return result;
+    }
+}
@@ -88,6 +88,11 @@ public class DataMatrixSubset extends DataMatrix {
         return matrix.getValueAtColumn(column);
     }
 
+    @Override
+    public DataMatrix getView() {
+        return new DataMatrixSubset(matrix.getView(), subset);
+    }
+
     @Override
     public int hashCode(int row) {
         return matrix.hashCode(subset[row]);
@@ -53,6 +53,20 @@ public class Dictionary implements Serializable {
         }
     }
     
+    /**
+     * Instantiates a new dictionary, which is finalized and contains the given mapping. Each
+     * dimension must not contain duplicate values.
+     * 
+     * @param mapping
+     */
+    public Dictionary(String[][] mapping) {
+        this.maps = null;
+        this.mapping = new String[mapping.length][];
+        for (int i = 0; i < mapping.length; i++) {
+            this.mapping[i] = mapping[i].clone();
+        }
+    }
+    
     /**
      * Instantiates a new dictionary.
      * 
@@ -24,8 +24,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.deidentifier.arx.DataType;
 
@@ -81,6 +93,178 @@ public class CSVDataInput {
         }
     }
 
+    /**
+     * Iterator which splits the input into chunks of complete lines and parses them in
+     * parallel. Rows are returned in the original order. The number of chunks which are
+     * held in memory at the same time is bounded.
+     *
+     * @author Fabian Prasser
+     */
+    private class ParallelIterator implements Iterator<String[]> {
+
+        /** Executor */
+        private final ExecutorService                executor;
+
+        /** Maximal number of chunks which are parsed concurrently */
+        private final int                            maxPending;
+
+        /** Chunks which are being parsed */
+        private final Queue<Future<List<String[]>>> pending = new ArrayDeque<Future<List<String[]>>>();
+
+        /** Rows of the current chunk */
+        private List<String[]>                       rows    = null;
+
+        /** Index of the next row in the current chunk */
+        private int                                  index   = 0;
+
+        /** Buffer for characters which have been read */
+        private char[]                               buffer  = new char[1024];
+
+        /** Number of characters in the buffer */
+        private int                                  length  = 0;
+
+        /** Number of characters in the buffer which have been scanned */
+        private int                                  scanned = 0;
+
+        /** End of the last complete line in the buffer */
+        private int                                  split   = 0;
+
+        /** Whether the scanner is in a quoted value */
+        private boolean                              quoted  = false;
+
+        /** Whether the end of the input has been reached */
+        private boolean                              eof     = false;
+
+        /**
+         * Creates a new instance
+         * @param threads
+         */
+        private ParallelIterator(int threads) {
+            this.maxPending = threads * 2;
+            this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ARX CSV parser");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (rows == null || index == rows.size()) {
+                    fill();
+                    if (pending.isEmpty()) {
+                        close();
+                        return false;
+                    }
+                    rows = pending.poll().get();
+                    index = 0;
+                }
+                return true;
+            } catch (IOException | InterruptedException | ExecutionException e) {
+                close();
+                throw new RuntimeException("Error parsing CSV input", e);
+            }
+        }
+
+        @Override
+        public String[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String[] result = rows.get(index);
+            rows.set(index++, null);
+            return cleanse(result);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Not implemented");
+        }
+
+        /**
+         * Shuts down the executor and closes the reader
+         */
+        private void close() {
+            executor.shutdownNow();
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+
+        /**
+         * Submits chunks for parsing, until enough chunks are pending
+         * @throws IOException
+         */
+        private void fill() throws IOException {
+            while (pending.size() < maxPending) {
+                final String chunk = readChunk();
+                if (chunk == null) {
+                    return;
+                }
+                pending.add(executor.submit(new Callable<List<String[]>>() {
+                    @Override
+                    public List<String[]> call() throws Exception {
+                        return new CsvParser(createSettings(delimiter, quote, escape, linebreak, options)).parseAll(new StringReader(chunk));
+                    }
+                }));
+            }
+        }
+
+        /**
+         * Reads the next chunk of complete lines, null if there is no further input
+         * @return
+         * @throws IOException
+         */
+        private String readChunk() throws IOException {
+            char separator = linebreak[linebreak.length - 1];
+            while (true) {
+
+                // Scan for line breaks which are not quoted
+                for (; scanned < length; scanned++) {
+                    char c = buffer[scanned];
+                    if (quoted && c == escape && escape != quote) {
+                        scanned++;
+                    } else if (c == quote) {
+                        quoted = !quoted;
+                    } else if (!quoted && c == separator) {
+                        split = scanned + 1;
+                    }
+                }
+
+                // Return chunk
+                if ((split > 0 && length >= chunkSize) || eof) {
+                    int end = eof ? length : split;
+                    if (end == 0) {
+                        return null;
+                    }
+                    String chunk = new String(buffer, 0, end);
+                    System.arraycopy(buffer, end, buffer, 0, length - end);
+                    length -= end;
+                    scanned -= end;
+                    split = 0;
+                    return chunk;
+                }
+
+                // Read
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length << 1);
+                }
+                int read = reader.read(buffer, length, buffer.length - length);
+                if (read == -1) {
+                    eof = true;
+                } else {
+                    length += read;
+                }
+            }
+        }
+    }
+
     /** A reader. */
     private final Reader            reader;
 
@@ -92,6 +276,27 @@ public class CSVDataInput {
 
     /** The data type for each column */
     private final DataType<?>[]     datatypes;
+
+    /** Delimiter */
+    private final char              delimiter;
+
+    /** Quote */
+    private final char              quote;
+
+    /** Escape */
+    private final char              escape;
+
+    /** Line break */
+    private final char[]            linebreak;
+
+    /** Options */
+    private final CSVOptions        options;
+
+    /** Number of threads used for parsing */
+    private final int               numThreads;
+
+    /** Number of characters per chunk, if parsed in parallel */
+    private final int               chunkSize;
     
     /**
      * Instantiate.
@@ -335,6 +540,13 @@ public class CSVDataInput {
         } else {
             cleansing = false;
         }
+        this.delimiter = delimiter;
+        this.quote = quote;
+        this.escape = escape;
+        this.linebreak = linebreak;
+        this.options = options;
+        this.numThreads = options != null ? options.getNumThreads() : 1;
+        this.chunkSize = options != null ? options.getChunkSize() : CSVOptions.DEFAULT_CHUNK_SIZE;
         settings = createSettings(delimiter, quote, escape, linebreak, options);
     }
 
@@ -445,11 +657,18 @@ public class CSVDataInput {
 
     /**
      * Returns an iterator. <b>You must iterate trough all elements to prevent resource leaks!</b>
+     * If multiple threads have been configured in the options, the input is split into chunks
+     * of complete lines, which are parsed in parallel.
      * 
      * @return the iterator
      */
     public Iterator<String[]> iterator() {
 
+        // Parallel
+        if (numThreads > 1) {
+            return new ParallelIterator(numThreads);
+        }
+
         return new Iterator<String[]>() {
 
             // Next tuple
@@ -476,21 +695,7 @@ public class CSVDataInput {
                 initParser();
                 String[] result = next;
                 next = parser.parseNext();
-                
-                // Replace each non matching value with the special NULL string
-                if (cleansing) {
-
-                    if (result.length != datatypes.length) {
-                        throw new IllegalArgumentException("More columns available in CSV file than data types specified");
-                    }
-
-                    for (int i = 0; i < result.length; i++) {
-                        if (!datatypes[i].isValid(result[i])) {
-                            result[i] = DataType.NULL_VALUE;
-                        }
-                    }
-                }
-                return result;
+                return cleanse(result);
             }
 
             @Override
@@ -511,6 +716,28 @@ public class CSVDataInput {
         };
     }
 
+    /**
+     * Replaces each value which does not match its data type with the special NULL string, if enabled
+     *
+     * @param result
+     * @return
+     */
+    private String[] cleanse(String[] result) {
+        if (cleansing) {
+
+            if (result.length != datatypes.length) {
+                throw new IllegalArgumentException("More columns available in CSV file than data types specified");
+            }
+
+            for (int i = 0; i < result.length; i++) {
+                if (!datatypes[i].isValid(result[i])) {
+                    result[i] = DataType.NULL_VALUE;
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Creates the CsvParserSettings.
      *
@@ -0,0 +1,124 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.io;
+
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+
+import com.univocity.parsers.csv.CsvWriter;
+
+/**
+ * Encodes values into the bytes of CSV fields, including quotes and escapes. Fields are encoded
+ * exactly like they are written by {@link CSVDataOutput}, which means that data can be written
+ * from pre-encoded values without processing every cell.
+ *
+ * @author Fabian Prasser
+ */
+public class CSVEncoder {
+
+    /** The buffer */
+    private final StringWriter buffer;
+
+    /** The writer */
+    private final CsvWriter    writer;
+
+    /** The charset */
+    private final Charset      charset;
+
+    /** The linebreak */
+    private final String       linebreak;
+
+    /** The delimiter */
+    private final byte[]       delimiterBytes;
+
+    /** The linebreak */
+    private final byte[]       linebreakBytes;
+
+    /**
+     * Creates a new instance
+     *
+     * @param config
+     * @param charset
+     */
+    public CSVEncoder(final CSVSyntax config, final Charset charset) {
+        this.charset = charset;
+        this.buffer = new StringWriter();
+        this.writer = new CsvWriter(buffer, CSVDataOutput.createSettings(config.getDelimiter(),
+                                                                         config.getQuote(),
+                                                                         config.getEscape(),
+                                                                         config.getLinebreak(),
+                                                                         null));
+        this.linebreak = new String(config.getLinebreak());
+        this.delimiterBytes = String.valueOf(config.getDelimiter()).getBytes(charset);
+        this.linebreakBytes = linebreak.getBytes(charset);
+    }
+
+    /**
+     * Encodes a single value as a field, without delimiters or linebreaks
+     *
+     * @param value
+     * @return
+     */
+    public byte[] encode(final String value) {
+        String field = write(new String[] { value });
+        if (field.endsWith(linebreak)) {
+            field = field.substring(0, field.length() - linebreak.length());
+        }
+        return field.getBytes(charset);
+    }
+
+    /**
+     * Encodes a complete row, including the linebreak
+     *
+     * @param row
+     * @return
+     */
+    public byte[] encode(final String[] row) {
+        return write(row).getBytes(charset);
+    }
+
+    /**
+     * Returns the encoded delimiter
+     *
+     * @return
+     */
+    public byte[] getDelimiter() {
+        return delimiterBytes;
+    }
+
+    /**
+     * Returns the encoded linebreak
+     *
+     * @return
+     */
+    public byte[] getLinebreak() {
+        return linebreakBytes;
+    }
+
+    /**
+     * Writes a row into the buffer and returns the result
+     *
+     * @param row
+     * @return
+     */
+    private String write(final String[] row) {
+        buffer.getBuffer().setLength(0);
+        writer.writeRow((Object[]) row);
+        return buffer.toString();
+    }
+}
@@ -28,11 +28,20 @@ import com.univocity.parsers.csv.CsvWriterSettings;
  */
 public class CSVOptions implements Serializable { // NO_UCD
 
+    /** Default number of characters per chunk, if parsed in parallel */
+    public static final int   DEFAULT_CHUNK_SIZE = 1 << 22;
+
     /** SVUID */
     private static final long serialVersionUID = 2422613628612481137L;
 
     /** The max columns. */
     private Integer           maxColumns;
+
+    /** The number of threads used for parsing. */
+    private Integer           numThreads = 1;
+
+    /** The number of characters per chunk, if parsed in parallel. */
+    private Integer           chunkSize  = DEFAULT_CHUNK_SIZE;
     
     /**
      * Creates new options
@@ -42,6 +51,17 @@ public class CSVOptions implements Serializable { // NO_UCD
         this.maxColumns = maxColumns;
     }
 
+    /**
+     * Returns the number of characters per chunk, if parsed in parallel
+     * @return
+     */
+    public int getChunkSize() {
+        if (chunkSize == null) {
+            chunkSize = DEFAULT_CHUNK_SIZE;
+        }
+        return chunkSize;
+    }
+
     /**
      * @return the maxColumns
      */
@@ -49,6 +69,28 @@ public class CSVOptions implements Serializable { // NO_UCD
         return maxColumns;
     }
 
+    /**
+     * Returns the number of threads used for parsing
+     * @return
+     */
+    public int getNumThreads() {
+        if (numThreads == null) {
+            numThreads = 1;
+        }
+        return numThreads;
+    }
+
+    /**
+     * Sets the number of characters per chunk, if parsed in parallel
+     * @param chunkSize
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Parameter must be > 0");
+        }
+        this.chunkSize = chunkSize;
+    }
+
     /**
      * @param maxColumns the maxColumns to set
      */
@@ -56,6 +98,18 @@ public class CSVOptions implements Serializable { // NO_UCD
         this.maxColumns = maxColumns;
     }
 
+    /**
+     * Sets the number of threads used for parsing. If more than one thread is used,
+     * the input is split into chunks of complete lines, which are parsed in parallel.
+     * @param numThreads
+     */
+    public void setNumThreads(int numThreads) {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("Parameter must be > 0");
+        }
+        this.numThreads = numThreads;
+    }
+
     /**
      * Applies the options
      * @param settings
@@ -0,0 +1,232 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads data which has been written with {@link ColumnarDataOutput}. Values are not parsed
+ * and not registered in a dictionary, instead the dictionaries and codes of the columns are
+ * returned as they are stored in the file.
+ *
+ * @author Fabian Prasser
+ */
+public class ColumnarDataInput {
+
+    /** The stream */
+    private final DataInputStream in;
+
+    /** The header */
+    private final String[]        header;
+
+    /** The number of rows */
+    private final int             rows;
+
+    /**
+     * Instantiate.
+     *
+     * @param file the file
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public ColumnarDataInput(final File file) throws IOException {
+        this(new FileInputStream(file));
+    }
+
+    /**
+     * Instantiate. Reads the header.
+     *
+     * @param stream the stream
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public ColumnarDataInput(final InputStream stream) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(stream, ColumnarDataOutput.BUFFER_SIZE));
+        try {
+            if (in.readInt() != ColumnarDataOutput.MAGIC) {
+                throw new IOException("Not a columnar data file");
+            }
+            if (in.readInt() != ColumnarDataOutput.VERSION) {
+                throw new IOException("Unsupported version of columnar data file");
+            }
+            this.header = new String[in.readInt()];
+            this.rows = in.readInt();
+            for (int i = 0; i < header.length; i++) {
+                header[i] = readString();
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the stream
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Returns the header.
+     *
+     * @return
+     */
+    public String[] getHeader() {
+        return Arrays.copyOf(header, header.length);
+    }
+
+    /**
+     * Returns the number of rows, excluding the header.
+     *
+     * @return
+     */
+    public int getNumRows() {
+        return rows;
+    }
+
+    /**
+     * Reads the given columns and closes the stream. The dictionary of the i-th column is
+     * stored in dictionaries[i] and its codes are stored in codes[i].
+     *
+     * @param columns Indices of the columns to read
+     * @param dictionaries
+     * @param codes
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void read(int[] columns, String[][] dictionaries, int[][] codes) throws IOException {
+
+        try {
+
+            // Map columns in the file to columns in the result
+            int[] target = new int[header.length];
+            Arrays.fill(target, -1);
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i] < 0 || columns[i] >= header.length) {
+                    throw new IllegalArgumentException("Column index out of range: " + columns[i]);
+                }
+                if (target[columns[i]] != -1) {
+                    throw new IllegalArgumentException("Column index specified more than once: " + columns[i]);
+                }
+                target[columns[i]] = i;
+            }
+
+            // Read sequentially
+            for (int column = 0; column < header.length; column++) {
+                int size = in.readInt();
+                int bits = ColumnarDataOutput.getBitsPerCode(size);
+                int codesPerWord = 64 / bits;
+                int words = (rows + codesPerWord - 1) / codesPerWord;
+                if (target[column] == -1) {
+                    for (int i = 0; i < size; i++) {
+                        skip(in.readInt());
+                    }
+                    if (in.readInt() != bits) {
+                        throw new IOException("Corrupt columnar data file");
+                    }
+                    skip((long) words * 8L);
+                } else {
+                    String[] dictionary = new String[size];
+                    for (int i = 0; i < size; i++) {
+                        dictionary[i] = readString();
+                    }
+                    if (in.readInt() != bits) {
+                        throw new IOException("Corrupt columnar data file");
+                    }
+                    dictionaries[target[column]] = dictionary;
+                    codes[target[column]] = readCodes(bits, codesPerWord, words);
+                }
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Reads and unpacks codes
+     *
+     * @param bits
+     * @param codesPerWord
+     * @param words
+     * @return
+     * @throws IOException
+     */
+    private int[] readCodes(int bits, int codesPerWord, int words) throws IOException {
+        int[] result = new int[rows];
+        long mask = (1L << bits) - 1L;
+        byte[] buffer = new byte[ColumnarDataOutput.BUFFER_SIZE];
+        LongBuffer longs = ByteBuffer.wrap(buffer).asLongBuffer();
+        int offset = 0;
+        int remaining = words;
+        while (remaining > 0) {
+            int count = Math.min(remaining, buffer.length / 8);
+            in.readFully(buffer, 0, count * 8);
+            for (int i = 0; i < count; i++) {
+                long word = longs.get(i);
+                int limit = Math.min(codesPerWord, rows - offset);
+                for (int j = 0; j < limit; j++) {
+                    result[offset++] = (int) (word & mask);
+                    word >>>= bits;
+                }
+            }
+            remaining -= count;
+        }
+        return result;
+    }
+
+    /**
+     * Reads a string
+     *
+     * @return
+     * @throws IOException
+     */
+    private String readString() throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Skips the given number of bytes
+     *
+     * @param bytes
+     * @throws IOException
+     */
+    private void skip(long bytes) throws IOException {
+        while (bytes > 0) {
+            long skipped = in.skip(bytes);
+            if (skipped <= 0) {
+                if (in.read() == -1) {
+                    throw new EOFException();
+                }
+                skipped = 1;
+            }
+            bytes -= skipped;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import org.deidentifier.arx.DataType;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.ObjectIntOpenHashMap;
+
+/**
+ * Writes data in a compact columnar binary format. The file contains the header and the
+ * number of rows, followed by the columns. Each column consists of a dictionary, which
+ * contains each distinct value once, in order of first occurrence, and the codes of the
+ * values of all rows, which are packed into the minimal number of bits. Files can be read
+ * with {@link ColumnarDataInput}.
+ *
+ * @author Fabian Prasser
+ */
+public class ColumnarDataOutput {
+
+    /** Identifies the format */
+    static final int             MAGIC       = 0x41525843;
+
+    /** Version of the format */
+    static final int             VERSION     = 1;
+
+    /** Size of buffers */
+    static final int             BUFFER_SIZE = 1 << 16;
+
+    /** The stream */
+    private final OutputStream   stream;
+
+    /** Should the stream be closed. */
+    private final boolean        close;
+
+    /**
+     * Returns the number of bits required for codes of a dictionary of the given size
+     *
+     * @param size
+     * @return
+     */
+    static int getBitsPerCode(int size) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(size - 1));
+    }
+
+    /**
+     * Instantiate.
+     *
+     * @param file the file
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public ColumnarDataOutput(final File file) throws IOException {
+        this.stream = new FileOutputStream(file);
+        this.close = true;
+    }
+
+    /**
+     * Instantiate. The stream will not be closed.
+     *
+     * @param stream the stream
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public ColumnarDataOutput(final OutputStream stream) throws IOException {
+        this.stream = stream;
+        this.close = false;
+    }
+
+    /**
+     * Writes the data. The first row returned by the iterator is the header.
+     *
+     * @param iterator the iterator
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void write(final Iterator<String[]> iterator) throws IOException {
+
+        // Header
+        if (!iterator.hasNext()) {
+            throw new IllegalArgumentException("Data object is empty!");
+        }
+        String[] header = iterator.next();
+
+        // Encode
+        ObjectIntOpenHashMap<String>[] maps = new ObjectIntOpenHashMap[header.length];
+        IntArrayList[] codes = new IntArrayList[header.length];
+        for (int column = 0; column < header.length; column++) {
+            maps[column] = new ObjectIntOpenHashMap<String>();
+            codes[column] = new IntArrayList();
+        }
+        int rows = 0;
+        while (iterator.hasNext()) {
+            String[] row = iterator.next();
+            for (int column = 0; column < header.length; column++) {
+                String value = column < row.length && row[column] != null ? row[column] : DataType.NULL_VALUE;
+                ObjectIntOpenHashMap<String> map = maps[column];
+                int size = map.size();
+                codes[column].add(map.putIfAbsent(value, size) ? size : map.lget());
+            }
+            rows++;
+        }
+
+        // Write
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(header.length);
+            out.writeInt(rows);
+            for (String name : header) {
+                write(out, name);
+            }
+            for (int column = 0; column < header.length; column++) {
+                write(out, maps[column], codes[column].buffer, rows);
+                maps[column] = null;
+                codes[column] = null;
+            }
+            out.flush();
+        } finally {
+            if (close) {
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Writes a column
+     *
+     * @param out
+     * @param map
+     * @param codes
+     * @param rows
+     * @throws IOException
+     */
+    private void write(DataOutputStream out, ObjectIntOpenHashMap<String> map, int[] codes, int rows) throws IOException {
+
+        // Dictionary
+        String[] dictionary = new String[map.size()];
+        final Object[] keys = map.keys;
+        final int[] values = map.values;
+        final boolean[] allocated = map.allocated;
+        for (int i = 0; i < allocated.length; i++) {
+            if (allocated[i]) {
+                dictionary[values[i]] = (String) keys[i];
+            }
+        }
+        out.writeInt(dictionary.length);
+        for (String value : dictionary) {
+            write(out, value);
+        }
+
+        // Codes, which do not span multiple words
+        int bits = getBitsPerCode(dictionary.length);
+        int codesPerWord = 64 / bits;
+        out.writeInt(bits);
+        for (int offset = 0; offset < rows; offset += codesPerWord) {
+            long word = 0;
+            int limit = Math.min(codesPerWord, rows - offset);
+            for (int i = 0; i < limit; i++) {
+                word |= ((long) codes[offset + i]) << (i * bits);
+            }
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Writes a string
+     *
+     * @param out
+     * @param value
+     * @throws IOException
+     */
+    private void write(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -23,6 +23,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.deidentifier.arx.DataType;
+import org.deidentifier.arx.io.ImportConfigurationExcel.ExcelFileTypes;
 
 /**
  * Base adapter for all data sources
@@ -53,9 +54,14 @@ abstract public class ImportAdapter implements Iterator<String[]> {
         if (config instanceof ImportConfigurationCSV) {
             return new ImportAdapterCSV((ImportConfigurationCSV) config);
         } else if (config instanceof ImportConfigurationExcel) {
+            if (((ImportConfigurationExcel) config).getExcelFileType() == ExcelFileTypes.XLSX) {
+                return new ImportAdapterExcelStreaming((ImportConfigurationExcel) config);
+            }
             return new ImportAdapterExcel((ImportConfigurationExcel) config);
         } else if (config instanceof ImportConfigurationJDBC) {
             return new ImportAdapterJDBC((ImportConfigurationJDBC) config);
+        } else if (config instanceof ImportConfigurationColumnar) {
+            return new ImportAdapterColumnar((ImportConfigurationColumnar) config);
         } else {
             throw new IllegalArgumentException("No adapter defined for this type of configuration");
         }
@@ -0,0 +1,204 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.deidentifier.arx.DataType;
+
+/**
+ * Import adapter for files written with {@link ColumnarDataOutput}
+ *
+ * The selected columns are loaded completely when the adapter is created. Data types
+ * are checked once per distinct value. Besides iterating over the rows, the
+ * dictionaries and codes can be accessed directly, which means that values
+ * do not need to be encoded again.
+ *
+ * @author Fabian Prasser
+ */
+public class ImportAdapterColumnar extends ImportAdapter {
+
+    /** The configuration describing the file. */
+    private final ImportConfigurationColumnar config;
+
+    /** The dictionaries of the columns */
+    private final String[][]                  dictionaries;
+
+    /** The codes of the columns */
+    private final int[][]                     codes;
+
+    /** The number of rows */
+    private final int                         rows;
+
+    /** The next row to return, -1 for the header */
+    private int                               row = -1;
+
+    /**
+     * Creates a new instance of this object with given configuration.
+     *
+     * @param config {@link #config}
+     * @throws IOException In case the file cannot be read
+     */
+    protected ImportAdapterColumnar(ImportConfigurationColumnar config) throws IOException {
+
+        super(config);
+        this.config = config;
+
+        // Read header
+        ColumnarDataInput input = new ColumnarDataInput(new File(config.getFileLocation()));
+        List<ImportColumn> columns;
+        try {
+            String[] names = input.getHeader();
+            this.rows = input.getNumRows();
+
+            // Prepare columns
+            config.prepare(names);
+            columns = config.getColumns();
+            this.indexes = new int[columns.size()];
+            this.header = new String[columns.size()];
+            for (int i = 0; i < indexes.length; i++) {
+                ImportColumn column = columns.get(i);
+                indexes[i] = ((ImportColumnColumnar) column).getIndex();
+                header[i] = column.getAliasName() != null ? column.getAliasName() : names[indexes[i]];
+                column.setAliasName(header[i]);
+            }
+            this.dataTypes = getColumnDatatypes();
+
+            // Read columns
+            this.dictionaries = new String[indexes.length][];
+            this.codes = new int[indexes.length][];
+            input.read(indexes, dictionaries, codes);
+        } finally {
+            input.close();
+        }
+
+        // Check data types
+        for (int i = 0; i < indexes.length; i++) {
+            boolean[] invalid = new boolean[dictionaries[i].length];
+            boolean cleanse = false;
+            for (int j = 0; j < invalid.length; j++) {
+                if (!dataTypes[i].isValid(dictionaries[i][j])) {
+                    if (columns.get(i).isCleansing()) {
+                        invalid[j] = true;
+                        cleanse = true;
+                    } else {
+                        throw new IllegalArgumentException("Data value does not match data type");
+                    }
+                }
+            }
+            if (cleanse) {
+                cleanse(i, invalid);
+            }
+        }
+    }
+
+    /**
+     * Returns the codes of the imported columns
+     *
+     * @return
+     */
+    public int[][] getCodes() {
+        return codes;
+    }
+
+    /**
+     * Returns the dictionaries of the imported columns. Each dictionary
+     * contains the distinct values in order of first occurrence.
+     *
+     * @return
+     */
+    public String[][] getDictionaries() {
+        return dictionaries;
+    }
+
+    @Override
+    public Integer getLength() {
+        return rows + 1;
+    }
+
+    @Override
+    public int getProgress() {
+        return rows == 0 ? 100 : (int) ((double) Math.max(row, 0) / (double) rows * 100d);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return row < rows;
+    }
+
+    @Override
+    public String[] next() {
+
+        // Header
+        if (row == -1) {
+            row++;
+            return header;
+        }
+
+        // Decode row
+        String[] result = new String[dictionaries.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = dictionaries[i][codes[i][row]];
+        }
+        row++;
+        return result;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Replaces invalid values of the given column with the NULL value. The dictionary
+     * is rebuilt in order of first occurrence, as if the cleansed values had been encoded.
+     *
+     * @param column
+     * @param invalid
+     */
+    private void cleanse(int column, boolean[] invalid) {
+
+        String[] dictionary = dictionaries[column];
+        int[] mapping = new int[dictionary.length];
+        Arrays.fill(mapping, -1);
+        List<String> values = new ArrayList<String>();
+        int nullCode = -1;
+        int[] data = codes[column];
+        for (int i = 0; i < data.length; i++) {
+            int code = data[i];
+            if (mapping[code] == -1) {
+                if (invalid[code] || dictionary[code].equals(DataType.NULL_VALUE)) {
+                    if (nullCode == -1) {
+                        nullCode = values.size();
+                        values.add(DataType.NULL_VALUE);
+                    }
+                    mapping[code] = nullCode;
+                } else {
+                    mapping[code] = values.size();
+                    values.add(dictionary[code]);
+                }
+            }
+            data[i] = mapping[code];
+        }
+        dictionaries[column] = values.toArray(new String[values.size()]);
+    }
+}
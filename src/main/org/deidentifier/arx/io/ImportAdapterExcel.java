@@ -37,7 +37,8 @@ import org.deidentifier.arx.io.ImportConfigurationExcel.ExcelFileTypes;
  * 
  * This adapter can import data from Excel files. It handles both XLS and XLSX
  * files. The file type itself is defined by {@link ImportConfigurationExcel}.
- * The files are accessed using Apache POI.
+ * The files are accessed using Apache POI. XLSX files are usually imported
+ * with {@link ImportAdapterExcelStreaming}, which requires less memory.
  *
  * @author Karol Babioch
  * @author Fabian Prasser
@@ -0,0 +1,489 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.deidentifier.arx.DataType;
+import org.xml.sax.SAXException;
+
+/**
+ * Import adapter for XLSX files
+ *
+ * This adapter reads the XML of a sheet with a streaming parser, row by row,
+ * instead of loading the complete workbook into memory. Only the table of
+ * shared strings is kept in memory. Columns are mapped and cleansed in the
+ * same way as by {@link ImportAdapterExcel}, and cell values are converted
+ * to strings in the same way.
+ *
+ * @author Fabian Prasser
+ */
+public class ImportAdapterExcelStreaming extends ImportAdapter {
+
+    /** Namespace of relationship identifiers */
+    private static final String        RELATIONSHIPS_NAMESPACE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    /** The configuration describing the Excel file. */
+    private ImportConfigurationExcel   config;
+
+    /** The file */
+    private OPCPackage                 pkg;
+
+    /** The XML of the sheet */
+    private InputStream                input;
+
+    /** Factory for parsers, with DTDs and external entities disabled */
+    private final XMLInputFactory      factory        = createXMLInputFactory();
+
+    /** Parser for the XML of the sheet */
+    private XMLStreamReader            reader;
+
+    /** Shared strings */
+    private ReadOnlySharedStringsTable strings;
+
+    /** Contains the next row to return, null if there is none */
+    private String[]                   row;
+
+    /**
+     * Indicates whether the first row has already been returned
+     *
+     * The first row contains the name of the columns and always needs to be
+     * returned first in order to guarantee that the framework will pick up the
+     * names correctly.
+     */
+    private boolean                    headerReturned = false;
+
+    /** Number of rows within the specified sheet, as declared by the sheet. */
+    private int                        totalRows;
+
+    /** Number of rows read. */
+    private int                        currentRow     = 0;
+
+    /** Buffer for cells of the current row */
+    private String[]                   cells          = new String[16];
+
+    /**
+     * Creates a new instance of this object with given configuration
+     *
+     * @param config {@link #config}
+     * @throws IOException In case file doesn't contain actual data
+     */
+    protected ImportAdapterExcelStreaming(ImportConfigurationExcel config) throws IOException {
+
+        super(config);
+        this.config = config;
+
+        try {
+
+            /* Open sheet */
+            pkg = OPCPackage.open(config.getFileLocation(), PackageAccess.READ);
+            XSSFReader xssf = new XSSFReader(pkg);
+            strings = new ReadOnlySharedStringsTable(pkg);
+            input = xssf.getSheet(getSheetRelationship(xssf, config.getSheetIndex()));
+            reader = factory.createXMLStreamReader(input);
+
+            /* Check whether there is actual data within the file */
+            row = readRow();
+            if (row == null) {
+                throw new IOException("File contains no data");
+            }
+
+        } catch (OpenXML4JException | SAXException | XMLStreamException e) {
+            closeResources();
+            throw new IOException(e);
+        } catch (IOException | RuntimeException e) {
+            closeResources();
+            throw e;
+        }
+
+        // Create header
+        header = createHeader();
+        if (config.getContainsHeader() && row == null) {
+            closeResources();
+            throw new IOException("File contains nothing but header");
+        }
+    }
+
+    /**
+     * Returns the percentage of data that has already been returned
+     *
+     * The basis for this calculation is the row currently being accessed.
+     *
+     * @return
+     */
+    @Override
+    public int getProgress() {
+        return totalRows == 0 ? 0 : (int) (((double) currentRow / (double) totalRows) * 100d);
+    }
+
+    /**
+     * Indicates whether there is another element to return
+     *
+     * @return
+     */
+    @Override
+    public boolean hasNext() {
+        return row != null;
+    }
+
+    /**
+     * Returns the next row
+     *
+     * The returned element is sorted as defined by {@link ImportColumn#index} and contains as many elements as there are columns selected to import
+     * from {@link #indexes}. The first row will always contain the names of the
+     * columns. {@link #headerReturned} is used to keep track of that.
+     *
+     * @return
+     */
+    @Override
+    public String[] next() {
+
+        /* Check whether header was already returned */
+        if (!headerReturned) {
+            headerReturned = true;
+            return header;
+        }
+
+        /* Create regular row */
+        String[] result = new String[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+
+            result[i] = IOUtil.trim(getCell(row, indexes[i]));
+
+            if (!dataTypes[i].isValid(result[i])) {
+                if (config.columns.get(i).isCleansing()) {
+                    result[i] = DataType.NULL_VALUE;
+                } else {
+                    closeResources();
+                    throw new IllegalArgumentException("Data value does not match data type");
+                }
+            }
+        }
+
+        /* Fetches the next row, which will be used in next iteration */
+        try {
+            row = readRow();
+        } catch (XMLStreamException e) {
+            closeResources();
+            throw new RuntimeException("Couldn't read data from file", e);
+        }
+        if (row == null) {
+            closeResources();
+        }
+
+        /* Return resulting row */
+        return result;
+    }
+
+    /**
+     * Dummy.
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Closes all resources
+     */
+    private void closeResources() {
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+        } catch (Exception e) {
+            /* Ignore silently */
+        }
+        try {
+            if (input != null) {
+                input.close();
+            }
+        } catch (Exception e) {
+            /* Ignore silently */
+        }
+        if (pkg != null) {
+            pkg.revert();
+            pkg = null;
+        }
+    }
+
+    /**
+     * Creates the header row
+     *
+     * This returns a string array with the names of the columns that will be
+     * returned later on by iterating over this object. Depending upon the
+     * configuration {@link ImportConfigurationExcel#getContainsHeader()} and
+     * whether or not names have been assigned explicitly either the appropriate
+     * values will be returned, or names will be made up on the fly following
+     * the pattern "Column #x", where x is incremented for each column.
+     *
+     * @return
+     * @throws IOException
+     */
+    private String[] createHeader() throws IOException {
+
+        /* Preparation work */
+        if (config.getContainsHeader()) {
+            config.prepare(row);
+        }
+        indexes = getIndexesToImport();
+        dataTypes = getColumnDatatypes();
+
+        /* Initialization */
+        String[] header = new String[config.getColumns().size()];
+        List<ImportColumn> columns = config.getColumns();
+
+        /* Create header */
+        for (int i = 0, len = columns.size(); i < len; i++) {
+
+            ImportColumn column = columns.get(i);
+            String name = IOUtil.trim(getCell(row, ((ImportColumnExcel) column).getIndex()));
+
+            if (config.getContainsHeader() && !name.equals("")) {
+                /* Assign name of file itself */
+                header[i] = name;
+            } else {
+                /* Nothing defined in header (or empty), build name manually */
+                header[i] = "Column #" + ((ImportColumnExcel) column).getIndex();
+            }
+
+            if (column.getAliasName() != null) {
+                /* Name has been assigned explicitly */
+                header[i] = column.getAliasName();
+            }
+
+            column.setAliasName(header[i]);
+        }
+
+        /* Fetch next row in preparation for next iteration */
+        if (config.getContainsHeader()) {
+            try {
+                row = readRow();
+            } catch (XMLStreamException e) {
+                closeResources();
+                throw new IOException(e);
+            }
+        }
+
+        /* Return header */
+        return header;
+    }
+
+    /**
+     * Returns the value of the given cell, an empty string for missing cells
+     *
+     * @param row
+     * @param index
+     * @return
+     */
+    private String getCell(String[] row, int index) {
+        return index < row.length && row[index] != null ? row[index] : "";
+    }
+
+    /**
+     * Returns a factory for parsers, which does neither support DTDs nor
+     * resolve external entities
+     *
+     * @return
+     */
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Returns the identifier of the relationship of the sheet with the given index
+     *
+     * @param xssf
+     * @param index
+     * @return
+     * @throws IOException
+     * @throws OpenXML4JException
+     * @throws XMLStreamException
+     */
+    private String getSheetRelationship(XSSFReader xssf, int index) throws IOException, OpenXML4JException, XMLStreamException {
+        InputStream workbook = xssf.getWorkbookData();
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(workbook);
+            int current = 0;
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("sheet")) {
+                    if (current++ == index) {
+                        return reader.getAttributeValue(RELATIONSHIPS_NAMESPACE, "id");
+                    }
+                }
+            }
+            throw new IllegalArgumentException("Sheet " + index + " does not exist");
+        } finally {
+            workbook.close();
+        }
+    }
+
+    /**
+     * Returns the index of the column referenced by the given cell reference, e.g. "AB12"
+     *
+     * @param reference
+     * @return
+     */
+    private int getColumnIndex(String reference) {
+        int index = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            index = index * 26 + (c - 'A' + 1);
+        }
+        return index - 1;
+    }
+
+    /**
+     * Reads the value of a cell. The reader must be positioned on the start of the cell.
+     * Values are converted in the same way as by the user model, i.e. booleans are
+     * returned as "TRUE" or "FALSE" and all other values are returned as stored.
+     *
+     * @return
+     * @throws XMLStreamException
+     */
+    private String readCell() throws XMLStreamException {
+
+        String type = reader.getAttributeValue(null, "t");
+        String value = null;
+        StringBuilder inline = null;
+        int depth = 1;
+        int skip = 0;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if (skip > 0 || name.equals("rPh")) {
+
+                    // Skip phonetic runs
+                    skip++;
+                    depth++;
+                } else if (name.equals("v")) {
+                    value = reader.getElementText();
+                } else if (name.equals("t")) {
+                    inline = inline == null ? new StringBuilder() : inline;
+                    inline.append(reader.getElementText());
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+                skip = skip > 0 ? skip - 1 : 0;
+            }
+        }
+
+        // Convert
+        if ("inlineStr".equals(type)) {
+            return inline == null ? "" : inline.toString();
+        } else if (value == null) {
+            return "";
+        } else if ("s".equals(type)) {
+            return strings.getEntryAt(Integer.parseInt(value.trim()));
+        } else if ("b".equals(type)) {
+            return "1".equals(value) ? "TRUE" : "FALSE";
+        } else {
+            return value;
+        }
+    }
+
+    /**
+     * Returns the values of the next row in the sheet, null if there is none
+     *
+     * @return
+     * @throws XMLStreamException
+     */
+    private String[] readRow() throws XMLStreamException {
+
+        // Find row
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if (name.equals("dimension")) {
+
+                    // Number of rows, e.g. "A1:C8"
+                    String reference = reader.getAttributeValue(null, "ref");
+                    if (reference != null && reference.indexOf(':') != -1) {
+                        reference = reference.substring(reference.indexOf(':') + 1).replaceAll("[A-Z]", "");
+                        try {
+                            totalRows = Integer.parseInt(reference);
+                        } catch (NumberFormatException e) {
+                            /* Ignore silently */
+                        }
+                    }
+                } else if (name.equals("row")) {
+
+                    // Read cells
+                    Arrays.fill(cells, null);
+                    int columns = 0;
+                    int column = -1;
+                    while (true) {
+                        event = reader.next();
+                        if (event == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("c")) {
+                            String reference = reader.getAttributeValue(null, "r");
+                            column = reference != null ? getColumnIndex(reference) : column + 1;
+                            if (column >= cells.length) {
+                                cells = Arrays.copyOf(cells, Math.max(column + 1, cells.length * 2));
+                            }
+                            cells[column] = readCell();
+                            columns = Math.max(columns, column + 1);
+                        } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("row")) {
+                            break;
+                        }
+                    }
+                    currentRow++;
+                    return Arrays.copyOf(cells, columns);
+                }
+            }
+        }
+
+        // End of sheet
+        return null;
+    }
+
+    /**
+     * Returns an array with indexes of columns that should be imported
+     *
+     * @return Array containing indexes of columns that should be imported
+     */
+    protected int[] getIndexesToImport() {
+        int[] result = new int[config.getColumns().size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((ImportColumnExcel) config.getColumns().get(i)).getIndex();
+        }
+        return result;
+    }
+}
@@ -18,6 +18,7 @@
 package org.deidentifier.arx.io;
 
 import java.io.IOException;
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -53,6 +54,12 @@ public class ImportAdapterJDBC extends ImportAdapter {
     /** Indicates whether there is another row to return. */
     private boolean                 hasNext;
     
+    /** Number of rows that have already been returned. */
+    private int                     returnedRows;
+    
+    /** Whether auto-commit must be restored, null if it has not been changed. */
+    private Boolean                 autoCommit;
+    
     /**
      * Indicates whether the first row has already been returned
      * 
@@ -69,6 +76,9 @@ public class ImportAdapterJDBC extends ImportAdapter {
      */
     private int                     totalRows;
     
+    /** Whether the rows are selected with a condition, which means that the number of rows is an estimate */
+    private boolean                 conditional;
+    
     /**
      * Creates a new instance of this object with given configuration.
      *
@@ -87,10 +97,17 @@ public class ImportAdapterJDBC extends ImportAdapter {
         
         try {
             
+            /* Source of rows */
+            Connection connection = config.getConnection();
+            String source = " FROM " + config.getTable();
+            if (config.getCondition() != null && !config.getCondition().trim().isEmpty()) {
+                source += " WHERE " + config.getCondition();
+                conditional = true;
+            }
+            
             /* Used to keep track of progress */
-            statement = config.getConnection().createStatement();
-            statement.execute("SELECT COUNT(*) FROM " + config.getTable());
-            resultSet = statement.getResultSet();
+            statement = connection.createStatement();
+            resultSet = statement.executeQuery("SELECT COUNT(*)" + source);
             
             if (resultSet.next()) {
                 
@@ -105,10 +122,19 @@ public class ImportAdapterJDBC extends ImportAdapter {
                 throw new IOException("Couldn't determine number of rows");
             }
             
-            /* Query for actual data */
-            statement = config.getConnection().createStatement();
-            statement.execute("SELECT * FROM " + config.getTable());
-            resultSet = statement.getResultSet();
+            resultSet.close();
+            statement.close();
+            
+            /* Some drivers, e.g. for PostgreSQL, only fetch rows in batches outside of auto-commit mode */
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                autoCommit = true;
+            }
+            
+            /* Query for selected columns with a forward-only cursor */
+            statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(config.getFetchSize());
+            resultSet = statement.executeQuery("SELECT " + getProjection(connection) + source);
             hasNext = resultSet.next();
             
         } catch (SQLException e) {
@@ -120,9 +146,13 @@ public class ImportAdapterJDBC extends ImportAdapter {
         header = createHeader();
     }
     
+    /**
+     * Returns the number of rows, including the header. Returns <code>null</code>
+     * if the rows are selected with a condition, which may be non-deterministic.
+     */
     @Override
     public Integer getLength() {
-        return totalRows + 1;
+        return conditional ? null : totalRows + 1;
     }
     
     /**
@@ -137,11 +167,7 @@ public class ImportAdapterJDBC extends ImportAdapter {
     @Override
     public int getProgress() {
         
-        try {
-            return (int) (((double) resultSet.getRow() / (double) totalRows) * 100d);
-        } catch (SQLException e) {
-            return 0;
-        }
+        return (int) Math.min(100d, ((double) returnedRows / (double) totalRows) * 100d);
     }
     
     /**
@@ -190,6 +216,7 @@ public class ImportAdapterJDBC extends ImportAdapter {
             /* Move cursor forward and assign result to {@link #hasNext} */
             hasNext = resultSet.next();
             
+            returnedRows++;
             if (!hasNext) {
                 closeResources();
             }
@@ -228,6 +255,14 @@ public class ImportAdapterJDBC extends ImportAdapter {
         } catch (Exception e) {
             /* Ignore silently */
         }
+        try {
+            if (autoCommit != null) {
+                config.getConnection().setAutoCommit(autoCommit);
+                autoCommit = null;
+            }
+        } catch (Exception e) {
+            /* Ignore silently */
+        }
         try {
             if (config.isManageConnection()) {
                 config.getConnection().close();
@@ -268,8 +303,7 @@ public class ImportAdapterJDBC extends ImportAdapter {
                 
                 /* Assign name from JDBC metadata */
                 try {
-                    /* +1 offset, because counting in JDBC starts at 1 */
-                    header[i] = IOUtil.trim(resultSet.getMetaData().getColumnName(((ImportColumnJDBC) column).getIndex() + 1));
+                    header[i] = IOUtil.trim(resultSet.getMetaData().getColumnName(indexes[i]));
                 } catch (SQLException e) {
                     throw new IllegalArgumentException("Index for column '" + ((ImportColumnJDBC) column).getIndex() + "' couldn't be found");
                 }
@@ -306,4 +340,74 @@ public class ImportAdapterJDBC extends ImportAdapter {
         
         return result;
     }
+    
+    /**
+     * Returns the schema of the connection, null if it cannot be determined
+     * 
+     * @param connection
+     * @return
+     */
+    private String getSchema(Connection connection) {
+        try {
+            return connection.getSchema();
+        } catch (SQLException e) {
+            return null;
+        } catch (AbstractMethodError e) {
+            /* Drivers implementing JDBC 4.0 or older */
+            return null;
+        }
+    }
+    
+    /**
+     * Returns the list of columns to select. If the names of all columns can be determined,
+     * only the columns to import are selected and {@link #indexes} is updated accordingly.
+     * 
+     * @param connection
+     * @return
+     * @throws SQLException
+     */
+    private String getProjection(Connection connection) throws SQLException {
+        
+        /* Names of all columns, in the order used for indexing. Names of schemas and tables are
+         * interpreted as patterns, which is why only columns of exactly matching tables are used */
+        List<String> names = new ArrayList<String>();
+        String schema = getSchema(connection);
+        ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), schema, config.getTable(), null);
+        try {
+            while (columns.next()) {
+                if (config.getTable().equals(columns.getString("TABLE_NAME")) &&
+                    (schema == null || schema.equals(columns.getString("TABLE_SCHEM")))) {
+                    names.add(columns.getString("COLUMN_NAME"));
+                }
+            }
+        } finally {
+            columns.close();
+        }
+        
+        /* A quote string consisting of a space means that quoting is not supported */
+        String quote = connection.getMetaData().getIdentifierQuoteString();
+        quote = quote == null ? "" : quote.trim();
+        
+        /* Build projection */
+        StringBuilder projection = new StringBuilder();
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] > names.size()) {
+                return "*";
+            }
+            String name = names.get(indexes[i] - 1);
+            if (!quote.isEmpty()) {
+                name = quote + name.replace(quote, quote + quote) + quote;
+            }
+            projection.append(i == 0 ? "" : ", ").append(name);
+        }
+        if (projection.length() == 0) {
+            return "*";
+        }
+        
+        /* Columns are now returned in the order in which they are imported */
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i + 1;
+        }
+        return projection.toString();
+    }
 }
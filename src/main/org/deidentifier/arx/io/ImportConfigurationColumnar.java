@@ -0,0 +1,94 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.io;
+
+/**
+ * Configuration describing a file written with {@link ColumnarDataOutput}. Such files
+ * always contain a header, which means that columns can be addressed by index or by name.
+ *
+ * @author Fabian Prasser
+ */
+public class ImportConfigurationColumnar extends ImportConfigurationFile {
+
+    /**
+     * Creates a new instance of this object.
+     *
+     * @param fileLocation {@link #setFileLocation(String)}
+     */
+    public ImportConfigurationColumnar(String fileLocation) {
+        setFileLocation(fileLocation);
+    }
+
+    /**
+     * Adds a single column to import from
+     *
+     * This makes sure that only {@link ImportColumnColumnar} can be added,
+     * otherwise an {@link IllegalArgumentException} will be thrown.
+     *
+     * @param column A single column to import from, {@link ImportColumnColumnar}
+     */
+    @Override
+    public void addColumn(ImportColumn column) {
+
+        if (!(column instanceof ImportColumnColumnar)) {
+            throw new IllegalArgumentException("Column needs to be of type ColumnarColumn");
+        }
+
+        for (ImportColumn c : columns) {
+            if (((ImportColumnColumnar) column).isIndexSpecified() &&
+                ((ImportColumnColumnar) column).getIndex() == ((ImportColumnColumnar) c).getIndex()) {
+                throw new IllegalArgumentException("Column for this index already assigned");
+            }
+
+            if (!((ImportColumnColumnar) column).isIndexSpecified() &&
+                ((ImportColumnColumnar) column).getName().equals(((ImportColumnColumnar) c).getName())) {
+                throw new IllegalArgumentException("Column for this name already assigned");
+            }
+
+            if (column.getAliasName() != null && c.getAliasName() != null &&
+                c.getAliasName().equals(column.getAliasName())) {
+                throw new IllegalArgumentException("Column names need to be unique");
+            }
+        }
+        this.columns.add(column);
+    }
+
+    /**
+     * Sets the indexes based on the header.
+     *
+     * @param row the row
+     */
+    public void prepare(String[] row) {
+
+        for (ImportColumn c : super.getColumns()) {
+            ImportColumnColumnar column = (ImportColumnColumnar) c;
+            if (!column.isIndexSpecified()) {
+                boolean found = false;
+                for (int i = 0; i < row.length; i++) {
+                    if (row[i].equals(column.getName())) {
+                        found = true;
+                        column.setIndex(i);
+                    }
+                }
+                if (!found) {
+                    throw new IllegalArgumentException("Index for column '" + column.getName() + "' couldn't be found");
+                }
+            }
+        }
+    }
+}
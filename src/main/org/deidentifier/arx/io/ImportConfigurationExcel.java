@@ -212,6 +212,30 @@ public class ImportConfigurationExcel extends ImportConfigurationFile implements
         }
     }
 
+    /**
+     * Sets the indexes based on the header.
+     *
+     * @param row
+     */
+    public void prepare(String[] row) {
+
+        for (ImportColumn c : super.getColumns()) {
+            ImportColumnExcel column = (ImportColumnExcel) c;
+            if (!column.isIndexSpecified()) {
+                boolean found = false;
+                for (int i = 0; i < row.length; i++) {
+                    if (row[i] != null && row[i].equals(column.getName())) {
+                        found = true;
+                        column.setIndex(i);
+                    }
+                }
+                if (!found) {
+                    throw new IllegalArgumentException("Index for column '" + column.getName() + "' couldn't be found");
+                }
+            }
+        }
+    }
+
     /**
      * @param containsHeader
      *            {@link #containsHeader}
@@ -30,6 +30,9 @@ import java.util.NoSuchElementException;
  * @author Fabian Prasser
  */
 public class ImportConfigurationJDBC extends ImportConfiguration {
+
+    /** Default number of rows fetched from the database at once */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
     
     /**
      * Connection to be used.
@@ -51,6 +54,20 @@ public class ImportConfigurationJDBC extends ImportConfiguration {
      * Determines whether we need to manage the JDBC connection.
      */
     private final boolean manageConnection;
+
+    /**
+     * Condition which selects the rows to import, null if all rows are imported.
+     *
+     * @see {@link #setCondition(String)}
+     */
+    private String        condition;
+
+    /**
+     * Number of rows fetched from the database at once.
+     *
+     * @see {@link #setFetchSize(int)}
+     */
+    private int           fetchSize = DEFAULT_FETCH_SIZE;
     
     /**
      * Creates a new instance of this object.
@@ -138,6 +155,49 @@ public class ImportConfigurationJDBC extends ImportConfiguration {
         }
     }
     
+    /**
+     * Returns the condition which selects the rows to import, null if all rows are imported
+     * 
+     * @return {@link #condition}
+     */
+    public String getCondition() {
+        return this.condition;
+    }
+
+    /**
+     * Returns the number of rows fetched from the database at once
+     * 
+     * @return {@link #fetchSize}
+     */
+    public int getFetchSize() {
+        return this.fetchSize;
+    }
+
+    /**
+     * Sets a condition which selects the rows to import. The condition is passed
+     * to the database as a WHERE clause, e.g. "age > 40". It may also be used to
+     * import a sample, e.g. "RANDOM() % 10 = 0", depending on the database.
+     * Set to null to import all rows.
+     * 
+     * @param condition
+     */
+    public void setCondition(String condition) {
+        this.condition = condition;
+    }
+
+    /**
+     * Sets the number of rows fetched from the database at once. This is a hint
+     * to the driver, which limits the amount of memory required for large tables.
+     * 
+     * @param fetchSize
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size must be > 0");
+        }
+        this.fetchSize = fetchSize;
+    }
+
     /**
      * 
      *
@@ -17,8 +17,6 @@
 
 package org.deidentifier.arx.metric;
 
-import java.util.Arrays;
-
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.DataDefinition;
 import org.deidentifier.arx.RowSet;
@@ -137,22 +135,11 @@ public class MetricEntropy extends MetricDefault {
         // For each column
         for (int column = 0; column < hierarchies.length; column++) {
 
-            // Check for cached value
+            // Obtain precomputed value, which is not available for instances from previous versions
             final int state = node.getGeneralization()[column];
             double value = cache[column][state];
             if (value == NA) {
-                value = 0d;
-                final int[][] cardinality = cardinalities[column];
-                final int[][] hierarchy = hierarchies[column];
-                for (int in = 0; in < hierarchy.length; in++) {
-                    final int out = hierarchy[in][state];
-                    final double a = cardinality[in][0];
-                    final double b = cardinality[out][state];
-                    if (a != 0d) {
-                        value += a * log2(a / b);
-                    }
-                }
-                cache[column][state] = value;
+                value = getEntropy(column, state);
             }
             result += value;
         }
@@ -226,12 +213,36 @@ public class MetricEntropy extends MetricDefault {
             }
         }
 
-        // Create a cache for the results
+        // Precompute the results, as the metric may be used by multiple threads
         cache = new double[hierarchies.length][];
-        for (int i = 0; i < cache.length; i++) {
-            cache[i] = new double[ahierarchies[i].getArray()[0].length];
-            Arrays.fill(cache[i], NA);
+        for (int column = 0; column < cache.length; column++) {
+            cache[column] = new double[ahierarchies[column].getArray()[0].length];
+            for (int level = 0; level < cache[column].length; level++) {
+                cache[column][level] = getEntropy(column, level);
+            }
+        }
+    }
+
+    /**
+     * Computes the entropy-based information loss of the given column at the given level
+     *
+     * @param column
+     * @param level
+     * @return
+     */
+    private double getEntropy(int column, int level) {
+        double value = 0d;
+        final int[][] cardinality = cardinalities[column];
+        final int[][] hierarchy = hierarchies[column];
+        for (int in = 0; in < hierarchy.length; in++) {
+            final int out = hierarchy[in][level];
+            final double a = cardinality[in][0];
+            final double b = cardinality[out][level];
+            if (a != 0d) {
+                value += a * log2(a / b);
+            }
         }
+        return value;
     }
 
 }
@@ -171,7 +171,7 @@ public class MetricMDNMLossPrecomputed extends MetricMDNMLoss {
         RowSet subset = super.getSubset(config);
         
         // Cardinalities
-        this.cardinalities = new Cardinalities(input, subset, hierarchies);
+        this.cardinalities = manager.getCardinalities(subset);
         
         // Distinct values
         this.values = new int[hierarchies.length][][];
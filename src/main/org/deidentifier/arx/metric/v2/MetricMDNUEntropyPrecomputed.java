@@ -256,31 +256,14 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
     protected double[] getInformationLossInternalRaw(final Transformation node, final HashGroupify g) {
 
         // Prepare
-        int[][][] cardinalities = this.cardinalities.getCardinalities();
         double[] result = new double[hierarchies.length];
         double gFactor = super.getGeneralizationFactor();
 
         // For each column
         for (int column = 0; column < hierarchies.length; column++) {
 
-            // Check for cached value
-            final int transformation = node.getGeneralization()[column];
-            double value = cache[column][transformation];
-            if (value == NOT_AVAILABLE) {
-                value = 0d;
-                final int[][] cardinality = cardinalities[column];
-                final int[][] hierarchy = hierarchies[column];
-                for (int in = 0; in < hierarchy.length; in++) {
-                    final int out = hierarchy[in][transformation];
-                    final double a = cardinality[in][0];
-                    final double b = cardinality[out][transformation];
-                    if (a != 0d) {
-                        value += a * log2(a / b);
-                    }
-                }
-                cache[column][transformation] = value;
-            }
-            result[column] = value * gFactor;
+            // Obtain precomputed value
+            result[column] = cache[column][node.getGeneralization()[column]] * gFactor;
         }
 
         return result;
@@ -332,6 +315,32 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
         return result;
     }
 
+    /**
+     * Computes all values which are not available in the cache. The cache is filled
+     * completely during initialization, as the metric may be used by multiple threads.
+     */
+    private void precompute() {
+        int[][][] cardinalities = this.cardinalities.getCardinalities();
+        for (int column = 0; column < hierarchies.length; column++) {
+            final int[][] cardinality = cardinalities[column];
+            final int[][] hierarchy = hierarchies[column];
+            for (int level = 0; level < cache[column].length; level++) {
+                if (cache[column][level] == NOT_AVAILABLE) {
+                    double value = 0d;
+                    for (int in = 0; in < hierarchy.length; in++) {
+                        final int out = hierarchy[in][level];
+                        final double a = cardinality[in][0];
+                        final double b = cardinality[out][level];
+                        if (a != 0d) {
+                            value += a * log2(a / b);
+                        }
+                    }
+                    cache[column][level] = value;
+                }
+            }
+        }
+    }
+
     /**
      * For backwards compatibility.
      *
@@ -345,6 +354,7 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
         this.cache = cache;
         this.hierarchies = hierarchies;
         this.cardinalities = new Cardinalities(cardinalities);
+        this.precompute();
 
         // Initialize weights
         super.initialize(hierarchies.length);
@@ -374,7 +384,7 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
         RowSet subset = super.getSubset(config);
         
         // Cardinalities
-        this.cardinalities = new Cardinalities(input, subset, hierarchies);
+        this.cardinalities = manager.getCardinalities(subset);
         this.rows = input.getDataLength();
         double gFactor = super.getGeneralizationFactor();
         double sFactor = super.getSuppressionFactor();
@@ -392,6 +402,9 @@ public class MetricMDNUEntropyPrecomputed extends AbstractMetricMultiDimensional
         for (int i = 0; i < hierarchies.length; i++) {
             this.hierarchies[i] = hierarchies[i].getArray();
         }
+        
+        // Fill the cache
+        this.precompute();
 
         // Compute a reasonable min & max
         double[] min = new double[hierarchies.length];
@@ -36,8 +36,8 @@ public class TupleMatcher implements Serializable {
     
     /** Data */
     private final int[][][]   hierarchies;
-    /** Data */
-    private final int[]       tuple;
+    /** Data for each thread */
+    private final transient ThreadLocal<int[]> tuple;
 
     /**
      * Creates a new instance
@@ -52,7 +52,13 @@ public class TupleMatcher implements Serializable {
         }
         
         // Create tuple
-        this.tuple = new int[this.hierarchies.length];
+        final int dimensions = this.hierarchies.length;
+        this.tuple = new ThreadLocal<int[]>() {
+            @Override
+            protected int[] initialValue() {
+                return new int[dimensions];
+            }
+        };
     }
     
     /**
@@ -65,6 +71,7 @@ public class TupleMatcher implements Serializable {
     HashGroupifyEntry getEntry(int row, int[] generalization, HashGroupify groupify) {
         
         // Transform the tuple
+        int[] tuple = this.tuple.get();
         DataMatrix data = groupify.getInputData();
         data.iterator(row);
         for (int dimension = 0; dimension < tuple.length; dimension++) {
@@ -17,6 +17,8 @@
 
 package org.deidentifier.arx.risk;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.deidentifier.arx.ARXPopulationModel;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
@@ -48,11 +50,13 @@ class ModelPitman extends RiskModelPopulation {
      * @param model
      * @param histogram
      * @param config
+     * @param threads
      * @param stop
      */
     ModelPitman(final ARXPopulationModel model,
                 final RiskModelHistogram histogram,
                 final NewtonRaphsonConfiguration<?> config,
+                final int threads,
                 final WrappedBoolean stop) {
 
         super(histogram, model, stop, new WrappedInteger());
@@ -60,9 +64,9 @@ class ModelPitman extends RiskModelPopulation {
         // Init
         double c1 = getNumClassesOfSize(1);
         double c2 = getNumClassesOfSize(2);
-        double u = getNumClasses();
+        final double u = getNumClasses();
         double p = getPopulationSize();
-        double n = super.getSampleSize();
+        final double n = super.getSampleSize();
 
         // Initial guess
         c2 = c2 != 0 ? c2 : 1; // Overestimate
@@ -72,22 +76,24 @@ class ModelPitman extends RiskModelPopulation {
         double a = ((t * (c1 - n)) + ((n - 1) * c1)) / (n * u);
 
         // Solve the Maximum Likelihood Estimates with Polygamma functions
-        NewtonRaphson2D solver = new NewtonRaphson2D(getMasterFunctionClosed(histogram.getHistogram(), u, n),
-                                                     getConstraint()).configure(config);
-        Vector2D result = solver.solve(new Vector2D(t, a));
+        final int[] classes = histogram.getHistogram();
+        Vector2D result = new NewtonRaphsonMultiStart(config, threads, stop) {
+            @Override
+            protected NewtonRaphson2D getSolver(AtomicBoolean cancel) {
+                return new NewtonRaphson2D(getMasterFunctionClosed(classes, u, n, cancel), getConstraint());
+            }
+        }.solve(new Vector2D(t, a));
 
         // If no result found, use iterative implementation
         if (Double.isNaN(result.x) || Double.isNaN(result.y)) {
 
-            solver = new NewtonRaphson2D(getMasterFunctionIterative(histogram.getHistogram(), u, n),
-                                         getConstraint()).configure(config);
-            result = solver.solve(new Vector2D(t, a));
+            result = solveIterative(classes, u, n, config, threads, new Vector2D(t, a));
 
             // Else check the result against the iterative implementation
         } else {
 
             // Run test
-            Vector2D test = getObjectFunctionsIterative(histogram.getHistogram(), u, n).evaluate(result);
+            Vector2D test = getObjectFunctionsIterative(classes, u, n).evaluate(result);
 
             // Check result of test
             if (Double.isNaN(test.x) || Double.isNaN(test.y) ||
@@ -95,9 +101,7 @@ class ModelPitman extends RiskModelPopulation {
                 Math.abs(test.y) > config.getAccuracy()) {
 
                 // Use iterative implementation
-                solver = new NewtonRaphson2D(getMasterFunctionIterative(histogram.getHistogram(), u, n),
-                                                                        getConstraint()).configure(config);
-                result = solver.solve(new Vector2D(t, a));
+                result = solveIterative(classes, u, n, config, threads, new Vector2D(t, a));
             }
         }
 
@@ -136,7 +140,8 @@ class ModelPitman extends RiskModelPopulation {
     private Function<Vector2D, Pair<Vector2D, SquareMatrix2D>>
             getMasterFunctionClosed(final int[] classes,
                                     final double u,
-                                    final double n) {
+                                    final double n,
+                                    final AtomicBoolean cancel) {
 
         return new Function<Vector2D, Pair<Vector2D, SquareMatrix2D>>() {
 
@@ -169,7 +174,7 @@ class ModelPitman extends RiskModelPopulation {
                 double o3 = ((-t * val1) + (a * val0) + (t * val4)) / (a * a);
                 double o2 = Gamma.digamma(n + t) - Gamma.digamma(t + 1d);
                 
-                checkInterrupt();
+                checkInterrupt(cancel);
 
                 double d2 = Gamma.trigamma(t + 1d) - Gamma.trigamma(n + t);
 
@@ -186,7 +191,7 @@ class ModelPitman extends RiskModelPopulation {
                         d4 += value * (val7 - Gamma.trigamma(key - a));
                         o4 += value * (Gamma.digamma(key - a) - val6);
                     }
-                    checkInterrupt();
+                    checkInterrupt(cancel);
                 }
 
                 // Store
@@ -212,7 +217,8 @@ class ModelPitman extends RiskModelPopulation {
     private Function<Vector2D, Pair<Vector2D, SquareMatrix2D>>
             getMasterFunctionIterative(final int[] classes,
                                        final double u,
-                                       final double n) {
+                                       final double n,
+                                       final AtomicBoolean cancel) {
 
         return new Function<Vector2D, Pair<Vector2D, SquareMatrix2D>>() {
 
@@ -256,7 +262,7 @@ class ModelPitman extends RiskModelPopulation {
                     o3 += val2;
 
                 }
-                checkInterrupt();
+                checkInterrupt(cancel);
 
                 // For each class...
                 for (int i = 0; i < classes.length; i += 2) {
@@ -274,10 +280,10 @@ class ModelPitman extends RiskModelPopulation {
                         d4 += value * val1;
                         o4 += value * val2;
                     }
-                    checkInterrupt();
+                    checkInterrupt(cancel);
                 }
 
-                checkInterrupt();
+                checkInterrupt(cancel);
 
                 for (int i = 1; i < n; i++) {
                     double val0 = (t + i);
@@ -397,4 +403,29 @@ class ModelPitman extends RiskModelPopulation {
             return val1;
         }
     }
+
+    /**
+     * Solves the equations with the iterative implementation
+     * 
+     * @param classes
+     * @param u
+     * @param n
+     * @param config
+     * @param threads
+     * @param start
+     * @return
+     */
+    private Vector2D solveIterative(final int[] classes,
+                                    final double u,
+                                    final double n,
+                                    final NewtonRaphsonConfiguration<?> config,
+                                    final int threads,
+                                    final Vector2D start) {
+        return new NewtonRaphsonMultiStart(config, threads, getStopFlag()) {
+            @Override
+            protected NewtonRaphson2D getSolver(AtomicBoolean cancel) {
+                return new NewtonRaphson2D(getMasterFunctionIterative(classes, u, n, cancel), getConstraint());
+            }
+        }.solve(start);
+    }
 }
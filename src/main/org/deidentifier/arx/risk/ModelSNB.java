@@ -17,6 +17,8 @@
 
 package org.deidentifier.arx.risk;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.deidentifier.arx.ARXPopulationModel;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
@@ -46,28 +48,33 @@ class ModelSNB extends RiskModelPopulation {
      * @param model
      * @param histogram
      * @param config
+     * @param threads
      * @param stop
      */
     ModelSNB(final ARXPopulationModel model,
              final RiskModelHistogram histogram,
              final NewtonRaphsonConfiguration<?> config,
+             final int threads,
              final WrappedBoolean stop) {
 
         super(histogram, model, stop, new WrappedInteger());
 
         // Prepare
         int[] _histogram = super.getHistogram().getHistogram();
-        double c1 = super.getNumClassesOfSize(1);
-        double c2 = super.getNumClassesOfSize(2);
-        double k = estimateNonEmptyEquivalenceClasses(_histogram, super.getNumClasses(),
+        final double c1 = super.getNumClassesOfSize(1);
+        final double c2 = super.getNumClassesOfSize(2);
+        final double k = estimateNonEmptyEquivalenceClasses(_histogram, super.getNumClasses(),
                                                       c1, super.getSamplingFraction());
-        double f = getSamplingFraction();
+        final double f = getSamplingFraction();
 
         // Solve the maximum likelihood estimates
-        Vector2D result = new NewtonRaphson2D(getObjectFunction(k, f, c1, c2),
-                                              getDerivatives(k, f, c1, c2))
-                                             .configure(config)
-                                             .solve();
+        Vector2D result = new NewtonRaphsonMultiStart(config, threads, stop) {
+            @Override
+            protected NewtonRaphson2D getSolver(AtomicBoolean cancel) {
+                return new NewtonRaphson2D(getObjectFunction(k, f, c1, c2, cancel),
+                                           getDerivatives(k, f, c1, c2));
+            }
+        }.solve(new Vector2D(1d, 1d));
 
         // Compile and store
         this.uniques = k * Math.pow(result.y, result.x);
@@ -183,12 +190,14 @@ class ModelSNB extends RiskModelPopulation {
      * @param f
      * @param c1
      * @param c2
+     * @param cancel
      * @return
      */
     private Function<Vector2D, Vector2D> getObjectFunction(final double k,
                                                            final double f,
                                                            final double c1,
-                                                           final double c2) {
+                                                           final double c2,
+                                                           final AtomicBoolean cancel) {
 
         return new Function<Vector2D, Vector2D>() {
             public Vector2D evaluate(Vector2D input) {
@@ -196,6 +205,7 @@ class ModelSNB extends RiskModelPopulation {
                 final double a = input.x;
                 final double b = input.y;
                 final double dividend = (1 - f) * (1 - b);
+                checkInterrupt(cancel);
 
                 // Original equations to determine the value of the parameters alpha and beta in the SNB Model
                 Vector2D result = new Vector2D();
@@ -0,0 +1,237 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.risk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.deidentifier.arx.ARXSolverConfiguration;
+import org.deidentifier.arx.common.WrappedBoolean;
+import org.deidentifier.arx.exceptions.ComputationInterruptedException;
+
+import de.linearbits.newtonraphson.NewtonRaphson2D;
+import de.linearbits.newtonraphson.NewtonRaphsonConfiguration;
+import de.linearbits.newtonraphson.Vector2D;
+
+/**
+ * Solves a system of equations with the Newton-Raphson method, trying the given start
+ * value and the prepared start values of the configuration. With more than one thread,
+ * the tries are performed concurrently. The result of the first start value, in the
+ * order of the configuration, from which the solver converges is returned and tries
+ * for subsequent start values are cancelled as soon as it is known. In this case,
+ * the limits per try apply, but the total limits are ignored. Tries are cancelled
+ * with thread-safe flags, to which the stop flag is relayed by the calling thread.
+ *
+ * @author Fabian Prasser
+ */
+abstract class NewtonRaphsonMultiStart {
+
+    /** Interval in which the calling thread checks the stop flag, in milliseconds */
+    private static final long                   STOP_CHECK_INTERVAL = 10;
+
+    /** The configuration */
+    private final NewtonRaphsonConfiguration<?> config;
+
+    /** The number of threads */
+    private final int                           threads;
+
+    /** Stop flag */
+    private final WrappedBoolean                stop;
+
+    /**
+     * Creates a new instance
+     *
+     * @param config
+     * @param threads
+     * @param stop
+     */
+    NewtonRaphsonMultiStart(NewtonRaphsonConfiguration<?> config, int threads, WrappedBoolean stop) {
+        this.config = config;
+        this.threads = threads;
+        this.stop = stop;
+    }
+
+    /**
+     * Solves the equations
+     *
+     * @param start
+     * @return
+     */
+    Vector2D solve(Vector2D start) {
+
+        // Sequential solving, as implemented by the library
+        final double[][] values = config.getStartValues();
+        if (threads <= 1 || values == null || values.length == 0) {
+            return getSolver(new AtomicBoolean()).configure(config).solve(start);
+        }
+
+        // Prepare
+        final Vector2D[] starts = new Vector2D[values.length + 1];
+        final AtomicBoolean[] cancel = new AtomicBoolean[starts.length];
+        starts[0] = start;
+        for (int i = 0; i < values.length; i++) {
+            starts[i + 1] = new Vector2D(values[i][0], values[i][1]);
+        }
+        for (int i = 0; i < cancel.length; i++) {
+            cancel[i] = new AtomicBoolean();
+        }
+
+        // Create executor
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, starts.length), new ThreadFactory() {
+            int count = 0;
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                thread.setName("ARX Solver " + (count++));
+                return thread;
+            }
+        });
+
+        try {
+
+            // Submit one try per start value
+            List<Future<Vector2D>> futures = new ArrayList<Future<Vector2D>>();
+            for (int i = 0; i < starts.length; i++) {
+                final int index = i;
+                futures.add(executor.submit(new Callable<Vector2D>() {
+                    @Override
+                    public Vector2D call() throws Exception {
+                        return solve(starts, cancel, index);
+                    }
+                }));
+            }
+
+            // Return the first result in order of the start values
+            for (int i = 0; i < futures.size(); i++) {
+                Vector2D result = await(futures.get(i), cancel);
+                if (!result.isNaN()) {
+                    return result;
+                }
+            }
+
+            // No result found
+            checkStop(cancel);
+            return new Vector2D(Double.NaN, Double.NaN);
+
+        } catch (InterruptedException e) {
+            throw new ComputationInterruptedException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the result of a try, while relaying the stop flag to all tries
+     *
+     * @param future
+     * @param cancel
+     * @return
+     * @throws InterruptedException
+     * @throws ExecutionException
+     */
+    private Vector2D await(Future<Vector2D> future, AtomicBoolean[] cancel) throws InterruptedException, ExecutionException {
+        while (true) {
+            checkStop(cancel);
+            try {
+                return future.get(STOP_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Check again
+            }
+        }
+    }
+
+    /**
+     * Cancels all tries and throws an exception, if the computation has been stopped
+     *
+     * @param cancel
+     */
+    private void checkStop(AtomicBoolean[] cancel) {
+        if (stop.value) {
+            for (AtomicBoolean flag : cancel) {
+                flag.set(true);
+            }
+            throw new ComputationInterruptedException();
+        }
+    }
+
+    /**
+     * Performs one try
+     *
+     * @param starts
+     * @param cancel
+     * @param index
+     * @return
+     */
+    private Vector2D solve(Vector2D[] starts, AtomicBoolean[] cancel, int index) {
+
+        // Skip tries which have been cancelled before being started
+        if (cancel[index].get()) {
+            return new Vector2D(Double.NaN, Double.NaN);
+        }
+
+        // Only the given start value may be tried
+        Vector2D start = starts[index];
+        NewtonRaphsonConfiguration<?> config = ARXSolverConfiguration.create()
+                                                                     .accuracy(this.config.getAccuracy())
+                                                                     .iterationsPerTry(this.config.getIterationsPerTry())
+                                                                     .iterationsTotal(this.config.getIterationsPerTry())
+                                                                     .timePerTry(this.config.getTimePerTry())
+                                                                     .timeTotal(this.config.getTimePerTry())
+                                                                     .preparedStartValues(new double[][] { { start.x, start.y } });
+        Vector2D result;
+        try {
+            result = getSolver(cancel[index]).configure(config).solve(start);
+        } catch (ComputationInterruptedException e) {
+            // Stopping is handled by the calling thread
+            return new Vector2D(Double.NaN, Double.NaN);
+        }
+
+        // Cancel tries for subsequent start values
+        if (!result.isNaN()) {
+            for (int i = index + 1; i < cancel.length; i++) {
+                cancel[i].set(true);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new solver. The functions must not be shared between solvers and must
+     * check for interrupts with the given flag.
+     *
+     * @param cancel
+     * @return
+     */
+    protected abstract NewtonRaphson2D getSolver(AtomicBoolean cancel);
+}
@@ -0,0 +1,240 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.risk;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.deidentifier.arx.ARXSolverConfiguration;
+import org.deidentifier.arx.risk.RiskModelPopulationUniqueness.PopulationUniquenessModel;
+
+/**
+ * A cache for estimates of population uniqueness. Estimates are identified by the
+ * content of the histogram, the population size and the parameters of the solver,
+ * which means that they are reused for equal histograms which have been created
+ * independently. Estimates obtained with random start values are not cached.
+ *
+ * @author Fabian Prasser
+ */
+class PopulationUniquenessCache {
+
+    /**
+     * The key of an estimate
+     *
+     * @author Fabian Prasser
+     */
+    private static final class Key {
+
+        /** Model */
+        private final PopulationUniquenessModel model;
+        /** Histogram */
+        private final int[]                     histogram;
+        /** Population size */
+        private final long                      populationSize;
+        /** Solver parameter */
+        private final double                    accuracy;
+        /** Solver parameter */
+        private final int                       iterationsPerTry;
+        /** Solver parameter */
+        private final int                       iterationsTotal;
+        /** Solver parameter */
+        private final int                       timePerTry;
+        /** Solver parameter */
+        private final int                       timeTotal;
+        /** Solver parameter */
+        private final double[][]                startValues;
+        /** Solver parameter */
+        private final boolean                   concurrent;
+        /** Hash code */
+        private final int                       hashCode;
+
+        /**
+         * Creates a new instance
+         *
+         * @param model
+         * @param histogram
+         * @param populationSize
+         * @param config
+         */
+        private Key(PopulationUniquenessModel model,
+                    int[] histogram,
+                    long populationSize,
+                    ARXSolverConfiguration config) {
+            this.model = model;
+            this.histogram = histogram;
+            this.populationSize = populationSize;
+
+            // Zayatz's model does not use the solver
+            boolean solver = model != PopulationUniquenessModel.ZAYATZ;
+            this.accuracy = solver ? config.getAccuracy() : 0d;
+            this.iterationsPerTry = solver ? config.getIterationsPerTry() : 0;
+            this.iterationsTotal = solver ? config.getIterationsTotal() : 0;
+            this.timePerTry = solver ? config.getTimePerTry() : 0;
+            this.timeTotal = solver ? config.getTimeTotal() : 0;
+            this.startValues = solver ? copy(config.getStartValues()) : null;
+            this.concurrent = solver && config.getNumThreads() > 1;
+
+            // Hash
+            final int prime = 31;
+            int result = model.hashCode();
+            result = prime * result + Arrays.hashCode(histogram);
+            result = prime * result + (int) (populationSize ^ (populationSize >>> 32));
+            result = prime * result + Arrays.deepHashCode(startValues);
+            result = prime * result + iterationsPerTry;
+            result = prime * result + timePerTry;
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            Key other = (Key) obj;
+            return hashCode == other.hashCode &&
+                   model == other.model &&
+                   populationSize == other.populationSize &&
+                   Double.compare(accuracy, other.accuracy) == 0 &&
+                   iterationsPerTry == other.iterationsPerTry &&
+                   iterationsTotal == other.iterationsTotal &&
+                   timePerTry == other.timePerTry &&
+                   timeTotal == other.timeTotal &&
+                   concurrent == other.concurrent &&
+                   Arrays.deepEquals(startValues, other.startValues) &&
+                   Arrays.equals(histogram, other.histogram);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        /**
+         * Copies the start values
+         *
+         * @param values
+         * @return
+         */
+        private double[][] copy(double[][] values) {
+            double[][] result = values.clone();
+            for (int i = 0; i < result.length; i++) {
+                result[i] = result[i].clone();
+            }
+            return result;
+        }
+    }
+
+    /** The estimates, least recently used first */
+    private final Map<Key, Double> estimates;
+
+    /** Whether estimates are cached */
+    private boolean                enabled = true;
+
+    /**
+     * Creates a new instance
+     *
+     * @param capacity Maximal number of estimates
+     */
+    PopulationUniquenessCache(final int capacity) {
+        this.estimates = new LinkedHashMap<Key, Double>(16, 0.75f, true) {
+            private static final long serialVersionUID = -5346427613453186212L;
+            @Override
+            protected boolean removeEldestEntry(Entry<Key, Double> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Removes all estimates
+     */
+    synchronized void clear() {
+        estimates.clear();
+    }
+
+    /**
+     * Returns the estimate, if it has been cached
+     *
+     * @param model
+     * @param histogram
+     * @param populationSize
+     * @param config
+     * @return
+     */
+    synchronized Double get(PopulationUniquenessModel model,
+                            RiskModelHistogram histogram,
+                            long populationSize,
+                            ARXSolverConfiguration config) {
+        if (!enabled || !isCacheable(model, config)) {
+            return null;
+        }
+        return estimates.get(new Key(model, histogram.getHistogram(), populationSize, config));
+    }
+
+    /**
+     * Stores an estimate
+     *
+     * @param model
+     * @param histogram
+     * @param populationSize
+     * @param config
+     * @param estimate
+     */
+    synchronized void put(PopulationUniquenessModel model,
+                          RiskModelHistogram histogram,
+                          long populationSize,
+                          ARXSolverConfiguration config,
+                          double estimate) {
+        if (enabled && isCacheable(model, config)) {
+            estimates.put(new Key(model, histogram.getHistogram(), populationSize, config), estimate);
+        }
+    }
+
+    /**
+     * Enables or disables caching. Disabling removes all estimates.
+     *
+     * @param enabled
+     */
+    synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            estimates.clear();
+        }
+    }
+
+    /**
+     * Returns the number of cached estimates
+     *
+     * @return
+     */
+    synchronized int size() {
+        return estimates.size();
+    }
+
+    /**
+     * Returns whether estimates of the given model can be cached
+     *
+     * @param model
+     * @param config
+     * @return
+     */
+    private boolean isCacheable(PopulationUniquenessModel model, ARXSolverConfiguration config) {
+        return model == PopulationUniquenessModel.ZAYATZ || config.getStartValues() != null;
+    }
+}
@@ -174,8 +174,40 @@ public class RiskEstimateBuilder {
      * @return the RiskModelAttributes data from risk analysis
      */
     public RiskModelAttributes getAttributeRisks() {
+        return getAttributeRisks(arxconfig != null ? arxconfig.getNumThreads() : 1);
+    }
+
+    /**
+     * Returns a class providing access to an analysis of potential quasi-identifiers using
+     * the concepts of alpha distinction and alpha separation. Combinations of attributes
+     * are evaluated with the given number of threads.
+     *
+     * @param numThreads
+     * @return the RiskModelAttributes data from risk analysis
+     */
+    public RiskModelAttributes getAttributeRisks(int numThreads) {
+        return getAttributeRisks(numThreads, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a class providing access to an analysis of potential quasi-identifiers using
+     * the concepts of alpha distinction and alpha separation. Only the given number of
+     * combinations of attributes with the highest distinction and separation is returned,
+     * which does not require evaluating all combinations.
+     *
+     * @param numThreads
+     * @param maxResults
+     * @return the RiskModelAttributes data from risk analysis
+     */
+    public RiskModelAttributes getAttributeRisks(int numThreads, int maxResults) {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be > 0");
+        }
+        if (maxResults < 0) {
+            throw new IllegalArgumentException("Number of results must be >= 0");
+        }
         progress.value = 0;
-        return new RiskModelAttributes(this.population, this.handle, this.identifiers, this.stop, progress, this.solverconfig, this.arxconfig);
+        return new RiskModelAttributes(this.handle, this.identifiers, this.stop, progress, numThreads, maxResults);
     }
 
     /**
@@ -53,6 +53,39 @@ public class RiskEstimateBuilderInterruptible {
         }
     }
 
+    /**
+     * Returns a class providing access to an analysis of potential quasi-identifiers using
+     * the concepts of alpha distinction and alpha separation. Combinations of attributes
+     * are evaluated with the given number of threads.
+     *
+     * @param numThreads
+     * @return the RiskModelAttributes data from risk analysis
+     */
+    public RiskModelAttributes getAttributeRisks(int numThreads) throws InterruptedException {
+        try {
+            return parent.getAttributeRisks(numThreads);
+        } catch (ComputationInterruptedException e) {
+            throw new InterruptedException("Computation interrupted");
+        }
+    }
+
+    /**
+     * Returns a class providing access to an analysis of potential quasi-identifiers using
+     * the concepts of alpha distinction and alpha separation. Only the given number of
+     * combinations of attributes with the highest distinction and separation is returned.
+     *
+     * @param numThreads
+     * @param maxResults
+     * @return the RiskModelAttributes data from risk analysis
+     */
+    public RiskModelAttributes getAttributeRisks(int numThreads, int maxResults) throws InterruptedException {
+        try {
+            return parent.getAttributeRisks(numThreads, maxResults);
+        } catch (ComputationInterruptedException e) {
+            throw new InterruptedException("Computation interrupted");
+        }
+    }
+
     /**
      * Returns a model of the equivalence classes in this data set
      * 
@@ -22,24 +22,34 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.deidentifier.arx.ARXConfiguration;
-import org.deidentifier.arx.ARXPopulationModel;
-import org.deidentifier.arx.ARXSolverConfiguration;
 import org.deidentifier.arx.DataHandleInternal;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
 import org.deidentifier.arx.exceptions.ComputationInterruptedException;
 
+import com.carrotsearch.hppc.IntIntOpenHashMap;
+import com.carrotsearch.hppc.LongIntOpenHashMap;
+
 /**
  * A class for analyzing attribute-related risks. Calculates alpha-distinction and
  * alpha separation as described in R. Motwani et al.
  * "Efficient algorithms for masking and finding quasi-identifiers" Proc. VLDB Conf., 2007.
- *
+ * <br>
+ * The equivalence classes of a combination of attributes are derived by refining the classes
+ * of a combination with one attribute less, which requires a single pass over integer codes.
+ * Combinations may be evaluated in parallel.
  *
  * @author Fabian Prasser
  * @author Maximilian Zitzmann
@@ -65,20 +75,13 @@ public class RiskModelAttributes {
          * Creates a new instance
          *
          * @param identifier
+         * @param histogram
          */
-        private QuasiIdentifierRisk(List<String> identifier) {
+        private QuasiIdentifierRisk(List<String> identifier, RiskModelHistogram histogram) {
 
             // Store identifier
             this.identifier = identifier;
 
-            // Calculate distribution of class sizes
-            RiskModelHistogram histogram = new RiskEstimateBuilder(population,
-                                                                   handle,
-                                                                   new HashSet<String>(identifier),
-                                                                   stop,
-                                                                   solverconfig,
-                                                                   arxconfig).getEquivalenceClassModel();
-
             // Calculate distinction and separation
             this.alphaDistinction = getAlphaDistinction(histogram);
             this.alphaSeparation = getAlphaSeparation(histogram);
@@ -136,82 +139,137 @@ public class RiskModelAttributes {
             return alphaSeparation;
         }
     }
+
+    /**
+     * A candidate in the search for the riskiest quasi-identifiers
+     *
+     * @author Fabian Prasser
+     */
+    private static class Candidate {
+
+        /** Indices of the attributes */
+        private final int[]               attributes;
+        /** Largest index of an attribute which has been removed, -1 if none */
+        private final int                 removed;
+        /** Risks */
+        private final QuasiIdentifierRisk risk;
+
+        /**
+         * Creates a new instance
+         * @param attributes
+         * @param removed
+         * @param risk
+         */
+        private Candidate(int[] attributes, int removed, QuasiIdentifierRisk risk) {
+            this.attributes = attributes;
+            this.removed = removed;
+            this.risk = risk;
+        }
+    }
+
+    /**
+     * A partition of the records into equivalence classes
+     *
+     * @author Fabian Prasser
+     */
+    private static class Partition {
+
+        /** Class of each record */
+        private final int[] classes;
+        /** Number of classes */
+        private final int   numClasses;
+
+        /**
+         * Creates a new instance
+         * @param classes
+         * @param numClasses
+         */
+        private Partition(int[] classes, int numClasses) {
+            this.classes = classes;
+            this.numClasses = numClasses;
+        }
+    }
+
     /** Stop flag */
-    private final WrappedBoolean        stop;
+    private final WrappedBoolean            stop;
+    /** Set, if a parallel task failed */
+    private volatile boolean                aborted = false;
+    /** Results */
+    private final QuasiIdentifierRisk[]     risks;
+    /** Attributes, ordered by column index */
+    private final String[]                  attributes;
+    /** Encoded values of each attribute for each record which is not suppressed */
+    private final int[][]                   codes;
+    /** Number of distinct values of each attribute */
+    private final int[]                     domains;
+    /** Partition in which all records are in one class */
+    private final Partition                 root;
     /** Results */
-    private final QuasiIdentifierRisk[] risks;
-    /** Just needed for creating risk models */
-    private ARXPopulationModel          population;
-    /** Data handle */
-    private DataHandleInternal          handle;
-    /** Just needed for creating risk models */
-    private ARXSolverConfiguration      solverconfig;
-    /** Just needed for creating risk models */
-    private ARXConfiguration            arxconfig;
+    private final List<QuasiIdentifierRisk> results = Collections.synchronizedList(new ArrayList<QuasiIdentifierRisk>());
+    /** Progress */
+    private final WrappedInteger            percentageDone;
+    /** Progress */
+    private final AtomicInteger             done    = new AtomicInteger();
+    /** Number of elements in the power set */
+    private final double                    total;
 
     /**
      * Creates a new instance
-     * @param population
      * @param handle
      * @param identifiers
      * @param stop
      * @param percentageDone
-     * @param solverconfig
-     * @param arxconfig
+     * @param numThreads
+     * @param maxResults The maximal number of quasi-identifiers to return, ordered by risk,
+     *                   Integer.MAX_VALUE for all combinations of attributes
      */
-    RiskModelAttributes(final ARXPopulationModel population,
-                        final DataHandleInternal handle,
+    RiskModelAttributes(final DataHandleInternal handle,
                         final Set<String> identifiers,
                         final WrappedBoolean stop,
                         final WrappedInteger percentageDone,
-                        final ARXSolverConfiguration solverconfig,
-                        final ARXConfiguration arxconfig) {
+                        final int numThreads,
+                        final int maxResults) {
         
-        this.population = population;
-        this.handle = handle;
         this.stop = stop;
-        this.solverconfig = solverconfig;
-        this.arxconfig = arxconfig;
-
-        // Find order list of qis
-        List<List<String>> qis = new ArrayList<>();
-        Set<Set<String>> powerset = getPowerSet(identifiers);
-        for (Set<String> set : powerset) {
-            
-            // Exclude empty set
-            if (!set.isEmpty()) {
-                
-                // Create and add
-                List<String> qi = new ArrayList<String>(set);
-                qis.add(qi);
-                
-                // Sort by column index
-                Collections.sort(qi, new Comparator<String>(){
-                    @Override
-                    public int compare(String o1, String o2) {
-                        int index1 = handle.getColumnIndexOf(o1);
-                        int index2 = handle.getColumnIndexOf(o2);
-                        return new Integer(index1).compareTo(index2);
-                    }
-                });
+        this.percentageDone = percentageDone;
+
+        // Order attributes by column index
+        this.attributes = identifiers.toArray(new String[identifiers.size()]);
+        Arrays.sort(this.attributes, new Comparator<String>(){
+            @Override
+            public int compare(String o1, String o2) {
+                return Integer.compare(handle.getColumnIndexOf(o1), handle.getColumnIndexOf(o2));
             }
-        }
+        });
         
-        // Compute risk estimates for all elements in the power set
-        Map<List<String>, QuasiIdentifierRisk> scores = new HashMap<>();
-        int done = 0;
-        for (List<String> qi : qis) {
-            checkInterrupt();
-            scores.put(qi, new QuasiIdentifierRisk(qi));
-            percentageDone.value = (int) Math.round((double) done++ / (double) (powerset.size() - 1) * 100d);
+        // Encode records which are not suppressed
+        this.codes = encode(handle);
+        this.domains = new int[attributes.length];
+        int numRows = codes.length == 0 ? 0 : codes[0].length;
+        for (int i = 0; i < attributes.length; i++) {
+            for (int code : codes[i]) {
+                domains[i] = Math.max(domains[i], code + 1);
+            }
+        }
+        this.root = new Partition(new int[numRows], numRows > 0 ? 1 : 0);
+        this.total = Math.pow(2d, attributes.length) - 1d;
+
+        // Compute risk estimates for all elements in the power set or for the riskiest elements
+        ExecutorService executor = numThreads > 1 ? createExecutor(numThreads) : null;
+        try {
+            if (maxResults < total) {
+                evaluateRiskiest(executor, maxResults);
+            } else {
+                evaluateAll(executor, Math.max(1L, (long) total / (8L * numThreads)));
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
         }
 
         // Now create sorted array
-        risks = new QuasiIdentifierRisk[scores.size()];
-        int idx = 0;
-        for (QuasiIdentifierRisk value : scores.values()) {
-            risks[idx++] = value;
-        }
+        risks = results.toArray(new QuasiIdentifierRisk[results.size()]);
         Arrays.sort(risks);
     }
 
@@ -224,15 +282,291 @@ public class RiskModelAttributes {
         return this.risks;
     }
 
+    /**
+     * Waits for the given tasks to finish
+     * 
+     * @param futures
+     */
+    private void await(List<Future<Void>> futures) {
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            aborted = true;
+            throw new ComputationInterruptedException(e);
+        } catch (ExecutionException e) {
+            aborted = true;
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
     /**
      * Checks for interrupts
      */
     private void checkInterrupt() {
-        if (stop.value) {
+        if (stop.value || aborted) {
             throw new ComputationInterruptedException();
         }
     }
 
+    /**
+     * Creates a pool of daemon threads
+     * 
+     * @param numThreads
+     * @return
+     */
+    private ExecutorService createExecutor(int numThreads) {
+        return Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+            int count = 0;
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ARX attribute risks " + (count++));
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Encodes the values of all attributes of records which are not suppressed
+     * 
+     * @param handle
+     * @return
+     */
+    private int[][] encode(DataHandleInternal handle) {
+        
+        // Collect records
+        int[] rows = new int[handle.getNumRows()];
+        int numRows = 0;
+        for (int row = 0; row < rows.length; row++) {
+            if (!handle.isOutlier(row)) {
+                rows[numRows++] = row;
+            }
+        }
+        
+        // Encode
+        int[][] result = new int[attributes.length][numRows];
+        for (int i = 0; i < attributes.length; i++) {
+            int column = handle.getColumnIndexOf(attributes[i]);
+            Map<String, Integer> dictionary = new HashMap<String, Integer>();
+            for (int row = 0; row < numRows; row++) {
+                String value = handle.getValue(rows[row], column, false);
+                Integer code = dictionary.get(value);
+                if (code == null) {
+                    code = dictionary.size();
+                    dictionary.put(value, code);
+                }
+                result[i][row] = code;
+            }
+            checkInterrupt();
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the given quasi-identifier
+     * 
+     * @param identifier
+     * @param partition
+     * @return
+     */
+    private QuasiIdentifierRisk evaluate(int[] identifier, Partition partition) {
+        List<String> qi = new ArrayList<String>();
+        for (int attribute : identifier) {
+            qi.add(attributes[attribute]);
+        }
+        return new QuasiIdentifierRisk(qi, getHistogram(partition));
+    }
+
+    /**
+     * Evaluates all elements of the power set. Each combination is derived from the
+     * combination without its last attribute, depth-first. Subtrees with not more
+     * than threshold elements are evaluated by the executor, if any.
+     * 
+     * @param executor
+     * @param threshold
+     */
+    private void evaluateAll(ExecutorService executor, long threshold) {
+        List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        evaluateAll(new int[0], root, executor, futures, threshold);
+        await(futures);
+    }
+    
+    /**
+     * Evaluates all supersets of the given quasi-identifier which contain additional
+     * attributes with larger indices
+     * 
+     * @param identifier
+     * @param partition
+     * @param executor
+     * @param futures
+     * @param threshold
+     */
+    private void evaluateAll(final int[] identifier,
+                             final Partition partition,
+                             final ExecutorService executor,
+                             final List<Future<Void>> futures,
+                             final long threshold) {
+        
+        int first = identifier.length == 0 ? 0 : identifier[identifier.length - 1] + 1;
+        for (int next = first; next < attributes.length; next++) {
+            
+            checkInterrupt();
+            final int[] child = Arrays.copyOf(identifier, identifier.length + 1);
+            child[identifier.length] = next;
+            long size = 1L << (attributes.length - next - 1);
+            
+            // Evaluate subtree asynchronously
+            if (executor != null && size <= threshold) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        Partition refined = refine(partition, child[child.length - 1]);
+                        store(evaluate(child, refined));
+                        evaluateAll(child, refined, null, null, 0);
+                        return null;
+                    }
+                }));
+                
+            // Evaluate subtree here
+            } else {
+                Partition refined = refine(partition, next);
+                store(evaluate(child, refined));
+                evaluateAll(child, refined, executor, futures, threshold);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the given number of riskiest elements of the power set. As alpha distinction and
+     * alpha separation never decrease when attributes are added, the search starts with the set
+     * of all attributes and removes attributes in a best-first manner.
+     * 
+     * @param executor
+     * @param maxResults
+     */
+    private void evaluateRiskiest(ExecutorService executor, int maxResults) {
+        
+        // Prepare
+        PriorityQueue<Candidate> queue = new PriorityQueue<Candidate>(11, new Comparator<Candidate>() {
+            @Override
+            public int compare(Candidate o1, Candidate o2) {
+                int cmp = Double.compare(o2.risk.getDistinction(), o1.risk.getDistinction());
+                cmp = cmp != 0 ? cmp : Double.compare(o2.risk.getSeparation(), o1.risk.getSeparation());
+                return cmp != 0 ? cmp : Integer.compare(o1.attributes.length, o2.attributes.length);
+            }
+        });
+        
+        // Start with all attributes
+        List<Candidate> candidates = new ArrayList<Candidate>();
+        if (attributes.length > 0 && maxResults > 0) {
+            int[] identifier = new int[attributes.length];
+            for (int i = 0; i < identifier.length; i++) {
+                identifier[i] = i;
+            }
+            candidates.add(new Candidate(identifier, -1, null));
+        }
+        
+        // Search
+        while (true) {
+            
+            // Evaluate candidates
+            checkInterrupt();
+            for (Candidate candidate : evaluateCandidates(executor, candidates)) {
+                queue.add(candidate);
+            }
+            if (queue.isEmpty() || results.size() == maxResults) {
+                break;
+            }
+            
+            // Select the riskiest candidate
+            Candidate candidate = queue.poll();
+            results.add(candidate.risk);
+            percentageDone.value = (int) Math.round((double) results.size() / (double) maxResults * 100d);
+            
+            // Remove attributes with larger indices than all attributes removed before
+            candidates.clear();
+            if (candidate.attributes.length > 1) {
+                for (int i = 0; i < candidate.attributes.length; i++) {
+                    int attribute = candidate.attributes[i];
+                    if (attribute > candidate.removed) {
+                        int[] identifier = new int[candidate.attributes.length - 1];
+                        System.arraycopy(candidate.attributes, 0, identifier, 0, i);
+                        System.arraycopy(candidate.attributes, i + 1, identifier, i, identifier.length - i);
+                        candidates.add(new Candidate(identifier, attribute, null));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates the given candidates, in parallel if an executor is given
+     * 
+     * @param executor
+     * @param candidates
+     * @return
+     */
+    private List<Candidate> evaluateCandidates(ExecutorService executor, List<Candidate> candidates) {
+        
+        // Prepare
+        List<Callable<Candidate>> tasks = new ArrayList<Callable<Candidate>>();
+        for (final Candidate candidate : candidates) {
+            tasks.add(new Callable<Candidate>() {
+                @Override
+                public Candidate call() {
+                    Partition partition = root;
+                    for (int attribute : candidate.attributes) {
+                        partition = refine(partition, attribute);
+                    }
+                    return new Candidate(candidate.attributes, candidate.removed, evaluate(candidate.attributes, partition));
+                }
+            });
+        }
+        
+        // Evaluate
+        List<Candidate> result = new ArrayList<Candidate>();
+        try {
+            if (executor == null) {
+                for (Callable<Candidate> task : tasks) {
+                    result.add(task.call());
+                }
+            } else {
+                for (Future<Candidate> future : executor.invokeAll(tasks)) {
+                    result.add(future.get());
+                }
+            }
+        } catch (InterruptedException e) {
+            aborted = true;
+            throw new ComputationInterruptedException(e);
+        } catch (ExecutionException e) {
+            aborted = true;
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Stores the given result and tracks progress
+     * 
+     * @param risk
+     */
+    private void store(QuasiIdentifierRisk risk) {
+        results.add(risk);
+        percentageDone.value = (int) Math.round((double) done.incrementAndGet() / total * 100d);
+    }
+
     /**
      * Calculates the Gaussian sum formula
      * 
@@ -242,7 +576,6 @@ public class RiskModelAttributes {
     private double gaussianSum(double n) {
         return (n * (n + 1d)) / 2d;
     }
-
     /**
      * We calculate a value alpha in [0,1] such that the set of attributes becomes a key
      * after the removal of a fraction of at most 1-alpha of the records in the table.
@@ -309,29 +642,71 @@ public class RiskModelAttributes {
     }
 
     /**
-     * Returns the power set
+     * Returns the distribution of class sizes of the given partition
      *
-     * @param originalSet
+     * @param partition
      * @return
      */
-    private <T> Set<Set<T>> getPowerSet(Set<T> originalSet) {
-        checkInterrupt();
-        Set<Set<T>> sets = new HashSet<Set<T>>();
-        if (originalSet.isEmpty()) {
-            sets.add(new HashSet<T>());
-            return sets;
+    private RiskModelHistogram getHistogram(Partition partition) {
+        int[] sizes = new int[partition.numClasses];
+        for (int clazz : partition.classes) {
+            sizes[clazz]++;
         }
-        List<T> list = new ArrayList<T>(originalSet);
-        T head = list.get(0);
-        Set<T> rest = new HashSet<T>(list.subList(1, list.size()));
-        for (Set<T> set : getPowerSet(rest)) {
-            checkInterrupt();
-            Set<T> newSet = new HashSet<T>();
-            newSet.add(head);
-            newSet.addAll(set);
-            sets.add(newSet);
-            sets.add(set);
+        IntIntOpenHashMap distribution = new IntIntOpenHashMap();
+        for (int size : sizes) {
+            distribution.putOrAdd(size, 1, 1);
+        }
+        return new RiskModelHistogram(distribution);
+    }
+
+    /**
+     * Splits the classes of the given partition by the values of the given attribute
+     *
+     * @param parent
+     * @param attribute
+     * @return
+     */
+    private Partition refine(Partition parent, int attribute) {
+        
+        // Prepare
+        checkInterrupt();
+        int[] values = codes[attribute];
+        int domain = domains[attribute];
+        int[] classes = new int[parent.classes.length];
+        int numClasses = 0;
+        long size = (long) parent.numClasses * (long) domain;
+        
+        // Use a table, if small enough
+        if (size <= Math.max(1024L, 4L * classes.length)) {
+            int[] table = new int[(int) size];
+            Arrays.fill(table, -1);
+            for (int row = 0; row < classes.length; row++) {
+                int key = parent.classes[row] * domain + values[row];
+                int clazz = table[key];
+                if (clazz == -1) {
+                    clazz = numClasses++;
+                    table[key] = clazz;
+                }
+                classes[row] = clazz;
+            }
+            
+        // Use a hash table otherwise
+        } else {
+            LongIntOpenHashMap map = new LongIntOpenHashMap();
+            for (int row = 0; row < classes.length; row++) {
+                long key = (long) parent.classes[row] * (long) domain + (long) values[row];
+                int clazz;
+                if (map.containsKey(key)) {
+                    clazz = map.lget();
+                } else {
+                    clazz = numClasses++;
+                    map.put(key, clazz);
+                }
+                classes[row] = clazz;
+            }
         }
-        return sets;
+        
+        // Done
+        return new Partition(classes, numClasses);
     }
 }
\ No newline at end of file
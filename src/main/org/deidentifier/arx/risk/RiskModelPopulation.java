@@ -17,6 +17,8 @@
 
 package org.deidentifier.arx.risk;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.deidentifier.arx.ARXPopulationModel;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
@@ -63,6 +65,24 @@ abstract class RiskModelPopulation {
         if (stop.value) { throw new ComputationInterruptedException(); }
     }
 
+    /**
+     * Checks for interrupts and for the given flag
+     * 
+     * @param cancel
+     */
+    protected void checkInterrupt(AtomicBoolean cancel) {
+        if (stop.value || cancel.get()) { throw new ComputationInterruptedException(); }
+    }
+
+    /**
+     * Returns the stop flag
+     * 
+     * @return
+     */
+    protected WrappedBoolean getStopFlag() {
+        return stop;
+    }
+
     /**
      * @return the classes
      */
@@ -18,15 +18,25 @@
 package org.deidentifier.arx.risk;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.deidentifier.arx.ARXPopulationModel;
 import org.deidentifier.arx.ARXSolverConfiguration;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
+import org.deidentifier.arx.exceptions.ComputationInterruptedException;
 
 /**
  * Class for risks based on population uniqueness. It implements Dankar et al.'s
- * decision rule.
+ * decision rule. Estimates are cached, which means that they are reused for equal
+ * histograms and parameters.
  * 
  * @author Fabian Prasser
  */
@@ -44,6 +54,9 @@ public class RiskModelPopulationUniqueness extends RiskModelPopulation {
         DANKAR,
     }
 
+    /** Cache for estimates, shared by all instances */
+    private static final PopulationUniquenessCache CACHE = new PopulationUniquenessCache(1024);
+
     /** Estimate */
     private double                    numUniquesZayatz = -1d;
     /** Estimate */
@@ -67,6 +80,23 @@ public class RiskModelPopulationUniqueness extends RiskModelPopulation {
     /** Parameter */
     private WrappedBoolean            stop;
 
+    /**
+     * Removes all estimates from the cache, which is shared by all instances
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * Enables or disables the cache, which is shared by all instances. Disabling
+     * the cache removes all estimates. The cache is enabled by default.
+     * 
+     * @param enabled
+     */
+    public static void setCacheEnabled(boolean enabled) {
+        CACHE.setEnabled(enabled);
+    }
+
     /**
      * Creates a new instance
      * 
@@ -123,7 +153,17 @@ public class RiskModelPopulationUniqueness extends RiskModelPopulation {
         }
 
         // If precomputation (for interruptible builders)
-        if (precompute) {
+        if (precompute && config.getNumThreads() > 1) {
+
+            // Estimate with Zayatz's, Pitman's and the SNB model concurrently
+            compute(PopulationUniquenessModel.ZAYATZ, PopulationUniquenessModel.PITMAN, PopulationUniquenessModel.SNB);
+            progress.value = 75;
+
+            // Decision rule by Dankar et al.
+            getNumUniqueTuplesDankar();
+            progress.value = 100;
+
+        } else if (precompute) {
 
             // Estimate with Zayatz's model
             getNumUniqueTuplesZayatz();
@@ -241,8 +281,7 @@ public class RiskModelPopulationUniqueness extends RiskModelPopulation {
                         dankarModel = PopulationUniquenessModel.ZAYATZ;
                     } 
                 } else {
-                    getNumUniqueTuplesSNB();
-                    getNumUniqueTuplesZayatz();
+                    compute(PopulationUniquenessModel.SNB, PopulationUniquenessModel.ZAYATZ);
                     if (isValid(numUniquesSNB)) {
                         if (numUniquesZayatz < numUniquesSNB) {
                             numUniquesDankar = numUniquesZayatz;
@@ -270,10 +309,7 @@ public class RiskModelPopulationUniqueness extends RiskModelPopulation {
             if (this.numClassesOfSize1 == 0) {
                 numUniquesPitman = 0;
             } else {
-                numUniquesPitman = new ModelPitman(model,
-                                                   histogram,
-                                                   config,
-                                                   stop).getNumUniques();
+                numUniquesPitman = estimate(PopulationUniquenessModel.PITMAN, config.getNumThreads());
             }
         }
         return isValid(numUniquesPitman) ? numUniquesPitman : 0d;
@@ -288,10 +324,7 @@ public class RiskModelPopulationUniqueness extends RiskModelPopulation {
             if (this.numClassesOfSize1 == 0) {
                 numUniquesSNB = 0;
             } else {
-                numUniquesSNB = new ModelSNB(model,
-                                             histogram,
-                                             config,
-                                             stop).getNumUniques();
+                numUniquesSNB = estimate(PopulationUniquenessModel.SNB, config.getNumThreads());
             }
         }
         return isValid(numUniquesSNB) ? numUniquesSNB : 0d;
@@ -306,9 +339,7 @@ public class RiskModelPopulationUniqueness extends RiskModelPopulation {
             if (this.numClassesOfSize1 == 0) {
                 numUniquesZayatz = 0;
             } else {
-                numUniquesZayatz = new ModelZayatz(model,
-                                                   histogram,
-                                                   stop).getNumUniques();
+                numUniquesZayatz = estimate(PopulationUniquenessModel.ZAYATZ, config.getNumThreads());
             }
         }
         return isValid(numUniquesZayatz) ? numUniquesZayatz : 0d;
@@ -368,6 +399,145 @@ public class RiskModelPopulationUniqueness extends RiskModelPopulation {
         return getNumUniqueTuplesZayatz() != 0d || numClassesOfSize1 == 0;
     }
 
+    /**
+     * Computes the missing estimates of the given models. With more than one thread,
+     * the models are solved concurrently.
+     * 
+     * @param models
+     */
+    private void compute(PopulationUniquenessModel... models) {
+
+        // Collect
+        final List<PopulationUniquenessModel> missing = new ArrayList<PopulationUniquenessModel>();
+        for (PopulationUniquenessModel model : models) {
+            if (getEstimate(model) == -1) {
+                missing.add(model);
+            }
+        }
+
+        // Sequential computation
+        int threads = config.getNumThreads();
+        if (threads <= 1 || missing.size() <= 1) {
+            for (PopulationUniquenessModel model : missing) {
+                getNumUniqueTuples(model);
+            }
+            return;
+        }
+
+        // Create executor
+        ExecutorService executor = Executors.newFixedThreadPool(missing.size(), new ThreadFactory() {
+            int count = 0;
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                thread.setName("ARX Population Uniqueness " + (count++));
+                return thread;
+            }
+        });
+
+        try {
+
+            // Submit, distributing the threads among the models
+            final int threadsPerModel = Math.max(1, threads / missing.size());
+            List<Future<Double>> futures = new ArrayList<Future<Double>>();
+            for (final PopulationUniquenessModel model : missing) {
+                futures.add(executor.submit(new Callable<Double>() {
+                    @Override
+                    public Double call() throws Exception {
+                        return estimate(model, threadsPerModel);
+                    }
+                }));
+            }
+
+            // Collect
+            for (int i = 0; i < missing.size(); i++) {
+                double estimate = futures.get(i).get();
+                switch (missing.get(i)) {
+                case ZAYATZ:
+                    numUniquesZayatz = estimate;
+                    break;
+                case PITMAN:
+                    numUniquesPitman = estimate;
+                    break;
+                case SNB:
+                    numUniquesSNB = estimate;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown model");
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new ComputationInterruptedException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the estimate of the given statistical model, using the cache
+     * 
+     * @param model
+     * @param threads
+     * @return
+     */
+    private double estimate(PopulationUniquenessModel model, int threads) {
+
+        // Check cache
+        long populationSize = this.model.getPopulationSize();
+        Double cached = CACHE.get(model, histogram, populationSize, config);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Compute
+        double estimate;
+        switch (model) {
+        case ZAYATZ:
+            estimate = new ModelZayatz(this.model, histogram, stop).getNumUniques();
+            break;
+        case PITMAN:
+            estimate = new ModelPitman(this.model, histogram, config, threads, stop).getNumUniques();
+            break;
+        case SNB:
+            estimate = new ModelSNB(this.model, histogram, config, threads, stop).getNumUniques();
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown model");
+        }
+
+        // Store and return
+        CACHE.put(model, histogram, populationSize, config, estimate);
+        return estimate;
+    }
+
+    /**
+     * Returns the estimate of the given statistical model, which is -1 if it has
+     * not been computed, yet
+     * 
+     * @param model
+     * @return
+     */
+    private double getEstimate(PopulationUniquenessModel model) {
+        switch (model) {
+        case ZAYATZ:
+            return numUniquesZayatz;
+        case PITMAN:
+            return numUniquesPitman;
+        case SNB:
+            return numUniquesSNB;
+        case DANKAR:
+            return numUniquesDankar;
+        }
+        throw new IllegalArgumentException("Unknown model");
+    }
+
     /**
      * Is an estimate valid?
      * 
@@ -20,9 +20,8 @@ import java.util.Arrays;
 import java.util.Set;
 
 import org.deidentifier.arx.DataHandleInternal;
-import org.deidentifier.arx.common.Groupify;
-import org.deidentifier.arx.common.Groupify.Group;
-import org.deidentifier.arx.common.TupleWrapper;
+import org.deidentifier.arx.common.EncodedGroupify;
+import org.deidentifier.arx.common.EncodedGroupify.OutlierHandling;
 import org.deidentifier.arx.common.WrappedBoolean;
 import org.deidentifier.arx.common.WrappedInteger;
 import org.deidentifier.arx.exceptions.ComputationInterruptedException;
@@ -209,8 +208,8 @@ public class RiskModelSampleSummary {
         this.threshold = threshold;
         
         // Prepare
-        Groupify<TupleWrapper> sample;
-        Groupify<TupleWrapper> population;
+        EncodedGroupify sample;
+        EncodedGroupify population;
         if (handle.getSuperset() != null) {
             sample = getGroups(handle, identifiers, 0d, 0.45d, stop, progress, false, suppressed);
             population = getGroups(handle.getSuperset(), identifiers,  0.45d, 0.45d, stop, progress, true, suppressed);
@@ -286,14 +285,14 @@ public class RiskModelSampleSummary {
      * @param suppressed 
      * @return
      */
-    private Groupify<TupleWrapper> getGroups(DataHandleInternal handle,
-                                             Set<String> qis,
-                                             double offset,
-                                             double factor,
-                                             WrappedBoolean stop,
-                                             WrappedInteger progress,
-                                             boolean ignoreOutliers,
-                                             String suppressed) {
+    private EncodedGroupify getGroups(DataHandleInternal handle,
+                                      Set<String> qis,
+                                      double offset,
+                                      double factor,
+                                      WrappedBoolean stop,
+                                      WrappedInteger progress,
+                                      boolean ignoreOutliers,
+                                      String suppressed) {
 
         /* ********************************
          * Check 
@@ -315,9 +314,13 @@ public class RiskModelSampleSummary {
         Arrays.sort(indices);
 
         // Calculate equivalence classes
+        EncodedGroupify map = handle.getGroupify(indices, ignoreOutliers, OutlierHandling.SUPPRESS, suppressed);
+        if (map != null) {
+            return map;
+        }
         int capacity = handle.getNumRows() / 10;
         capacity = capacity > 10 ? capacity : 10;
-        Groupify<TupleWrapper> map = new Groupify<TupleWrapper>(capacity);
+        map = new EncodedGroupify(handle, indices, ignoreOutliers, OutlierHandling.SUPPRESS, suppressed, capacity);
         int numRows = handle.getNumRows();
         for (int row = 0; row < numRows; row++) {
 
@@ -326,12 +329,12 @@ public class RiskModelSampleSummary {
                 progress.value = prog;
             }
 
-            TupleWrapper tuple = new TupleWrapper(handle, indices, row, ignoreOutliers, suppressed);
-            map.add(tuple);
+            map.add(row);
             if (stop.value) { throw new ComputationInterruptedException(); }
         }
 
-        // Return
+        // Cache and return
+        handle.setGroupify(map);
         return map;
     }
 
@@ -344,8 +347,8 @@ public class RiskModelSampleSummary {
      * @param stop 
      * @return
      */
-    private JournalistRisk getJournalistRisk(Groupify<TupleWrapper> population,
-                                             Groupify<TupleWrapper> sample,
+    private JournalistRisk getJournalistRisk(EncodedGroupify population,
+                                             EncodedGroupify sample,
                                              double offset,
                                              WrappedBoolean stop,
                                              WrappedInteger progress) {
@@ -359,25 +362,23 @@ public class RiskModelSampleSummary {
         double numClassesInSample = 0d;
         double smallestClassSizeInPopulation = Integer.MAX_VALUE;
         int maxindex = sample.size();
-        int index = 0;
         
         // For each group
-        Group<TupleWrapper> element = sample.first();
-        while (element != null) {
+        for (int group = 0; group < maxindex; group++) {
             
             // Track progress
-            int prog = (int) Math.round(offset + (double) index++ / (double) maxindex * 3.3d);
+            int prog = (int) Math.round(offset + (double) group / (double) maxindex * 3.3d);
             if (prog != progress.value) {
                 progress.value = prog;
             }
             
             // Only process unsuppressed records
-            if (!element.getElement().isSuppressed()) {
+            if (!sample.isSuppressed(group)) {
                 
-                int groupSizeInSample = element.getCount();
+                int groupSizeInSample = sample.getCount(group);
                 int groupSizeInPopulation = groupSizeInSample;
                 if (population != sample) {
-                    groupSizeInPopulation = population.get(element.getElement()).getCount();
+                    groupSizeInPopulation = population.getCount(population.getGroup(sample, group));
                 }
                 
                 // Compute rA
@@ -395,9 +396,6 @@ public class RiskModelSampleSummary {
                 rC2 += (double)groupSizeInSample / (double)groupSizeInPopulation;
             }
                 
-            // Next element
-            element = element.next();
-            
             // Stop, if required
             if (stop.value) { throw new ComputationInterruptedException(); }
         }
@@ -426,8 +424,8 @@ public class RiskModelSampleSummary {
      * @param stop 
      * @return
      */
-    private MarketerRisk getMarketerRisk(Groupify<TupleWrapper> population,
-                                         Groupify<TupleWrapper> sample,
+    private MarketerRisk getMarketerRisk(EncodedGroupify population,
+                                         EncodedGroupify sample,
                                          double offset,
                                          WrappedBoolean stop,
                                          WrappedInteger progress) {
@@ -436,25 +434,23 @@ public class RiskModelSampleSummary {
         double rC = 0d;
         double numRecordsInSample = 0d;
         int maxindex = sample.size();
-        int index = 0;
         
         // For each group
-        Group<TupleWrapper> element = sample.first();
-        while (element != null) {
+        for (int group = 0; group < maxindex; group++) {
             
             // Track progress
-            int prog = (int) Math.round(offset + (double) index++ / (double) maxindex * 3.3d);
+            int prog = (int) Math.round(offset + (double) group / (double) maxindex * 3.3d);
             if (prog != progress.value) {
                 progress.value = prog;
             }
             
             // Only process unsuppressed records
-            if (!element.getElement().isSuppressed()) {
+            if (!sample.isSuppressed(group)) {
                 
-                int groupSizeInSample = element.getCount();
+                int groupSizeInSample = sample.getCount(group);
                 int groupSizeInPopulation = groupSizeInSample;
                 if (population != sample) {
-                    groupSizeInPopulation = population.get(element.getElement()).getCount();
+                    groupSizeInPopulation = population.getCount(population.getGroup(sample, group));
                 }
                 
                 // Compute rC
@@ -462,9 +458,6 @@ public class RiskModelSampleSummary {
                 rC += (double)groupSizeInSample / (double)groupSizeInPopulation;
             }
                 
-            // Next element
-            element = element.next();
-            
             // Stop, if required
             if (stop.value) { throw new ComputationInterruptedException(); }
         }
@@ -485,8 +478,8 @@ public class RiskModelSampleSummary {
      * @param stop 
      * @return
      */
-    private ProsecutorRisk getProsecutorRisk(Groupify<TupleWrapper> population,
-                                             Groupify<TupleWrapper> sample,
+    private ProsecutorRisk getProsecutorRisk(EncodedGroupify population,
+                                             EncodedGroupify sample,
                                              double offset,
                                              WrappedBoolean stop,
                                              WrappedInteger progress) {
@@ -499,23 +492,21 @@ public class RiskModelSampleSummary {
         double numClasses = 0d;
         double smallestClassSize = Integer.MAX_VALUE;
         int maxindex = sample.size();
-        int index = 0;
         
         // For each group
-        Group<TupleWrapper> element = sample.first();
-        while (element != null) {
+        for (int group = 0; group < maxindex; group++) {
             
             // Track progress
-            int prog = (int) Math.round(offset + (double) index++ / (double) maxindex * 3.3d);
+            int prog = (int) Math.round(offset + (double) group / (double) maxindex * 3.3d);
             if (prog != progress.value) {
                 progress.value = prog;
             }
             
             // Only process unsuppressed records
-            if (!element.getElement().isSuppressed()) {
+            if (!sample.isSuppressed(group)) {
                 
                 // Compute rA
-                int groupSize = element.getCount();
+                int groupSize = sample.getCount(group);
                 if (1d / groupSize > threshold) {
                     rA += groupSize;
                 }
@@ -528,9 +519,6 @@ public class RiskModelSampleSummary {
                 numRecords += groupSize;
             }
                 
-            // Next element
-            element = element.next();
-            
             // Stop, if required
             if (stop.value) { throw new ComputationInterruptedException(); }
         }
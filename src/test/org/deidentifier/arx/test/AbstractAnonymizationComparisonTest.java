@@ -0,0 +1,146 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.ARXLattice.ARXNode;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.AttributeType.Hierarchy;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.criteria.DistinctLDiversity;
+import org.deidentifier.arx.criteria.EqualDistanceTCloseness;
+import org.deidentifier.arx.criteria.HierarchicalDistanceTCloseness;
+import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.metric.Metric;
+import org.deidentifier.arx.test.AbstractAnonymizationTest.ARXAnonymizationTestCase;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Abstract class for tests which compare the results of anonymizing a dataset with
+ * and without a specific setting, which must not change the result.
+ *
+ * @author Fabian Prasser
+ */
+@RunWith(Parameterized.class)
+public abstract class AbstractAnonymizationComparisonTest extends AbstractTest {
+
+    /**
+     * Returns the test cases.
+     *
+     * @return
+     * @throws IOException
+     */
+    @Parameters(name = "{index}:[{0}]")
+    public static Collection<Object[]> cases() throws IOException {
+        Hierarchy occupation = Hierarchy.create("./data/adult_hierarchy_occupation.csv", StandardCharsets.UTF_8, ';');
+        return Arrays.asList(new Object[][] {
+            { new ARXAnonymizationTestCase(ARXConfiguration.create(0.04d, Metric.createLossMetric()).addPrivacyModel(new KAnonymity(5)), "occupation", "./data/adult.csv", 0d, null, false) },
+            { new ARXAnonymizationTestCase(ARXConfiguration.create(0d, Metric.createDiscernabilityMetric(true)).addPrivacyModel(new KAnonymity(5)), "occupation", "./data/adult.csv", 0d, null, false) },
+            { new ARXAnonymizationTestCase(ARXConfiguration.create(0.04d, Metric.createPrecomputedEntropyMetric(0.1d, true)).addPrivacyModel(new EqualDistanceTCloseness("occupation", 0.2d)).addPrivacyModel(new KAnonymity(5)), "occupation", "./data/adult.csv", 0d, null, false) },
+            { new ARXAnonymizationTestCase(ARXConfiguration.create(0.04d, Metric.createKLDivergenceMetric()).addPrivacyModel(new HierarchicalDistanceTCloseness("occupation", 0.2d, occupation)).addPrivacyModel(new KAnonymity(5)), "occupation", "./data/adult.csv", 0d, null, false) },
+            { new ARXAnonymizationTestCase(ARXConfiguration.create(0.04d, Metric.createAECSMetric()).addPrivacyModel(new DistinctLDiversity("occupation", 3)), "occupation", "./data/adult.csv", 0d, null, true) },
+            { new ARXAnonymizationTestCase(ARXConfiguration.create(0.04d, Metric.createLossMetric()).addPrivacyModel(new EqualDistanceTCloseness("occupation", 0.2d)), "occupation", "./data/adult.csv", 0d, null, false) },
+        });
+    }
+
+    /**
+     * Compares output, optimum and solution space of the given results.
+     *
+     * @param expected
+     * @param actual
+     */
+    public static void compare(ARXResult expected, ARXResult actual) {
+
+        // Compare output
+        DataHandle outputExpected = expected.getOutput();
+        DataHandle outputActual = actual.getOutput();
+        assertEquals(outputExpected.getNumRows(), outputActual.getNumRows());
+        for (int row = 0; row < outputExpected.getNumRows(); row++) {
+            for (int column = 0; column < outputExpected.getNumColumns(); column++) {
+                assertEquals(outputExpected.getValue(row, column), outputActual.getValue(row, column));
+            }
+        }
+
+        // Compare optimum
+        assertArrayEquals(expected.getGlobalOptimum().getTransformation(), actual.getGlobalOptimum().getTransformation());
+        assertEquals(expected.getGlobalOptimum().getHighestScore().toString(), actual.getGlobalOptimum().getHighestScore().toString());
+
+        // Compare solution space
+        ARXNode[][] levelsExpected = expected.getLattice().getLevels();
+        ARXNode[][] levelsActual = actual.getLattice().getLevels();
+        assertEquals(levelsExpected.length, levelsActual.length);
+        for (int level = 0; level < levelsExpected.length; level++) {
+            assertEquals(levelsExpected[level].length, levelsActual[level].length);
+            for (int i = 0; i < levelsExpected[level].length; i++) {
+                ARXNode nodeExpected = levelsExpected[level][i];
+                ARXNode nodeActual = levelsActual[level][i];
+                assertArrayEquals(nodeExpected.getTransformation(), nodeActual.getTransformation());
+                assertEquals(nodeExpected.isChecked(), nodeActual.isChecked());
+                assertEquals(nodeExpected.getAnonymity(), nodeActual.getAnonymity());
+                assertEquals(String.valueOf(nodeExpected.getHighestScore()), String.valueOf(nodeActual.getHighestScore()));
+                assertEquals(String.valueOf(nodeExpected.getLowestScore()), String.valueOf(nodeActual.getLowestScore()));
+            }
+        }
+    }
+
+    /** The test case */
+    protected final ARXAnonymizationTestCase testCase;
+
+    /**
+     * Creates a new instance
+     *
+     * @param testCase
+     */
+    protected AbstractAnonymizationComparisonTest(ARXAnonymizationTestCase testCase) {
+        this.testCase = testCase;
+    }
+
+    /**
+     * Anonymizes the dataset of the test case with the current configuration.
+     *
+     * @return
+     * @throws IOException
+     */
+    protected ARXResult anonymize() throws IOException {
+        return anonymize(new ARXAnonymizer());
+    }
+
+    /**
+     * Anonymizes the dataset of the test case with the current configuration
+     * and the given anonymizer.
+     *
+     * @param anonymizer
+     * @return
+     * @throws IOException
+     */
+    protected ARXResult anonymize(ARXAnonymizer anonymizer) throws IOException {
+        testCase.config.setPracticalMonotonicity(testCase.practical);
+        return anonymizer.anonymize(AbstractAnonymizationTest.getDataObject(testCase), testCase.config);
+    }
+}
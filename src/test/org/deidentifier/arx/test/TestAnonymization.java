@@ -17,11 +17,14 @@
 
 package org.deidentifier.arx.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.HashSet;
 
@@ -33,6 +36,7 @@ import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.AttributeType.Hierarchy.DefaultHierarchy;
 import org.deidentifier.arx.Data;
 import org.deidentifier.arx.Data.DefaultData;
+import org.deidentifier.arx.DataHandle;
 import org.deidentifier.arx.DataSubset;
 import org.deidentifier.arx.criteria.DPresence;
 import org.deidentifier.arx.criteria.DistinctLDiversity;
@@ -41,6 +45,8 @@ import org.deidentifier.arx.criteria.EqualDistanceTCloseness;
 import org.deidentifier.arx.criteria.HierarchicalDistanceTCloseness;
 import org.deidentifier.arx.criteria.KAnonymity;
 import org.deidentifier.arx.criteria.RecursiveCLDiversity;
+import org.deidentifier.arx.io.CSVDataOutput;
+import org.deidentifier.arx.io.CSVSyntax;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -473,6 +479,65 @@ public class TestAnonymization extends AbstractTest {
         data.getHandle().save(new File("junit_test_data.csv"), ';');
     }
     
+    /**
+     * Performs a test
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testSaveOutput() throws IOException {
+        
+        final DefaultData data = Data.create();
+        data.add("id", "age", "remark");
+        data.add("1", "34", "a;b");
+        data.add("2", "34", "q\"q");
+        data.add("3", "45", " x ");
+        data.add("4", "45", "");
+        data.add("5", "66", "line\nbreak");
+        data.add("6", "66", "\"quoted\"");
+        data.add("7", "70", "last");
+        
+        final DefaultHierarchy age = Hierarchy.create();
+        age.add("34", "<50", "*");
+        age.add("45", "<50", "*");
+        age.add("66", ">=50", "*");
+        age.add("70", ">=50", "*");
+        data.getDefinition().setAttributeType("id", AttributeType.IDENTIFYING_ATTRIBUTE);
+        data.getDefinition().setAttributeType("age", age);
+        data.getDefinition().setAttributeType("remark", AttributeType.INSENSITIVE_ATTRIBUTE);
+        
+        final ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(3));
+        config.setSuppressionLimit(1d);
+        final DataHandle output = new ARXAnonymizer().anonymize(data, config).getOutput();
+        
+        // Compare with generic implementation
+        final CSVSyntax syntax = new CSVSyntax(';');
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new CSVDataOutput(expected, syntax).write(output.iterator());
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        output.save(actual, syntax);
+        assertTrue(expected.toString().contains("*"));
+        assertEquals(expected.toString(), actual.toString());
+        
+        // Compare parts
+        final File[] files = new File[3];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = File.createTempFile("junit_test_output", ".csv");
+            files[i].deleteOnExit();
+        }
+        output.save(files, syntax);
+        final String header = new String(Files.readAllBytes(files[0].toPath())).split("\n")[0] + "\n";
+        final StringBuilder concatenated = new StringBuilder(header);
+        for (final File file : files) {
+            final String part = new String(Files.readAllBytes(file.toPath()));
+            assertTrue(part.startsWith(header));
+            concatenated.append(part.substring(header.length()));
+            file.delete();
+        }
+        assertEquals(expected.toString(), concatenated.toString());
+    }
+
     /**
      * Performs a test
      *
@@ -0,0 +1,76 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXConfiguration.HistoryEvictionPolicy;
+import org.deidentifier.arx.ARXProcessStatistics;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.test.AbstractAnonymizationTest.ARXAnonymizationTestCase;
+import org.junit.Test;
+
+/**
+ * Test for policies for evicting snapshots from the history.
+ *
+ * @author Fabian Prasser
+ */
+public class TestAnonymizationHistoryEviction extends AbstractAnonymizationComparisonTest {
+
+    /**
+     * Creates a new instance
+     *
+     * @param testCase
+     */
+    public TestAnonymizationHistoryEviction(ARXAnonymizationTestCase testCase) {
+        super(testCase);
+    }
+
+    /**
+     * Compares the results obtained with different eviction policies.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test() throws IOException {
+
+        // Least recently used
+        ARXAnonymizer anonymizer = new ARXAnonymizer();
+        anonymizer.setHistorySize(5);
+        testCase.config.setHistoryEvictionPolicy(HistoryEvictionPolicy.LEAST_RECENTLY_USED);
+        ARXResult expected = anonymize(anonymizer);
+
+        // Cost-based
+        testCase.config.setHistoryEvictionPolicy(HistoryEvictionPolicy.COST);
+        ARXResult actual = anonymize(anonymizer);
+        testCase.config.setHistoryEvictionPolicy(HistoryEvictionPolicy.LEAST_RECENTLY_USED);
+
+        // Check statistics
+        ARXProcessStatistics statisticsExpected = expected.getProcessStatistics();
+        ARXProcessStatistics statisticsActual = actual.getProcessStatistics();
+        assertTrue(statisticsExpected.getHistoryRequests() > 0);
+        assertTrue(statisticsActual.getHistoryRequests() > 0);
+        assertTrue(statisticsActual.getHistoryHits() <= statisticsActual.getHistoryRequests());
+
+        // Compare
+        compare(expected, actual);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import java.io.IOException;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.test.AbstractAnonymizationTest.ARXAnonymizationTestCase;
+import org.junit.Test;
+
+/**
+ * Test for spilling snapshots evicted from the history to disk.
+ *
+ * @author Fabian Prasser
+ */
+public class TestAnonymizationHistorySpill extends AbstractAnonymizationComparisonTest {
+
+    /**
+     * Creates a new instance
+     *
+     * @param testCase
+     */
+    public TestAnonymizationHistorySpill(ARXAnonymizationTestCase testCase) {
+        super(testCase);
+    }
+
+    /**
+     * Compares the results obtained with and without spilling snapshots to disk.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test() throws IOException {
+
+        // Not spilled
+        ARXAnonymizer anonymizer = new ARXAnonymizer();
+        anonymizer.setHistorySize(2);
+        testCase.config.setHistorySpillSize(0);
+        ARXResult expected = anonymize(anonymizer);
+
+        // Spilled, with a small budget to enforce eviction
+        testCase.config.setHistorySpillSize(1 << 16);
+        ARXResult actual = anonymize(anonymizer);
+        testCase.config.setHistorySpillSize(0);
+
+        // Compare
+        compare(expected, actual);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.criteria.TCloseness;
+import org.deidentifier.arx.test.AbstractAnonymizationTest.ARXAnonymizationTestCase;
+import org.junit.Test;
+
+/**
+ * Test for re-anonymizing a dataset after rows have been appended.
+ *
+ * @author Fabian Prasser
+ */
+public class TestAnonymizationIncremental extends AbstractAnonymizationComparisonTest {
+
+    /**
+     * Creates a new instance
+     *
+     * @param testCase
+     */
+    public TestAnonymizationIncremental(ARXAnonymizationTestCase testCase) {
+        super(testCase);
+    }
+
+    /**
+     * Compares the result of appending rows with the result of anonymizing the complete dataset.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test() throws IOException {
+
+        // Complete dataset
+        Data data = AbstractAnonymizationTest.getDataObject(testCase);
+        List<String[]> rows = new ArrayList<String[]>();
+        Iterator<String[]> iterator = data.getHandle().iterator();
+        while (iterator.hasNext()) {
+            rows.add(iterator.next());
+        }
+        int split = (rows.size() - 1) * 9 / 10 + 1;
+
+        testCase.config.setPracticalMonotonicity(testCase.practical);
+        testCase.config.setUseRetainedSnapshots(true);
+        try {
+
+            // Anonymize at once
+            ARXResult expected = new ARXAnonymizer().anonymize(data, testCase.config);
+
+            // Anonymize the first rows and append the remaining ones
+            Data first = Data.create(rows.subList(0, split));
+            first.getDefinition().read(data.getDefinition());
+            ARXAnonymizer anonymizer = new ARXAnonymizer();
+            ARXResult previous = anonymizer.anonymize(first, testCase.config);
+            ARXResult actual = anonymizer.anonymize(previous, rows.subList(split, rows.size()).iterator());
+
+            // Compare
+            compare(expected, actual);
+
+        } finally {
+            testCase.config.setUseRetainedSnapshots(false);
+        }
+    }
+
+    /**
+     * Compares the result of appending rows to sorted data with the result of anonymizing the
+     * complete dataset in the same order.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testSorted() throws IOException {
+
+        // Sorting changes the order in which values are encoded, which may change
+        // verdicts of t-closeness due to rounding errors
+        if (testCase.config.isPrivacyModelSpecified(TCloseness.class)) {
+            return;
+        }
+
+        // Complete dataset
+        Data data = AbstractAnonymizationTest.getDataObject(testCase);
+        List<String[]> rows = new ArrayList<String[]>();
+        Iterator<String[]> iterator = data.getHandle().iterator();
+        while (iterator.hasNext()) {
+            rows.add(iterator.next());
+        }
+        int split = (rows.size() - 1) * 9 / 10 + 1;
+
+        testCase.config.setPracticalMonotonicity(testCase.practical);
+        testCase.config.setUseRetainedSnapshots(true);
+        try {
+
+            // Anonymize the first rows, sort them and append the remaining ones
+            Data first = Data.create(rows.subList(0, split));
+            first.getDefinition().read(data.getDefinition());
+            ARXAnonymizer anonymizer = new ARXAnonymizer();
+            ARXResult previous = anonymizer.anonymize(first, testCase.config);
+            first.getHandle().sort(false, 0);
+            List<String[]> sorted = new ArrayList<String[]>();
+            iterator = first.getHandle().iterator();
+            while (iterator.hasNext()) {
+                sorted.add(iterator.next());
+            }
+            sorted.addAll(rows.subList(split, rows.size()));
+            ARXResult actual = anonymizer.anonymize(previous, rows.subList(split, rows.size()).iterator());
+
+            // Anonymize at once
+            Data complete = Data.create(sorted);
+            complete.getDefinition().read(data.getDefinition());
+            ARXResult expected = new ARXAnonymizer().anonymize(complete, testCase.config);
+
+            // Compare
+            compare(expected, actual);
+
+        } finally {
+            testCase.config.setUseRetainedSnapshots(false);
+        }
+    }
+}
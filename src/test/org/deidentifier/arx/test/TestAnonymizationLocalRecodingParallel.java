@@ -0,0 +1,113 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.criteria.EqualDistanceTCloseness;
+import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.exceptions.RollbackRequiredException;
+import org.deidentifier.arx.metric.Metric;
+import org.deidentifier.arx.test.AbstractAnonymizationTest.ARXAnonymizationTestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Test for local recoding with multiple threads.
+ *
+ * @author Fabian Prasser
+ */
+@RunWith(Parameterized.class)
+public class TestAnonymizationLocalRecodingParallel extends AbstractTest {
+
+    /**
+     * Returns the test cases.
+     *
+     * @return
+     * @throws IOException
+     */
+    @Parameters(name = "{index}:[{0}]")
+    public static Collection<Object[]> cases() throws IOException {
+        return Arrays.asList(new Object[][] {
+            { new ARXAnonymizationTestCase(ARXConfiguration.create(1d, Metric.createLossMetric(0.05d)).addPrivacyModel(new KAnonymity(5)), "./data/adult.csv", 0d, null, false) },
+            { new ARXAnonymizationTestCase(ARXConfiguration.create(1d, Metric.createLossMetric(0.05d)).addPrivacyModel(new KAnonymity(100)), "./data/adult.csv", 0d, null, false) },
+            { new ARXAnonymizationTestCase(ARXConfiguration.create(1d, Metric.createLossMetric(0.05d)).addPrivacyModel(new EqualDistanceTCloseness("occupation", 0.2d)).addPrivacyModel(new KAnonymity(5)), "occupation", "./data/adult.csv", 0d, null, false) },
+        });
+    }
+
+    /** The test case */
+    private final ARXAnonymizationTestCase testCase;
+
+    /**
+     * Creates a new instance
+     *
+     * @param testCase
+     */
+    public TestAnonymizationLocalRecodingParallel(ARXAnonymizationTestCase testCase) {
+        this.testCase = testCase;
+    }
+
+    /**
+     * Performs local recoding with multiple threads and checks the results.
+     *
+     * @throws IOException
+     * @throws RollbackRequiredException
+     */
+    @Test
+    public void test() throws IOException, RollbackRequiredException {
+
+        testCase.config.setNumThreadsForLocalRecoding(4);
+        try {
+
+            // Optimize twice
+            DataHandle[] outputs = new DataHandle[2];
+            int outliers = 0;
+            for (int i = 0; i < outputs.length; i++) {
+                ARXResult result = new ARXAnonymizer().anonymize(AbstractAnonymizationTest.getDataObject(testCase), testCase.config);
+                outputs[i] = result.getOutput();
+                outliers = outputs[i].getStatistics().getEquivalenceClassStatistics().getNumberOfOutlyingTuples();
+                result.optimizeIterative(outputs[i], 0.05d, 5, 0.05d);
+            }
+
+            // Check privacy and progress
+            int k = testCase.config.getPrivacyModel(KAnonymity.class).getK();
+            assertTrue(outputs[0].getStatistics().getEquivalenceClassStatistics().getMinimalEquivalenceClassSize() >= k);
+            assertTrue(outputs[0].getStatistics().getEquivalenceClassStatistics().getNumberOfOutlyingTuples() < outliers);
+
+            // Compare results
+            for (int row = 0; row < outputs[0].getNumRows(); row++) {
+                for (int column = 0; column < outputs[0].getNumColumns(); column++) {
+                    assertEquals(outputs[0].getValue(row, column), outputs[1].getValue(row, column));
+                }
+            }
+        } finally {
+            testCase.config.setNumThreadsForLocalRecoding(1);
+        }
+    }
+}
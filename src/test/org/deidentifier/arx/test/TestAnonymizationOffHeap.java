@@ -0,0 +1,84 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import java.io.IOException;
+
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.test.AbstractAnonymizationTest.ARXAnonymizationTestCase;
+import org.junit.Test;
+
+/**
+ * Test for storing data outside of the Java heap.
+ *
+ * @author Fabian Prasser
+ */
+public class TestAnonymizationOffHeap extends AbstractAnonymizationComparisonTest {
+
+    /**
+     * Creates a new instance
+     *
+     * @param testCase
+     */
+    public TestAnonymizationOffHeap(ARXAnonymizationTestCase testCase) {
+        super(testCase);
+    }
+
+    /**
+     * Compares the results obtained with data on the heap and in direct buffers.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testDirectBuffers() throws IOException {
+        compare(null);
+    }
+
+    /**
+     * Compares the results obtained with data on the heap and in memory-mapped files.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testMemoryMappedFiles() throws IOException {
+        compare(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Compares the results obtained with data on the heap and off the heap.
+     *
+     * @param directory
+     * @throws IOException
+     */
+    private void compare(String directory) throws IOException {
+
+        // Heap
+        testCase.config.setUseOffHeapStorage(false);
+        ARXResult expected = anonymize();
+
+        // Off heap
+        testCase.config.setUseOffHeapStorage(true);
+        testCase.config.setOffHeapStorageDirectory(directory);
+        ARXResult actual = anonymize();
+        testCase.config.setUseOffHeapStorage(false);
+        testCase.config.setOffHeapStorageDirectory(null);
+
+        // Compare
+        compare(expected, actual);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.ARXSearchListener;
+import org.deidentifier.arx.metric.InformationLoss;
+import org.deidentifier.arx.test.AbstractAnonymizationTest.ARXAnonymizationTestCase;
+import org.junit.Test;
+
+/**
+ * Test for checking transformations with multiple threads.
+ *
+ * @author Fabian Prasser
+ */
+public class TestAnonymizationParallel extends AbstractAnonymizationComparisonTest {
+
+    /**
+     * Creates a new instance
+     *
+     * @param testCase
+     */
+    public TestAnonymizationParallel(ARXAnonymizationTestCase testCase) {
+        super(testCase);
+    }
+
+    /**
+     * Compares the results obtained with one thread and with multiple threads for checking transformations.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testChecking() throws IOException {
+        compare(4, 1);
+    }
+
+    /**
+     * Compares the results obtained with one thread and with multiple threads for transforming the rows of the dataset.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testTransforming() throws IOException {
+        compare(1, 3);
+    }
+
+    /**
+     * Compares the results obtained with one thread and with multiple threads for heuristic search.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testHeuristic() throws IOException {
+        testCase.config.setHeuristicSearchEnabled(true);
+        testCase.config.setHeuristicSearchStepLimit(1000);
+        testCase.config.setHeuristicSearchTimeLimit(Integer.MAX_VALUE);
+        try {
+            compare(4, 1);
+        } finally {
+            testCase.config.setHeuristicSearchEnabled(false);
+            testCase.config.setHeuristicSearchStepLimit(Integer.MAX_VALUE);
+            testCase.config.setHeuristicSearchTimeLimit(30000);
+        }
+    }
+
+    /**
+     * Compares the results obtained with the default search and with level-wise search.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testLevelwise() throws IOException {
+
+        // Default search
+        ARXResult expected = anonymize();
+
+        // Level-wise search
+        testCase.config.setUseLevelwiseSearch(true);
+        testCase.config.setNumThreads(4);
+        ARXResult actual;
+        try {
+            actual = anonymize();
+        } finally {
+            testCase.config.setUseLevelwiseSearch(false);
+            testCase.config.setNumThreads(1);
+        }
+
+        // Compare
+        compare(expected, actual);
+    }
+
+    /**
+     * Tests stopping heuristic search when the first solution has been found.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testHeuristicStop() throws IOException {
+
+        // Stop at first optimum
+        final int[][] reported = new int[1][];
+        ARXAnonymizer anonymizer = new ARXAnonymizer();
+        anonymizer.setListener(new ARXSearchListener() {
+            @Override
+            public boolean optimum(int[] transformation, InformationLoss<?> informationLoss) {
+                reported[0] = transformation;
+                return false;
+            }
+            @Override
+            public void progress(double progress) {
+                // Empty by design
+            }
+        });
+
+        // Anonymize
+        testCase.config.setHeuristicSearchEnabled(true);
+        testCase.config.setNumThreads(4);
+        ARXResult result;
+        try {
+            result = anonymize(anonymizer);
+        } finally {
+            testCase.config.setHeuristicSearchEnabled(false);
+            testCase.config.setNumThreads(1);
+        }
+
+        // Compare
+        assertNotNull(reported[0]);
+        assertArrayEquals(reported[0], result.getGlobalOptimum().getTransformation());
+    }
+
+    /**
+     * Compares the results obtained with one and with multiple threads.
+     *
+     * @param numThreads
+     * @param numThreadsPerTransformation
+     * @throws IOException
+     */
+    private void compare(int numThreads, int numThreadsPerTransformation) throws IOException {
+
+        // Sequential
+        testCase.config.setNumThreads(1);
+        testCase.config.setNumThreadsPerTransformation(1);
+        ARXResult expected = anonymize();
+
+        // Parallel
+        testCase.config.setNumThreads(numThreads);
+        testCase.config.setNumThreadsPerTransformation(numThreadsPerTransformation);
+        ARXResult actual = anonymize();
+        testCase.config.setNumThreads(1);
+        testCase.config.setNumThreadsPerTransformation(1);
+
+        // Compare
+        compare(expected, actual);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.ARXSession;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.metric.Metric;
+import org.deidentifier.arx.metric.v2.MetricMDNUEntropyPotentiallyPrecomputed;
+import org.deidentifier.arx.test.AbstractAnonymizationTest.ARXAnonymizationTestCase;
+import org.junit.Test;
+
+/**
+ * Test for anonymizing a dataset with many configurations within a session.
+ *
+ * @author Fabian Prasser
+ */
+public class TestAnonymizationSession extends AbstractTest {
+
+    /**
+     * Returns the configurations.
+     *
+     * @return
+     */
+    private static ARXConfiguration[] getConfigurations() {
+        ARXConfiguration packed = ARXConfiguration.create(0.04d, Metric.createLossMetric()).addPrivacyModel(new KAnonymity(5));
+        packed.setUseBitPackedStorage(true);
+        return new ARXConfiguration[] {
+            ARXConfiguration.create(0.04d, Metric.createLossMetric()).addPrivacyModel(new KAnonymity(5)),
+            ARXConfiguration.create(0d, Metric.createLossMetric()).addPrivacyModel(new KAnonymity(5)),
+            ARXConfiguration.create(0.04d, Metric.createLossMetric()).addPrivacyModel(new KAnonymity(2)),
+            ARXConfiguration.create(0.1d, Metric.createDiscernabilityMetric(true)).addPrivacyModel(new KAnonymity(10)),
+            ARXConfiguration.create(0.04d, Metric.createPrecomputedEntropyMetric(0.1d, true)).addPrivacyModel(new KAnonymity(3)),
+            ARXConfiguration.create(0.04d, Metric.createPrecomputedLossMetric(0.1d)).addPrivacyModel(new KAnonymity(3)),
+            packed,
+            ARXConfiguration.create(0.02d, Metric.createAECSMetric()).addPrivacyModel(new KAnonymity(4)),
+        };
+    }
+
+    /**
+     * Compares the results obtained within a session with the results of independent runs.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test() throws IOException {
+
+        ARXConfiguration[] configs = getConfigurations();
+        Data data = AbstractAnonymizationTest.getDataObject(new ARXAnonymizationTestCase(configs[0], "./data/adult.csv", 0d, null, false));
+        ARXSession session = new ARXAnonymizer().createSession(data);
+
+        for (ARXConfiguration config : configs) {
+
+            // Anonymize
+            ARXResult actual = session.anonymize(config);
+            ARXResult expected = new ARXAnonymizer().anonymize(AbstractAnonymizationTest.getDataObject(new ARXAnonymizationTestCase(config, "./data/adult.csv", 0d, null, false)), config);
+
+            // Compare
+            AbstractAnonymizationComparisonTest.compare(expected, actual);
+        }
+    }
+
+    /**
+     * Compares the results obtained within a session, in which the data is sorted
+     * between runs, with the results of independent runs.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testSorted() throws IOException {
+
+        ARXConfiguration[] configs = getConfigurations();
+        Data data = AbstractAnonymizationTest.getDataObject(new ARXAnonymizationTestCase(configs[0], "./data/adult.csv", 0d, null, false));
+        ARXSession session = new ARXAnonymizer().createSession(data);
+
+        for (ARXConfiguration config : configs) {
+
+            // Entropy is summed in the order in which values have been encoded, which
+            // differs in independent runs with sorted data, leading to rounding errors
+            if (config.getQualityModel() instanceof MetricMDNUEntropyPotentiallyPrecomputed) {
+                continue;
+            }
+
+            // Anonymize and sort
+            session.anonymize(config);
+            data.getHandle().sort(false, 0);
+
+            // Anonymize the sorted data within the session and independently
+            ARXResult actual = session.anonymize(config);
+            List<String[]> rows = new ArrayList<String[]>();
+            Iterator<String[]> iterator = data.getHandle().iterator();
+            while (iterator.hasNext()) {
+                rows.add(iterator.next());
+            }
+            Data sorted = Data.create(rows);
+            sorted.getDefinition().read(data.getDefinition());
+            ARXResult expected = new ARXAnonymizer().anonymize(sorted, config);
+
+            // Compare
+            AbstractAnonymizationComparisonTest.compare(expected, actual);
+        }
+    }
+}
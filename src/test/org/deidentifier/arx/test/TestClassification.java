@@ -260,4 +260,26 @@ public class TestClassification {
         assertEquals(30162, classResult.getNumMeasurements(), 0d);
     }
 
+    @Test
+    public void testParallel() throws IOException, ParseException {
+
+        // Classify
+        StatisticsClassification sequential = getResult().getOutput().getStatistics().getClassificationPerformance(getFeatures(), getClazz(),
+                                                                                            ARXClassificationConfiguration.createRandomForest().setNumberOfTrees(10).setMaxRecords(3000).setNumThreads(1));
+        StatisticsClassification parallel = getResult().getOutput().getStatistics().getClassificationPerformance(getFeatures(), getClazz(),
+                                                                                          ARXClassificationConfiguration.createRandomForest().setNumberOfTrees(10).setMaxRecords(3000).setNumThreads(3));
+
+        // Compare
+        assertEquals(sequential.getOriginalAccuracy(), parallel.getOriginalAccuracy(), 0d);
+        assertEquals(sequential.getZeroRAccuracy(), parallel.getZeroRAccuracy(), 0d);
+        assertEquals(sequential.getAccuracy(), parallel.getAccuracy(), 0d);
+        assertEquals(sequential.getOriginalAverageError(), parallel.getOriginalAverageError(), 0d);
+        assertEquals(sequential.getAverageError(), parallel.getAverageError(), 0d);
+        assertEquals(sequential.getBrierScore(), parallel.getBrierScore(), 0d);
+        for (String clazz : sequential.getClassValues()) {
+            assertEquals(sequential.getROCCurve(clazz).getAUC(), parallel.getROCCurve(clazz).getAUC(), 0d);
+            assertEquals(sequential.getOriginalROCCurve(clazz).getAUC(), parallel.getOriginalROCCurve(clazz).getAUC(), 0d);
+        }
+        assertEquals(sequential.getNumMeasurements(), parallel.getNumMeasurements());
+    }
 }
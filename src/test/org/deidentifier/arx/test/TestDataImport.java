@@ -17,14 +17,28 @@
 
 package org.deidentifier.arx.test;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
 import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataSource;
+import org.deidentifier.arx.DataType;
+import org.deidentifier.arx.io.CSVDataInput;
+import org.deidentifier.arx.io.CSVOptions;
+import org.deidentifier.arx.io.CSVSyntax;
 import org.junit.Test;
 
 import cern.colt.Arrays;
@@ -52,4 +66,207 @@ public class TestDataImport extends AbstractTest {
             System.out.println(Arrays.toString(result.get(result.size() - 1)));
         }
     }
+
+    /**
+     * Compares parsing a file in parallel chunks with sequential parsing
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testParallel() throws IOException {
+
+        // Sequential
+        DataHandle expected = Data.create(new File("data/adult.csv"), StandardCharsets.UTF_8, ';').getHandle();
+
+        // Parallel, with small chunks
+        CSVOptions options = new CSVOptions(512);
+        options.setNumThreads(3);
+        options.setChunkSize(4096);
+        DataHandle actual = Data.create(new File("data/adult.csv"), StandardCharsets.UTF_8, new CSVSyntax(';'), options).getHandle();
+
+        // Compare
+        assertEquals(expected.getNumRows(), actual.getNumRows());
+        assertEquals(expected.getNumColumns(), actual.getNumColumns());
+        for (int row = 0; row < expected.getNumRows(); row++) {
+            for (int column = 0; column < expected.getNumColumns(); column++) {
+                assertEquals(expected.getValue(row, column), actual.getValue(row, column));
+            }
+        }
+    }
+
+    /**
+     * Checks that quoted line breaks are not used for splitting the input into chunks
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testParallelQuotedLinebreaks() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        builder.append("id;text\n");
+        for (int i = 0; i < 1000; i++) {
+            builder.append(i).append(";\"first line\nsecond line; \"\"quoted\"\"\"\n");
+        }
+        String input = builder.toString();
+        CSVOptions options = new CSVOptions(512);
+        options.setNumThreads(2);
+        options.setChunkSize(100);
+        Iterator<String[]> expected = new CSVDataInput(new StringReader(input), ';', '"', '"', new char[] { '\n' }, null).iterator();
+        Iterator<String[]> actual = new CSVDataInput(new StringReader(input), ';', '"', '"', new char[] { '\n' }, null, options).iterator();
+        while (expected.hasNext()) {
+            assertArrayEquals(expected.next(), actual.next());
+        }
+        assertFalse(actual.hasNext());
+    }
+
+    /**
+     * Imports an XLSX file, which is streamed, and compares the result to an XLS file
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testExcelStreaming() throws IOException {
+        DataHandle[] handles = new DataHandle[2];
+        String[] files = new String[] { "data/test.xls", "data/test.xlsx" };
+        for (int i = 0; i < files.length; i++) {
+            DataSource source = DataSource.createExcelSource(files[i], 0, true);
+            source.addColumn(2, DataType.STRING);
+            source.addColumn("gender", DataType.STRING);
+            source.addColumn("age", "renamed", DataType.INTEGER);
+            handles[i] = Data.create(source).getHandle();
+        }
+        Iterator<String[]> expected = handles[0].iterator();
+        Iterator<String[]> actual = handles[1].iterator();
+        while (expected.hasNext()) {
+            assertArrayEquals(expected.next(), actual.next());
+        }
+        assertFalse(actual.hasNext());
+        assertEquals(7, handles[1].getNumRows());
+    }
+
+    /**
+     * Writes a columnar file and compares importing it with importing the CSV file
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testColumnar() throws IOException {
+        
+        // Write
+        File file = File.createTempFile("junit_test_columnar", ".bin");
+        file.deleteOnExit();
+        Data.create(new File("data/adult.csv"), StandardCharsets.UTF_8, ';').getHandle().saveColumnar(file);
+        
+        // Import
+        DataSource[] sources = new DataSource[] { DataSource.createCSVSource("data/adult.csv", StandardCharsets.UTF_8, ';', true),
+                                                  DataSource.createColumnarSource(file) };
+        DataHandle[] handles = new DataHandle[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i].addColumn(6, DataType.STRING);
+            sources[i].addColumn("age", "renamed", DataType.INTEGER);
+            sources[i].addColumn("education", DataType.INTEGER, true);
+            handles[i] = Data.create(sources[i]).getHandle();
+        }
+        file.delete();
+        
+        // Compare
+        assertEquals(handles[0].getNumRows(), handles[1].getNumRows());
+        assertEquals(DataType.INTEGER, handles[1].getDataType("renamed"));
+        Iterator<String[]> expected = handles[0].iterator();
+        Iterator<String[]> actual = handles[1].iterator();
+        while (expected.hasNext()) {
+            assertArrayEquals(expected.next(), actual.next());
+        }
+        assertFalse(actual.hasNext());
+        for (int column = 0; column < handles[0].getNumColumns(); column++) {
+            assertArrayEquals(handles[0].getDistinctValues(column), handles[1].getDistinctValues(column));
+        }
+        assertEquals(DataType.NULL_VALUE, handles[1].getValue(0, 2));
+    }
+
+    /**
+     * Reading a column of a columnar file more than once is rejected
+     * 
+     * @throws IOException
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testColumnarDuplicateColumns() throws IOException {
+        
+        // Write
+        File file = File.createTempFile("junit_test_columnar", ".bin");
+        file.deleteOnExit();
+        Data.create(new File("data/adult.csv"), StandardCharsets.UTF_8, ';').getHandle().saveColumnar(file);
+        
+        // Import
+        DataSource source = DataSource.createColumnarSource(file);
+        source.addColumn("age", DataType.INTEGER);
+        source.addColumn("age", "renamed", DataType.INTEGER);
+        try {
+            Data.create(source);
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Imports selected columns and rows from a database
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testJDBC() throws Exception {
+        
+        // Load JDBC driver
+        Class.forName("org.sqlite.JDBC");
+        
+        // Configure
+        DataSource source = DataSource.createJDBCSource("jdbc:sqlite:data/test.db", "test");
+        source.addColumn(2, DataType.STRING);
+        source.addColumn("age", "renamed", DataType.INTEGER);
+        source.setCondition("age > 40");
+        source.setFetchSize(2);
+        
+        // Import
+        DataHandle handle = Data.create(source).getHandle();
+        assertArrayEquals(new String[] { "zipcode", "renamed" }, new String[] { handle.getAttributeName(0), handle.getAttributeName(1) });
+        String[][] expected = new String[][] { { "81675", "45" }, { "81925", "66" }, { "81931", "70" }, { "81931", "70" }, { "81931", "45" } };
+        assertEquals(expected.length, handle.getNumRows());
+        for (int row = 0; row < expected.length; row++) {
+            assertArrayEquals(expected[row], new String[] { handle.getValue(row, 0), handle.getValue(row, 1) });
+        }
+    }
+    
+    /**
+     * Imports columns from a table with a name which contains a wildcard of LIKE patterns
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testJDBCTableNamePattern() throws Exception {
+        
+        // Load JDBC driver
+        Class.forName("org.sqlite.JDBC");
+        
+        // Create database
+        File file = File.createTempFile("arx", ".db");
+        file.deleteOnExit();
+        Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+        try {
+            Statement statement = connection.createStatement();
+            statement.executeUpdate("CREATE TABLE axb (p TEXT, q TEXT, r TEXT)");
+            statement.executeUpdate("INSERT INTO axb VALUES ('p1', 'q1', 'r1')");
+            statement.executeUpdate("CREATE TABLE a_b (x TEXT, y TEXT)");
+            statement.executeUpdate("INSERT INTO a_b VALUES ('x1', 'y1')");
+            statement.close();
+        } finally {
+            connection.close();
+        }
+        
+        // Import
+        DataSource source = DataSource.createJDBCSource("jdbc:sqlite:" + file.getAbsolutePath(), "a_b");
+        source.addColumn(1, DataType.STRING);
+        DataHandle handle = Data.create(source).getHandle();
+        assertEquals("y", handle.getAttributeName(0));
+        assertEquals("y1", handle.getValue(0, 0));
+        file.delete();
+    }
 }
@@ -17,6 +17,7 @@
 
 package org.deidentifier.arx.test;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -29,13 +30,19 @@ import java.util.Set;
 import org.deidentifier.arx.ARXAnonymizer;
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
 import org.deidentifier.arx.DataSubset;
 import org.deidentifier.arx.DataType;
 import org.deidentifier.arx.aggregates.StatisticsContingencyTable;
 import org.deidentifier.arx.aggregates.StatisticsContingencyTable.Entry;
 import org.deidentifier.arx.aggregates.StatisticsFrequencyDistribution;
+import org.deidentifier.arx.aggregates.StatisticsQuality;
+import org.deidentifier.arx.aggregates.quality.QualityConfiguration;
+import org.deidentifier.arx.aggregates.quality.QualityConfiguration.QualityModelType;
 import org.deidentifier.arx.criteria.DPresence;
 import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.test.AbstractAnonymizationTest.ARXAnonymizationTestCase;
 import org.junit.Test;
 
 /**
@@ -296,6 +303,87 @@ public class TestDataStatistics extends AbstractTest {
         assertTrue(Arrays.equals(frequency, distribution.frequency));
     }
     
+    /**
+     * Performs a test.
+     *
+     * @throws IllegalArgumentException
+     * @throws IOException
+     */
+    @Test
+    public void testQualityModels() throws IllegalArgumentException, IOException {
+        
+        this.provider.createDataDefinition();
+        this.provider.getData().getDefinition().setDataType("age", DataType.INTEGER);
+        
+        final ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(2));
+        config.setSuppressionLimit(0d);
+        
+        ARXAnonymizer anonymizer = new ARXAnonymizer();
+        ARXResult result = anonymizer.anonymize(this.provider.getData(), config);
+        DataHandle output = result.getOutput(false);
+        
+        // Sequential and parallel
+        QualityConfiguration parallel = new QualityConfiguration();
+        parallel.setNumThreads(4);
+        StatisticsQuality quality1 = output.getStatistics().getQualityStatistics();
+        StatisticsQuality quality2 = output.getStatistics().getQualityStatistics(new HashSet<String>(), parallel);
+        for (String attribute : quality1.getAttributes()) {
+            assertTrue(Double.compare(quality1.getGranularity().getValue(attribute), quality2.getGranularity().getValue(attribute)) == 0);
+            assertTrue(Double.compare(quality1.getNonUniformEntropy().getValue(attribute), quality2.getNonUniformEntropy().getValue(attribute)) == 0);
+            assertTrue(Double.compare(quality1.getGeneralizationIntensity().getValue(attribute), quality2.getGeneralizationIntensity().getValue(attribute)) == 0);
+            assertTrue(Double.compare(quality1.getAttributeLevelSquaredError().getValue(attribute), quality2.getAttributeLevelSquaredError().getValue(attribute)) == 0);
+        }
+        assertTrue(Double.compare(quality1.getAverageClassSize().getValue(), quality2.getAverageClassSize().getValue()) == 0);
+        assertTrue(Double.compare(quality1.getAmbiguity().getValue(), quality2.getAmbiguity().getValue()) == 0);
+        assertTrue(Double.compare(quality1.getDiscernibility().getValue(), quality2.getDiscernibility().getValue()) == 0);
+        assertTrue(Double.compare(quality1.getSSESST().getValue(), quality2.getSSESST().getValue()) == 0);
+        assertTrue(Double.compare(quality1.getRecordLevelSquaredError().getValue(), quality2.getRecordLevelSquaredError().getValue()) == 0);
+        assertTrue(quality1.getDiscernibility().isAvailable());
+        
+        // Selected models
+        QualityConfiguration selected = new QualityConfiguration();
+        selected.setModels(QualityModelType.DISCERNIBILITY);
+        StatisticsQuality quality3 = output.getStatistics().getQualityStatistics(new HashSet<String>(), selected);
+        assertTrue(Double.compare(quality1.getDiscernibility().getValue(), quality3.getDiscernibility().getValue()) == 0);
+        assertFalse(quality3.getAmbiguity().isAvailable());
+        assertFalse(quality3.getGranularity().isAvailable(quality3.getAttributes().get(0)));
+    }
+    
+    /**
+     * Tests that splitting the scan of the row-oriented models across threads
+     * does not change the results.
+     *
+     * @throws IllegalArgumentException
+     * @throws IOException
+     */
+    @Test
+    public void testQualityModelsSplitScan() throws IllegalArgumentException, IOException {
+        
+        final ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(5));
+        config.setSuppressionLimit(0.05d);
+        Data data = AbstractAnonymizationTest.getDataObject(new ARXAnonymizationTestCase(config, "./data/adult.csv", 0d, null, false));
+        data.getDefinition().setDataType("age", DataType.INTEGER);
+        
+        ARXAnonymizer anonymizer = new ARXAnonymizer();
+        ARXResult result = anonymizer.anonymize(data, config);
+        DataHandle output = result.getOutput(false);
+        
+        // Sequential and parallel
+        QualityConfiguration parallel = new QualityConfiguration();
+        parallel.setNumThreads(3);
+        StatisticsQuality quality1 = output.getStatistics().getQualityStatistics();
+        StatisticsQuality quality2 = output.getStatistics().getQualityStatistics(new HashSet<String>(), parallel);
+        assertTrue(Double.compare(quality1.getAverageClassSize().getValue(), quality2.getAverageClassSize().getValue()) == 0);
+        assertTrue(Double.compare(quality1.getAmbiguity().getValue(), quality2.getAmbiguity().getValue()) == 0);
+        assertTrue(Double.compare(quality1.getDiscernibility().getValue(), quality2.getDiscernibility().getValue()) == 0);
+        assertTrue(Double.compare(quality1.getSSESST().getValue(), quality2.getSSESST().getValue()) == 0);
+        assertTrue(Double.compare(quality1.getRecordLevelSquaredError().getValue(), quality2.getRecordLevelSquaredError().getValue()) == 0);
+        assertTrue(quality1.getSSESST().isAvailable());
+        assertTrue(quality1.getRecordLevelSquaredError().isAvailable());
+    }
+    
     /**
      * Checks the two arrays regarding equality, treating a double[][]
      * as a set of comparable double[]'s
@@ -0,0 +1,100 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.deidentifier.arx.ARXAnonymizer;
+import org.deidentifier.arx.ARXConfiguration;
+import org.deidentifier.arx.ARXProcessStatistics;
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.AttributeType.Hierarchy;
+import org.deidentifier.arx.criteria.HierarchicalDistanceTCloseness;
+import org.deidentifier.arx.criteria.KAnonymity;
+import org.deidentifier.arx.framework.check.distribution.Distribution;
+import org.deidentifier.arx.framework.check.distribution.DistributionCache;
+import org.deidentifier.arx.metric.Metric;
+import org.deidentifier.arx.test.AbstractAnonymizationTest.ARXAnonymizationTestCase;
+import org.junit.Test;
+
+/**
+ * Test for the cache for verdicts about distributions of sensitive values.
+ *
+ * @author Fabian Prasser
+ */
+public class TestDistributionCache extends AbstractTest {
+
+    /**
+     * Tests the canonical fingerprints and the cache.
+     */
+    @Test
+    public void testFingerprint() {
+
+        // Equal relative frequencies, inserted in different order
+        Distribution distribution1 = new Distribution(new int[] { 1, 7, 3 }, new int[] { 2, 4, 6 });
+        Distribution distribution2 = new Distribution(new int[] { 3, 1, 7 }, new int[] { 3, 1, 2 });
+        Distribution distribution3 = new Distribution(new int[] { 1, 7, 3 }, new int[] { 1, 3, 2 });
+
+        DistributionCache cache = new DistributionCache();
+        long[] fingerprint1 = cache.getFingerprint(distribution1, 12);
+        long[] fingerprint2 = cache.getFingerprint(distribution2, 6);
+        long[] fingerprint3 = cache.getFingerprint(distribution3, 6);
+        assertArrayEquals(fingerprint1, fingerprint2);
+        assertFalse(Arrays.equals(fingerprint1, fingerprint3));
+        assertFalse(Arrays.equals(fingerprint1, cache.getFingerprint(distribution1, 24)));
+
+        // Cache
+        assertNull(cache.get(fingerprint1));
+        cache.put(fingerprint1, true);
+        assertTrue(cache.get(fingerprint2));
+        assertNull(cache.get(fingerprint3));
+        assertEquals(3, cache.getRequests());
+        assertEquals(1, cache.getHits());
+    }
+
+    /**
+     * Tests the statistics about the cache reported for an anonymization process.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testStatistics() throws IOException {
+
+        Hierarchy occupation = Hierarchy.create("./data/adult_hierarchy_occupation.csv", StandardCharsets.UTF_8, ';');
+        ARXConfiguration config = ARXConfiguration.create(0.04d, Metric.createLossMetric())
+                                                  .addPrivacyModel(new HierarchicalDistanceTCloseness("occupation", 0.2d, occupation))
+                                                  .addPrivacyModel(new KAnonymity(5));
+        ARXAnonymizationTestCase testCase = new ARXAnonymizationTestCase(config, "occupation", "./data/adult.csv", 0d, null, false);
+        ARXResult result = new ARXAnonymizer().anonymize(AbstractAnonymizationTest.getDataObject(testCase), config);
+
+        ARXProcessStatistics statistics = result.getProcessStatistics();
+        assertTrue(statistics.getDistributionCacheRequests() > 0);
+        assertTrue(statistics.getDistributionCacheHits() > 0);
+        assertTrue(statistics.getDistributionCacheHits() <= statistics.getDistributionCacheRequests());
+        assertEquals((double) statistics.getDistributionCacheHits() / (double) statistics.getDistributionCacheRequests(),
+                     statistics.getDistributionCacheHitRate(), 0d);
+    }
+}
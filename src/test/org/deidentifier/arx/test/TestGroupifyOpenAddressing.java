@@ -0,0 +1,62 @@
+/*
+ * ARX: Powerful Data Anonymization
+ * Copyright 2012 - 2018 Fabian Prasser and contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.deidentifier.arx.test;
+
+import java.io.IOException;
+
+import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.test.AbstractAnonymizationTest.ARXAnonymizationTestCase;
+import org.junit.Test;
+
+/**
+ * Compares the hash groupify operators with chaining and with open addressing.
+ *
+ * @author Fabian Prasser
+ */
+public class TestGroupifyOpenAddressing extends AbstractAnonymizationComparisonTest {
+
+    /**
+     * Creates a new instance
+     *
+     * @param testCase
+     */
+    public TestGroupifyOpenAddressing(ARXAnonymizationTestCase testCase) {
+        super(testCase);
+    }
+
+    /**
+     * Compares the results obtained with chaining and with open addressing.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test() throws IOException {
+
+        // Chaining
+        testCase.config.setUseOpenAddressingForGrouping(false);
+        ARXResult expected = anonymize();
+
+        // Open addressing
+        testCase.config.setUseOpenAddressingForGrouping(true);
+        ARXResult actual = anonymize();
+        testCase.config.setUseOpenAddressingForGrouping(false);
+
+        // Compare
+        compare(expected, actual);
+    }
+}
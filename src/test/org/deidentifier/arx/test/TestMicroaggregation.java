@@ -189,4 +189,40 @@ public class TestMicroaggregation extends AbstractTest {
                                            
         assertTrue(Arrays.deepEquals(resultArray, expectedArray));
     }
+    
+    /**
+     * Test microaggregation arithmetic mean with data stored off the heap
+     * @throws IOException
+     */
+    @Test
+    public void testMicroaggregationOffHeap() throws IOException {
+        DataProvider provider = new DataProvider();
+        provider.createDataDefinition();
+        provider.data.getDefinition().setAttributeType("age", MicroAggregationFunction.createArithmeticMean());
+        provider.data.getDefinition().setAttributeType("gender", provider.getGender());
+        provider.data.getDefinition().setAttributeType("zipcode", provider.getZipcode());
+        
+        provider.data.getDefinition().setDataType("age", DataType.INTEGER);
+        
+        final ARXAnonymizer anonymizer = new ARXAnonymizer();
+        final ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(2));
+        config.setSuppressionLimit(0d);
+        config.setUseOffHeapStorage(true);
+        
+        ARXResult result = anonymizer.anonymize(provider.data, config);
+        
+        final String[][] resultArray = resultToArray(result);
+        
+        final String[][] expectedArray = { { "age", "gender", "zipcode" },
+                                           { "54", "male", "81***" },
+                                           { "50", "female", "81***" },
+                                           { "54", "male", "81***" },
+                                           { "50", "female", "81***" },
+                                           { "50", "female", "81***" },
+                                           { "54", "male", "81***" },
+                                           { "54", "male", "81***" } };
+                                           
+        assertTrue(Arrays.deepEquals(resultArray, expectedArray));
+    }
 }
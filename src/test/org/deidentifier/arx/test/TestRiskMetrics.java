@@ -17,6 +17,7 @@
 
 package org.deidentifier.arx.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -24,6 +25,7 @@ import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,9 +33,12 @@ import org.deidentifier.arx.ARXAnonymizer;
 import org.deidentifier.arx.ARXConfiguration;
 import org.deidentifier.arx.ARXPopulationModel;
 import org.deidentifier.arx.ARXResult;
+import org.deidentifier.arx.ARXSolverConfiguration;
+import org.deidentifier.arx.AttributeType;
 import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.Data;
 import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.aggregates.StatisticsEquivalenceClasses;
 import org.deidentifier.arx.criteria.KAnonymity;
 import org.deidentifier.arx.io.CSVHierarchyInput;
 import org.deidentifier.arx.metric.Metric;
@@ -126,6 +131,81 @@ public class TestRiskMetrics {
         assertTrue("Is: " + risk, risk == 0.001922949406538028);
     }
     
+    /**
+     * Test that cached equivalence classes are reused and invalidated when the data changes.
+     */
+    @Test
+    public void testCachedEquivalenceClasses() {
+        Data data = Data.create(new String[][] {
+            { "sex", "zip" },
+            { "M", "4711" },
+            { "F", "4713" },
+            { "M", "4711" },
+            { "F", "4712" },
+            { "M", "4711" }
+        });
+        data.getDefinition().setAttributeType("sex", AttributeType.QUASI_IDENTIFYING_ATTRIBUTE);
+        data.getDefinition().setAttributeType("zip", AttributeType.QUASI_IDENTIFYING_ATTRIBUTE);
+        DataHandle handle = data.getHandle();
+        
+        // Repeated and after sorting
+        double risk = handle.getRiskEstimator().getSampleBasedRiskSummaryWildcard(0.5d).getAverageRisk();
+        assertTrue("Is: " + risk, risk == 0.6d);
+        risk = handle.getRiskEstimator().getSampleBasedRiskSummaryWildcard(0.5d).getAverageRisk();
+        assertTrue("Is: " + risk, risk == 0.6d);
+        handle.sort(true, 1);
+        risk = handle.getRiskEstimator().getSampleBasedRiskSummaryWildcard(0.5d).getAverageRisk();
+        assertTrue("Is: " + risk, risk == 0.6d);
+        
+        // After replacing a value with the wildcard
+        handle.replace(1, "4713", "*");
+        risk = handle.getRiskEstimator().getSampleBasedRiskSummaryWildcard(0.5d).getAverageRisk();
+        assertTrue("Is: " + risk, risk == 0.4d);
+    }
+    
+    /**
+     * Test that cached equivalence classes are invalidated when rows are appended.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testCachedEquivalenceClassesAppend() throws IOException {
+        Data data = Data.create(new String[][] {
+            { "sex", "zip" },
+            { "M", "4711" },
+            { "F", "4713" },
+            { "M", "4711" },
+            { "F", "4712" },
+            { "M", "4711" }
+        });
+        data.getDefinition().setAttributeType("sex", Hierarchy.create(new String[][] {
+            { "M", "*" }, { "F", "*" }
+        }));
+        data.getDefinition().setAttributeType("zip", Hierarchy.create(new String[][] {
+            { "4711", "471*", "*" }, { "4712", "471*", "*" }, { "4713", "471*", "*" }, { "4714", "471*", "*" }
+        }));
+        DataHandle handle = data.getHandle();
+        
+        // Before appending
+        StatisticsEquivalenceClasses statistics = handle.getStatistics().getEquivalenceClassStatistics();
+        assertEquals(3, statistics.getNumberOfEquivalenceClasses());
+        assertEquals(3, statistics.getMaximalEquivalenceClassSize());
+        
+        // After appending
+        ARXAnonymizer anonymizer = new ARXAnonymizer();
+        ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(2));
+        ARXResult result = anonymizer.anonymize(data, config);
+        anonymizer.anonymize(result, Arrays.asList(new String[][] {
+            { "F", "4714" },
+            { "M", "4711" }
+        }).iterator());
+        statistics = handle.getStatistics().getEquivalenceClassStatistics();
+        assertEquals(7, handle.getNumRows());
+        assertEquals(4, statistics.getNumberOfEquivalenceClasses());
+        assertEquals(4, statistics.getMaximalEquivalenceClassSize());
+    }
+    
     /**
      * Test decision rule using the test dataset.
      */
@@ -200,6 +280,45 @@ public class TestRiskMetrics {
         assertTrue(populationUniqueness + "/" + sampleUniqueness, compareUniqueness(populationUniqueness, sampleUniqueness) == 0);
     }
     
+    /**
+     * Test population uniqueness estimates obtained concurrently and from the cache using the adult dataset.
+     *
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    @Test
+    public void testDecisionRule3() throws IOException, InterruptedException {
+        
+        Data data = getDataObject("./data/adult.csv");
+        DataHandle handle = data.getHandle();
+        
+        RiskModelPopulationUniqueness.clearCache();
+        for (double fraction : new double[] { 0.01d, 0.1d, 0.2d }) {
+            
+            ARXPopulationModel population = ARXPopulationModel.create(handle.getNumRows(), fraction);
+            RiskModelPopulationUniqueness sequential = handle.getRiskEstimator(population).getPopulationBasedUniquenessRisk();
+            RiskModelPopulationUniqueness cached = handle.getRiskEstimator(population).getPopulationBasedUniquenessRisk();
+            RiskModelPopulationUniqueness.setCacheEnabled(false);
+            RiskModelPopulationUniqueness uncached;
+            try {
+                uncached = handle.getRiskEstimator(population).getPopulationBasedUniquenessRisk();
+            } finally {
+                RiskModelPopulationUniqueness.setCacheEnabled(true);
+            }
+            RiskModelPopulationUniqueness concurrentTries = handle.getRiskEstimator(population, ARXSolverConfiguration.create().numThreads(4))
+                                                                  .getPopulationBasedUniquenessRisk();
+            RiskModelPopulationUniqueness concurrentModels = handle.getRiskEstimator(population, ARXSolverConfiguration.create().numThreads(3).accuracy(1e-7))
+                                                                   .getInterruptibleInstance().getPopulationBasedUniquenessRisk();
+            
+            for (PopulationUniquenessModel model : PopulationUniquenessModel.values()) {
+                double expected = sequential.getFractionOfUniqueTuples(model);
+                assertTrue(model + "/" + fraction, expected == cached.getFractionOfUniqueTuples(model));
+                assertTrue(model + "/" + fraction, expected == uncached.getFractionOfUniqueTuples(model));
+                assertTrue(model + "/" + fraction, compareUniqueness(expected, concurrentTries.getFractionOfUniqueTuples(model)) == 0);
+                assertTrue(model + "/" + fraction, compareUniqueness(expected, concurrentModels.getFractionOfUniqueTuples(model)) == 0);
+            }
+        }
+    }
+    
     /**
      * Compares two uniqueness measures with four significant digits
      * @param val1
@@ -17,12 +17,21 @@
 
 package org.deidentifier.arx.test;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.deidentifier.arx.AttributeType;
 import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
 import org.deidentifier.arx.risk.RiskEstimateBuilder;
 import org.deidentifier.arx.risk.RiskModelAttributes;
+import org.deidentifier.arx.risk.RiskModelAttributes.QuasiIdentifierRisk;
+import org.deidentifier.arx.risk.RiskModelHistogram;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -104,4 +113,51 @@ public class TestRiskQuasiIdentifiers {
             assertTrue("Separation expected: " + expectedResults[i].separation + "; got: " + risks[i].getSeparation(), expectedResults[i].separation == risks[i].getSeparation());
         }
     }
+
+    @Test
+    public void testParallelAndRiskiest() throws IOException {
+        
+        // Define data
+        Data data = Data.create("data/adult.csv", StandardCharsets.UTF_8, ';');
+        DataHandle handle = data.getHandle();
+        for (int i = 0; i < 7; i++) {
+            data.getDefinition().setAttributeType(handle.getAttributeName(i), AttributeType.QUASI_IDENTIFYING_ATTRIBUTE);
+        }
+
+        // Perform calculation
+        handle = data.getHandle();
+        QuasiIdentifierRisk[] sequential = handle.getRiskEstimator(null).getAttributeRisks(1).getAttributeRisks();
+        QuasiIdentifierRisk[] parallel = handle.getRiskEstimator(null).getAttributeRisks(3).getAttributeRisks();
+        QuasiIdentifierRisk[] riskiest = handle.getRiskEstimator(null).getAttributeRisks(3, 10).getAttributeRisks();
+        
+        // Check all combinations
+        assertEquals(127, sequential.length);
+        assertEquals(127, parallel.length);
+        for (int i = 0; i < sequential.length; i++) {
+            
+            // Compare with parallel computation
+            assertEquals(sequential[i].getIdentifier(), parallel[i].getIdentifier());
+            assertEquals(sequential[i].getDistinction(), parallel[i].getDistinction(), 0d);
+            assertEquals(sequential[i].getSeparation(), parallel[i].getSeparation(), 0d);
+            
+            // Compare with equivalence classes
+            Set<String> qis = new HashSet<String>(sequential[i].getIdentifier());
+            RiskModelHistogram histogram = handle.getRiskEstimator(null, qis).getEquivalenceClassModel();
+            assertEquals(histogram.getNumClasses() / histogram.getNumRecords(), sequential[i].getDistinction(), 0d);
+        }
+        
+        // Check riskiest combinations
+        assertEquals(10, riskiest.length);
+        Set<String> selected = new HashSet<String>();
+        double minDistinction = 1d;
+        for (QuasiIdentifierRisk risk : riskiest) {
+            selected.add(risk.getIdentifier().toString());
+            minDistinction = Math.min(minDistinction, risk.getDistinction());
+        }
+        for (QuasiIdentifierRisk risk : sequential) {
+            if (!selected.contains(risk.getIdentifier().toString())) {
+                assertTrue(risk.getDistinction() <= minDistinction);
+            }
+        }
+    }
 }